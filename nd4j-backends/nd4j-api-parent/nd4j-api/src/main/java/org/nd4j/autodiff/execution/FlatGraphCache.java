@@ -0,0 +1,305 @@
+package org.nd4j.autodiff.execution;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.versioncheck.VersionCheck;
+import org.nd4j.versioncheck.VersionInfo;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * On-disk cache for FlatBuffers graphs converted from model files, i.e. TF GraphDef imported via
+ * {@link org.nd4j.imports.TensorFlowImport} and converted by {@link GraphExecutioner#convertToFlatBuffers}.
+ * Variable values are stored within FlatGraph, so cached file holds both graph structure and weights.
+ *
+ * Entries are keyed by SHA-256 of model file contents plus variant string, i.e. executor configuration used
+ * for conversion. Each entry stores nd4j version it was created with, and entries created by other versions
+ * are treated as missing, and overwritten on next put. SHA-256 of model files is remembered per path, size
+ * and modification time, so unchanged models aren't hashed again on each startup.
+ *
+ * Cached graphs are returned as read-only memory-mapped buffers, so loading doesn't read the file into heap.
+ */
+@Slf4j
+public class FlatGraphCache {
+    private static final int MAGIC = 0x4E44_4647; // "NDFG"
+    private static final int FORMAT_VERSION = 1;
+    // payload offset is aligned, so that native code can read FlatBuffers straight from the mapping
+    private static final int ALIGNMENT = 16;
+    private static final String EXTENSION = ".fgraph";
+    private static final String INDEX_FILE = "index.properties";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static volatile String nd4jVersion;
+
+    private final File directory;
+    private final String version;
+    private final Properties index = new Properties();
+
+    /**
+     * This interface converts model file into FlatBuffers graph, on cache miss
+     */
+    public interface Converter {
+        ByteBuffer convert(File modelFile);
+    }
+
+    /**
+     * @param directory cache directory, created if it doesn't exist
+     */
+    public FlatGraphCache(@NonNull File directory) {
+        this(directory, getNd4jVersion());
+    }
+
+    /**
+     * @param directory cache directory, created if it doesn't exist
+     * @param version version string stored with each entry, entries with other versions are ignored
+     */
+    public FlatGraphCache(@NonNull File directory, @NonNull String version) {
+        if (!directory.exists() && !directory.mkdirs())
+            throw new ND4JIllegalStateException("Can't create graph cache directory: " + directory.getAbsolutePath());
+
+        this.directory = directory;
+        this.version = version;
+
+        File indexFile = new File(directory, INDEX_FILE);
+        if (indexFile.exists()) {
+            try (InputStream is = new BufferedInputStream(new FileInputStream(indexFile))) {
+                index.load(is);
+            } catch (IOException e) {
+                log.warn("Can't read graph cache index, model files will be hashed again", e);
+            }
+        }
+    }
+
+    /**
+     * This method returns cached FlatBuffers graph for given model, or null if there's no valid entry
+     *
+     * @param modelFile model file graph was converted from
+     * @param variant conversion variant, i.e. executor configuration
+     * @return read-only memory-mapped buffer, positioned at the start of the graph
+     */
+    public ByteBuffer get(@NonNull File modelFile, @NonNull String variant) {
+        File entry = entryFile(modelFile, variant);
+        if (!entry.exists())
+            return null;
+
+        try (RandomAccessFile raf = new RandomAccessFile(entry, "r"); FileChannel channel = raf.getChannel()) {
+            DataInputStream header = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)));
+            long payloadOffset;
+            long payloadLength;
+            try {
+                if (header.readInt() != MAGIC || header.readInt() != FORMAT_VERSION)
+                    return null;
+
+                String entryVersion = header.readUTF();
+                if (!version.equals(entryVersion)) {
+                    log.info("Cached graph for [{}] was created by nd4j [{}], ignoring it", modelFile.getName(), entryVersion);
+                    return null;
+                }
+
+                payloadOffset = header.readLong();
+                payloadLength = header.readLong();
+            } finally {
+                header.close();
+            }
+
+            if (payloadOffset + payloadLength != channel.size())
+                return null;
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, payloadOffset, payloadLength);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            return mapped;
+        } catch (EOFException e) {
+            return null;
+        } catch (IOException e) {
+            throw new ND4JIllegalStateException("Can't read cached graph: " + entry.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * This method stores FlatBuffers graph for given model, replacing existing entry if any
+     *
+     * @param modelFile model file graph was converted from
+     * @param variant conversion variant, i.e. executor configuration
+     * @param flatGraph FlatBuffers graph, from its current position to its limit. Position isn't changed
+     * @return stored graph, as returned by {@link #get(File, String)}
+     */
+    public ByteBuffer put(@NonNull File modelFile, @NonNull String variant, @NonNull ByteBuffer flatGraph) {
+        File entry = entryFile(modelFile, variant);
+        File temp = new File(directory, entry.getName() + ".tmp");
+
+        try (FileOutputStream fos = new FileOutputStream(temp)) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(bos);
+            header.writeInt(MAGIC);
+            header.writeInt(FORMAT_VERSION);
+            header.writeUTF(version);
+
+            long payloadOffset = bos.size() + 16;
+            payloadOffset = (payloadOffset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+            header.writeLong(payloadOffset);
+            header.writeLong(flatGraph.remaining());
+            while (bos.size() < payloadOffset)
+                header.writeByte(0);
+            header.flush();
+
+            fos.write(bos.toByteArray());
+            FileChannel channel = fos.getChannel();
+            ByteBuffer payload = flatGraph.duplicate();
+            while (payload.hasRemaining())
+                channel.write(payload);
+        } catch (IOException e) {
+            temp.delete();
+            throw new ND4JIllegalStateException("Can't write cached graph: " + entry.getAbsolutePath(), e);
+        }
+
+        // entries are replaced as a whole, so concurrent readers never see partial files
+        if ((entry.exists() && !entry.delete()) || !temp.renameTo(entry)) {
+            temp.delete();
+            throw new ND4JIllegalStateException("Can't replace cached graph: " + entry.getAbsolutePath());
+        }
+
+        return get(modelFile, variant);
+    }
+
+    /**
+     * This method returns cached FlatBuffers graph for given model, converting and caching it on miss
+     *
+     * @param modelFile model file
+     * @param variant conversion variant, i.e. executor configuration
+     * @param converter used to convert model on cache miss
+     * @return read-only memory-mapped buffer, positioned at the start of the graph
+     */
+    public ByteBuffer get(@NonNull File modelFile, @NonNull String variant, @NonNull Converter converter) {
+        ByteBuffer cached = get(modelFile, variant);
+        if (cached != null) {
+            log.debug("Using cached graph for [{}]", modelFile.getName());
+            return cached;
+        }
+
+        long time = System.currentTimeMillis();
+        ByteBuffer converted = converter.convert(modelFile);
+        log.info("Graph [{}] converted in {} ms, caching it", modelFile.getName(), System.currentTimeMillis() - time);
+        return put(modelFile, variant, converted);
+    }
+
+    /**
+     * This method removes all cache entries, including ones created by other nd4j versions
+     */
+    public synchronized void clear() {
+        File[] files = directory.listFiles();
+        if (files == null)
+            return;
+
+        for (File file : files)
+            if (file.getName().endsWith(EXTENSION) || file.getName().equals(INDEX_FILE))
+                file.delete();
+
+        index.clear();
+    }
+
+    /**
+     * This method returns SHA-256 of model file contents, as hex string. Hashes are remembered in cache index
+     * by file path, size and modification time.
+     *
+     * @param modelFile
+     * @return
+     */
+    public synchronized String contentHash(@NonNull File modelFile) {
+        if (!modelFile.isFile())
+            throw new ND4JIllegalStateException("Model file doesn't exist: " + modelFile.getAbsolutePath());
+
+        String indexKey = modelFile.getAbsolutePath() + "|" + modelFile.length() + "|" + modelFile.lastModified();
+        String hash = index.getProperty(indexKey);
+        if (hash != null)
+            return hash;
+
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[1024 * 1024];
+        try (InputStream is = new FileInputStream(modelFile)) {
+            int read;
+            while ((read = is.read(buffer)) > 0)
+                digest.update(buffer, 0, read);
+        } catch (IOException e) {
+            throw new ND4JIllegalStateException("Can't read model file: " + modelFile.getAbsolutePath(), e);
+        }
+
+        hash = toHex(digest.digest());
+        index.setProperty(indexKey, hash);
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(new File(directory, INDEX_FILE)))) {
+            index.store(os, "Model file hashes");
+        } catch (IOException e) {
+            log.warn("Can't update graph cache index", e);
+        }
+
+        return hash;
+    }
+
+    protected File entryFile(File modelFile, String variant) {
+        MessageDigest digest = sha256();
+        digest.update(contentHash(modelFile).getBytes(UTF8));
+        digest.update((byte) 0);
+        digest.update(variant.getBytes(UTF8));
+
+        return new File(directory, toHex(digest.digest()) + EXTENSION);
+    }
+
+    /**
+     * @return versions of nd4j artifacts on classpath, used to invalidate entries created by other versions
+     */
+    public static String getNd4jVersion() {
+        if (nd4jVersion == null) {
+            List<String> versions = new ArrayList<>();
+            try {
+                for (VersionInfo info : VersionCheck.getVersionInfos())
+                    if ("org.nd4j".equals(info.getGroupId()))
+                        versions.add(info.getArtifactId() + ":" + info.getBuildVersion() + ":" + info.getCommitIdAbbrev());
+            } catch (Exception e) {
+                log.debug("Can't get version information", e);
+            }
+
+            if (versions.isEmpty()) {
+                String implementation = Nd4j.class.getPackage().getImplementationVersion();
+                versions.add(implementation == null ? "unknown" : implementation);
+            }
+
+            Collections.sort(versions);
+            StringBuilder builder = new StringBuilder();
+            for (String v : versions) {
+                if (builder.length() > 0)
+                    builder.append(",");
+                builder.append(v);
+            }
+            nd4jVersion = builder.toString();
+        }
+
+        return nd4jVersion;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes)
+            builder.append(String.format("%02x", b & 0xFF));
+        return builder.toString();
+    }
+}
@@ -9,6 +9,7 @@ import org.nd4j.linalg.api.ops.aggregates.Batch;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.api.ops.impl.accum.Variance;
 import org.nd4j.linalg.api.rng.Random;
+import org.nd4j.linalg.cache.OpResultCache;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.profiler.OpProfiler;
@@ -380,6 +381,21 @@ public class SameDiffOpExecutioner implements OpExecutioner,OpProfiler.OpProfile
         return backendExecutioner.getProfilingMode();
     }
 
+    @Override
+    public void enableSteadyStateMode(boolean reallyEnable) {
+        backendExecutioner.enableSteadyStateMode(reallyEnable);
+    }
+
+    @Override
+    public boolean isSteadyStateMode() {
+        return backendExecutioner.isSteadyStateMode();
+    }
+
+    @Override
+    public OpResultCache getResultCache() {
+        return backendExecutioner.getResultCache();
+    }
+
     /**
      * This method returns TADManager instance used for this OpExecutioner
      *
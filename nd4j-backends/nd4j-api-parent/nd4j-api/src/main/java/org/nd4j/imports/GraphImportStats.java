@@ -0,0 +1,54 @@
+package org.nd4j.imports;
+
+import lombok.Data;
+
+/**
+ * Per-phase statistics of a single graph import, filled by {@link TensorFlowImport}.
+ *
+ * Phases:
+ * - parsing: reading and decoding protobuf messages from file
+ * - constants: creating arrays from tensors of Const/Variable nodes
+ * - graph: everything else, i.e. building vertices, edges and op states
+ */
+@Data
+public class GraphImportStats {
+    private long nodes;
+    private long constants;
+    private long constantBytes;
+
+    private long parseNanos;
+    private long constantsNanos;
+    private long graphNanos;
+
+    public void reset() {
+        nodes = 0;
+        constants = 0;
+        constantBytes = 0;
+        parseNanos = 0;
+        constantsNanos = 0;
+        graphNanos = 0;
+    }
+
+    public long getParseMillis() {
+        return parseNanos / 1000000L;
+    }
+
+    public long getConstantsMillis() {
+        return constantsNanos / 1000000L;
+    }
+
+    public long getGraphMillis() {
+        return graphNanos / 1000000L;
+    }
+
+    public long getTotalMillis() {
+        return (parseNanos + constantsNanos + graphNanos) / 1000000L;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d nodes, %d constants (%d MB) imported in %d ms: parsing %d ms; constants %d ms; graph %d ms",
+                        nodes, constants, constantBytes / (1024 * 1024), getTotalMillis(), getParseMillis(),
+                        getConstantsMillis(), getGraphMillis());
+    }
+}
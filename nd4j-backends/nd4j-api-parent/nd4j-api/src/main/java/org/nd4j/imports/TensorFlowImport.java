@@ -2,7 +2,11 @@ package org.nd4j.imports;
 
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Ints;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.TextFormat;
+import com.google.protobuf.WireFormat;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.ArrayUtils;
@@ -16,6 +20,7 @@ import org.nd4j.autodiff.samediff.SameDiff;
 import org.nd4j.autodiff.samediff.impl.SDVariable;
 import org.nd4j.graph.intermediate.*;
 import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.BaseOp;
 import org.nd4j.linalg.api.ops.Op;
@@ -26,6 +31,7 @@ import org.nd4j.linalg.util.ArrayUtil;
 import org.tensorflow.framework.*;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 import java.util.*;
@@ -44,31 +50,37 @@ public class TensorFlowImport {
      * @return
      */
     public static SameDiff importGraph(File graphFile) {
-        GraphDef def = null;
-        try (FileInputStream fis = new FileInputStream(graphFile); BufferedInputStream bis = new BufferedInputStream(fis)) {
-            def = GraphDef.parseFrom(bis);
-        } catch (Exception e) {
-            try (FileInputStream fis2 = new FileInputStream(graphFile); BufferedInputStream bis2 = new BufferedInputStream(fis2); BufferedReader reader = new BufferedReader(new InputStreamReader(bis2))) {
-                GraphDef.Builder builder = GraphDef.newBuilder();
-
-                StringBuilder str = new StringBuilder();
-                String line = null;
-                while ((line = reader.readLine()) != null) {
-                    str.append(line);//.append("\n");
-                }
+        GraphImportStats stats = new GraphImportStats();
+        SameDiff diff = importGraph(graphFile, stats);
+        log.info("Graph [{}]: {}", graphFile.getName(), stats);
+        return diff;
+    }
 
-                TextFormat.getParser().merge(str.toString(), builder);
-                def = builder.build();
-            } catch (Exception e2) {
-                e2.printStackTrace();
-            }
+    /**
+     * This method imports graph from file, in binary or text format.
+     * Binary graphs are parsed node by node, so the whole GraphDef is never held in memory.
+     *
+     * @param graphFile
+     * @param stats filled with per-phase statistics of this import
+     * @return
+     */
+    public static SameDiff importGraph(File graphFile, GraphImportStats stats) {
+        if (!isTextFormat(graphFile)) {
+            SameDiffImporter importer = new SameDiffImporter(stats);
+            if (streamNodes(graphFile, importer, stats))
+                return importer.getSameDiff();
         }
 
+        stats.reset();
+        GraphDef def = parseText(graphFile, stats);
         if (def == null)
             throw new ND4JIllegalStateException("Unknown format: " + graphFile.getAbsolutePath());
 
+        SameDiffImporter importer = new SameDiffImporter(stats);
+        for (NodeDef tfNode : def.getNodeList())
+            importer.visit(tfNode);
 
-        return importGraph(def);
+        return importer.getSameDiff();
     }
 
     /**
@@ -77,21 +89,42 @@ public class TensorFlowImport {
      * @return
      */
     public static SameDiff importGraph(GraphDef tfGraph) {
-        SDGraph graph = new SDGraph(true);
+        SameDiffImporter importer = new SameDiffImporter(new GraphImportStats());
+        for (NodeDef tfNode : tfGraph.getNodeList())
+            importer.visit(tfNode);
 
-        SameDiff diff = SameDiff.builder()
-                .graph(graph)
-                .vertexToArray(Maps.<String, INDArray>newHashMap())
-                .variableMap(Maps.<String, SDVariable>newHashMap())
-                .vertexIdxToInfo(Maps.<Integer, NDArrayInformation>newHashMap())
-                .build();
+        return importer.getSameDiff();
+    }
 
-        graph.setSameDiff(diff);
+    /**
+     * Builds SameDiff graph, one NodeDef at a time
+     */
+    private static class SameDiffImporter extends NodeImporter {
+        private final SDGraph graph;
+        private final SameDiff diff;
+        private final Map<String, Integer> reverseVertexMap = new HashMap<>();
+        private int nodesCnt = 0;
+
+        private SameDiffImporter(GraphImportStats stats) {
+            super(stats);
+            graph = new SDGraph(true);
+
+            diff = SameDiff.builder()
+                    .graph(graph)
+                    .vertexToArray(Maps.<String, INDArray>newHashMap())
+                    .variableMap(Maps.<String, SDVariable>newHashMap())
+                    .vertexIdxToInfo(Maps.<Integer, NDArrayInformation>newHashMap())
+                    .build();
+
+            graph.setSameDiff(diff);
+        }
 
-        Map<String, Integer> reverseVertexMap = new HashMap<>();
+        private SameDiff getSameDiff() {
+            return diff;
+        }
 
-        int nodesCnt = 0;
-        for (NodeDef tfNode :tfGraph.getNodeList()) {
+        @Override
+        protected void importNode(NodeDef tfNode) {
             log.debug("Node name: {}; Op: {};", tfNode.getName(), tfNode.getOp());
 
 
@@ -158,7 +191,7 @@ public class TensorFlowImport {
                     TensorProto tensor = value.getTensor();
                     log.debug("Dtype: {}", tensor.getDtype());
 
-                    INDArray array = getNDArrayFromTensor(tensor);
+                    INDArray array = createConstant(tensor, stats);
                     variable.setShape(array.shape());
                     variable.setArr(array);
                 }
@@ -192,7 +225,6 @@ public class TensorFlowImport {
                 }
             }
         }
-        return diff;
     }
 
     /**
@@ -202,31 +234,37 @@ public class TensorFlowImport {
      * @return
      */
     public static TGraph importIntermediate(File graphFile) {
-        GraphDef def = null;
-        try (FileInputStream fis = new FileInputStream(graphFile); BufferedInputStream bis = new BufferedInputStream(fis)) {
-            def = GraphDef.parseFrom(bis);
-        } catch (Exception e) {
-            try (FileInputStream fis2 = new FileInputStream(graphFile); BufferedInputStream bis2 = new BufferedInputStream(fis2); BufferedReader reader = new BufferedReader(new InputStreamReader(bis2))) {
-                GraphDef.Builder builder = GraphDef.newBuilder();
-
-                StringBuilder str = new StringBuilder();
-                String line = null;
-                while ((line = reader.readLine()) != null) {
-                    str.append(line);//.append("\n");
-                }
+        return importIntermediate(graphFile, new GraphImportStats());
+    }
 
-                TextFormat.getParser().merge(str.toString(), builder);
-                def = builder.build();
-            } catch (Exception e2) {
-                //
+    /**
+     * This method returns intermediate representation from TF protobuf file, in binary or text format.
+     * Binary graphs are parsed node by node, so the whole GraphDef is never held in memory.
+     *
+     * @param graphFile
+     * @param stats filled with per-phase statistics of this import
+     * @return
+     */
+    public static TGraph importIntermediate(File graphFile, GraphImportStats stats) {
+        if (!isTextFormat(graphFile)) {
+            IntermediateImporter importer = new IntermediateImporter(stats);
+            if (streamNodes(graphFile, importer, stats)) {
+                log.info("Graph [{}]: {}", graphFile.getName(), stats);
+                return importer.getGraph();
             }
         }
 
+        stats.reset();
+        GraphDef def = parseText(graphFile, stats);
         if (def == null)
             throw new ND4JIllegalStateException("Unknown format");
 
+        IntermediateImporter importer = new IntermediateImporter(stats);
+        for (NodeDef tfNode : def.getNodeList())
+            importer.visit(tfNode);
 
-        return importIntermediate(def);
+        log.info("Graph [{}]: {}", graphFile.getName(), stats);
+        return importer.getGraph();
     }
 
     /**
@@ -235,13 +273,32 @@ public class TensorFlowImport {
      * @return
      */
     public static TGraph importIntermediate(GraphDef tfGraph) {
-        TGraph intermediateGraph = new TGraph();
+        IntermediateImporter importer = new IntermediateImporter(new GraphImportStats());
+        for (NodeDef tfNode : tfGraph.getNodeList())
+            importer.visit(tfNode);
+
+        return importer.getGraph();
+    }
+
+    /**
+     * Builds intermediate representation, one NodeDef at a time
+     */
+    private static class IntermediateImporter extends NodeImporter {
+        private final TGraph intermediateGraph = new TGraph();
+        private final Map<String, Integer> reverseVertexMap = new HashMap<>();
+        private int varsCnt = 0;
+        private int nodesCnt = 0;
+
+        private IntermediateImporter(GraphImportStats stats) {
+            super(stats);
+        }
 
-        Map<String, Integer> reverseVertexMap = new HashMap<>();
+        private TGraph getGraph() {
+            return intermediateGraph;
+        }
 
-        int varsCnt = 0;
-        int nodesCnt = 0;
-        for (NodeDef tfNode :tfGraph.getNodeList()) {
+        @Override
+        protected void importNode(NodeDef tfNode) {
 
             log.debug("Node name: {}; Op: {};", tfNode.getName(), tfNode.getOp());
 
@@ -307,7 +364,7 @@ public class TensorFlowImport {
                     log.debug("Dtype: {}", tensor.getDtype());
                     if (tensor.getDtype() == DataType.DT_FLOAT || tensor.getDtype() == DataType.DT_DOUBLE) {
 
-                        INDArray array = getNDArrayFromTensor(tensor);
+                        INDArray array = createConstant(tensor, stats);
                         variable.setShape(array.shape());
                         variable.setArray(array);
                     } else {
@@ -396,8 +453,6 @@ public class TensorFlowImport {
 
            // System.out.println();
         }
-
-        return intermediateGraph;
     }
 
     protected static int[]  getShapeFromTensor(TensorProto tfTensor) {
@@ -497,19 +552,8 @@ public class TensorFlowImport {
                 INDArray array = Nd4j.create(ArrayUtil.toDoubles(jArray), arrayShape, 0, 'c');
                 return array;
             } else if (tfTensor.getTensorContent().size() > 0){
-
-                long length = ArrayUtil.prodLong(arrayShape);
                 // binary representation
-                val bb = tfTensor.getTensorContent().asReadOnlyByteBuffer();
-                val fb = bb.order(ByteOrder.nativeOrder()).asFloatBuffer();
-                val fa = new float[fb.capacity()];
-                for (int e = 0; e < fb.capacity(); e++)
-                    fa[e] = fb.get(e);
-
-                val array = Nd4j.create(fa, arrayShape, 'c', 0);
-                //log.debug("SUM1: {}", array.sumNumber());
-                //log.debug("Data: {}", Arrays.toString(array.data().asFloat()));
-                return array;
+                return createFromContent(tfTensor, arrayShape);
             }
         } else if (tfTensor.getDtype() == DataType.DT_DOUBLE) {
             if (tfTensor.getDoubleValCount() == 1) {
@@ -530,23 +574,8 @@ public class TensorFlowImport {
                 INDArray array = Nd4j.create(jArray, arrayShape, 0, 'c');
                 return array;
             } else if (tfTensor.getTensorContent().size() > 0) {
-                long length = ArrayUtil.prodLong(arrayShape);
                 // binary representation
-                //DataBuffer buffer = Nd4j.createBuffer(tfTensor.getTensorContent().asReadOnlyByteBuffer(), DataBuffer.Type.FLOAT, (int) length);
-                //INDArray array = Nd4j.createArrayFromShapeBuffer(buffer, Nd4j.getShapeInfoProvider().createShapeInformation(arrayShape, 'c'));
-
-                // binary representation
-                val bb = tfTensor.getTensorContent().asReadOnlyByteBuffer();
-                val fb = bb.order(ByteOrder.nativeOrder()).asFloatBuffer();
-                val da = new double[fb.capacity()];
-                for (int e = 0; e < fb.capacity(); e++)
-                    da[e] = fb.get(e);
-
-                val array = Nd4j.create(da, arrayShape, 0, 'c');
-                //log.debug("SUM1: {}", array.sumNumber());
-                //log.debug("Data: {}", Arrays.toString(array.data().asFloat()));
-
-                return array;
+                return createFromContent(tfTensor, arrayShape);
             }
         } else if (tfTensor.getDtype() == DataType.DT_INT64) {
             if (tfTensor.getInt64ValCount() == 1) {
@@ -577,6 +606,130 @@ public class TensorFlowImport {
         throw new RuntimeException("Wtf?");
     }
 
+    /**
+     * This method creates array from tensor_content bytes of FLOAT or DOUBLE tensor.
+     * If tensor type matches array type, bytes are copied straight into array memory, in bulk.
+     * Otherwise values are converted while copying.
+     */
+    protected static INDArray createFromContent(TensorProto tfTensor, int[] arrayShape) {
+        boolean isDouble = tfTensor.getDtype() == DataType.DT_DOUBLE;
+        if (arrayShape == null || arrayShape.length == 0)
+            arrayShape = new int[]{1, 1};
+
+        long length = ArrayUtil.prodLong(arrayShape);
+        ByteBuffer bb = tfTensor.getTensorContent().asReadOnlyByteBuffer().order(ByteOrder.nativeOrder());
+        if (bb.remaining() != length * (isDouble ? 8 : 4))
+            throw new ND4JIllegalStateException("Tensor content has " + bb.remaining() + " bytes, but "
+                    + length + " elements of type " + tfTensor.getDtype() + " expected");
+
+        // TF arrays are always C
+        INDArray array = Nd4j.createUninitialized(arrayShape, 'c');
+        DataBuffer.Type type = array.data().dataType();
+        if ((isDouble && type == DataBuffer.Type.DOUBLE) || (!isDouble && type == DataBuffer.Type.FLOAT)) {
+            array.data().asNio().put(bb);
+            Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+        } else if (isDouble) {
+            array.copyFrom(bb.asDoubleBuffer());
+        } else {
+            array.copyFrom(bb.asFloatBuffer());
+        }
+
+        return array;
+    }
+
+    /**
+     * This method creates array for Const/Variable node value, and adds its creation time to stats
+     */
+    protected static INDArray createConstant(TensorProto tfTensor, GraphImportStats stats) {
+        long start = System.nanoTime();
+        INDArray array = getNDArrayFromTensor(tfTensor);
+
+        stats.setConstants(stats.getConstants() + 1);
+        stats.setConstantBytes(stats.getConstantBytes() + array.lengthLong() * array.data().getElementSize());
+        stats.setConstantsNanos(stats.getConstantsNanos() + System.nanoTime() - start);
+        return array;
+    }
+
+    /**
+     * This method checks if file looks like text GraphDef: text format only has printable characters,
+     * while binary GraphDef has field tags and lengths below 0x20 within first few bytes.
+     */
+    protected static boolean isTextFormat(File graphFile) {
+        try (FileInputStream fis = new FileInputStream(graphFile)) {
+            byte[] head = new byte[1024];
+            int read = fis.read(head);
+            for (int e = 0; e < read; e++) {
+                int b = head[e] & 0xFF;
+                if (b < 0x20 && b != '\n' && b != '\r' && b != '\t')
+                    return false;
+            }
+            return read > 0;
+        } catch (IOException e) {
+            throw new ND4JIllegalStateException("Can't read graph file: " + graphFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * This method reads binary GraphDef from file, and passes its nodes to importer one by one.
+     * Only the node being imported is held in memory, other GraphDef fields are skipped.
+     *
+     * @return false if file isn't a valid binary GraphDef
+     */
+    protected static boolean streamNodes(File graphFile, NodeImporter importer, GraphImportStats stats) {
+        try (FileInputStream fis = new FileInputStream(graphFile); BufferedInputStream bis = new BufferedInputStream(fis)) {
+            CodedInputStream input = CodedInputStream.newInstance(bis);
+            // size limit applies to all bytes read so far, so it's reset after each node
+            input.setSizeLimit(Integer.MAX_VALUE);
+
+            while (true) {
+                long start = System.nanoTime();
+                int tag = input.readTag();
+                if (tag == 0) {
+                    stats.setParseNanos(stats.getParseNanos() + System.nanoTime() - start);
+                    return true;
+                }
+
+                if (WireFormat.getTagFieldNumber(tag) == GraphDef.NODE_FIELD_NUMBER
+                        && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                    NodeDef tfNode = input.readMessage(NodeDef.parser(), ExtensionRegistryLite.getEmptyRegistry());
+                    input.resetSizeCounter();
+                    stats.setParseNanos(stats.getParseNanos() + System.nanoTime() - start);
+
+                    importer.visit(tfNode);
+                } else {
+                    if (!input.skipField(tag))
+                        throw new InvalidProtocolBufferException("Unexpected end of group");
+                    input.resetSizeCounter();
+                    stats.setParseNanos(stats.getParseNanos() + System.nanoTime() - start);
+                }
+            }
+        } catch (InvalidProtocolBufferException e) {
+            log.debug("Can't parse [{}] as binary GraphDef: {}", graphFile.getName(), e.getMessage());
+            return false;
+        } catch (IOException e) {
+            throw new ND4JIllegalStateException("Can't read graph file: " + graphFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * This method parses text GraphDef from file
+     *
+     * @return parsed GraphDef, or null if file isn't a valid text GraphDef
+     */
+    protected static GraphDef parseText(File graphFile, GraphImportStats stats) {
+        long start = System.nanoTime();
+        try (FileInputStream fis = new FileInputStream(graphFile); BufferedReader reader = new BufferedReader(new InputStreamReader(fis))) {
+            GraphDef.Builder builder = GraphDef.newBuilder();
+            TextFormat.getParser().merge(reader, builder);
+            return builder.build();
+        } catch (Exception e) {
+            log.error("Can't parse [{}] as text GraphDef", graphFile.getName(), e);
+            return null;
+        } finally {
+            stats.setParseNanos(stats.getParseNanos() + System.nanoTime() - start);
+        }
+    }
+
     protected static OpState getOpStateFromNodeDef(NodeDef tfNode, int numInputs) {
         return getOpStateFromNodeDef(tfNode, numInputs, null, null);
     }
@@ -738,4 +891,28 @@ public class TensorFlowImport {
 
         return opState;
     }
+
+    /**
+     * Imports graph one NodeDef at a time, and tracks time spent on each node
+     */
+    protected static abstract class NodeImporter {
+        protected final GraphImportStats stats;
+
+        protected NodeImporter(GraphImportStats stats) {
+            this.stats = stats;
+        }
+
+        protected void visit(NodeDef tfNode) {
+            long start = System.nanoTime();
+            long constants = stats.getConstantsNanos();
+
+            importNode(tfNode);
+
+            // time spent on constants is tracked separately
+            stats.setGraphNanos(stats.getGraphNanos() + System.nanoTime() - start - (stats.getConstantsNanos() - constants));
+            stats.setNodes(stats.getNodes() + 1);
+        }
+
+        protected abstract void importNode(NodeDef tfNode);
+    }
 }
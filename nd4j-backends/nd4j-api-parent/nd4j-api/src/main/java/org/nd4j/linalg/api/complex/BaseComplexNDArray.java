@@ -25,6 +25,7 @@ import org.nd4j.linalg.api.blas.BlasBufferUtil;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.BaseNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ndarray.accessor.NDArrayAccessor;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.factory.NDArrayFactory;
 import org.nd4j.linalg.factory.Nd4j;
@@ -994,6 +995,15 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
         return addi(Nd4j.createDouble(n.doubleValue(), 0), result);
     }
 
+    /**
+     * Element accessors work with real arrays only
+     */
+    @Override
+    public NDArrayAccessor accessor() {
+        throw new UnsupportedOperationException("Element accessors aren't supported for complex arrays: "
+                        + "they work with real arrays only");
+    }
+
     @Override
     public IComplexNDArray dup() {
         return (IComplexNDArray) Shape.toOffsetZeroCopy(this);
@@ -1,12 +1,11 @@
 package org.nd4j.linalg.api.iter;
 
-import org.nd4j.linalg.primitives.Pair;
-import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.cache.SegmentedLruCache;
 import org.nd4j.linalg.util.ArrayUtil;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Iterates and returns int arrays
@@ -16,16 +15,34 @@ import java.util.Map;
  * the shape until each item in the "position"
  * hits the current shape
  *
+ * Indices are computed incrementally, from previous ones. With cache enabled, precomputed
+ * {@link LinearIndexLookup} tables are shared between iterators over the same shape and order,
+ * as long as they fit into the lookup cache. The cache is shared by all threads and has no per-thread front
+ * cache, so large tables are only referenced from it and from iterators using them.
+ *
  * @author Adam Gibson
  */
 public class NdIndexIterator implements Iterator<int[]> {
+    // bounds for lookup tables shared between all threads
+    public static final int MAX_CACHED_LOOKUPS = 256;
+    public static final long MAX_CACHED_BYTES = 64L * 1024 * 1024;
+    // largest single table that gets cached, so that one shape can't take over the whole cache
+    public static final long MAX_LOOKUP_BYTES = MAX_CACHED_BYTES / 4;
+    // memory used per index, besides the indices themselves: int[] object header (16 bytes),
+    // reference to it from the table (8 bytes) and its flag in the table's boolean[] (1 byte)
+    private static final long BYTES_PER_INDEX_OVERHEAD = 16 + 8 + 1;
+
+    private static final SegmentedLruCache<LookupKey, LinearIndexLookup> lookupCache =
+                    new SegmentedLruCache<>(MAX_CACHED_LOOKUPS, MAX_CACHED_BYTES);
+
     private int length = -1;
     private int i = 0;
     private int[] shape;
     private char order = 'c';
     private boolean cache = false;
-    private static Map<Pair<int[], Character>, LinearIndexLookup> lookupMap = new HashMap<>();
     private LinearIndexLookup lookup;
+    // indices of the next element, used when there's no lookup table
+    private int[] current;
 
 
     /**
@@ -44,25 +61,16 @@ public class NdIndexIterator implements Iterator<int[]> {
      * @param shape the shape to iterate over
      */
     public NdIndexIterator(char order, boolean cache, int... shape) {
+        if (order != 'c' && order != 'f')
+            throw new IllegalArgumentException("Illegal ordering " + order);
+
         this.shape = ArrayUtil.copy(shape);
         this.length = ArrayUtil.prod(shape);
         this.order = order;
         this.cache = cache;
-        if (this.cache) {
-            LinearIndexLookup lookup = lookupMap.get(new Pair<>(shape, order));
-            if (lookup == null) {
-                lookup = new LinearIndexLookup(shape, order);
-                //warm up the cache
-                for (int i = 0; i < length; i++) {
-                    lookup.lookup(i);
-                }
-                lookupMap.put(new Pair<>(shape, order), lookup);
-                this.lookup = lookup;
-            } else {
-                this.lookup = lookupMap.get(new Pair<>(shape, order));
-            }
-
-        }
+        this.current = new int[shape.length];
+        if (this.cache)
+            this.lookup = getLookup(this.shape, order, length);
     }
 
     /**
@@ -82,17 +90,28 @@ public class NdIndexIterator implements Iterator<int[]> {
 
     @Override
     public int[] next() {
+        if (!hasNext())
+            throw new NoSuchElementException("All " + length + " indices were returned");
+
         if (lookup != null)
             return lookup.lookup(i++);
-        switch (order) {
-            case 'c':
-                return Shape.ind2subC(shape, i++);
-            case 'f':
-                return Shape.ind2sub(shape, i++);
-            default:
-                throw new IllegalArgumentException("Illegal ordering " + order);
-        }
 
+        int[] result = current.clone();
+        i++;
+        if (order == 'c') {
+            for (int d = shape.length - 1; d >= 0; d--) {
+                if (++current[d] < shape[d])
+                    break;
+                current[d] = 0;
+            }
+        } else {
+            for (int d = 0; d < shape.length; d++) {
+                if (++current[d] < shape[d])
+                    break;
+                current[d] = 0;
+            }
+        }
+        return result;
     }
 
 
@@ -102,4 +121,52 @@ public class NdIndexIterator implements Iterator<int[]> {
 
     }
 
+    /**
+     * This method returns fully populated lookup table for given shape and order, or null if table is too large
+     * to be cached. Tables are populated before they're published, so they're only read afterwards and can be
+     * shared between threads.
+     */
+    private static LinearIndexLookup getLookup(int[] shape, char order, int length) {
+        // approximate size of the table: int array per index, plus per-index overhead
+        long bytes = (long) length * (4L * shape.length + BYTES_PER_INDEX_OVERHEAD);
+        if (bytes > MAX_LOOKUP_BYTES)
+            return null;
+
+        LookupKey key = new LookupKey(shape, order);
+
+        LinearIndexLookup lookup = lookupCache.get(key);
+        if (lookup == null) {
+            lookup = new LinearIndexLookup(shape, order);
+            //warm up the cache
+            for (int i = 0; i < length; i++) {
+                lookup.lookup(i);
+            }
+            lookupCache.put(key, lookup, bytes);
+        }
+        return lookup;
+    }
+
+    private static class LookupKey {
+        private final int[] shape;
+        private final char order;
+
+        private LookupKey(int[] shape, char order) {
+            this.shape = shape;
+            this.order = order;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LookupKey))
+                return false;
+
+            LookupKey other = (LookupKey) o;
+            return order == other.order && Arrays.equals(shape, other.shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(shape) + order;
+        }
+    }
 }
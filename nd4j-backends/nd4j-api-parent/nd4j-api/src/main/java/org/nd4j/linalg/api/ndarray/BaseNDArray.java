@@ -32,6 +32,9 @@ import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.instrumentation.Instrumentation;
+import org.nd4j.linalg.api.ndarray.accessor.DoubleAccessor;
+import org.nd4j.linalg.api.ndarray.accessor.FloatAccessor;
+import org.nd4j.linalg.api.ndarray.accessor.NDArrayAccessor;
 import org.nd4j.linalg.api.iter.FirstAxisIterator;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
@@ -63,6 +66,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.*;
 
@@ -3763,9 +3768,6 @@ public abstract class BaseNDArray implements INDArray, Iterable {
         if (Nd4j.getExecutioner().getProfilingMode() != OpExecutioner.ProfilingMode.DISABLED)
             OpProfiler.getInstance().processScalarCall();
 
-        Nd4j.getCompressor().autoDecompress(this);
-
-
         if (i == 0)
             return data().getDouble(i);
 
@@ -3790,6 +3792,63 @@ public abstract class BaseNDArray implements INDArray, Iterable {
         return (float) getDouble(i, j);
     }
 
+    @Override
+    public NDArrayAccessor accessor() {
+        switch (data().dataType()) {
+            case DOUBLE:
+                return new DoubleAccessor(this);
+            case FLOAT:
+                return new FloatAccessor(this);
+            default:
+                throw new ND4JIllegalStateException("Accessors are supported for FLOAT and DOUBLE arrays only, got "
+                                + data().dataType());
+        }
+    }
+
+    @Override
+    public void copyTo(float[] dst, int dstOffset) {
+        accessor().copyTo(dst, dstOffset);
+    }
+
+    @Override
+    public void copyTo(double[] dst, int dstOffset) {
+        accessor().copyTo(dst, dstOffset);
+    }
+
+    @Override
+    public void copyTo(FloatBuffer dst) {
+        accessor().copyTo(dst);
+    }
+
+    @Override
+    public void copyTo(DoubleBuffer dst) {
+        accessor().copyTo(dst);
+    }
+
+    @Override
+    public INDArray copyFrom(float[] src, int srcOffset) {
+        accessor().copyFrom(src, srcOffset);
+        return this;
+    }
+
+    @Override
+    public INDArray copyFrom(double[] src, int srcOffset) {
+        accessor().copyFrom(src, srcOffset);
+        return this;
+    }
+
+    @Override
+    public INDArray copyFrom(FloatBuffer src) {
+        accessor().copyFrom(src);
+        return this;
+    }
+
+    @Override
+    public INDArray copyFrom(DoubleBuffer src) {
+        accessor().copyFrom(src);
+        return this;
+    }
+
     /**
      * Return transposed copy of this matrix.
      */
@@ -4247,12 +4306,10 @@ public abstract class BaseNDArray implements INDArray, Iterable {
             throw new IllegalArgumentException("Unable to get columns from a non matrix or vector");
         if (isVector())
             return Nd4j.pullRows(this, 1, rindices);
-        else {
-            INDArray ret = Nd4j.create(rindices.length, columns());
-            for (int i = 0; i < rindices.length; i++)
-                ret.putRow(i, getRow(rindices[i]));
-            return ret;
-        }
+        else
+            // result keeps the default ordering, as with the putRow loop this replaced
+            return Nd4j.gather(this, Nd4j.createUninitialized(new int[] {rindices.length, columns()}, Nd4j.order()), 0,
+                            rindices);
     }
 
     /**
@@ -4346,10 +4403,9 @@ public abstract class BaseNDArray implements INDArray, Iterable {
         if (isVector()) {
             return Nd4j.pullRows(this, 0, cindices, this.ordering());
         } else {
-            INDArray ret = Nd4j.create(rows(), cindices.length);
-            for (int i = 0; i < cindices.length; i++)
-                ret.putColumn(i, getColumn(cindices[i]));
-            return ret;
+            // result keeps the default ordering, as with the putColumn loop this replaced
+            return Nd4j.gather(this, Nd4j.createUninitialized(new int[] {rows(), cindices.length}, Nd4j.order()), 1,
+                            cindices);
         }
 
     }
@@ -6,6 +6,7 @@ import org.nd4j.linalg.api.blas.BlasBufferUtil;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.ndarray.accessor.NDArrayAccessor;
 import org.nd4j.linalg.api.ops.impl.accum.Entropy;
 import org.nd4j.linalg.api.ops.impl.accum.LogEntropy;
 import org.nd4j.linalg.api.ops.impl.accum.ShannonEntropy;
@@ -19,6 +20,8 @@ import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.util.ArrayUtil;
 import org.nd4j.linalg.util.LinAlgExceptions;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.Arrays;
 import java.util.List;
@@ -1265,6 +1268,56 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
         return 0;
     }
 
+    @Override
+    public NDArrayAccessor accessor() {
+        throw new UnsupportedOperationException("Element accessors aren't supported for sparse arrays: "
+                        + "they read and write dense data buffers. Use toDense() first");
+    }
+
+    @Override
+    public void copyTo(float[] dst, int dstOffset) {
+        toDense().copyTo(dst, dstOffset);
+    }
+
+    @Override
+    public void copyTo(double[] dst, int dstOffset) {
+        toDense().copyTo(dst, dstOffset);
+    }
+
+    @Override
+    public void copyTo(FloatBuffer dst) {
+        toDense().copyTo(dst);
+    }
+
+    @Override
+    public void copyTo(DoubleBuffer dst) {
+        toDense().copyTo(dst);
+    }
+
+    @Override
+    public INDArray copyFrom(float[] src, int srcOffset) {
+        throw new UnsupportedOperationException("Bulk copy into sparse arrays isn't supported: "
+                        + "copy into a dense array, then convert it");
+    }
+
+    @Override
+    public INDArray copyFrom(double[] src, int srcOffset) {
+        throw new UnsupportedOperationException("Bulk copy into sparse arrays isn't supported: "
+                        + "copy into a dense array, then convert it");
+    }
+
+    @Override
+    public INDArray copyFrom(FloatBuffer src) {
+        throw new UnsupportedOperationException("Bulk copy into sparse arrays isn't supported: "
+                        + "copy into a dense array, then convert it");
+    }
+
+    @Override
+    public INDArray copyFrom(DoubleBuffer src) {
+        throw new UnsupportedOperationException("Bulk copy into sparse arrays isn't supported: "
+                        + "copy into a dense array, then convert it");
+    }
+
     @Override
     public INDArray dup() {
         return null;
@@ -23,11 +23,14 @@ import org.nd4j.linalg.api.blas.params.MMulTranspose;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.ndarray.accessor.NDArrayAccessor;
 import org.nd4j.linalg.indexing.INDArrayIndex;
 import org.nd4j.linalg.indexing.ShapeOffsetResolution;
 import org.nd4j.linalg.indexing.conditions.Condition;
 
 import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.List;
 
@@ -1934,6 +1937,72 @@ public interface INDArray extends Serializable {
      */
     float getFloat(int i, int j);
 
+    /**
+     * Returns accessor for fast element access in Java loops:
+     * {@link org.nd4j.linalg.api.ndarray.accessor.DoubleAccessor} for DOUBLE arrays,
+     * {@link org.nd4j.linalg.api.ndarray.accessor.FloatAccessor} for FLOAT arrays.
+     * Unlike getDouble()/putScalar(), accessor doesn't allocate or do any checks besides bounds per element.
+     *
+     * @return accessor for this array
+     */
+    NDArrayAccessor accessor();
+
+    /**
+     * Copies all elements of this array into dst, in the ordering of this array.
+     * Works for views with arbitrary strides; contiguous runs of elements are copied in bulk.
+     *
+     * @param dst target array, with at least length() elements after dstOffset
+     * @param dstOffset position in dst to copy the first element to
+     */
+    void copyTo(float[] dst, int dstOffset);
+
+    /**
+     * See {@link #copyTo(float[], int)}
+     */
+    void copyTo(double[] dst, int dstOffset);
+
+    /**
+     * Copies all elements of this array into dst, in the ordering of this array, starting at current position of dst.
+     * Position of dst is advanced by length().
+     *
+     * @param dst target buffer, heap or direct
+     */
+    void copyTo(FloatBuffer dst);
+
+    /**
+     * See {@link #copyTo(FloatBuffer)}
+     */
+    void copyTo(DoubleBuffer dst);
+
+    /**
+     * Replaces all elements of this array with elements of src, in the ordering of this array.
+     * Works for views with arbitrary strides; contiguous runs of elements are copied in bulk.
+     *
+     * @param src source array, with at least length() elements after srcOffset
+     * @param srcOffset position in src of the first element to copy
+     * @return this array
+     */
+    INDArray copyFrom(float[] src, int srcOffset);
+
+    /**
+     * See {@link #copyFrom(float[], int)}
+     */
+    INDArray copyFrom(double[] src, int srcOffset);
+
+    /**
+     * Replaces all elements of this array with elements of src, in the ordering of this array, starting at current
+     * position of src. Position of src is advanced by length().
+     *
+     * @param src source buffer, heap or direct
+     * @return this array
+     */
+    INDArray copyFrom(FloatBuffer src);
+
+    /**
+     * See {@link #copyFrom(FloatBuffer)}
+     */
+    INDArray copyFrom(DoubleBuffer src);
+
 
     /**
      * Returns a copy of this ndarray
@@ -0,0 +1,244 @@
+package org.nd4j.linalg.api.ndarray.accessor;
+
+import org.bytedeco.javacpp.indexer.FloatIndexer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Accessor for arrays of {@link DataBuffer.Type#FLOAT} type. See {@link NDArrayAccessor}.
+ */
+public class FloatAccessor extends NDArrayAccessor {
+    private final FloatIndexer indexer;
+
+    public FloatAccessor(INDArray array) {
+        super(array, DataBuffer.Type.FLOAT);
+        this.indexer = (FloatIndexer) buffer.indexer();
+    }
+
+    /**
+     * @param i linear index, in array ordering
+     */
+    public float get(long i) {
+        return indexer.get(offsetOf(i));
+    }
+
+    public float get(int row, int column) {
+        return indexer.get(offsetOf(row, column));
+    }
+
+    public float get(int i, int j, int k) {
+        return indexer.get(offsetOf(i, j, k));
+    }
+
+    /**
+     * @param indices one index per dimension
+     */
+    public float get(long[] indices) {
+        return indexer.get(offsetOf(indices));
+    }
+
+    /**
+     * This method copies elements at given linear indexes into target array
+     *
+     * @param linearIndexes linear indexes, in array ordering
+     * @param target array to copy elements to, at least as long as linearIndexes
+     */
+    public void get(long[] linearIndexes, float[] target) {
+        for (int e = 0; e < linearIndexes.length; e++)
+            target[e] = indexer.get(offsetOf(linearIndexes[e]));
+    }
+
+    /**
+     * @param i linear index, in array ordering
+     */
+    public void put(long i, float value) {
+        markWritten();
+        indexer.put(offsetOf(i), value);
+    }
+
+    public void put(int row, int column, float value) {
+        markWritten();
+        indexer.put(offsetOf(row, column), value);
+    }
+
+    public void put(int i, int j, int k, float value) {
+        markWritten();
+        indexer.put(offsetOf(i, j, k), value);
+    }
+
+    /**
+     * @param indices one index per dimension
+     */
+    public void put(long[] indices, float value) {
+        markWritten();
+        indexer.put(offsetOf(indices), value);
+    }
+
+    @Override
+    public double getDouble(long i) {
+        return get(i);
+    }
+
+    @Override
+    public void putDouble(long i, double value) {
+        put(i, (float) value);
+    }
+
+    /**
+     * Runs with unit stride are copied with bulk indexer calls, other runs element by element.
+     */
+    @Override
+    public void copyTo(final float[] dst, final int dstOffset) {
+        checkRange(dst.length, dstOffset);
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                if (stride == 1) {
+                    indexer.get(bufferOffset, dst, dstOffset + position, length);
+                } else {
+                    for (int e = 0; e < length; e++)
+                        dst[dstOffset + position + e] = indexer.get(bufferOffset + e * stride);
+                }
+            }
+        });
+    }
+
+    /**
+     * Direct buffers are filled run by run, through temporary array of up to {@link #MAX_RUN_BUFFER} elements.
+     */
+    @Override
+    public void copyTo(final FloatBuffer dst) {
+        if (dst.hasArray()) {
+            super.copyTo(dst);
+            return;
+        }
+
+        checkRange(dst.remaining(), 0);
+        final float[] run = new float[runBufferLength()];
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int from = 0; from < length; from += run.length) {
+                    int n = Math.min(run.length, length - from);
+                    long start = bufferOffset + from * stride;
+                    if (stride == 1) {
+                        indexer.get(start, run, 0, n);
+                    } else {
+                        for (int e = 0; e < n; e++)
+                            run[e] = indexer.get(start + e * stride);
+                    }
+                    dst.put(run, 0, n);
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs with unit stride are copied with bulk indexer calls, other runs element by element.
+     */
+    @Override
+    public void copyFrom(final float[] src, final int srcOffset) {
+        checkRange(src.length, srcOffset);
+        markWritten();
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                if (stride == 1) {
+                    indexer.put(bufferOffset, src, srcOffset + position, length);
+                } else {
+                    for (int e = 0; e < length; e++)
+                        indexer.put(bufferOffset + e * stride, src[srcOffset + position + e]);
+                }
+            }
+        });
+    }
+
+    /**
+     * Direct buffers are read run by run, through temporary array of up to {@link #MAX_RUN_BUFFER} elements.
+     */
+    @Override
+    public void copyFrom(final FloatBuffer src) {
+        if (src.hasArray()) {
+            super.copyFrom(src);
+            return;
+        }
+
+        checkRange(src.remaining(), 0);
+        markWritten();
+        final float[] run = new float[runBufferLength()];
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int from = 0; from < length; from += run.length) {
+                    int n = Math.min(run.length, length - from);
+                    long start = bufferOffset + from * stride;
+                    src.get(run, 0, n);
+                    if (stride == 1) {
+                        indexer.put(start, run, 0, n);
+                    } else {
+                        for (int e = 0; e < n; e++)
+                            indexer.put(start + e * stride, run[e]);
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    protected double getAt(long bufferOffset) {
+        return indexer.get(bufferOffset);
+    }
+
+    @Override
+    protected void putAt(long bufferOffset, double value) {
+        indexer.put(bufferOffset, (float) value);
+    }
+
+    /**
+     * This method calls consumer for each element of the array, in array ordering
+     *
+     * @param consumer
+     */
+    public void forEachIndexed(IndexedConsumer consumer) {
+        long[] indices = new long[rank];
+        long current = offset;
+        for (long e = 0; e < length; e++) {
+            consumer.accept(indices, indexer.get(current));
+            current = next(indices, current);
+        }
+    }
+
+    /**
+     * This method replaces each element of the array with value returned by function, in array ordering
+     *
+     * @param function
+     */
+    public void transformIndexed(IndexedFunction function) {
+        markWritten();
+        long[] indices = new long[rank];
+        long current = offset;
+        for (long e = 0; e < length; e++) {
+            indexer.put(current, function.apply(indices, indexer.get(current)));
+            current = next(indices, current);
+        }
+    }
+
+    public interface IndexedConsumer {
+        /**
+         * @param indices indices of the element. Same array is reused for all elements, and shouldn't be modified
+         * @param value element value
+         */
+        void accept(long[] indices, float value);
+    }
+
+    public interface IndexedFunction {
+        /**
+         * @param indices indices of the element. Same array is reused for all elements, and shouldn't be modified
+         * @param value element value
+         * @return new element value
+         */
+        float apply(long[] indices, float value);
+    }
+}
@@ -0,0 +1,462 @@
+package org.nd4j.linalg.api.ndarray.accessor;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Element accessor for INDArray, obtained via {@link INDArray#accessor()}.
+ *
+ * Shape, strides and offset of the array are captured once, at creation time, so element access only does
+ * offset arithmetic and reads/writes the underlying buffer: no decompression checks, profiler calls,
+ * or index arrays allocated per element, unlike {@link INDArray#getDouble(int)} and friends.
+ *
+ * Linear indexes follow the array ordering, same as {@link INDArray#getDouble(int)}.
+ *
+ * PLEASE NOTE: accessor is only valid while shape and memory of the array stay the same. On CUDA, get new accessor
+ * after the array was modified by ops, since host copy is synchronized only when accessor is created.
+ * Accessors are not thread-safe for writes, same as arrays.
+ */
+public abstract class NDArrayAccessor {
+    // maximum size of temporary arrays used for copies to and from direct NIO buffers
+    public static final int MAX_RUN_BUFFER = 8192;
+
+    protected final INDArray array;
+    protected final DataBuffer buffer;
+    protected final int rank;
+    protected final long length;
+    protected final long[] shape;
+    protected final long[] stride;
+    protected final long offset;
+    protected final char order;
+    // stride for linear access in array order, or 0 if array can't be accessed with a single stride
+    protected final long elementWiseStride;
+
+    private boolean written = false;
+
+    protected NDArrayAccessor(@NonNull INDArray array, DataBuffer.Type dataType) {
+        if (array.isCompressed())
+            Nd4j.getCompressor().autoDecompress(array);
+
+        if (array.data().dataType() != dataType)
+            throw new ND4JIllegalStateException("Can't create " + dataType + " accessor for array of type "
+                            + array.data().dataType());
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+        this.array = array;
+        this.buffer = array.data();
+        this.rank = array.rank();
+        this.length = array.lengthLong();
+        this.offset = array.data().offset();
+        this.order = array.ordering();
+        this.elementWiseStride = array.elementWiseStride() > 0 ? array.elementWiseStride() : 0;
+
+        int[] shape = array.shape();
+        int[] stride = array.stride();
+        this.shape = new long[rank];
+        this.stride = new long[rank];
+        for (int i = 0; i < rank; i++) {
+            this.shape[i] = shape[i];
+            this.stride[i] = stride[i];
+        }
+    }
+
+    /**
+     * @return array this accessor was created for
+     */
+    public INDArray array() {
+        return array;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public int rank() {
+        return rank;
+    }
+
+    public long size(int dimension) {
+        return shape[dimension];
+    }
+
+    /**
+     * This method returns element at given linear index as double
+     */
+    public abstract double getDouble(long i);
+
+    /**
+     * This method sets element at given linear index
+     */
+    public abstract void putDouble(long i, double value);
+
+    /**
+     * This method copies all elements of the array into dst, in array ordering
+     *
+     * @param dst target array
+     * @param dstOffset position in dst to copy the first element to
+     */
+    public void copyTo(final float[] dst, final int dstOffset) {
+        checkRange(dst.length, dstOffset);
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int e = 0; e < length; e++)
+                    dst[dstOffset + position + e] = (float) getAt(bufferOffset + e * stride);
+            }
+        });
+    }
+
+    /**
+     * This method copies all elements of the array into dst, in array ordering
+     *
+     * @param dst target array
+     * @param dstOffset position in dst to copy the first element to
+     */
+    public void copyTo(final double[] dst, final int dstOffset) {
+        checkRange(dst.length, dstOffset);
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int e = 0; e < length; e++)
+                    dst[dstOffset + position + e] = getAt(bufferOffset + e * stride);
+            }
+        });
+    }
+
+    /**
+     * This method copies all elements of the array into dst, in array ordering, starting at current position of dst.
+     * Position of dst is advanced by array length.
+     *
+     * @param dst target buffer
+     */
+    public void copyTo(final FloatBuffer dst) {
+        checkRange(dst.remaining(), 0);
+        if (dst.hasArray()) {
+            copyTo(dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + (int) length);
+            return;
+        }
+
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int e = 0; e < length; e++)
+                    dst.put((float) getAt(bufferOffset + e * stride));
+            }
+        });
+    }
+
+    /**
+     * This method copies all elements of the array into dst, in array ordering, starting at current position of dst.
+     * Position of dst is advanced by array length.
+     *
+     * @param dst target buffer
+     */
+    public void copyTo(final DoubleBuffer dst) {
+        checkRange(dst.remaining(), 0);
+        if (dst.hasArray()) {
+            copyTo(dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + (int) length);
+            return;
+        }
+
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int e = 0; e < length; e++)
+                    dst.put(getAt(bufferOffset + e * stride));
+            }
+        });
+    }
+
+    /**
+     * This method replaces all elements of the array with elements of src, in array ordering
+     *
+     * @param src source array
+     * @param srcOffset position in src of the first element to copy
+     */
+    public void copyFrom(final float[] src, final int srcOffset) {
+        checkRange(src.length, srcOffset);
+        markWritten();
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int e = 0; e < length; e++)
+                    putAt(bufferOffset + e * stride, src[srcOffset + position + e]);
+            }
+        });
+    }
+
+    /**
+     * This method replaces all elements of the array with elements of src, in array ordering
+     *
+     * @param src source array
+     * @param srcOffset position in src of the first element to copy
+     */
+    public void copyFrom(final double[] src, final int srcOffset) {
+        checkRange(src.length, srcOffset);
+        markWritten();
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int e = 0; e < length; e++)
+                    putAt(bufferOffset + e * stride, src[srcOffset + position + e]);
+            }
+        });
+    }
+
+    /**
+     * This method replaces all elements of the array with elements of src, in array ordering, starting at current
+     * position of src. Position of src is advanced by array length.
+     *
+     * @param src source buffer
+     */
+    public void copyFrom(final FloatBuffer src) {
+        checkRange(src.remaining(), 0);
+        if (src.hasArray()) {
+            copyFrom(src.array(), src.arrayOffset() + src.position());
+            src.position(src.position() + (int) length);
+            return;
+        }
+
+        markWritten();
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int e = 0; e < length; e++)
+                    putAt(bufferOffset + e * stride, src.get());
+            }
+        });
+    }
+
+    /**
+     * This method replaces all elements of the array with elements of src, in array ordering, starting at current
+     * position of src. Position of src is advanced by array length.
+     *
+     * @param src source buffer
+     */
+    public void copyFrom(final DoubleBuffer src) {
+        checkRange(src.remaining(), 0);
+        if (src.hasArray()) {
+            copyFrom(src.array(), src.arrayOffset() + src.position());
+            src.position(src.position() + (int) length);
+            return;
+        }
+
+        markWritten();
+        forEachRun(new RunVisitor() {
+            @Override
+            public void visit(long bufferOffset, long stride, int length, int position) {
+                for (int e = 0; e < length; e++)
+                    putAt(bufferOffset + e * stride, src.get());
+            }
+        });
+    }
+
+    /**
+     * This method returns element at given buffer offset as double
+     */
+    protected abstract double getAt(long bufferOffset);
+
+    /**
+     * This method sets element at given buffer offset
+     */
+    protected abstract void putAt(long bufferOffset, double value);
+
+    /**
+     * This method returns buffer offset of element at given linear index
+     *
+     * @param i linear index, in array ordering
+     * @return
+     */
+    public final long offsetOf(long i) {
+        if (i < 0 || i >= length)
+            throw new IndexOutOfBoundsException("Index " + i + " is out of bounds for array of length " + length);
+
+        if (elementWiseStride > 0)
+            return offset + i * elementWiseStride;
+
+        long result = offset;
+        if (order == 'c') {
+            for (int d = rank - 1; d >= 0; d--) {
+                result += (i % shape[d]) * stride[d];
+                i /= shape[d];
+            }
+        } else {
+            for (int d = 0; d < rank; d++) {
+                result += (i % shape[d]) * stride[d];
+                i /= shape[d];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * This method returns buffer offset of element at given row and column of a matrix
+     */
+    public final long offsetOf(int row, int column) {
+        if (rank != 2)
+            throw new ND4JIllegalStateException("Two indices used for array of rank " + rank);
+        checkIndex(row, 0);
+        checkIndex(column, 1);
+
+        return offset + row * stride[0] + column * stride[1];
+    }
+
+    /**
+     * This method returns buffer offset of element at given indices of a rank 3 array
+     */
+    public final long offsetOf(int i, int j, int k) {
+        if (rank != 3)
+            throw new ND4JIllegalStateException("Three indices used for array of rank " + rank);
+        checkIndex(i, 0);
+        checkIndex(j, 1);
+        checkIndex(k, 2);
+
+        return offset + i * stride[0] + j * stride[1] + k * stride[2];
+    }
+
+    /**
+     * This method returns buffer offset of element at given indices
+     *
+     * @param indices one index per dimension
+     * @return
+     */
+    public final long offsetOf(long[] indices) {
+        if (indices.length != rank)
+            throw new ND4JIllegalStateException(indices.length + " indices used for array of rank " + rank);
+
+        long result = offset;
+        for (int d = 0; d < rank; d++) {
+            checkIndex(indices[d], d);
+            result += indices[d] * stride[d];
+        }
+        return result;
+    }
+
+    /**
+     * This method advances indices to the next element in array ordering, and returns buffer offset of that element.
+     * Used for iteration without offset recalculation.
+     *
+     * @param indices current indices, updated in place
+     * @param currentOffset buffer offset of element at current indices
+     * @return
+     */
+    protected final long next(long[] indices, long currentOffset) {
+        if (order == 'c') {
+            for (int d = rank - 1; d >= 0; d--) {
+                if (++indices[d] < shape[d])
+                    return currentOffset + stride[d];
+                currentOffset -= (shape[d] - 1) * stride[d];
+                indices[d] = 0;
+            }
+        } else {
+            for (int d = 0; d < rank; d++) {
+                if (++indices[d] < shape[d])
+                    return currentOffset + stride[d];
+                currentOffset -= (shape[d] - 1) * stride[d];
+                indices[d] = 0;
+            }
+        }
+        return currentOffset;
+    }
+
+    /**
+     * This method splits the array into runs of elements with constant stride, in array ordering, and passes each
+     * run to visitor. Arrays with element-wise stride are a single run, otherwise each run is a line along the
+     * innermost dimension: last one for 'c' ordering, first one for 'f' ordering.
+     *
+     * @param visitor
+     */
+    protected final void forEachRun(RunVisitor visitor) {
+        if (length == 0)
+            return;
+
+        if (elementWiseStride > 0) {
+            visitor.visit(offset, elementWiseStride, (int) length, 0);
+            return;
+        }
+
+        int inner = order == 'c' ? rank - 1 : 0;
+        int runLength = (int) shape[inner];
+        long runStride = stride[inner];
+        long[] indices = new long[rank];
+        long current = offset;
+        for (int position = 0; position < length; position += runLength) {
+            visitor.visit(current, runStride, runLength, position);
+
+            // move to the start of next run, innermost dimension is left at 0
+            if (order == 'c') {
+                for (int d = rank - 2; d >= 0; d--) {
+                    if (++indices[d] < shape[d]) {
+                        current += stride[d];
+                        break;
+                    }
+                    current -= (shape[d] - 1) * stride[d];
+                    indices[d] = 0;
+                }
+            } else {
+                for (int d = 1; d < rank; d++) {
+                    if (++indices[d] < shape[d]) {
+                        current += stride[d];
+                        break;
+                    }
+                    current -= (shape[d] - 1) * stride[d];
+                    indices[d] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method returns size of temporary array for copying runs in chunks: run length, up to {@link #MAX_RUN_BUFFER}
+     */
+    protected final int runBufferLength() {
+        long run = elementWiseStride > 0 ? length : shape[order == 'c' ? rank - 1 : 0];
+        return (int) Math.max(1, Math.min(run, MAX_RUN_BUFFER));
+    }
+
+    protected interface RunVisitor {
+        /**
+         * @param bufferOffset buffer offset of the first element in the run
+         * @param stride buffer stride between elements in the run
+         * @param length number of elements in the run
+         * @param position linear index of the first element in the run, in array ordering
+         */
+        void visit(long bufferOffset, long stride, int length, int position);
+    }
+
+    /**
+     * This method checks that the whole array fits into Java array or buffer of given length, starting at given position
+     */
+    protected final void checkRange(int available, int position) {
+        if (position < 0 || length > available - (long) position)
+            throw new IndexOutOfBoundsException("Can't copy " + length + " elements at position " + position
+                            + ": only " + (available - (long) position) + " elements available");
+    }
+
+    /**
+     * This method should be called before each write, so that other devices pick up changes
+     */
+    protected final void markWritten() {
+        if (!written) {
+            Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+            written = true;
+        }
+    }
+
+    private void checkIndex(long index, int dimension) {
+        if (index < 0 || index >= shape[dimension])
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for dimension " + dimension
+                            + " of size " + shape[dimension]);
+    }
+}
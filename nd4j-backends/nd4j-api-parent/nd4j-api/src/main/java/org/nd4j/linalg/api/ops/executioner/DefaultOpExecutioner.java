@@ -30,6 +30,7 @@ import org.nd4j.linalg.api.ops.aggregates.Aggregate;
 import org.nd4j.linalg.api.ops.aggregates.Batch;
 import org.nd4j.linalg.api.ops.impl.accum.Variance;
 import org.nd4j.linalg.api.rng.Random;
+import org.nd4j.linalg.cache.OpResultCache;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
@@ -52,6 +53,8 @@ public class DefaultOpExecutioner implements OpExecutioner {
 
     protected ProfilingMode profilingMode = ProfilingMode.DISABLED;
     protected ExecutionMode executionMode = ExecutionMode.JAVA;
+    protected boolean steadyStateMode = false;
+    protected OpResultCache resultCache = new OpResultCache();
 
     public DefaultOpExecutioner() {}
 
@@ -444,6 +447,23 @@ public class DefaultOpExecutioner implements OpExecutioner {
         return profilingMode;
     }
 
+    @Override
+    public void enableSteadyStateMode(boolean reallyEnable) {
+        steadyStateMode = reallyEnable;
+        if (!reallyEnable)
+            resultCache.clear();
+    }
+
+    @Override
+    public boolean isSteadyStateMode() {
+        return steadyStateMode;
+    }
+
+    @Override
+    public OpResultCache getResultCache() {
+        return resultCache;
+    }
+
     public long profilingHookIn(Op op, DataBuffer... tadBuffers) {
         switch (profilingMode) {
             case ALL:
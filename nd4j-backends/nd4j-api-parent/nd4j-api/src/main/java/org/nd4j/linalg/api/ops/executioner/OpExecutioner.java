@@ -25,6 +25,7 @@ import org.nd4j.linalg.api.ops.aggregates.Aggregate;
 import org.nd4j.linalg.api.ops.aggregates.Batch;
 import org.nd4j.linalg.api.ops.impl.accum.Variance;
 import org.nd4j.linalg.api.rng.Random;
+import org.nd4j.linalg.cache.OpResultCache;
 import org.nd4j.linalg.cache.TADManager;
 
 import java.util.List;
@@ -261,6 +262,33 @@ public interface OpExecutioner {
      */
     ProfilingMode getProfilingMode();
 
+    /**
+     * This method enables/disables "steady-state" mode.
+     * In this mode result arrays of reductions executed without target array are reused between invocations
+     * with the same op, input shape and dimensions on the same thread, instead of being allocated on each call.
+     *
+     * PLEASE NOTE: result is valid only until the next invocation with the same op, shape and dimensions.
+     * Two such results in one expression are the same array: {@code a.sum(1).addi(b.sum(1))} returns 2 * b.sum(1)
+     * for a and b of the same shape. Use dup() on results that have to outlive the next invocation.
+     *
+     * @param reallyEnable
+     */
+    void enableSteadyStateMode(boolean reallyEnable);
+
+    /**
+     * This method returns true if "steady-state" mode is enabled
+     *
+     * @return
+     */
+    boolean isSteadyStateMode();
+
+    /**
+     * This method returns cache used for result arrays in "steady-state" mode
+     *
+     * @return
+     */
+    OpResultCache getResultCache();
+
 
     /**
      * This method returns TADManager instance used for this OpExecutioner
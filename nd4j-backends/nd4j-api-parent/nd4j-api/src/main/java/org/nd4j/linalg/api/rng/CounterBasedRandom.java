@@ -0,0 +1,550 @@
+package org.nd4j.linalg.api.rng;
+
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.RandomOp;
+import org.nd4j.linalg.api.ops.random.impl.BernoulliDistribution;
+import org.nd4j.linalg.api.ops.random.impl.DropOut;
+import org.nd4j.linalg.api.ops.random.impl.DropOutInverted;
+import org.nd4j.linalg.api.ops.random.impl.GaussianDistribution;
+import org.nd4j.linalg.api.ops.random.impl.UniformDistribution;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter based random number generator, using Philox4x32-10 block function.
+ *
+ * Each value is produced from (seed, stream, index) alone, where index is the position of the value in the
+ * sequence. So there's no state to share besides the position counter: sequential calls are lock-free,
+ * arrays are filled in parallel with the same result regardless of number of threads, {@link #skip(long)}
+ * costs nothing, and {@link #stream(long)} gives independent sequences for the same seed, i.e. one per thread.
+ *
+ * Array elements take consecutive indices in 'c' order, so generated arrays don't depend on ordering either.
+ *
+ * Please note: this implementation is pure java, so it has no native state. Common random ops passed to
+ * executioner with this rng are executed in java instead, see {@link #exec(RandomOp)}.
+ */
+public class CounterBasedRandom implements Random {
+    // Philox4x32 multipliers and Weyl sequence constants for the key schedule
+    private static final long M0 = 0xD2511F53L;
+    private static final long M1 = 0xCD9E8D57L;
+    private static final int W0 = 0x9E3779B9;
+    private static final int W1 = 0xBB67AE85;
+    private static final int ROUNDS = 10;
+
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final float FLOAT_UNIT = 0x1.0p-24f;
+
+    // fills below this number of elements are done in the calling thread
+    private static final int MIN_PARALLEL_ELEMENTS = 1 << 15;
+    // elements copied to array at once, per thread
+    private static final int CHUNK_ELEMENTS = 1 << 16;
+
+    protected volatile long seed;
+    protected final long stream;
+    protected final AtomicLong counter = new AtomicLong();
+    protected final AtomicLong splits = new AtomicLong();
+
+    // output block for scalar draws, so they don't allocate. Per thread, since positions are reserved atomically
+    // and concurrent draws from the same generator are allowed
+    private final ThreadLocal<long[]> block = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[2];
+        }
+    };
+
+    /**
+     * Initialize with a System.currentTimeMillis() seed
+     */
+    public CounterBasedRandom() {
+        this(System.currentTimeMillis());
+    }
+
+    public CounterBasedRandom(long seed) {
+        this(seed, 0);
+    }
+
+    /**
+     * @param seed rng seed
+     * @param stream index of the sequence for that seed
+     */
+    public CounterBasedRandom(long seed, long stream) {
+        this.seed = seed;
+        this.stream = stream;
+    }
+
+    /**
+     * This method returns generator for another sequence of the same seed, starting at position 0.
+     * Sequences with different stream indices don't overlap.
+     *
+     * @param stream index of the sequence
+     * @return new generator
+     */
+    public CounterBasedRandom stream(long stream) {
+        return new CounterBasedRandom(seed, stream);
+    }
+
+    /**
+     * This method returns generator for a new sequence, i.e. for a child thread. Streams are derived from
+     * this generator's stream and number of previous splits, so the same sequence of splits gives the same
+     * generators.
+     *
+     * @return new generator
+     */
+    public CounterBasedRandom split() {
+        return stream(mix(stream * 0x9E3779B97F4A7C15L + splits.incrementAndGet()));
+    }
+
+    /**
+     * This method advances the sequence by given number of values, as if they were generated
+     *
+     * @param n number of values to skip
+     */
+    public void skip(long n) {
+        counter.addAndGet(n);
+    }
+
+    /**
+     * @return index of the next value in this sequence
+     */
+    public long getPosition() {
+        return counter.get();
+    }
+
+    /**
+     * @param position index of the next value in this sequence
+     */
+    public void setPosition(long position) {
+        counter.set(position);
+    }
+
+    public long getStream() {
+        return stream;
+    }
+
+    @Override
+    public void setSeed(int seed) {
+        setSeed((long) seed);
+    }
+
+    @Override
+    public void setSeed(int[] seed) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.seed = seed;
+        counter.set(0);
+        splits.set(0);
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        long position = counter.getAndAdd((bytes.length + 7) / 8);
+        for (int i = 0; i < bytes.length; i += 8) {
+            long bits = bits(position++);
+            for (int j = i; j < Math.min(bytes.length, i + 8); j++, bits >>>= 8)
+                bytes[j] = (byte) bits;
+        }
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (next() >>> 32);
+    }
+
+    @Override
+    public int nextInt(int n) {
+        if (n <= 0)
+            throw new IllegalArgumentException("Bound must be positive, got " + n);
+        // bias is below n / 2^63, there's no rejection to keep values independent
+        return (int) ((next() >>> 1) % n);
+    }
+
+    @Override
+    public long nextLong() {
+        return next();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return next() < 0;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (next() >>> 40) * FLOAT_UNIT;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (next() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public double nextGaussian() {
+        return Fill.GAUSSIAN.value(counter.getAndIncrement(), this, 0.0, 1.0);
+    }
+
+    @Override
+    public INDArray nextGaussian(int[] shape) {
+        return nextGaussian(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextGaussian(char order, int[] shape) {
+        return fill(Nd4j.createUninitialized(shape, order), Fill.GAUSSIAN, 0.0, 1.0);
+    }
+
+    @Override
+    public INDArray nextDouble(int[] shape) {
+        return nextDouble(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextDouble(char order, int[] shape) {
+        return fill(Nd4j.createUninitialized(shape, order), Fill.UNIFORM, 0.0, 1.0);
+    }
+
+    @Override
+    public INDArray nextFloat(int[] shape) {
+        return nextFloat(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextFloat(char order, int[] shape) {
+        return fill(Nd4j.createUninitialized(shape, order), Fill.FLOAT, 0.0, 1.0);
+    }
+
+    @Override
+    public INDArray nextInt(int[] shape) {
+        return fill(Nd4j.createUninitialized(shape), Fill.INT, 0.0, 0.0);
+    }
+
+    @Override
+    public INDArray nextInt(int n, int[] shape) {
+        if (n <= 0)
+            throw new IllegalArgumentException("Bound must be positive, got " + n);
+        return fill(Nd4j.createUninitialized(shape), Fill.BOUNDED_INT, n, 0.0);
+    }
+
+    /**
+     * This method fills given array with uniform values within lower..upper boundaries
+     *
+     * @return target array
+     */
+    public INDArray fillUniform(INDArray target, double lower, double upper) {
+        return fill(target, Fill.UNIFORM, lower, upper);
+    }
+
+    /**
+     * This method fills given array with normally distributed values
+     *
+     * @return target array
+     */
+    public INDArray fillGaussian(INDArray target, double mean, double stddev) {
+        return fill(target, Fill.GAUSSIAN, mean, stddev);
+    }
+
+    /**
+     * This method fills given array with 1.0 with given probability, and 0.0 otherwise
+     *
+     * @return target array
+     */
+    public INDArray fillBernoulli(INDArray target, double prob) {
+        return fill(target, Fill.BERNOULLI, prob, 1.0);
+    }
+
+    /**
+     * This method fills given array with 1.0 with per-element probabilities, and 0.0 otherwise
+     *
+     * @param target array to fill
+     * @param probs array of the same length with success probability for each element
+     * @return target array
+     */
+    public INDArray fillBernoulli(INDArray target, INDArray probs) {
+        if (target.lengthLong() != probs.lengthLong())
+            throw new IllegalStateException("Length of probabilities array [" + probs.lengthLong()
+                            + "] doesn't match length of output array [" + target.lengthLong() + "]");
+
+        INDArray uniform = fill(Nd4j.createUninitialized(target.shape(), 'c'), Fill.UNIFORM, 0.0, 1.0);
+        INDArray p = Arrays.equals(probs.shape(), target.shape()) ? probs : probs.reshape(target.shape());
+        return target.assign(uniform.lti(p));
+    }
+
+    /**
+     * This method executes random ops that have java counterparts here: UniformDistribution, GaussianDistribution,
+     * BernoulliDistribution, DropOut and DropOutInverted
+     *
+     * @param op op to execute
+     * @return op.z()
+     */
+    public INDArray exec(RandomOp op) {
+        Object[] args = op.extraArgs();
+        if (op instanceof UniformDistribution)
+            return fillUniform(op.z(), (Double) args[0], (Double) args[1]);
+
+        if (op instanceof GaussianDistribution) {
+            if (op.y() == null || op.y() == op.z())
+                return fillGaussian(op.z(), (Double) args[0], (Double) args[1]);
+            // means are given as y
+            INDArray means = op.y();
+            return fillGaussian(op.z(), 0.0, (Double) args[1]).addi(means);
+        }
+
+        if (op instanceof BernoulliDistribution) {
+            if (op.x() == null)
+                return fillBernoulli(op.z(), (Double) args[0]);
+            // per-element probabilities are given as x
+            return fillBernoulli(op.z(), op.x());
+        }
+
+        if (op instanceof DropOut || op instanceof DropOutInverted) {
+            // p is the probability to keep each element, kept elements are scaled by 1/p for inverted dropout
+            double p = (Double) args[0];
+            INDArray mask = fill(Nd4j.createUninitialized(op.x().shape()), Fill.BERNOULLI, p,
+                            op instanceof DropOut ? 1.0 : 1.0 / p);
+            return op.x().mul(mask, op.z());
+        }
+
+        throw new UnsupportedOperationException("Op " + op.name() + " isn't supported by " + getClass().getSimpleName()
+                        + ", please use one of NativeRandom classes");
+    }
+
+    /**
+     * This method returns pointer to RNG state structure.
+     * Please note: CounterBasedRandom implementation returns NULL here, random ops are executed in java instead
+     *
+     * @return
+     */
+    @Override
+    public Pointer getStatePointer() {
+        return null;
+    }
+
+    /**
+     * This method returns pointer to RNG buffer
+     *
+     * @return
+     */
+    @Override
+    public DataBuffer getStateBuffer() {
+        return null;
+    }
+
+    @Override
+    public void close() throws Exception {
+        //
+    }
+
+    /**
+     * Identical to setSeed(System.currentTimeMillis());
+     */
+    @Override
+    public void reSeed() {
+        reSeed(System.currentTimeMillis());
+    }
+
+    /**
+     * Identical to setSeed(seed);
+     *
+     * @param seed
+     */
+    @Override
+    public void reSeed(long seed) {
+        setSeed(seed);
+    }
+
+    private long next() {
+        return bits(counter.getAndIncrement());
+    }
+
+    private long bits(long index) {
+        long[] out = block.get();
+        philox(seed, stream, index, out);
+        return out[0];
+    }
+
+    /**
+     * Philox4x32-10 block function: counter is (index, stream), key is seed, 128 output bits go to out.
+     *
+     * Counter words are (low index, high index, low stream, high stream), key words are (low seed, high seed).
+     * Output words 0 and 1 go to out[0], words 2 and 3 to out[1], first word in the high bits.
+     *
+     * @param seed key
+     * @param stream high 64 bits of the counter
+     * @param index low 64 bits of the counter
+     * @param out array of length 2 for the output block
+     */
+    public static void philox(long seed, long stream, long index, long[] out) {
+        int c0 = (int) index;
+        int c1 = (int) (index >>> 32);
+        int c2 = (int) stream;
+        int c3 = (int) (stream >>> 32);
+        int k0 = (int) seed;
+        int k1 = (int) (seed >>> 32);
+
+        for (int r = 0; r < ROUNDS; r++) {
+            long p0 = M0 * (c0 & 0xFFFFFFFFL);
+            long p1 = M1 * (c2 & 0xFFFFFFFFL);
+            int n0 = (int) (p1 >>> 32) ^ c1 ^ k0;
+            int n2 = (int) (p0 >>> 32) ^ c3 ^ k1;
+            c1 = (int) p1;
+            c3 = (int) p0;
+            c0 = n0;
+            c2 = n2;
+            k0 += W0;
+            k1 += W1;
+        }
+
+        out[0] = ((long) c0 << 32) | (c1 & 0xFFFFFFFFL);
+        out[1] = ((long) c2 << 32) | (c3 & 0xFFFFFFFFL);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Conversion of one block of random bits to array element
+     */
+    private enum Fill {
+        UNIFORM {
+            @Override
+            double convert(long w0, long w1, double a, double b) {
+                double u = (w0 >>> 11) * DOUBLE_UNIT;
+                return u * b + (1 - u) * a;
+            }
+        },
+        FLOAT {
+            @Override
+            double convert(long w0, long w1, double a, double b) {
+                return (w0 >>> 40) * FLOAT_UNIT;
+            }
+        },
+        GAUSSIAN {
+            @Override
+            double convert(long w0, long w1, double a, double b) {
+                // Box-Muller, u1 is in (0, 1] to keep log finite
+                double u1 = ((w0 >>> 11) + 1) * DOUBLE_UNIT;
+                double u2 = (w1 >>> 11) * DOUBLE_UNIT;
+                return a + b * Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+            }
+        },
+        BERNOULLI {
+            @Override
+            double convert(long w0, long w1, double a, double b) {
+                return (w0 >>> 11) * DOUBLE_UNIT < a ? b : 0.0;
+            }
+        },
+        INT {
+            @Override
+            double convert(long w0, long w1, double a, double b) {
+                return (int) (w0 >>> 32);
+            }
+        },
+        BOUNDED_INT {
+            @Override
+            double convert(long w0, long w1, double a, double b) {
+                return (w0 >>> 1) % (long) a;
+            }
+        };
+
+        abstract double convert(long w0, long w1, double a, double b);
+
+        double value(long index, CounterBasedRandom rng, double a, double b) {
+            long[] block = rng.block.get();
+            philox(rng.seed, rng.stream, index, block);
+            return convert(block[0], block[1], a, b);
+        }
+    }
+
+    /**
+     * Fills target with values for consecutive positions, starting at the current one, in 'c' order.
+     * Positions are reserved up front, so concurrent calls get distinct ranges.
+     */
+    private INDArray fill(final INDArray target, final Fill fill, final double a, final double b) {
+        if (target.isSparse())
+            throw new UnsupportedOperationException("Sparse arrays can't be filled");
+
+        final int length = target.length();
+        final long start = counter.getAndAdd(length);
+        final long seed = this.seed;
+
+        // chunks are copied in array ordering, so anything but a contiguous 'c' array goes through a copy
+        boolean direct = target.ordering() == 'c' && !target.isView();
+        INDArray buffer = direct ? target : Nd4j.createUninitialized(target.shape(), 'c');
+        final INDArray flat = buffer.reshape('c', 1, length);
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        int tasks = length < MIN_PARALLEL_ELEMENTS ? 1 : threads;
+        int perTask = (length + tasks - 1) / tasks;
+
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int from = 0; from < length; from += perTask) {
+            final int lo = from;
+            final int hi = Math.min(length, from + perTask);
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    fillRange(flat, lo, hi, start, seed, fill, a, b);
+                }
+            };
+
+            if (hi == length)
+                // last task runs in the calling thread
+                task.run();
+            else
+                futures.add(ExecutorServiceProvider.getExecutorService().submit(task));
+        }
+
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ND4JIllegalStateException("Interrupted while generating random values", e);
+        } catch (ExecutionException e) {
+            throw new ND4JIllegalStateException("Random values generation failed", e.getCause());
+        }
+
+        if (!direct)
+            target.assign(buffer);
+        return target;
+    }
+
+    private void fillRange(INDArray flat, int from, int to, long start, long seed, Fill fill, double a, double b) {
+        double[] values = new double[Math.min(to - from, CHUNK_ELEMENTS)];
+        long[] block = new long[2];
+        for (int lo = from; lo < to; lo += values.length) {
+            int hi = Math.min(to, lo + values.length);
+            for (int i = lo; i < hi; i++) {
+                philox(seed, stream, start + i, block);
+                values[i - lo] = fill.convert(block[0], block[1], a, b);
+            }
+
+            INDArray chunk = lo == 0 && hi == flat.length() ? flat
+                            : flat.get(NDArrayIndex.point(0), NDArrayIndex.interval(lo, hi));
+            chunk.copyFrom(values, 0);
+        }
+    }
+}
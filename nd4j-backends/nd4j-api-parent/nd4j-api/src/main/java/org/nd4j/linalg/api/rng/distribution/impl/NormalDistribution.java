@@ -28,6 +28,7 @@ import org.apache.commons.math3.util.FastMath;
 import org.nd4j.linalg.api.iter.NdIndexIterator;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.random.impl.GaussianDistribution;
+import org.nd4j.linalg.api.rng.CounterBasedRandom;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.api.rng.distribution.BaseDistribution;
 import org.nd4j.linalg.factory.Nd4j;
@@ -337,6 +338,11 @@ public class NormalDistribution extends BaseDistribution {
                 return Nd4j.getExecutioner().exec(new GaussianDistribution(
                                 Nd4j.createUninitialized(shape, Nd4j.order()), mean, standardDeviation), random);
             }
+        } else if (random instanceof CounterBasedRandom) {
+            INDArray ret = Nd4j.createUninitialized(shape, Nd4j.order());
+            if (means != null)
+                return ((CounterBasedRandom) random).fillGaussian(ret, 0.0, standardDeviation).addi(means);
+            return ((CounterBasedRandom) random).fillGaussian(ret, mean, standardDeviation);
         } else {
             INDArray ret = Nd4j.createUninitialized(shape, Nd4j.order());
             Iterator<int[]> idxIter = new NdIndexIterator(shape); //For consistent values irrespective of c vs. fortran ordering
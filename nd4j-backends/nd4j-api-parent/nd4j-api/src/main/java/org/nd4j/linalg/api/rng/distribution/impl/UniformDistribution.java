@@ -24,6 +24,7 @@ import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
 import org.nd4j.linalg.api.iter.NdIndexIterator;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.rng.CounterBasedRandom;
 import org.nd4j.linalg.api.rng.distribution.BaseDistribution;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -195,6 +196,9 @@ public class UniformDistribution extends BaseDistribution {
         if (random.getStatePointer() != null) {
             return Nd4j.getExecutioner().exec(new org.nd4j.linalg.api.ops.random.impl.UniformDistribution(
                             Nd4j.createUninitialized(shape, Nd4j.order()), lower, upper), random);
+        } else if (random instanceof CounterBasedRandom) {
+            return ((CounterBasedRandom) random).fillUniform(Nd4j.createUninitialized(shape, Nd4j.order()), lower,
+                            upper);
         } else {
             INDArray ret = Nd4j.createUninitialized(shape, Nd4j.order());
             Iterator<int[]> idxIter = new NdIndexIterator(shape); //For consistent values irrespective of c vs. fortran ordering
@@ -1678,6 +1678,20 @@ public class Shape {
         return ret;
     }
 
+    /**
+     * Gets the length given the shape info buffer, for arrays that may have more than Integer.MAX_VALUE elements
+     * @param buffer the shape info buffer
+     * @return the length of the array
+     */
+    public static long lengthLong(DataBuffer buffer) {
+        long ret = 1;
+        DataBuffer shape = Shape.shapeOf(buffer);
+        int rank = Shape.rank(buffer);
+        for (int i = 0; i < rank; i++)
+            ret *= shape.getInt(i);
+        return ret;
+    }
+
     /**
      * Gets the rank given the shape info buffer
      * @param buffer the buffer to get the rank for
@@ -0,0 +1,236 @@
+package org.nd4j.linalg.cache;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class holds result arrays for ops executed in "steady-state" mode,
+ * see {@link org.nd4j.linalg.api.ops.executioner.OpExecutioner#enableSteadyStateMode(boolean)}.
+ *
+ * Idea: in inference loops the same op is executed with the same input shapes over and over,
+ * so result array (and its shape info) for op/input shape/dimensions combination can be allocated once,
+ * and reused on each subsequent invocation on the same thread.
+ *
+ * Lookups of already cached results don't allocate: the key is hashed and compared straight from
+ * the shape info buffer of op input, through a per-thread probe key. Keys are only copied when a new result is cached.
+ *
+ * PLEASE NOTE: cached result is overwritten by the next invocation with the same key on the same thread.
+ * Use dup() if result has to outlive that. This includes expressions with two such reductions,
+ * i.e. in {@code a.sum(1).addi(b.sum(1))} both sides are the same array when a and b have the same shape,
+ * so the result is twice b.sum(1). Write {@code a.sum(1).dup().addi(b.sum(1))} instead.
+ *
+ * If a workspace is open on the current thread, results aren't cached here:
+ * the workspace already recycles memory between iterations, and it's the workspace that defines result lifetime.
+ */
+public class OpResultCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // separates shape info from dimensions, so that i.e. [1,2],[3] and [1],[2,3] hash differently
+    private static final long SEPARATOR = 0x9E3779B97F4A7C15L;
+
+    private final int maxEntries;
+    private final ThreadLocal<ThreadCache> cache = new ThreadLocal<>();
+
+    public OpResultCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries maximum number of cached results per thread. Least recently used results are evicted first
+     */
+    public OpResultCache(int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("Max entries should be positive: got " + maxEntries);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * This method returns result array for given op, creating it on first call
+     *
+     * @param op op to be executed
+     * @param dimension op dimensions, after normalization
+     * @param shape shape of the result array
+     * @return result array, or null if results shouldn't be cached: i.e. workspace is open
+     */
+    public INDArray getResult(Op op, int[] dimension, int[] shape) {
+        if (Nd4j.getMemoryManager().getCurrentWorkspace() != null)
+            return null;
+
+        ThreadCache thread = getThreadCache();
+        ResultKey probe = thread.probe;
+        probe.set(op.getClass(), op.opNum(), op.x().data().dataType(), op.x().shapeInfoDataBuffer(), dimension);
+
+        INDArray result = thread.results.get(probe);
+        probe.release();
+
+        // op can't write into its own input
+        if (result != null && result != op.x() && result != op.y()) {
+            thread.hits++;
+            return result;
+        }
+
+        thread.misses++;
+        result = Nd4j.create(shape);
+        thread.results.put(probe.copy(op.x().shapeInfoDataBuffer(), dimension), result);
+
+        return result;
+    }
+
+    /**
+     * This method drops all results cached for the current thread
+     */
+    public void clear() {
+        if (cache.get() != null)
+            cache.get().results.clear();
+    }
+
+    /**
+     * @return number of results cached for the current thread
+     */
+    public int size() {
+        return cache.get() == null ? 0 : cache.get().results.size();
+    }
+
+    /**
+     * @return number of times cached result was reused on the current thread
+     */
+    public long getHits() {
+        return cache.get() == null ? 0 : cache.get().hits;
+    }
+
+    /**
+     * @return number of times result array had to be allocated on the current thread
+     */
+    public long getMisses() {
+        return cache.get() == null ? 0 : cache.get().misses;
+    }
+
+    private ThreadCache getThreadCache() {
+        ThreadCache thread = cache.get();
+        if (thread == null) {
+            thread = new ThreadCache(maxEntries);
+            cache.set(thread);
+        }
+
+        return thread;
+    }
+
+    /**
+     * Results cached on a single thread. Counters are per thread as well, so hot path doesn't touch shared state
+     */
+    private static class ThreadCache {
+        private final Map<ResultKey, INDArray> results;
+        private final ResultKey probe = new ResultKey();
+        private long hits;
+        private long misses;
+
+        private ThreadCache(final int maxEntries) {
+            results = new LinkedHashMap<ResultKey, INDArray>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ResultKey, INDArray> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    /**
+     * Key of a cached result. Stored keys hold a copy of the shape info, while the probe key used for lookups
+     * reads it from the buffer of op input; both compare equal when contents match.
+     */
+    private static class ResultKey {
+        private Class<?> opClass;
+        private int opNum;
+        private DataBuffer.Type dataType;
+        private int[] shapeInfo;
+        private DataBuffer shapeInfoBuffer;
+        private int length;
+        private int[] dimension;
+        private long hash;
+
+        private void set(Class<?> opClass, int opNum, DataBuffer.Type dataType, DataBuffer shapeInfoBuffer,
+                        int[] dimension) {
+            this.opClass = opClass;
+            this.opNum = opNum;
+            this.dataType = dataType;
+            this.shapeInfoBuffer = shapeInfoBuffer;
+            this.length = Shape.shapeInfoLength(shapeInfoBuffer.getInt(0));
+            this.dimension = dimension;
+
+            long h = FNV_OFFSET;
+            h = (h ^ System.identityHashCode(opClass)) * FNV_PRIME;
+            h = (h ^ opNum) * FNV_PRIME;
+            h = (h ^ dataType.ordinal()) * FNV_PRIME;
+            for (int e = 0; e < length; e++)
+                h = (h ^ shapeInfoBuffer.getInt(e)) * FNV_PRIME;
+            if (dimension != null) {
+                h = (h ^ SEPARATOR) * FNV_PRIME;
+                for (int d : dimension)
+                    h = (h ^ d) * FNV_PRIME;
+            }
+            this.hash = h;
+        }
+
+        /**
+         * Drops references to op arrays, so the probe doesn't keep them alive between calls
+         */
+        private void release() {
+            shapeInfoBuffer = null;
+            dimension = null;
+        }
+
+        /**
+         * @return stored key with the same contents as this probe
+         */
+        private ResultKey copy(DataBuffer shapeInfoBuffer, int[] dimension) {
+            ResultKey key = new ResultKey();
+            key.opClass = opClass;
+            key.opNum = opNum;
+            key.dataType = dataType;
+            key.length = length;
+            key.shapeInfo = new int[length];
+            for (int e = 0; e < length; e++)
+                key.shapeInfo[e] = shapeInfoBuffer.getInt(e);
+            key.dimension = dimension == null ? null : dimension.clone();
+            key.hash = hash;
+            return key;
+        }
+
+        private int shapeInfoAt(int e) {
+            return shapeInfo != null ? shapeInfo[e] : shapeInfoBuffer.getInt(e);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof ResultKey))
+                return false;
+
+            ResultKey other = (ResultKey) o;
+            if (hash != other.hash || opClass != other.opClass || opNum != other.opNum || dataType != other.dataType
+                            || length != other.length || !Arrays.equals(dimension, other.dimension))
+                return false;
+
+            for (int e = 0; e < length; e++)
+                if (shapeInfoAt(e) != other.shapeInfoAt(e))
+                    return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package org.nd4j.linalg.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded cache with segmented LRU eviction, used for TAD and constant buffers.
+ *
+ * New entries go into probation segment. Entry that gets hit while in probation is moved into protected segment,
+ * which takes up to {@code protectedFraction} of all entries. When protected segment is full, its least recently
+ * used entry is moved back to probation. Eviction always picks least recently used probation entry first,
+ * so hot descriptors stay cached while shapes seen only once (i.e. variable-length inputs) are cycled through probation.
+ * Protected entries are not pinned: they can be demoted, and evicted once they're back in probation.
+ *
+ * Both number of entries and their total size in bytes are bounded.
+ *
+ * Entries that must stay cached regardless of access pattern can be pinned with {@link #pin(Object)}.
+ * Pinned entries are kept outside of both segments, so they're never demoted or evicted, and they're accounted
+ * separately: limits above apply to unpinned entries only, and pinned entries don't take their space.
+ * {@link #unpin(Object)} returns entry to probation.
+ *
+ * Lookups go through a concurrent map and never block. Recency order is updated under a lock that lookups only
+ * try to take: if another thread holds it, the update is skipped, so under contention LRU order is approximate.
+ * Lookup key only has to be equal to the stored one: it's never stored itself, so callers may reuse a mutable
+ * key for lookups and create an immutable copy only for {@link #put(Object, Object, long)}.
+ *
+ * @param <K> key type, should implement equals()/hashCode()
+ * @param <V> value type
+ */
+public class SegmentedLruCache<K, V> {
+    public static final double DEFAULT_PROTECTED_FRACTION = 0.8;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int maxProtectedEntries;
+
+    // all entries, for lookups. Segments below hold the same entries, and are only accessed under the lock
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final LinkedHashMap<K, Entry<K, V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<K, V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Entry<K, V>> pinned = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong bytes = new AtomicLong(0);
+    private final AtomicLong pinnedBytes = new AtomicLong(0);
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong evictions = new AtomicLong(0);
+
+    public SegmentedLruCache(int maxEntries, long maxBytes) {
+        this(maxEntries, maxBytes, DEFAULT_PROTECTED_FRACTION);
+    }
+
+    /**
+     * @param maxEntries maximum number of cached entries
+     * @param maxBytes maximum total size of cached entries, in bytes
+     * @param protectedFraction fraction of entries reserved for protected segment, between 0 and 1
+     */
+    public SegmentedLruCache(int maxEntries, long maxBytes, double protectedFraction) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("Max entries should be positive: got " + maxEntries);
+        if (maxBytes < 1)
+            throw new IllegalArgumentException("Max bytes should be positive: got " + maxBytes);
+        if (protectedFraction < 0 || protectedFraction > 1)
+            throw new IllegalArgumentException("Protected fraction should be between 0 and 1: got " + protectedFraction);
+
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxProtectedEntries = (int) (maxEntries * protectedFraction);
+    }
+
+    /**
+     * This method returns cached value for given key, or null if there's none
+     *
+     * @param key
+     * @return
+     */
+    public V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        if (lock.tryLock()) {
+            try {
+                touch(entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return entry.value;
+    }
+
+    /**
+     * This method adds value to the cache, evicting least recently used entries if limits are exceeded.
+     * Values larger than max bytes are never cached. Replaced value of a pinned key stays pinned.
+     *
+     * @param key
+     * @param value
+     * @param sizeInBytes size of the value, used for byte accounting
+     */
+    public void put(K key, V value, long sizeInBytes) {
+        if (sizeInBytes > maxBytes)
+            return;
+
+        lock.lock();
+        try {
+            Entry<K, V> entry = new Entry<>(key, value, sizeInBytes);
+            Entry<K, V> previous = pinned.get(key);
+            if (previous != null) {
+                pinned.put(key, entry);
+                entries.put(key, entry);
+                pinnedBytes.addAndGet(sizeInBytes - previous.bytes);
+                return;
+            }
+
+            previous = probation.remove(key);
+            if (previous == null)
+                previous = protectedSegment.remove(key);
+            if (previous != null)
+                bytes.addAndGet(-previous.bytes);
+
+            probation.put(key, entry);
+            entries.put(key, entry);
+            bytes.addAndGet(sizeInBytes);
+
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method pins cached entry, so it's never evicted until {@link #unpin(Object)} is called.
+     * Pinned entries don't count towards max entries and max bytes.
+     *
+     * @param key
+     * @return true if entry is pinned, false if there's no entry for given key
+     */
+    public boolean pin(K key) {
+        lock.lock();
+        try {
+            if (pinned.containsKey(key))
+                return true;
+
+            Entry<K, V> entry = probation.remove(key);
+            if (entry == null)
+                entry = protectedSegment.remove(key);
+            if (entry == null)
+                return false;
+
+            pinned.put(key, entry);
+            bytes.addAndGet(-entry.bytes);
+            pinnedBytes.addAndGet(entry.bytes);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method returns pinned entry to probation segment, evicting least recently used entries
+     * if limits are exceeded
+     *
+     * @param key
+     * @return true if entry was pinned
+     */
+    public boolean unpin(K key) {
+        lock.lock();
+        try {
+            Entry<K, V> entry = pinned.remove(key);
+            if (entry == null)
+                return false;
+
+            pinnedBytes.addAndGet(-entry.bytes);
+            probation.put(key, entry);
+            bytes.addAndGet(entry.bytes);
+
+            evict();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method removes all cached entries, including pinned ones. Hit/miss counters are kept.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            probation.clear();
+            protectedSegment.clear();
+            pinned.clear();
+            bytes.set(0);
+            pinnedBytes.set(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of cached entries, including pinned ones
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of entries in protected segment
+     */
+    public int protectedSize() {
+        lock.lock();
+        try {
+            return protectedSegment.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of pinned entries
+     */
+    public int pinnedSize() {
+        lock.lock();
+        try {
+            return pinned.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return total size of cached entries, in bytes, including pinned ones
+     */
+    public long getCachedBytes() {
+        return bytes.get() + pinnedBytes.get();
+    }
+
+    /**
+     * @return total size of pinned entries, in bytes
+     */
+    public long getPinnedBytes() {
+        return pinnedBytes.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Evicts least recently used unpinned entries, probation first, until limits are met.
+     * Should be called under the lock
+     */
+    private void evict() {
+        while (probation.size() + protectedSegment.size() > maxEntries || bytes.get() > maxBytes) {
+            LinkedHashMap<K, Entry<K, V>> segment = probation.isEmpty() ? protectedSegment : probation;
+            Iterator<Map.Entry<K, Entry<K, V>>> iterator = segment.entrySet().iterator();
+            Map.Entry<K, Entry<K, V>> eldest = iterator.next();
+            iterator.remove();
+            entries.remove(eldest.getKey());
+
+            bytes.addAndGet(-eldest.getValue().bytes);
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Moves entry that was just hit within recency order, promoting it from probation if needed.
+     * Should be called under the lock
+     */
+    private void touch(Entry<K, V> entry) {
+        K key = entry.key;
+        // entry could be replaced, evicted or pinned after lookup, and before the lock was taken
+        if (protectedSegment.get(key) == entry)
+            return;
+        if (probation.get(key) != entry || maxProtectedEntries == 0)
+            return;
+
+        probation.remove(key);
+        protectedSegment.put(key, entry);
+        if (protectedSegment.size() > maxProtectedEntries) {
+            // demote least recently used protected entry
+            Iterator<Map.Entry<K, Entry<K, V>>> iterator = protectedSegment.entrySet().iterator();
+            Map.Entry<K, Entry<K, V>> eldest = iterator.next();
+            iterator.remove();
+            probation.put(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long bytes;
+
+        private Entry(K key, V value, long bytes) {
+            this.key = key;
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
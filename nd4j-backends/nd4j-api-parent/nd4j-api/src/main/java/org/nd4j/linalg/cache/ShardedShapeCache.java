@@ -0,0 +1,336 @@
+package org.nd4j.linalg.cache;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.shape.Shape;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache for values keyed by shape information (or any other int array) plus optional dimensions, i.e. TADs.
+ *
+ * Lookups go through two levels:
+ * - per-thread front cache: small open-addressing table, keyed by precomputed 64-bit hash of the key contents.
+ *   It's accessed without any locks, and doesn't allocate: shape information is hashed and compared straight
+ *   from the DataBuffer, without building descriptor objects.
+ * - shared cache, split into {@link SegmentedLruCache} shards by key hash, so threads missing the front cache
+ *   only contend when they hit the same shard.
+ *
+ * Size bounds and byte accounting apply to the shared cache. Front caches hold up to {@link #FRONT_CACHE_SIZE}
+ * recently used values per thread. They're referenced only by their threads, so they go away with them;
+ * after {@link #clear()} each thread drops its front cache entries on its next lookup.
+ *
+ * @param <V> value type
+ */
+public class ShardedShapeCache<V> {
+    public static final int DEFAULT_SHARDS = 16;
+    public static final int FRONT_CACHE_SIZE = 64;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // separates key contents from dimensions, so that i.e. [1,2],[3] and [1],[2,3] hash differently
+    private static final long SEPARATOR = 0x9E3779B97F4A7C15L;
+    // front hits are counted in stripes by thread id, 8 longs apart so that stripes don't share cache lines
+    private static final int HIT_STRIPES = 32;
+    private static final int STRIPE_PADDING = 8;
+
+    private final SegmentedLruCache<ShapeKey, V>[] shards;
+    private final ThreadLocal<FrontCache<V>> frontCaches = new ThreadLocal<>();
+    private final AtomicLongArray frontHits = new AtomicLongArray(HIT_STRIPES * STRIPE_PADDING);
+    // front caches from older generations are emptied on next lookup, so clear() doesn't need to reach other threads
+    private final AtomicLong generation = new AtomicLong(0);
+
+    public ShardedShapeCache(int maxEntries, long maxBytes) {
+        this(maxEntries, maxBytes, DEFAULT_SHARDS);
+    }
+
+    /**
+     * @param maxEntries maximum number of entries in shared cache, split evenly between shards
+     * @param maxBytes maximum total size of entries in shared cache, split evenly between shards
+     * @param numShards number of shards, should be power of 2
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedShapeCache(int maxEntries, long maxBytes, int numShards) {
+        if (numShards < 1 || Integer.bitCount(numShards) != 1)
+            throw new IllegalArgumentException("Number of shards should be power of 2: got " + numShards);
+
+        shards = new SegmentedLruCache[numShards];
+        for (int i = 0; i < numShards; i++)
+            shards[i] = new SegmentedLruCache<>(Math.max(1, maxEntries / numShards), Math.max(1, maxBytes / numShards));
+    }
+
+    /**
+     * This method returns value cached for given shape information and dimensions, or null if there's none
+     *
+     * @param shapeInfo shape information buffer
+     * @param dimension dimensions, may be null
+     * @return
+     */
+    public V get(DataBuffer shapeInfo, int[] dimension) {
+        int length = Shape.shapeInfoLength(shapeInfo.getInt(0));
+        long hash = hash(shapeInfo, length, dimension);
+
+        long gen = generation.get();
+        FrontCache<V> front = getFrontCache(gen);
+        int idx = (int) (hash ^ (hash >>> 32)) & (FRONT_CACHE_SIZE - 1);
+        for (int i = 0; i < 2; i++) {
+            Slot<V> slot = front.slots[idx ^ i];
+            if (slot != null && slot.hash == hash && slot.matches(shapeInfo, length, dimension)) {
+                slot.lastUsed = ++front.clock;
+                frontHits.incrementAndGet(front.stripe);
+                return slot.value;
+            }
+        }
+
+        int[] key = new int[length];
+        for (int e = 0; e < length; e++)
+            key[e] = shapeInfo.getInt(e);
+
+        return getShared(front, new ShapeKey(key, dimension == null ? null : dimension.clone(), hash), idx);
+    }
+
+    /**
+     * This method returns value cached for given array contents, or null if there's none
+     *
+     * @param array
+     * @return
+     */
+    public V get(int[] array) {
+        long hash = hash(array, null);
+
+        long gen = generation.get();
+        FrontCache<V> front = getFrontCache(gen);
+        int idx = (int) (hash ^ (hash >>> 32)) & (FRONT_CACHE_SIZE - 1);
+        for (int i = 0; i < 2; i++) {
+            Slot<V> slot = front.slots[idx ^ i];
+            if (slot != null && slot.hash == hash && slot.dimension == null
+                            && Arrays.equals(slot.key, array)) {
+                slot.lastUsed = ++front.clock;
+                frontHits.incrementAndGet(front.stripe);
+                return slot.value;
+            }
+        }
+
+        return getShared(front, new ShapeKey(array.clone(), null, hash), idx);
+    }
+
+    /**
+     * This method adds value for given shape information and dimensions
+     *
+     * @param shapeInfo shape information buffer
+     * @param dimension dimensions, may be null
+     * @param value
+     * @param sizeInBytes size of the value, used for byte accounting
+     */
+    public void put(DataBuffer shapeInfo, int[] dimension, V value, long sizeInBytes) {
+        int length = Shape.shapeInfoLength(shapeInfo.getInt(0));
+        int[] key = new int[length];
+        for (int e = 0; e < length; e++)
+            key[e] = shapeInfo.getInt(e);
+
+        put(new ShapeKey(key, dimension == null ? null : dimension.clone(), hash(key, dimension)), value, sizeInBytes);
+    }
+
+    /**
+     * This method adds value for given array contents
+     *
+     * @param array
+     * @param value
+     * @param sizeInBytes size of the value, used for byte accounting
+     */
+    public void put(int[] array, V value, long sizeInBytes) {
+        put(new ShapeKey(array.clone(), null, hash(array, null)), value, sizeInBytes);
+    }
+
+    /**
+     * This method removes all cached entries, in shared cache and in front caches of all threads
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        for (SegmentedLruCache<ShapeKey, V> shard : shards)
+            shard.clear();
+    }
+
+    /**
+     * @return number of entries in shared cache
+     */
+    public int size() {
+        int size = 0;
+        for (SegmentedLruCache<ShapeKey, V> shard : shards)
+            size += shard.size();
+        return size;
+    }
+
+    /**
+     * @return total size of entries in shared cache, in bytes
+     */
+    public long getCachedBytes() {
+        long bytes = 0;
+        for (SegmentedLruCache<ShapeKey, V> shard : shards)
+            bytes += shard.getCachedBytes();
+        return bytes;
+    }
+
+    /**
+     * @return number of lookups served by front caches, summed over all threads
+     */
+    public long getFrontHits() {
+        long hits = 0;
+        for (int i = 0; i < HIT_STRIPES; i++)
+            hits += frontHits.get(i * STRIPE_PADDING);
+        return hits;
+    }
+
+    /**
+     * @return number of lookups served by shared cache, front cache hits are not included
+     */
+    public long getHits() {
+        long hits = 0;
+        for (SegmentedLruCache<ShapeKey, V> shard : shards)
+            hits += shard.getHits();
+        return hits;
+    }
+
+    /**
+     * @return number of lookups that missed both front and shared cache
+     */
+    public long getMisses() {
+        long misses = 0;
+        for (SegmentedLruCache<ShapeKey, V> shard : shards)
+            misses += shard.getMisses();
+        return misses;
+    }
+
+    private V getShared(FrontCache<V> front, ShapeKey key, int idx) {
+        V value = shard(key.hash).get(key);
+        if (value != null) {
+            // evict least recently used of two candidate slots
+            Slot<V> first = front.slots[idx];
+            Slot<V> second = front.slots[idx ^ 1];
+            int target = first == null || (second != null && first.lastUsed <= second.lastUsed) ? idx : idx ^ 1;
+            front.slots[target] = new Slot<>(key.hash, key.key, key.dimension, value, ++front.clock);
+        }
+        return value;
+    }
+
+    private void put(ShapeKey key, V value, long sizeInBytes) {
+        shard(key.hash).put(key, value, sizeInBytes);
+    }
+
+    private SegmentedLruCache<ShapeKey, V> shard(long hash) {
+        // FNV barely changes high bits for small key elements, so the hash is mixed before picking a shard
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return shards[(int) (hash >>> 32) & (shards.length - 1)];
+    }
+
+    private FrontCache<V> getFrontCache(long gen) {
+        FrontCache<V> front = frontCaches.get();
+        if (front == null) {
+            int stripe = (int) Thread.currentThread().getId() & (HIT_STRIPES - 1);
+            front = new FrontCache<>(stripe * STRIPE_PADDING, gen);
+            frontCaches.set(front);
+        } else if (front.generation != gen) {
+            // values may hold off-heap memory, so entries dropped by clear() aren't kept around
+            Arrays.fill(front.slots, null);
+            front.generation = gen;
+        }
+        return front;
+    }
+
+    private static long hash(DataBuffer shapeInfo, int length, int[] dimension) {
+        long hash = FNV_OFFSET;
+        for (int e = 0; e < length; e++)
+            hash = (hash ^ shapeInfo.getInt(e)) * FNV_PRIME;
+        return hashDimension(hash, dimension);
+    }
+
+    private static long hash(int[] array, int[] dimension) {
+        long hash = FNV_OFFSET;
+        for (int e = 0; e < array.length; e++)
+            hash = (hash ^ array[e]) * FNV_PRIME;
+        return hashDimension(hash, dimension);
+    }
+
+    private static long hashDimension(long hash, int[] dimension) {
+        if (dimension == null)
+            return hash;
+
+        hash = (hash ^ SEPARATOR) * FNV_PRIME;
+        // dimensions are packed two per long
+        for (int e = 0; e < dimension.length; e += 2) {
+            long packed = ((long) dimension[e] << 32) | (e + 1 < dimension.length ? dimension[e + 1] & 0xFFFFFFFFL : 0xFFFFFFFFL);
+            hash = (hash ^ packed) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static class ShapeKey {
+        private final int[] key;
+        private final int[] dimension;
+        private final long hash;
+
+        private ShapeKey(int[] key, int[] dimension, long hash) {
+            this.key = key;
+            this.dimension = dimension;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof ShapeKey))
+                return false;
+
+            ShapeKey other = (ShapeKey) o;
+            return hash == other.hash && Arrays.equals(key, other.key) && Arrays.equals(dimension, other.dimension);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+
+    private static class Slot<V> {
+        private final long hash;
+        private final int[] key;
+        private final int[] dimension;
+        private final V value;
+        private long lastUsed;
+
+        private Slot(long hash, int[] key, int[] dimension, V value, long lastUsed) {
+            this.hash = hash;
+            this.key = key;
+            this.dimension = dimension;
+            this.value = value;
+            this.lastUsed = lastUsed;
+        }
+
+        private boolean matches(DataBuffer shapeInfo, int length, int[] dimension) {
+            if (key.length != length || !Arrays.equals(this.dimension, dimension))
+                return false;
+
+            for (int e = 0; e < length; e++)
+                if (key[e] != shapeInfo.getInt(e))
+                    return false;
+
+            return true;
+        }
+    }
+
+    private static class FrontCache<V> {
+        @SuppressWarnings("unchecked")
+        private final Slot<V>[] slots = new Slot[FRONT_CACHE_SIZE];
+        private final int stripe;
+        private long generation;
+        private long clock;
+
+        private FrontCache(int stripe, long generation) {
+            this.stripe = stripe;
+            this.generation = generation;
+        }
+    }
+}
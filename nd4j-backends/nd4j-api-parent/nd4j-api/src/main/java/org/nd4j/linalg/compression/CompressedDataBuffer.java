@@ -49,8 +49,7 @@ public class CompressedDataBuffer extends BaseDataBuffer {
     public void write(DataOutputStream out) throws IOException {
         //        logger.info("Writing out CompressedDataBuffer");
         // here we should mimic to usual DataBuffer array
-        out.writeUTF(allocationMode.name());
-        out.writeInt((int) compressionDescriptor.getCompressedLength());
+        writeHeader(out, allocationMode, compressionDescriptor.getCompressedLength());
         out.writeUTF(Type.COMPRESSED.name());
         // at this moment we don't care about mimics anymore
         //ByteRawIndexer indexer = new ByteRawIndexer((BytePointer) pointer);
@@ -59,10 +58,7 @@ public class CompressedDataBuffer extends BaseDataBuffer {
         out.writeLong(compressionDescriptor.getOriginalLength());
         out.writeLong(compressionDescriptor.getNumberOfElements());
         //        out.write(((BytePointer) pointer).getStringBytes());
-        for (int x = 0; x < pointer.capacity() * pointer.sizeof(); x++) {
-            byte b = pointer.asByteBuffer().get(x);
-            out.writeByte(b);
-        }
+        writeBlocks(out, pointer, pointer.capacity() * pointer.sizeof(), 1);
     }
 
     @Override
@@ -90,12 +86,8 @@ public class CompressedDataBuffer extends BaseDataBuffer {
                 long originalLength = s.readLong();
                 long numberOfElements = s.readLong();
 
-                byte[] temp = new byte[(int) compressedLength];
-                for (int i = 0; i < compressedLength; i++) {
-                    temp[i] = s.readByte();
-                }
-
-                try (Pointer pointer = new BytePointer(temp)) {
+                try (Pointer pointer = new BytePointer(compressedLength)) {
+                    readBlocks(s, pointer, compressedLength, 1);
                     CompressionDescriptor descriptor = new CompressionDescriptor();
                     descriptor.setCompressedLength(compressedLength);
                     descriptor.setCompressionAlgorithm(compressionAlgorithm);
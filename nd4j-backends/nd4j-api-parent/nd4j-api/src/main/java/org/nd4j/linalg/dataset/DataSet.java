@@ -56,7 +56,7 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
 
     private static final long serialVersionUID = 1935520764586513365L;
 
-    private static final byte BITMASK_FEATURES_PRESENT = 1;
+    static final byte BITMASK_FEATURES_PRESENT = 1;
     private static final byte BITMASK_LABELS_PRESENT = 1 << 1;
     private static final byte BITMASK_LABELS_SAME_AS_FEATURES = 1 << 2;
     private static final byte BITMASK_FEATURE_MASK_PRESENT = 1 << 3;
@@ -632,14 +632,27 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
     }
 
     /**
-     * Gets a copy of example i
+     * Gets a copy of the examples at the given indices, in the given order (indices may repeat).
+     * Features, labels and masks of any rank are gathered with a single native op per array.
      *
-     * @param i the example to getFromOrigin
-     * @return the example at i (one example)
+     * @param i the examples to getFromOrigin
+     * @return the examples at i
      */
     @Override
     public DataSet get(int[] i) {
-        return new DataSet(getFeatures().getRows(i), getLabels().getRows(i));
+        DataSet ret = new DataSet(DataSetUtil.pullExamples(getFeatures(), i),
+                        DataSetUtil.pullExamples(getLabels(), i),
+                        featuresMask != null ? DataSetUtil.pullExamples(featuresMask, i) : null,
+                        labelsMask != null ? DataSetUtil.pullExamples(labelsMask, i) : null);
+        if (exampleMetaData != null && exampleMetaData.size() == numExamples()) {
+            List<Serializable> meta = new ArrayList<>(i.length);
+            for (int idx : i)
+                meta.add(exampleMetaData.get(idx));
+            ret.setExampleMetaData(meta);
+        }
+        ret.setColumnNames(getColumnNames());
+        ret.setLabelNames(getLabelNames());
+        return ret;
     }
 
     /**
@@ -652,8 +665,8 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
     @Override
     public List<DataSet> batchBy(int num) {
         List<DataSet> batched = Lists.newArrayList();
-        for (List<DataSet> splitBatch : Lists.partition(asList(), num)) {
-            batched.add(DataSet.merge(splitBatch));
+        for (int from = 0; from < numExamples(); from += num) {
+            batched.add(get(ArrayUtil.range(from, Math.min(from + num, numExamples()))));
         }
         return batched;
     }
@@ -734,12 +747,7 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
      */
     @Override
     public List<DataSet> dataSetBatches(int num) {
-        List<List<DataSet>> list = Lists.partition(asList(), num);
-        List<DataSet> ret = new ArrayList<>();
-        for (List<DataSet> l : list)
-            ret.add(DataSet.merge(l));
-        return ret;
-
+        return batchBy(num);
     }
 
     /**
@@ -1110,20 +1118,23 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
      */
     @Override
     public DataSet sample(int numSamples, org.nd4j.linalg.api.rng.Random rng, boolean withReplacement) {
-        INDArray examples = Nd4j.create(numSamples, getFeatures().columns());
-        INDArray outcomes = Nd4j.create(numSamples, numOutcomes());
+        if (!withReplacement && numSamples > numExamples())
+            throw new IllegalArgumentException("Can't sample " + numSamples + " distinct examples out of "
+                            + numExamples() + " without replacement");
+
+        int[] picked = new int[numSamples];
         Set<Integer> added = new HashSet<>();
         for (int i = 0; i < numSamples; i++) {
-            int picked = rng.nextInt(numExamples());
-            if (!withReplacement)
-                while (added.contains(picked))
-                    picked = rng.nextInt(numExamples());
-
-
-            examples.putRow(i, get(picked).getFeatures());
-            outcomes.putRow(i, get(picked).getLabels());
-
+            picked[i] = rng.nextInt(numExamples());
+            if (!withReplacement) {
+                while (added.contains(picked[i]))
+                    picked[i] = rng.nextInt(numExamples());
+                added.add(picked[i]);
+            }
         }
+
+        INDArray examples = DataSetUtil.pullExamples(getFeatures(), picked);
+        INDArray outcomes = DataSetUtil.pullExamples(getLabels(), picked);
         return new DataSet(examples, outcomes);
 
     }
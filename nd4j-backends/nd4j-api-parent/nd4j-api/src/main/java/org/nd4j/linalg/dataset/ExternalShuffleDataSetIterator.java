@@ -0,0 +1,437 @@
+package org.nd4j.linalg.dataset;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Iterate over a directory of saved {@link DataSet} files (for example, the output of
+ * {@link MiniBatchFileDataSetIterator} or {@link DataSet#save(File)}) in a globally shuffled order,
+ * without ever holding the whole data set in memory.<br>
+ * Each epoch:
+ * - the file order is shuffled
+ * - files are read ahead in parallel by up to {@code numReaders} readers, on threads owned by this iterator
+ * - up to {@link #INTERLEAVED_FILES} files are open at a time, and the shuffle buffer is topped up one example
+ *   at a time from a randomly chosen open file (a uniformly random merge), so examples of different files are
+ *   interleaved even when files are larger than the buffer
+ * - every minibatch is assembled by drawing examples uniformly at random from the shuffle buffer
+ * <p>
+ * Memory use is bounded by {@code shuffleBufferSize} examples, plus up to {@link #INTERLEAVED_FILES} open files
+ * and {@code numReaders} files in flight.
+ * The output depends only on the seed and the epoch number (not on the number of readers or on timing),
+ * so runs are reproducible. Calling {@link #reset()} starts the next epoch with a different order.
+ * <p>
+ * {@link #totalExamples()} and {@link #inputColumns()} read only the headers of the files;
+ * {@link #totalOutcomes()} loads the first file.
+ */
+public class ExternalShuffleDataSetIterator implements DataSetIterator {
+    public static final int DEFAULT_SHUFFLE_BUFFER_SIZE = 10000;
+    public static final int DEFAULT_NUM_READERS = 2;
+    public static final int INTERLEAVED_FILES = 4;
+
+    private final File[] files;
+    private final int batchSize;
+    private final int shuffleBufferSize;
+    private final int numReaders;
+    private final long seed;
+    @Getter
+    private int epoch = 0;
+    private int cursor = 0;
+    private DataSetPreProcessor preProcessor;
+
+    private transient Random rng;
+    private transient int[] fileOrder;
+    private transient int nextFile;
+    private transient LinkedList<Future<List<DataSet>>> pending;
+    // files being merged into the buffer, and the number of examples left in them
+    private transient List<LinkedList<DataSet>> openFiles;
+    private transient int openExamples;
+    private transient List<DataSet> buffer;
+    private transient ThreadPoolExecutor readers;
+
+    private transient int[] exampleCounts;
+    private transient int[] featuresShape;
+    private transient int totalOutcomes = -1;
+
+    /**
+     * @param rootDir   directory containing the saved DataSet files. All regular files in it are used
+     * @param batchSize number of examples per returned minibatch
+     * @param seed      seed for the file order and the example selection
+     */
+    public ExternalShuffleDataSetIterator(File rootDir, int batchSize, long seed) {
+        this(rootDir, batchSize, DEFAULT_SHUFFLE_BUFFER_SIZE, DEFAULT_NUM_READERS, seed);
+    }
+
+    /**
+     * @param rootDir           directory containing the saved DataSet files. All regular files in it are used
+     * @param batchSize         number of examples per returned minibatch
+     * @param shuffleBufferSize number of examples to keep in the shuffle buffer. Larger values give a better
+     *                          shuffle at the cost of memory
+     * @param numReaders        number of files to read ahead in parallel
+     * @param seed              seed for the file order and the example selection
+     */
+    public ExternalShuffleDataSetIterator(@NonNull File rootDir, int batchSize, int shuffleBufferSize, int numReaders,
+                    long seed) {
+        this(listFiles(rootDir), batchSize, shuffleBufferSize, numReaders, seed);
+    }
+
+    /**
+     * @param files             the saved DataSet files to iterate over
+     * @param batchSize         number of examples per returned minibatch
+     * @param shuffleBufferSize number of examples to keep in the shuffle buffer. Larger values give a better
+     *                          shuffle at the cost of memory
+     * @param numReaders        number of files to read ahead in parallel
+     * @param seed              seed for the file order and the example selection
+     */
+    public ExternalShuffleDataSetIterator(@NonNull File[] files, int batchSize, int shuffleBufferSize, int numReaders,
+                    long seed) {
+        if (files.length == 0)
+            throw new IllegalArgumentException("No DataSet files to iterate over");
+        if (batchSize < 1 || shuffleBufferSize < 1 || numReaders < 1)
+            throw new IllegalArgumentException("Batch size, shuffle buffer size and number of readers must be positive:"
+                            + " got " + batchSize + ", " + shuffleBufferSize + ", " + numReaders);
+
+        this.files = files;
+        this.batchSize = batchSize;
+        this.shuffleBufferSize = shuffleBufferSize;
+        this.numReaders = numReaders;
+        this.seed = seed;
+    }
+
+    private static File[] listFiles(File rootDir) {
+        File[] files = rootDir.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile();
+            }
+        });
+        if (files == null)
+            throw new IllegalArgumentException("Not a directory: " + rootDir.getAbsolutePath());
+
+        // Sorted, so the epoch order depends on the seed only and not on the file system listing order
+        Arrays.sort(files);
+        return files;
+    }
+
+    private void initEpoch() {
+        rng = new Random(epochSeed(seed, epoch));
+        fileOrder = new int[files.length];
+        for (int i = 0; i < fileOrder.length; i++)
+            fileOrder[i] = i;
+        for (int i = fileOrder.length - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = fileOrder[i];
+            fileOrder[i] = fileOrder[j];
+            fileOrder[j] = tmp;
+        }
+
+        nextFile = 0;
+        cursor = 0;
+        pending = new LinkedList<>();
+        openFiles = new ArrayList<>(INTERLEAVED_FILES);
+        openExamples = 0;
+        buffer = new ArrayList<>(shuffleBufferSize);
+    }
+
+    /**
+     * Seed of an epoch's Random. Seeds of consecutive epochs are mixed (SplitMix64 finalizer), since
+     * java.util.Random instances with consecutive seeds produce correlated sequences
+     */
+    private static long epochSeed(long seed, int epoch) {
+        long z = seed + (epoch + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Readers are private to this iterator, so that reset() can cancel reads without interrupting other users
+     * of a shared pool. Idle readers time out, so an abandoned iterator doesn't keep threads alive
+     */
+    private ThreadPoolExecutor readers() {
+        if (readers == null) {
+            readers = new ThreadPoolExecutor(numReaders, numReaders, 60L, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                                @Override
+                                public Thread newThread(Runnable r) {
+                                    Thread t = Executors.defaultThreadFactory().newThread(r);
+                                    t.setDaemon(true);
+                                    return t;
+                                }
+                            });
+            readers.allowCoreThreadTimeOut(true);
+        }
+        return readers;
+    }
+
+    private void submitReads() {
+        while (pending.size() < numReaders && nextFile < fileOrder.length) {
+            final File file = files[fileOrder[nextFile++]];
+            pending.add(readers().submit(new Callable<List<DataSet>>() {
+                @Override
+                public List<DataSet> call() throws Exception {
+                    return readExamples(file);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Load a file and split it into detached single-example DataSets, so that the file contents can be released
+     * as soon as the file is read. Runs on the reader threads.
+     */
+    private static List<DataSet> readExamples(File file) {
+        DataSet ds = new DataSet();
+        ds.load(file);
+        // files saved from empty DataSets hold no arrays, so there's nothing to split
+        if (ds.numExamples() == 0)
+            return Collections.emptyList();
+
+        List<DataSet> views = ds.asList();
+        List<DataSet> examples = new ArrayList<>(views.size());
+        for (DataSet view : views) {
+            examples.add(new DataSet(dup(view.getFeatures()), dup(view.getLabels()),
+                            dup(view.getFeaturesMaskArray()), dup(view.getLabelsMaskArray())));
+        }
+        return examples;
+    }
+
+    private static INDArray dup(INDArray array) {
+        return array == null ? null : array.dup();
+    }
+
+    /**
+     * Top up the shuffle buffer to its size, one example at a time from a randomly chosen open file.
+     * Files are picked with probability proportional to their remaining examples
+     */
+    private void fillBuffer() {
+        while (buffer.size() < shuffleBufferSize) {
+            openFiles();
+            if (openExamples == 0)
+                return;
+
+            int r = rng.nextInt(openExamples);
+            int f = 0;
+            while (r >= openFiles.get(f).size())
+                r -= openFiles.get(f++).size();
+
+            LinkedList<DataSet> file = openFiles.get(f);
+            buffer.add(file.removeFirst());
+            openExamples--;
+            if (file.isEmpty())
+                openFiles.remove(f);
+        }
+    }
+
+    /**
+     * Open files from the read-ahead queue, in file order, until {@link #INTERLEAVED_FILES} are open
+     * or all files are consumed
+     */
+    private void openFiles() {
+        submitReads();
+        while (openFiles.size() < INTERLEAVED_FILES && !pending.isEmpty()) {
+            Future<List<DataSet>> next = pending.removeFirst();
+            try {
+                List<DataSet> examples = next.get();
+                if (!examples.isEmpty()) {
+                    openFiles.add(new LinkedList<>(examples));
+                    openExamples += examples.size();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Unable to read dataset", e.getCause());
+            }
+            submitReads();
+        }
+    }
+
+    /**
+     * Remaining files may hold no examples, so this tops up the shuffle buffer (reading files if needed)
+     * and checks that at least one example is left
+     */
+    @Override
+    public boolean hasNext() {
+        if (buffer == null)
+            initEpoch();
+        fillBuffer();
+        return !buffer.isEmpty();
+    }
+
+    @Override
+    public DataSet next() {
+        if (!hasNext())
+            throw new NoSuchElementException("No more elements in this epoch");
+
+        List<DataSet> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize) {
+            fillBuffer();
+            if (buffer.isEmpty())
+                break;
+
+            // Swap the randomly selected example to the end, so removal is O(1)
+            int idx = rng.nextInt(buffer.size());
+            int last = buffer.size() - 1;
+            DataSet selected = buffer.get(idx);
+            buffer.set(idx, buffer.get(last));
+            buffer.remove(last);
+            batch.add(selected);
+        }
+
+        if (batch.isEmpty())
+            throw new NoSuchElementException("No more elements in this epoch");
+        DataSet ret = batch.size() == 1 ? batch.get(0) : DataSet.merge(batch);
+        cursor += ret.numExamples();
+        if (preProcessor != null)
+            preProcessor.preProcess(ret);
+        return ret;
+    }
+
+    @Override
+    public DataSet next(int num) {
+        throw new UnsupportedOperationException("Unable to load custom number of examples");
+    }
+
+    @Override
+    public int totalExamples() {
+        loadMetadata();
+        long total = 0;
+        for (int count : exampleCounts)
+            total += count;
+        if (total > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many examples: " + total);
+        return (int) total;
+    }
+
+    @Override
+    public int inputColumns() {
+        loadMetadata();
+        if (featuresShape == null)
+            throw new IllegalStateException("No features in any of the DataSet files");
+        return ArrayUtil.prod(Arrays.copyOfRange(featuresShape, 1, featuresShape.length));
+    }
+
+    @Override
+    public int totalOutcomes() {
+        if (totalOutcomes < 0) {
+            DataSet ds = new DataSet();
+            ds.load(files[0]);
+            if (ds.getLabels() == null)
+                throw new IllegalStateException("No labels in " + files[0].getAbsolutePath());
+            totalOutcomes = ds.getLabels().size(1);
+        }
+        return totalOutcomes;
+    }
+
+    /**
+     * Read the number of examples and the features shape of every file, from the file headers only
+     */
+    private void loadMetadata() {
+        if (exampleCounts != null)
+            return;
+
+        int[] counts = new int[files.length];
+        for (int i = 0; i < files.length; i++) {
+            int[] shape = readFeaturesShape(files[i]);
+            if (shape == null)
+                continue;
+            counts[i] = shape[0];
+            if (featuresShape == null)
+                featuresShape = shape;
+        }
+        exampleCounts = counts;
+    }
+
+    /**
+     * Features are the first array of a saved DataSet, and their shape information comes first
+     *
+     * @return features shape, or null if the file holds no features (i.e. it was saved from an empty DataSet)
+     */
+    private static int[] readFeaturesShape(File file) {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            byte included = dis.readByte();
+            if ((included & DataSet.BITMASK_FEATURES_PRESENT) == 0)
+                return null;
+
+            DataBuffer shapeInfo = Nd4j.createBufferDetached(new int[1], DataBuffer.Type.INT);
+            shapeInfo.read(dis);
+            return Shape.shape(shapeInfo);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read dataset " + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        return true;
+    }
+
+    /**
+     * Start the next epoch. The new epoch uses a different (but still seed-determined) order
+     */
+    @Override
+    public void reset() {
+        if (pending != null) {
+            for (Future<List<DataSet>> f : pending)
+                f.cancel(true);
+        }
+        if (buffer != null)
+            epoch++;
+        buffer = null;
+        pending = null;
+        openFiles = null;
+        openExamples = 0;
+        cursor = 0;
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public int cursor() {
+        return cursor;
+    }
+
+    @Override
+    public int numExamples() {
+        return totalExamples();
+    }
+
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,83 @@
+package org.nd4j.linalg.dataset;
+
+import lombok.NonNull;
+import org.nd4j.linalg.dataset.api.MultiDataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.MultiDataSetIterator;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Iterate sequentially over the examples of a {@link MemoryMappedMultiDataSetStore}.
+ * Minibatches are views over the memory mapped store files (see {@link MemoryMappedMultiDataSetStore#get(int, int)}),
+ * so no data is deserialized or copied on the Java heap.
+ */
+public class MemoryMappedMultiDataSetIterator implements MultiDataSetIterator {
+    private final transient MemoryMappedMultiDataSetStore store;
+    private final int batchSize;
+    private int cursor = 0;
+    private MultiDataSetPreProcessor preProcessor;
+
+    /**
+     * @param store     the store to iterate over
+     * @param batchSize number of examples per minibatch. The last minibatch may be smaller
+     */
+    public MemoryMappedMultiDataSetIterator(@NonNull MemoryMappedMultiDataSetStore store, int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive: got " + batchSize);
+        this.store = store;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor < store.numExamples();
+    }
+
+    @Override
+    public MultiDataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public MultiDataSet next(int num) {
+        if (!hasNext())
+            throw new NoSuchElementException("No more examples");
+
+        int to = Math.min(store.numExamples(), cursor + num);
+        MultiDataSet ret = store.get(cursor, to);
+        cursor = to;
+        if (preProcessor != null)
+            preProcessor.preProcess(ret);
+        return ret;
+    }
+
+    @Override
+    public void setPreProcessor(MultiDataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public MultiDataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        cursor = 0;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
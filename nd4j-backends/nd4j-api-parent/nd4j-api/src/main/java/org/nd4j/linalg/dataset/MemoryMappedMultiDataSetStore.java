@@ -0,0 +1,425 @@
+package org.nd4j.linalg.dataset;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.MultiDataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.util.ArrayUtil;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A disk-backed, read-mostly store of {@link MultiDataSet} examples, for multi-input/multi-output training sets
+ * that are too large to hold in memory.<br>
+ * The store is a directory with one raw, c order, native byte order file per array (each features, labels and mask
+ * array), plus a small index describing them. Examples are stored contiguously, so any range of examples is served
+ * as views over memory mapped regions of those files: there is no deserialization, and caching is left to the
+ * OS page cache.
+ * <p>
+ * Notes:
+ * - All examples of an array must have the same shape; variable length time series must be padded (and masked)
+ *   to a fixed length before saving
+ * - Mask arrays must be present for all minibatches or for none
+ * - Every call maps its own copy-on-write region: in-place modifications of the returned arrays (for example,
+ *   by a normalizer) are private to that MultiDataSet, and are never seen by later calls or written back to disk
+ * - A single mapping is limited to 2GB, so ranges larger than that are mapped in parts and copied
+ * - Only FLOAT and DOUBLE arrays are supported: HALF buffers can't be created over memory mapped files
+ *
+ * @see MemoryMappedMultiDataSetIterator
+ */
+public class MemoryMappedMultiDataSetStore {
+    private static final int MAGIC = 0x4E444D4D;
+    private static final int VERSION = 1;
+    private static final String INDEX_FILE = "index.bin";
+
+    private static final byte FEATURES = 0;
+    private static final byte LABELS = 1;
+    private static final byte FEATURES_MASK = 2;
+    private static final byte LABELS_MASK = 3;
+    private static final String[] SLOT_NAMES = {"features", "labels", "featuresMask", "labelsMask"};
+
+    private final File dir;
+    private final DataBuffer.Type dataType;
+    private final int numExamples;
+    private final Slot[] slots;
+    private final int numFeatures;
+    private final int numLabels;
+    private final boolean hasFeaturesMasks;
+    private final boolean hasLabelsMasks;
+    // Maximum number of examples in a single mapping
+    private final int chunkExamples;
+
+    private static class Slot {
+        private final byte kind;
+        private final int index;
+        private final int[] exampleShape;
+        private final int exampleLength;
+
+        private Slot(byte kind, int index, int[] exampleShape) {
+            this.kind = kind;
+            this.index = index;
+            this.exampleShape = exampleShape;
+            this.exampleLength = ArrayUtil.prod(exampleShape);
+        }
+
+        private File file(File dir) {
+            return new File(dir, SLOT_NAMES[kind] + "_" + index + ".bin");
+        }
+    }
+
+    /**
+     * Open a store previously written by {@link #save(MultiDataSetIterator, File)}
+     *
+     * @param dir the store directory
+     */
+    public MemoryMappedMultiDataSetStore(@NonNull File dir) throws IOException {
+        this(dir, Integer.MAX_VALUE);
+    }
+
+    MemoryMappedMultiDataSetStore(File dir, long maxChunkBytes) throws IOException {
+        this.dir = dir;
+        try (DataInputStream dis = new DataInputStream(
+                        new BufferedInputStream(new FileInputStream(new File(dir, INDEX_FILE))))) {
+            if (dis.readInt() != MAGIC)
+                throw new IllegalStateException("Not a MultiDataSet store: " + dir.getAbsolutePath());
+            int version = dis.readInt();
+            if (version != VERSION)
+                throw new IllegalStateException("Unsupported MultiDataSet store version: " + version);
+            boolean littleEndian = dis.readBoolean();
+            if (littleEndian != (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN))
+                throw new IllegalStateException("MultiDataSet store was written with a different byte order");
+
+            dataType = DataBuffer.Type.valueOf(dis.readUTF());
+            if (dataType != Nd4j.dataType())
+                throw new IllegalStateException("MultiDataSet store has data type " + dataType
+                                + ", but the current data type is " + Nd4j.dataType());
+            numExamples = dis.readInt();
+
+            slots = new Slot[dis.readInt()];
+            for (int i = 0; i < slots.length; i++) {
+                byte kind = dis.readByte();
+                int index = dis.readInt();
+                int[] exampleShape = new int[dis.readInt()];
+                for (int j = 0; j < exampleShape.length; j++)
+                    exampleShape[j] = dis.readInt();
+                slots[i] = new Slot(kind, index, exampleShape);
+            }
+        }
+
+        int nFeatures = 0, nLabels = 0;
+        boolean fMasks = false, lMasks = false;
+        long maxExampleBytes = 1;
+        int elementSize = elementSize(dataType);
+        for (Slot s : slots) {
+            nFeatures += s.kind == FEATURES ? 1 : 0;
+            nLabels += s.kind == LABELS ? 1 : 0;
+            fMasks |= s.kind == FEATURES_MASK;
+            lMasks |= s.kind == LABELS_MASK;
+            maxExampleBytes = Math.max(maxExampleBytes, (long) s.exampleLength * elementSize);
+        }
+        if (maxExampleBytes > maxChunkBytes)
+            throw new IllegalStateException("A single example of " + maxExampleBytes + " bytes can't be mapped");
+
+        numFeatures = nFeatures;
+        numLabels = nLabels;
+        hasFeaturesMasks = fMasks;
+        hasLabelsMasks = lMasks;
+        chunkExamples = (int) Math.max(1, Math.min(numExamples, maxChunkBytes / maxExampleBytes));
+    }
+
+    /**
+     * Write all minibatches of the iterator to a new store in the given directory.
+     * The iterator is not reset before or after writing.
+     *
+     * @param iterator the minibatches to write
+     * @param dir      the directory to write the store to; created if it doesn't exist
+     */
+    public static void save(@NonNull MultiDataSetIterator iterator, @NonNull File dir) throws IOException {
+        if (!dir.exists() && !dir.mkdirs())
+            throw new IOException("Unable to create directory " + dir.getAbsolutePath());
+
+        List<Slot> slots = null;
+        List<FileOutputStream> outputs = new ArrayList<>();
+        DataBuffer.Type dataType = null;
+        long numExamples = 0;
+        try {
+            while (iterator.hasNext()) {
+                org.nd4j.linalg.dataset.api.MultiDataSet mds = iterator.next();
+                INDArray[] arrays = slotArrays(mds);
+                if (slots == null) {
+                    slots = new ArrayList<>();
+                    for (int i = 0; i < arrays.length; i++) {
+                        if (arrays[i] == null)
+                            continue;
+                        slots.add(new Slot(slotKind(mds, i), slotIndex(mds, i), exampleShape(arrays[i])));
+                        outputs.add(new FileOutputStream(slots.get(slots.size() - 1).file(dir)));
+                    }
+                    dataType = arrays[0].data().dataType();
+                    if (dataType != DataBuffer.Type.FLOAT && dataType != DataBuffer.Type.DOUBLE)
+                        throw new IllegalStateException("Unsupported data type: " + dataType
+                                        + ". Only FLOAT and DOUBLE arrays can be saved");
+                }
+
+                int n = arrays[0].size(0);
+                int s = 0;
+                for (int i = 0; i < arrays.length; i++) {
+                    if (arrays[i] == null) {
+                        if (s < slots.size() && slots.get(s).kind == slotKind(mds, i)
+                                        && slots.get(s).index == slotIndex(mds, i))
+                            throw new IllegalStateException("Mask arrays must be present for all minibatches or none");
+                        continue;
+                    }
+                    if (s >= slots.size() || slots.get(s).kind != slotKind(mds, i)
+                                    || slots.get(s).index != slotIndex(mds, i))
+                        throw new IllegalStateException("Minibatch arrays don't match the first minibatch: "
+                                        + "the number of arrays and the presence of mask arrays must not change");
+                    Slot slot = slots.get(s);
+                    if (!Arrays.equals(slot.exampleShape, exampleShape(arrays[i])) || arrays[i].size(0) != n)
+                        throw new IllegalStateException("Shape " + Arrays.toString(arrays[i].shape()) + " of "
+                                        + SLOT_NAMES[slot.kind] + " " + slot.index + " doesn't match examples of shape "
+                                        + Arrays.toString(slot.exampleShape)
+                                        + ". Variable length data must be padded to a fixed length");
+                    if (arrays[i].data().dataType() != dataType)
+                        throw new IllegalStateException("All arrays must have the same data type");
+
+                    writeArray(arrays[i], outputs.get(s).getChannel());
+                    s++;
+                }
+                numExamples += n;
+            }
+        } finally {
+            for (FileOutputStream fos : outputs)
+                fos.close();
+        }
+
+        if (slots == null)
+            throw new IllegalStateException("No minibatches to save");
+        if (numExamples > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many examples: " + numExamples);
+
+        // Written last, so that an incomplete store can't be opened
+        try (DataOutputStream dos = new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(new File(dir, INDEX_FILE))))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeBoolean(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN);
+            dos.writeUTF(dataType.name());
+            dos.writeInt((int) numExamples);
+            dos.writeInt(slots.size());
+            for (Slot slot : slots) {
+                dos.writeByte(slot.kind);
+                dos.writeInt(slot.index);
+                dos.writeInt(slot.exampleShape.length);
+                for (int d : slot.exampleShape)
+                    dos.writeInt(d);
+            }
+        }
+    }
+
+    private static INDArray[] slotArrays(org.nd4j.linalg.dataset.api.MultiDataSet mds) {
+        List<INDArray> ret = new ArrayList<>();
+        ret.addAll(Arrays.asList(mds.getFeatures()));
+        ret.addAll(Arrays.asList(mds.getLabels()));
+        for (int i = 0; i < mds.numFeatureArrays(); i++)
+            ret.add(mds.getFeaturesMaskArrays() == null ? null : mds.getFeaturesMaskArrays()[i]);
+        for (int i = 0; i < mds.numLabelsArrays(); i++)
+            ret.add(mds.getLabelsMaskArrays() == null ? null : mds.getLabelsMaskArrays()[i]);
+        return ret.toArray(new INDArray[ret.size()]);
+    }
+
+    private static byte slotKind(org.nd4j.linalg.dataset.api.MultiDataSet mds, int i) {
+        int f = mds.numFeatureArrays(), l = mds.numLabelsArrays();
+        return i < f ? FEATURES : i < f + l ? LABELS : i < 2 * f + l ? FEATURES_MASK : LABELS_MASK;
+    }
+
+    private static int slotIndex(org.nd4j.linalg.dataset.api.MultiDataSet mds, int i) {
+        int f = mds.numFeatureArrays(), l = mds.numLabelsArrays();
+        return i < f ? i : i < f + l ? i - f : i < 2 * f + l ? i - f - l : i - 2 * f - l;
+    }
+
+    private static int[] exampleShape(INDArray array) {
+        return Arrays.copyOfRange(array.shape(), 1, array.rank());
+    }
+
+    private static void writeArray(INDArray array, FileChannel channel) throws IOException {
+        // asByteBuffer() covers the whole underlying buffer, so views are copied first
+        if (array.isView() || array.ordering() != 'c')
+            array = array.dup('c');
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+        long bytes = (long) array.length() * array.data().getElementSize();
+        if (bytes > Integer.MAX_VALUE) {
+            // A ByteBuffer can't address more than 2GB, so large arrays are written in parts of whole examples
+            int n = array.size(0);
+            long exampleBytes = bytes / n;
+            if (exampleBytes > Integer.MAX_VALUE)
+                throw new IllegalStateException("A single example of " + exampleBytes + " bytes can't be written");
+            int chunk = (int) (Integer.MAX_VALUE / exampleBytes);
+            INDArray matrix = array.reshape('c', n, array.length() / n);
+            for (int start = 0; start < n; start += chunk)
+                writeArray(matrix.get(NDArrayIndex.interval(start, Math.min(n, start + chunk)), NDArrayIndex.all()),
+                                channel);
+            return;
+        }
+
+        ByteBuffer buffer = array.data().pointer().asByteBuffer().order(ByteOrder.nativeOrder());
+        buffer.limit((int) bytes);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    private static int elementSize(DataBuffer.Type type) {
+        switch (type) {
+            case DOUBLE:
+                return 8;
+            case FLOAT:
+                return 4;
+            default:
+                throw new IllegalStateException("Unsupported data type: " + type);
+        }
+    }
+
+    /**
+     * @return the total number of examples in the store
+     */
+    public int numExamples() {
+        return numExamples;
+    }
+
+    /**
+     * Get the examples in the range [from, to). Arrays are views over the memory mapped files, unless the range
+     * is too large for a single mapping
+     *
+     * @param from first example (inclusive)
+     * @param to   last example (exclusive)
+     */
+    public MultiDataSet get(int from, int to) {
+        if (from < 0 || to > numExamples || from >= to)
+            throw new IllegalArgumentException("Invalid example range [" + from + ", " + to + ") for store with "
+                            + numExamples + " examples");
+
+        INDArray[] arrays = new INDArray[slots.length];
+        for (int s = 0; s < slots.length; s++) {
+            if (to - from <= chunkExamples) {
+                arrays[s] = map(s, from, to);
+            } else {
+                List<INDArray> parts = new ArrayList<>();
+                for (int start = from; start < to; start += chunkExamples)
+                    parts.add(map(s, start, Math.min(to, start + chunkExamples)));
+                arrays[s] = Nd4j.concat(0, parts.toArray(new INDArray[parts.size()]));
+            }
+        }
+        return toMultiDataSet(arrays);
+    }
+
+    /**
+     * Gather the specified examples into a new MultiDataSet (always a copy)
+     *
+     * @param examples indices of the examples to gather. May repeat
+     */
+    public MultiDataSet get(@NonNull int[] examples) {
+        if (examples.length == 0)
+            throw new IllegalArgumentException("No examples to get");
+        for (int e : examples) {
+            if (e < 0 || e >= numExamples)
+                throw new IllegalArgumentException("Invalid example " + e + " for store with " + numExamples
+                                + " examples");
+        }
+
+        INDArray[] arrays = new INDArray[slots.length];
+        for (int s = 0; s < slots.length; s++) {
+            int numChunks = (numExamples + chunkExamples - 1) / chunkExamples;
+            if (numChunks == 1) {
+                arrays[s] = Nd4j.gather(map(s, 0, numExamples), 0, examples);
+                continue;
+            }
+
+            // Gather from each chunk, then scatter into the (distinct) result rows
+            INDArray ret = Nd4j.create(new int[] {examples.length, slots[s].exampleLength}, 'c');
+            for (int c = 0; c < numChunks; c++) {
+                int start = c * chunkExamples;
+                int end = Math.min(numExamples, start + chunkExamples);
+                int count = 0;
+                for (int e : examples)
+                    count += e >= start && e < end ? 1 : 0;
+                if (count == 0)
+                    continue;
+
+                int[] local = new int[count];
+                int[] positions = new int[count];
+                for (int i = 0, j = 0; i < examples.length; i++) {
+                    if (examples[i] >= start && examples[i] < end) {
+                        local[j] = examples[i] - start;
+                        positions[j++] = i;
+                    }
+                }
+                INDArray chunk = map(s, start, end);
+                INDArray rows = Nd4j.gather(chunk.reshape('c', chunk.size(0), slots[s].exampleLength), 0, local);
+                Nd4j.scatterAdd(rows, ret, 0, positions);
+            }
+            arrays[s] = ret.reshape('c', ArrayUtil.combine(new int[] {examples.length}, slots[s].exampleShape));
+        }
+        return toMultiDataSet(arrays);
+    }
+
+    private MultiDataSet toMultiDataSet(INDArray[] arrays) {
+        INDArray[] features = new INDArray[numFeatures];
+        INDArray[] labels = new INDArray[numLabels];
+        INDArray[] featuresMasks = hasFeaturesMasks ? new INDArray[numFeatures] : null;
+        INDArray[] labelsMasks = hasLabelsMasks ? new INDArray[numLabels] : null;
+        for (int s = 0; s < slots.length; s++) {
+            switch (slots[s].kind) {
+                case FEATURES:
+                    features[slots[s].index] = arrays[s];
+                    break;
+                case LABELS:
+                    labels[slots[s].index] = arrays[s];
+                    break;
+                case FEATURES_MASK:
+                    featuresMasks[slots[s].index] = arrays[s];
+                    break;
+                default:
+                    labelsMasks[slots[s].index] = arrays[s];
+            }
+        }
+        return new MultiDataSet(features, labels, featuresMasks, labelsMasks);
+    }
+
+    /**
+     * Map examples [from, to) of a slot, copy-on-write. The range must fit in a single mapping
+     */
+    private INDArray map(int slot, int from, int to) {
+        Slot s = slots[slot];
+        int length = (to - from) * s.exampleLength;
+        long position = (long) from * s.exampleLength * elementSize(dataType);
+
+        DataBuffer buffer;
+        try (RandomAccessFile file = new RandomAccessFile(s.file(dir), "r")) {
+            // The mapping remains valid after the file is closed, and is released when the buffer is collected
+            MappedByteBuffer mapped = file.getChannel().map(FileChannel.MapMode.PRIVATE, position,
+                            (long) length * elementSize(dataType));
+            mapped.order(ByteOrder.nativeOrder());
+            try (MemoryWorkspace ws = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+                buffer = Nd4j.createBuffer(mapped, dataType, length);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to map " + s.file(dir).getAbsolutePath(), e);
+        }
+
+        int[] shape = ArrayUtil.combine(new int[] {to - from}, s.exampleShape);
+        return Nd4j.create(buffer, shape, Nd4j.getStrides(shape, 'c'), 0, 'c');
+    }
+}
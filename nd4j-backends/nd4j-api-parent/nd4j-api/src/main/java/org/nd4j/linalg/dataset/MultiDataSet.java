@@ -349,6 +349,35 @@ public class MultiDataSet implements org.nd4j.linalg.dataset.api.MultiDataSet {
         return result;
     }
 
+    /**
+     * Gather the specified examples (with all features, labels and mask arrays) into a new MultiDataSet.
+     * Each array is gathered with a single row-gather op, rather than by splitting and re-merging examples.
+     *
+     * @param examples indices of the examples to gather. May repeat
+     * @return a new MultiDataSet with the specified examples, in the specified order
+     */
+    public MultiDataSet get(int[] examples) {
+        MultiDataSet ret = new MultiDataSet(pullExamples(features, examples), pullExamples(labels, examples),
+                        pullExamples(featuresMaskArrays, examples), pullExamples(labelsMaskArrays, examples));
+        if (exampleMetaData != null && features != null && exampleMetaData.size() == features[0].size(0)) {
+            List<Serializable> meta = new ArrayList<>(examples.length);
+            for (int i : examples)
+                meta.add(exampleMetaData.get(i));
+            ret.setExampleMetaData(meta);
+        }
+        return ret;
+    }
+
+    private static INDArray[] pullExamples(INDArray[] arrays, int[] examples) {
+        if (arrays == null)
+            return null;
+        INDArray[] result = new INDArray[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            result[i] = arrays[i] == null ? null : DataSetUtil.pullExamples(arrays[i], examples);
+        }
+        return result;
+    }
+
 
     /** Merge a collection of MultiDataSet objects into a single MultiDataSet.
      * Merging is done by concatenating along dimension 0 (example number in batch)
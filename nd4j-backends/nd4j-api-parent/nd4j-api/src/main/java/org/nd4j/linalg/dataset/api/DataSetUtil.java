@@ -4,11 +4,13 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
 import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastMulOp;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.INDArrayIndex;
 import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.util.ArrayUtil;
 
 import java.util.Arrays;
 
@@ -138,6 +140,95 @@ public class DataSetUtil {
         Nd4j.getExecutioner().exec(new BroadcastMulOp(data, mask, data, 0, 2));
     }
 
+    /**
+     * Apply the per-feature affine transform {@code x * scale + shift} in place, and zero out masked steps.
+     * The feature dimension is 1 for all ranks (columns for 2d, channels/features for 3d and 4d data).
+     * Normalizers precompute scale and shift from their statistics, so each minibatch costs one multiply and
+     * one add instead of separate subtract, divide and rescale passes.
+     *
+     * @param data  the data to transform in place
+     * @param scale row vector of per-feature multipliers
+     * @param shift row vector of per-feature offsets
+     * @param mask  (optionally) the mask of the data, useful for e.g. time series
+     */
+    public static void scaleAndShift(@NonNull INDArray data, @NonNull INDArray scale, @NonNull INDArray shift,
+                    INDArray mask) {
+        if (data.rank() <= 2) {
+            data.muliRowVector(scale);
+            data.addiRowVector(shift);
+        } else {
+            Nd4j.getExecutioner().exec(new BroadcastMulOp(data, scale, data, 1));
+            Nd4j.getExecutioner().exec(new BroadcastAddOp(data, shift, data, 1));
+        }
+
+        setMaskedValuesToZero(data, mask);
+    }
+
+    /**
+     * Gather the specified examples (slices along dimension 0) of a features, labels or mask array of any rank into
+     * a new array, in the given order. Indices may repeat. The copy is done by a single native gather op
+     * (see {@link Nd4j#gather(INDArray, int, int...)}), which processes the examples in parallel; the result is
+     * allocated in the current workspace, if one is open.<br>
+     * Gathering is fastest when every example is contiguous (see {@link #toExampleMajor(INDArray)}).
+     *
+     * @param data     the array to gather examples from
+     * @param examples indices of the examples to gather
+     * @return a new array with {@code examples.length} examples
+     */
+    public static INDArray pullExamples(@NonNull INDArray data, @NonNull int[] examples) {
+        return Nd4j.gather(data, 0, examples);
+    }
+
+    /**
+     * Gather the specified examples (slices along dimension 0) into a caller-supplied array, for example a
+     * reusable minibatch buffer. See {@link #pullExamples(INDArray, int[])}
+     *
+     * @param data        the array to gather examples from
+     * @param destination the array to write to, with {@code examples.length} examples
+     * @param examples    indices of the examples to gather
+     * @return the destination array
+     */
+    public static INDArray pullExamples(@NonNull INDArray data, @NonNull INDArray destination,
+                    @NonNull int[] examples) {
+        return Nd4j.gather(data, destination, 0, examples);
+    }
+
+    /**
+     * Get an array laid out so that every example is a contiguous block, as preferred by
+     * {@link #pullExamples(INDArray, int[])}. Returns the array itself if it already is c order and contiguous.
+     *
+     * @param data the array, may be null
+     * @return the array, or a c order copy of it
+     */
+    public static INDArray toExampleMajor(INDArray data) {
+        if (data == null || data.rank() <= 2)
+            return data;
+        if (data.ordering() == 'c' && Arrays.equals(data.stride(), ArrayUtil.calcStrides(data.shape())))
+            return data;
+        return data.dup('c');
+    }
+
+    /**
+     * Get a DataSet whose features and labels are laid out for fast example gathering
+     * (see {@link #toExampleMajor(INDArray)}). Returns the DataSet itself if no array needs to be copied.
+     *
+     * @param ds the DataSet
+     * @return the DataSet, or a shallow copy of it with c order copies of its rank 3+ arrays
+     */
+    public static org.nd4j.linalg.dataset.DataSet toExampleMajor(@NonNull org.nd4j.linalg.dataset.DataSet ds) {
+        INDArray features = toExampleMajor(ds.getFeatures());
+        INDArray labels = toExampleMajor(ds.getLabels());
+        if (features == ds.getFeatures() && labels == ds.getLabels())
+            return ds;
+
+        org.nd4j.linalg.dataset.DataSet ret = new org.nd4j.linalg.dataset.DataSet(features, labels,
+                        ds.getFeaturesMaskArray(), ds.getLabelsMaskArray());
+        ret.setExampleMetaData(ds.getExampleMetaData());
+        ret.setColumnNames(ds.getColumnNames());
+        ret.setLabelNames(ds.getLabelNames());
+        return ret;
+    }
+
     /**
      * Merge the specified features and mask arrays (i.e., concatenate the examples)
      *
@@ -0,0 +1,125 @@
+package org.nd4j.linalg.dataset.api.iterator;
+
+import lombok.NonNull;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates in minibatches over a subset of the examples of an in-memory DataSet, given as an array of example
+ * indices. Each minibatch is gathered from the backing DataSet with one native gather op per array
+ * (see {@link DataSet#get(int[])}), so the subset itself is never materialized.<br>
+ * If the caller has a workspace open, the minibatches are allocated in it.
+ */
+public class IndexedDataSetIterator implements DataSetIterator {
+    private final DataSet backing;
+    private final int[] indices;
+    private final int batchSize;
+    private int cursor = 0;
+    private DataSetPreProcessor preProcessor;
+
+    /**
+     * @param backing   the DataSet to gather the examples from
+     * @param indices   indices of the examples to iterate over, in iteration order
+     * @param batchSize the minibatch size. The last minibatch may be smaller
+     */
+    public IndexedDataSetIterator(@NonNull DataSet backing, @NonNull int[] indices, int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive: got " + batchSize);
+        this.backing = backing;
+        this.indices = indices;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor < indices.length;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public DataSet next(int num) {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        int end = Math.min(cursor + num, indices.length);
+        DataSet ret = backing.get(Arrays.copyOfRange(indices, cursor, end));
+        cursor = end;
+
+        if (preProcessor != null)
+            preProcessor.preProcess(ret);
+        return ret;
+    }
+
+    @Override
+    public int totalExamples() {
+        return indices.length;
+    }
+
+    @Override
+    public int inputColumns() {
+        return backing.getFeatures().size(1);
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return backing.getLabels().size(1);
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        //Already in memory -> async prefetching doesn't make sense here
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        cursor = 0;
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public int cursor() {
+        return cursor;
+    }
+
+    @Override
+    public int numExamples() {
+        return totalExamples();
+    }
+
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return backing.getLabelNamesList();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -2,13 +2,16 @@ package org.nd4j.linalg.dataset.api.iterator;
 
 import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
+import org.nd4j.linalg.factory.Nd4j;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Splits a dataset into k folds.
- * DataSet is duplicated in memory once
+ * The DataSet is never duplicated: folds are defined by an index permutation over the backing DataSet, and the
+ * train and test folds are gathered from it on demand (see {@link DataSet#get(int[])}).
  * call .next() to get the k-1 folds to train on and call .testfold() to get the corresponding kth fold for testing
  * @author Susan Eraly
  */
@@ -18,8 +21,12 @@ public class KFoldIterator implements DataSetIterator {
     private int batch;
     private int lastBatch;
     private int kCursor = 0;
+    private int[] order;
+    private int[] trainIdx;
+    private int[] testIdx;
     private DataSet test;
     private DataSet train;
+    private Random rng;
     protected DataSetPreProcessor preProcessor;
 
     public KFoldIterator(DataSet singleFold) {
@@ -28,16 +35,31 @@ public class KFoldIterator implements DataSetIterator {
 
     /**Create an iterator given the dataset and a value of k (optional, defaults to 10)
      * If number of samples in the dataset is not a multiple of k, the last fold will have less samples with the rest having the same number of samples.
+     * Folds are shuffled on reset with a seed drawn from {@link Nd4j#getRandom()}, so they are reproducible when that is seeded.
      *
      * @param k number of folds (optional, defaults to 10)
      * @param singleFold DataSet to split into k folds
      */
 
     public KFoldIterator(int k, DataSet singleFold) {
+        this(k, singleFold, Nd4j.getRandom().nextLong());
+    }
+
+    /**Create an iterator given the dataset, a value of k and the seed used to shuffle the folds on reset
+     *
+     * @param k number of folds
+     * @param singleFold DataSet to split into k folds
+     * @param seed seed for shuffling examples between folds
+     */
+    public KFoldIterator(int k, DataSet singleFold, long seed) {
         this.k = k;
-        this.singleFold = singleFold.copy();
+        this.rng = new Random(seed);
         if (k <= 1)
             throw new IllegalArgumentException();
+        this.singleFold = DataSetUtil.toExampleMajor(singleFold);
+        this.order = new int[singleFold.numExamples()];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
         if (singleFold.numExamples() % k != 0) {
             if (k != 2) {
                 this.batch = singleFold.numExamples() / (k - 1);
@@ -94,8 +116,13 @@ public class KFoldIterator implements DataSetIterator {
      */
     @Override
     public void reset() {
-        //shuffle and return new k folds
-        singleFold.shuffle();
+        //shuffle the example order (not the backing data) and return new k folds
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
         kCursor = 0;
     }
 
@@ -180,22 +207,35 @@ public class KFoldIterator implements DataSetIterator {
             right = left + batch;
         }
 
-        List<DataSet> kMinusOneFoldList = new ArrayList<DataSet>();
-        if (right < totalExamples()) {
-            if (left > 0) {
-                kMinusOneFoldList.add((DataSet) singleFold.getRange(0, left));
-            }
-            kMinusOneFoldList.add((DataSet) singleFold.getRange(right, totalExamples()));
-            train = DataSet.merge(kMinusOneFoldList);
-        } else {
-            train = (DataSet) singleFold.getRange(0, left);
-        }
-        test = (DataSet) singleFold.getRange(left, right);
+        testIdx = new int[right - left];
+        System.arraycopy(order, left, testIdx, 0, testIdx.length);
+        trainIdx = new int[order.length - testIdx.length];
+        System.arraycopy(order, 0, trainIdx, 0, left);
+        System.arraycopy(order, right, trainIdx, left, order.length - right);
+
+        train = singleFold.get(trainIdx);
+        test = singleFold.get(testIdx);
 
         kCursor++;
 
     }
 
+    /**
+     * Iterate over the current train fold (the one returned by the last call to {@link #next()}) in minibatches,
+     * gathering each minibatch directly from the backing DataSet. Unlike the DataSet returned by {@link #next()},
+     * this never holds more than one minibatch of the fold in memory.
+     *
+     * @param batchSize the minibatch size
+     * @return an iterator over the train fold
+     */
+    public DataSetIterator trainFoldIterator(int batchSize) {
+        if (trainIdx == null)
+            throw new IllegalStateException("No current fold: call next() first");
+        IndexedDataSetIterator iter = new IndexedDataSetIterator(singleFold, trainIdx, batchSize);
+        iter.setPreProcessor(preProcessor);
+        return iter;
+    }
+
     /**
      * @return the held out fold as a dataset
      */
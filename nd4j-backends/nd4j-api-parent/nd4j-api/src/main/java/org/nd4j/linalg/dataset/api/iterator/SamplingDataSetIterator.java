@@ -19,14 +19,19 @@
 
 package org.nd4j.linalg.dataset.api.iterator;
 
+import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
+import org.nd4j.linalg.factory.Nd4j;
 
 import java.util.List;
 
 /**
  * A wrapper for a dataset to sample from.
  * This will randomly sample from the given dataset.
+ * Samples are drawn as example indices and gathered from the dataset with one native op per array,
+ * instead of copying the examples row by row.
  *
  * @author Adam Gibson
  */
@@ -42,6 +47,7 @@ public class SamplingDataSetIterator implements DataSetIterator {
     private int numTimesSampled;
     private boolean replace = false;
     private DataSetPreProcessor preProcessor;
+    private transient int[] permutation;
 
     /**
      * @param sampleFrom         the dataset to sample from
@@ -49,10 +55,7 @@ public class SamplingDataSetIterator implements DataSetIterator {
      * @param totalNumberSamples the sample size
      */
     public SamplingDataSetIterator(DataSet sampleFrom, int batchSize, int totalNumberSamples, boolean replace) {
-        super();
-        this.sampleFrom = sampleFrom;
-        this.batchSize = batchSize;
-        this.totalNumberSamples = totalNumberSamples;
+        this(sampleFrom, batchSize, totalNumberSamples);
         this.replace = replace;
     }
 
@@ -64,7 +67,7 @@ public class SamplingDataSetIterator implements DataSetIterator {
      */
     public SamplingDataSetIterator(DataSet sampleFrom, int batchSize, int totalNumberSamples) {
         super();
-        this.sampleFrom = sampleFrom;
+        this.sampleFrom = DataSetUtil.toExampleMajor(sampleFrom);
         this.batchSize = batchSize;
         this.totalNumberSamples = totalNumberSamples;
     }
@@ -76,7 +79,7 @@ public class SamplingDataSetIterator implements DataSetIterator {
 
     @Override
     public DataSet next() {
-        DataSet ret = sampleFrom.sample(batchSize, replace);
+        DataSet ret = sampleFrom.get(sampleIndices(batchSize, replace));
         numTimesSampled += batchSize;
 
         if (preProcessor != null) {
@@ -159,10 +162,40 @@ public class SamplingDataSetIterator implements DataSetIterator {
 
     @Override
     public DataSet next(int num) {
-        DataSet ret = sampleFrom.sample(num);
+        DataSet ret = sampleFrom.get(sampleIndices(num, false));
         numTimesSampled++;
         return ret;
     }
 
+    /**
+     * Draw example indices. Without replacement, this is a partial Fisher-Yates shuffle of a persistent
+     * permutation, so no index repeats within a sample.
+     */
+    private int[] sampleIndices(int num, boolean withReplacement) {
+        int numExamples = sampleFrom.numExamples();
+        Random rng = Nd4j.getRandom();
+        int[] ret = new int[num];
+        //A sample larger than the dataset can't be drawn without replacement: fall back to with replacement
+        if (withReplacement || num > numExamples) {
+            for (int i = 0; i < num; i++)
+                ret[i] = rng.nextInt(numExamples);
+            return ret;
+        }
+
+        if (permutation == null || permutation.length != numExamples) {
+            permutation = new int[numExamples];
+            for (int i = 0; i < numExamples; i++)
+                permutation[i] = i;
+        }
+        for (int i = 0; i < num; i++) {
+            int j = i + rng.nextInt(numExamples - i);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+            ret[i] = permutation[i];
+        }
+        return ret;
+    }
+
 
 }
@@ -3,10 +3,6 @@ package org.nd4j.linalg.dataset.api.preprocessor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastDivOp;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastMulOp;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastSubOp;
 import org.nd4j.linalg.dataset.api.DataSetUtil;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.MinMaxStats;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
@@ -47,26 +43,12 @@ public class MinMaxStrategy implements NormalizerStrategy<MinMaxStats>, Serializ
      */
     @Override
     public void preProcess(INDArray array, INDArray maskArray, MinMaxStats stats) {
-        if (array.rank() <= 2) {
-            array.subiRowVector(stats.getLower());
-            array.diviRowVector(stats.getRange());
-        }
-        // if feature Rank is 3 (time series) samplesxfeaturesxtimesteps
-        // if feature Rank is 4 (images) samplesxchannelsxrowsxcols
-        // both cases operations should be carried out in dimension 1
-        else {
-            Nd4j.getExecutioner().execAndReturn(new BroadcastSubOp(array, stats.getLower(), array, 1));
-            Nd4j.getExecutioner().execAndReturn(new BroadcastDivOp(array, stats.getRange(), array, 1));
-        }
-
-        // Scale by target range
-        array.muli(maxRange - minRange);
-        // Add target range minimum values
-        array.addi(minRange);
-
-        if (maskArray != null) {
-            DataSetUtil.setMaskedValuesToZero(array, maskArray);
-        }
+        // (x - lower) / range * (maxRange - minRange) + minRange, folded into a single multiply-add
+        // If feature rank is 3 (time series) samplesxfeaturesxtimesteps
+        // if feature rank is 4 (images) samplesxchannelsxrowsxcols
+        // both cases operations are carried out in dimension 1
+        DataSetUtil.scaleAndShift(array, stats.getScale(minRange, maxRange), stats.getShift(minRange, maxRange),
+                        maskArray);
     }
 
     /**
@@ -77,22 +59,8 @@ public class MinMaxStrategy implements NormalizerStrategy<MinMaxStats>, Serializ
      */
     @Override
     public void revert(INDArray array, INDArray maskArray, MinMaxStats stats) {
-        // Subtract target range minimum value
-        array.subi(minRange);
-        // Scale by target range
-        array.divi(maxRange - minRange);
-
-        if (array.rank() <= 2) {
-            array.muliRowVector(stats.getRange());
-            array.addiRowVector(stats.getLower());
-        } else {
-            Nd4j.getExecutioner().execAndReturn(new BroadcastMulOp(array, stats.getRange(), array, 1));
-            Nd4j.getExecutioner().execAndReturn(new BroadcastAddOp(array, stats.getLower(), array, 1));
-        }
-
-        if (maskArray != null) {
-            DataSetUtil.setMaskedValuesToZero(array, maskArray);
-        }
+        DataSetUtil.scaleAndShift(array, stats.getRevertScale(minRange, maxRange),
+                        stats.getRevertShift(minRange, maxRange), maskArray);
     }
 
     /**
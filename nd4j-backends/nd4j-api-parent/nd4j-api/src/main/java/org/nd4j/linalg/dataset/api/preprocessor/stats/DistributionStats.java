@@ -1,12 +1,16 @@
 package org.nd4j.linalg.dataset.api.preprocessor.stats;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.DataSetUtil;
 import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.BooleanIndexing;
+import org.nd4j.linalg.indexing.conditions.Conditions;
 import org.nd4j.linalg.ops.transforms.Transforms;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +32,13 @@ public class DistributionStats implements NormalizerStats {
 
     private final INDArray mean;
     private final INDArray std;
+    // Lazily computed, immutable once set: (x - mean) / std == x * scale + shift
+    @Getter(AccessLevel.NONE)
+    private transient volatile INDArray filteredStd;
+    @Getter(AccessLevel.NONE)
+    private transient volatile INDArray scale;
+    @Getter(AccessLevel.NONE)
+    private transient volatile INDArray shift;
 
     /**
      * @param mean row vector of means
@@ -43,6 +54,55 @@ public class DistributionStats implements NormalizerStats {
         this.std = std;
     }
 
+    /**
+     * Get the standard deviations with zeros replaced by one, to avoid division by zero.
+     * Note that this is a lazy getter: it is computed once and the stats themselves are left untouched.
+     *
+     * @return row vector of non-zero standard deviations
+     */
+    public INDArray getFilteredStd() {
+        initTransform();
+        return filteredStd;
+    }
+
+    /**
+     * Get the per-feature multiplier of the standardization transform, i.e. 1 / std
+     *
+     * @return row vector of inverse standard deviations
+     */
+    public INDArray getScale() {
+        initTransform();
+        return scale;
+    }
+
+    /**
+     * Get the per-feature offset of the standardization transform, i.e. -mean / std
+     *
+     * @return row vector of offsets
+     */
+    public INDArray getShift() {
+        initTransform();
+        return shift;
+    }
+
+    private void initTransform() {
+        if (scale != null) {
+            return;
+        }
+        synchronized (this) {
+            if (scale == null) {
+                try (MemoryWorkspace ws = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+                    INDArray filtered = std.dup();
+                    BooleanIndexing.replaceWhere(filtered, 1.0, Conditions.equals(0));
+                    filteredStd = filtered;
+                    shift = mean.neg().divi(filtered);
+                    // Assigned last: readers use it as the "initialized" flag
+                    scale = filtered.rdiv(1.0);
+                }
+            }
+        }
+    }
+
     /**
      * Load distribution statistics from the file system
      *
@@ -30,6 +30,8 @@ public class MinMaxStats implements NormalizerStats {
     @Getter
     private final INDArray upper;
     private INDArray range;
+    // Lazily computed affine form of the min max transform for the last requested target range
+    private transient volatile TargetRangeTransform transform;
 
     /**
      * @param lower row vector of lower bounds
@@ -67,6 +69,84 @@ public class MinMaxStats implements NormalizerStats {
         return range;
     }
 
+    /**
+     * Get the per-feature multiplier that maps the data onto [minRange, maxRange], i.e.
+     * (maxRange - minRange) / (upper - lower)
+     *
+     * @param minRange the target range lower bound
+     * @param maxRange the target range upper bound
+     * @return row vector of multipliers
+     */
+    public INDArray getScale(double minRange, double maxRange) {
+        return getTransform(minRange, maxRange).scale;
+    }
+
+    /**
+     * Get the per-feature offset that maps the data onto [minRange, maxRange], i.e.
+     * minRange - lower * scale
+     *
+     * @param minRange the target range lower bound
+     * @param maxRange the target range upper bound
+     * @return row vector of offsets
+     */
+    public INDArray getShift(double minRange, double maxRange) {
+        return getTransform(minRange, maxRange).shift;
+    }
+
+    /**
+     * Get the per-feature multiplier that maps data in [minRange, maxRange] back onto the original range
+     *
+     * @param minRange the target range lower bound
+     * @param maxRange the target range upper bound
+     * @return row vector of multipliers
+     */
+    public INDArray getRevertScale(double minRange, double maxRange) {
+        return getTransform(minRange, maxRange).revertScale;
+    }
+
+    /**
+     * Get the per-feature offset that maps data in [minRange, maxRange] back onto the original range
+     *
+     * @param minRange the target range lower bound
+     * @param maxRange the target range upper bound
+     * @return row vector of offsets
+     */
+    public INDArray getRevertShift(double minRange, double maxRange) {
+        return getTransform(minRange, maxRange).revertShift;
+    }
+
+    private TargetRangeTransform getTransform(double minRange, double maxRange) {
+        TargetRangeTransform current = transform;
+        if (current == null || current.minRange != minRange || current.maxRange != maxRange) {
+            try (MemoryWorkspace ws = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+                current = new TargetRangeTransform(minRange, maxRange, lower, getRange());
+            }
+            transform = current;
+        }
+        return current;
+    }
+
+    /**
+     * Immutable holder for x * scale + shift (and its inverse), so it can be shared by prefetching threads
+     */
+    private static class TargetRangeTransform {
+        private final double minRange;
+        private final double maxRange;
+        private final INDArray scale;
+        private final INDArray shift;
+        private final INDArray revertScale;
+        private final INDArray revertShift;
+
+        private TargetRangeTransform(double minRange, double maxRange, INDArray lower, INDArray range) {
+            this.minRange = minRange;
+            this.maxRange = maxRange;
+            this.scale = range.rdiv(maxRange - minRange);
+            this.shift = lower.mul(scale).rsubi(minRange);
+            this.revertScale = range.div(maxRange - minRange);
+            this.revertShift = revertScale.mul(-minRange).addi(lower);
+        }
+    }
+
     /**
      * DynamicCustomOpsBuilder class that can incrementally update a running lower and upper bound in order to create statistics for a
      * large set of data
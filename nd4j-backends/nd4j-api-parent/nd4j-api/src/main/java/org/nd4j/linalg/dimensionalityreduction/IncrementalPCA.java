@@ -0,0 +1,182 @@
+package org.nd4j.linalg.dimensionalityreduction;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.DataSet;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.ops.transforms.Transforms;
+
+/**
+ * Incremental PCA, fitted on minibatches of data (Ross, Lim, Lin, Yang: "Incremental Learning for Robust Visual
+ * Tracking"). Only the current minibatch, the mean and the top components are kept in memory, so data doesn't
+ * have to fit in memory as a whole: each batch of b rows is decomposed together with the k components fitted so
+ * far, i.e. memory use is proportional to (k + b) x features.
+ *
+ * Components are returned in the same form as by {@link PCA#pca_factor(INDArray, int, boolean)}, with normalize
+ * set to true: features x k matrix, one component per column. Results are close to those of exact PCA, the
+ * difference depends on the number of components kept relative to the data rank.
+ *
+ * <pre>
+ * {@code
+ *
+ * IncrementalPCA pca = new IncrementalPCA(10).fit(iterator);
+ * INDArray reduced = pca.transform(features);
+ *
+ * }
+ * </pre>
+ */
+public class IncrementalPCA {
+
+    private final int nComponents;
+    private long numSamplesSeen;
+    private INDArray mean;
+    private INDArray components;
+    private INDArray singularValues;
+
+    /**
+     * @param nComponents the number of components to keep
+     */
+    public IncrementalPCA(int nComponents) {
+        if (nComponents < 1)
+            throw new IllegalArgumentException("Number of components should be positive, got " + nComponents);
+        this.nComponents = nComponents;
+    }
+
+    /**
+     * Fits the model on all features returned by the iterator, one minibatch at a time. Iterator is reset first,
+     * if it supports resetting
+     *
+     * @param iterator iterator over data, features should be matrices with rows as records
+     * @return this instance
+     */
+    public IncrementalPCA fit(DataSetIterator iterator) {
+        if (iterator.resetSupported())
+            iterator.reset();
+
+        while (iterator.hasNext()) {
+            DataSet next = iterator.next();
+            partialFit(next.getFeatures());
+        }
+        return this;
+    }
+
+    /**
+     * Updates the model with a minibatch of data. First minibatch should have at least as many rows as the
+     * number of components.
+     *
+     * @param batch the array of features, rows are records, columns are features. Not changed
+     * @return this instance
+     */
+    public IncrementalPCA partialFit(INDArray batch) {
+        if (batch.rank() != 2)
+            throw new IllegalArgumentException("Features should be a matrix, got array of rank " + batch.rank());
+
+        int rows = batch.rows();
+        int n = batch.columns();
+        if (rows == 0)
+            return this;
+        if (mean != null && n != mean.columns())
+            throw new IllegalArgumentException("Expected " + mean.columns() + " features, got " + n);
+        if (mean == null && rows < nComponents)
+            throw new IllegalArgumentException("First batch should have at least " + nComponents + " rows, got "
+                            + rows);
+
+        INDArray batchMean = batch.mean(0);
+        INDArray centered = batch.subRowVector(batchMean);
+
+        INDArray X;
+        if (mean == null) {
+            X = centered;
+        } else {
+            // previous data is represented by its scaled components, plus a row that accounts for the shift of mean
+            int k = components.columns();
+            X = Nd4j.create(k + rows + 1, n);
+            INDArray scaled = components.transpose().mulColumnVector(singularValues.transpose());
+            X.get(NDArrayIndex.interval(0, k), NDArrayIndex.all()).assign(scaled);
+            X.get(NDArrayIndex.interval(k, k + rows), NDArrayIndex.all()).assign(centered);
+            double scale = Math.sqrt((double) numSamplesSeen * rows / (numSamplesSeen + rows));
+            X.getRow(k + rows).assign(mean.sub(batchMean).muli(scale));
+        }
+
+        INDArray[] svd = PCA.rightSingularVectors(X, Math.min(nComponents, Math.min(X.rows(), n)));
+        components = svd[0];
+        singularValues = svd[1];
+
+        long total = numSamplesSeen + rows;
+        if (mean == null)
+            mean = batchMean.dup();
+        else
+            mean.muli((double) numSamplesSeen / total).addi(batchMean.mul((double) rows / total));
+        numSamplesSeen = total;
+
+        return this;
+    }
+
+    /**
+     * Projects data onto the principal components
+     *
+     * @param data data with the same features as the fitted data, rows are records
+     * @return rows x k matrix
+     */
+    public INDArray transform(INDArray data) {
+        checkFitted();
+        return data.subRowVector(mean).mmul(components);
+    }
+
+    /**
+     * Transforms data in principal component coordinates back into the original features
+     *
+     * @param data rows x k matrix, as returned by {@link #transform(INDArray)}
+     * @return rows x features matrix
+     */
+    public INDArray inverseTransform(INDArray data) {
+        checkFitted();
+        return data.mmul(components.transpose()).addiRowVector(mean);
+    }
+
+    /**
+     * @return the principal components as columns, features x k
+     */
+    public INDArray getComponents() {
+        checkFitted();
+        return components;
+    }
+
+    /**
+     * @return mean of all fitted data, as a row vector
+     */
+    public INDArray getMean() {
+        checkFitted();
+        return mean;
+    }
+
+    /**
+     * @return singular values of the centered data matrix, for each component, in decreasing order
+     */
+    public INDArray getSingularValues() {
+        checkFitted();
+        return singularValues;
+    }
+
+    /**
+     * @return variance of the data along each component, i.e. eigenvalues of the covariance matrix
+     */
+    public INDArray getExplainedVariance() {
+        checkFitted();
+        return Transforms.pow(singularValues, 2, true).divi(Math.max(1, numSamplesSeen - 1));
+    }
+
+    public int getNumComponents() {
+        return nComponents;
+    }
+
+    public long getNumSamplesSeen() {
+        return numSamplesSeen;
+    }
+
+    private void checkFitted() {
+        if (mean == null)
+            throw new IllegalStateException("IncrementalPCA wasn't fitted yet");
+    }
+}
@@ -33,6 +33,15 @@ import org.nd4j.linalg.ops.transforms.Transforms;
  */
 public class PCA {
 
+    /**
+     * Default number of additional random samples for randomized PCA
+     */
+    public static final int DEFAULT_OVERSAMPLES = 10;
+    /**
+     * Default number of power iterations for randomized PCA
+     */
+    public static final int DEFAULT_POWER_ITERATIONS = 4;
+
     private INDArray covarianceMatrix, mean, eigenvectors, eigenvalues;
 
     private PCA() {}
@@ -194,13 +203,87 @@ public class PCA {
 
         // So now let's rip out the appropriate number of left singular vectors from
         // the V output (note we pulls rows since VT is a transpose of V)
-        INDArray V = VT.transpose();
-        INDArray factor = Nd4j.create(n, nDims, 'f');
-        for (int i = 0; i < nDims; i++) {
-            factor.putColumn(i, V.getColumn(i));
+        return VT.get(NDArrayIndex.interval(0, nDims), NDArrayIndex.all()).transpose().dup('f');
+    }
+
+
+    /**
+     * Calculates pca reduced value of a matrix, for a flags number of reduced features, using randomized SVD.
+     * See {@link #pca_factor_randomized(INDArray, int, boolean, int, int)}
+     *
+     * @param A the array of features, rows are results, columns are features - will be changed if normalize is true
+     * @param nDims the number of components on which to project the features
+     * @param normalize whether to normalize (adjust each feature to have zero mean)
+     * @return the reduced parameters of A
+     */
+    public static INDArray pca_randomized(INDArray A, int nDims, boolean normalize) {
+        INDArray factor = pca_factor_randomized(A, nDims, normalize);
+        return A.mmul(factor);
+    }
+
+
+    /**
+     * Calculates pca factors of a matrix using randomized SVD, with {@link #DEFAULT_OVERSAMPLES} oversamples
+     * and {@link #DEFAULT_POWER_ITERATIONS} power iterations.
+     *
+     * @see #pca_factor_randomized(INDArray, int, boolean, int, int)
+     *
+     * @param A the array of features, rows are results, columns are features - will be changed if normalize is true
+     * @param nDims the number of components on which to project the features
+     * @param normalize whether to normalize (adjust each feature to have zero mean)
+     * @return the reduced feature set
+     */
+    public static INDArray pca_factor_randomized(INDArray A, int nDims, boolean normalize) {
+        return pca_factor_randomized(A, nDims, normalize, DEFAULT_OVERSAMPLES, DEFAULT_POWER_ITERATIONS);
+    }
+
+
+    /**
+     * Calculates pca factors of a matrix using randomized SVD (Halko, Martinsson, Tropp: "Finding structure with
+     * randomness"). Range of A is sampled by a Gaussian random matrix with nDims + oversamples columns, refined by
+     * power iterations, and exact SVD is done only for the projection of A onto that range. Unlike
+     * {@link #pca_factor(INDArray, int, boolean)}, this never runs SVD on the whole data matrix, so it's suitable
+     * for matrices with many rows, when nDims is much smaller than the number of features.
+     *
+     * Result is approximate: more power iterations give better accuracy when singular values decay slowly.
+     * Random numbers are taken from {@link Nd4j#getRandom()}.
+     *
+     * @param A the array of features, rows are results, columns are features - will be changed if normalize is true
+     * @param nDims the number of components on which to project the features
+     * @param normalize whether to normalize (adjust each feature to have zero mean)
+     * @param oversamples number of additional random samples of the range of A, 5 - 10 is usually enough
+     * @param powerIterations number of power iterations, 0 for none
+     * @return the reduced feature set
+     */
+    public static INDArray pca_factor_randomized(INDArray A, int nDims, boolean normalize, int oversamples,
+                    int powerIterations) {
+        int m = A.rows();
+        int n = A.columns();
+        if (nDims < 1 || nDims > Math.min(m, n))
+            throw new IllegalArgumentException("Number of components should be between 1 and " + Math.min(m, n)
+                            + ", got " + nDims);
+        if (oversamples < 0 || powerIterations < 0)
+            throw new IllegalArgumentException("Number of oversamples and power iterations can't be negative");
+
+        if (normalize) {
+            // Normalize to mean 0 for each feature ( each column has 0 mean )
+            INDArray mean = A.mean(0);
+            A.subiRowVector(mean);
+        }
+
+        int samples = Math.min(nDims + oversamples, Math.min(m, n));
+
+        // Q is an orthonormal basis of the sampled range of A, m x samples
+        INDArray Q = orthonormalize(A.mmul(Nd4j.randn(n, samples)));
+        for (int i = 0; i < powerIterations; i++) {
+            // re-orthonormalize after each multiplication, otherwise small singular values are lost in rounding
+            INDArray Z = orthonormalize(A.transpose().mmul(Q));
+            Q = orthonormalize(A.mmul(Z));
         }
 
-        return factor;
+        // A ~ Q x B, and right singular vectors of B approximate right singular vectors of A
+        INDArray B = Q.transpose().mmul(A);
+        return rightSingularVectors(B, nDims)[0];
     }
 
 
@@ -279,13 +362,7 @@ public class PCA {
         }
         // So now let's rip out the appropriate number of left singular vectors from
         // the V output (note we pulls rows since VT is a transpose of V)
-        INDArray V = VT.transpose();
-        INDArray factor = Nd4j.create(n, k, 'f');
-        for (int i = 0; i < k; i++) {
-            factor.putColumn(i, V.getColumn(i));
-        }
-
-        return factor;
+        return VT.get(NDArrayIndex.interval(0, k), NDArrayIndex.all()).transpose().dup('f');
     }
 
 
@@ -365,6 +442,54 @@ public class PCA {
     }
 
 
+    /**
+     * Calculates top right singular vectors and singular values of a matrix. For matrices with fewer rows
+     * than columns, SVD is done for R from QR decomposition of its transpose, which is rows x rows, so
+     * columns x columns VT is never allocated.
+     *
+     * @param X the input matrix, not changed
+     * @param k the number of singular vectors to return, not more than min(rows, columns)
+     * @return Array INDArray[2]: columns x k matrix with singular vectors as columns, in decreasing order of
+     *      singular values, and the k singular values
+     */
+    static INDArray[] rightSingularVectors(INDArray X, int k) {
+        int r = X.rows();
+        int n = X.columns();
+
+        INDArray s;
+        INDArray V;
+        if (r < n) {
+            // X^T = Q x R, so X = R^T x Q^T. If R^T = U x S x WT, then X = U x S x (Q x W)^T
+            INDArray Q = X.transpose().dup('f');
+            INDArray R = Nd4j.create(r, r, 'f');
+            Nd4j.getBlasWrapper().lapack().geqrf(Q, R);
+
+            INDArray Rt = R.transpose().dup('f');
+            INDArray WT = Nd4j.create(r, r, 'f');
+            s = Nd4j.create(r);
+            Nd4j.getBlasWrapper().lapack().gesvd(Rt, s, null, WT);
+            V = Q.mmul(WT.get(NDArrayIndex.interval(0, k), NDArrayIndex.all()).transpose());
+        } else {
+            INDArray A = X.dup('f');
+            INDArray VT = Nd4j.create(n, n, 'f');
+            s = Nd4j.create(n);
+            Nd4j.getBlasWrapper().lapack().gesvd(A, s, null, VT);
+            V = VT.get(NDArrayIndex.interval(0, k), NDArrayIndex.all()).transpose();
+        }
+
+        return new INDArray[] {V.dup('f'), s.get(NDArrayIndex.point(0), NDArrayIndex.interval(0, k)).dup()};
+    }
+
+    /**
+     * Returns orthonormal basis of the column space of a matrix with at least as many rows as columns
+     */
+    private static INDArray orthonormalize(INDArray Y) {
+        INDArray Q = Y.dup('f');
+        Nd4j.getBlasWrapper().lapack().geqrf(Q, Nd4j.create(Y.columns(), Y.columns(), 'f'));
+        return Q;
+    }
+
+
     public INDArray getCovarianceMatrix() {
         return covarianceMatrix;
     }
@@ -0,0 +1,477 @@
+package org.nd4j.linalg.dimensionalityreduction;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Sparse random projection (Achlioptas: "Database-friendly random projections", Li, Hastie, Church:
+ * "Very sparse random projections"). Each element of the features x components projection matrix is
+ * +1/sqrt(density * components) or -1/sqrt(density * components) with probability density / 2 each, and 0
+ * otherwise, so that projected distances are preserved like with {@link RandomProjection}.
+ *
+ * Projection matrix is never materialized: it's split into blocks of {@link #BLOCK_SIZE} rows (features), and
+ * each block is regenerated from the seed and the block number when it's needed. So the same seed always gives
+ * the same projection, for any number of threads, and memory use doesn't depend on the number of features.
+ * Rows of the data are projected in parallel. {@link #getProjectionMatrix(int)} returns the same matrix as a
+ * sparse CSR array, if it's needed explicitly.
+ *
+ * Density defaults to 1 / sqrt(features), as in "very sparse" projections. Achlioptas projection has density 1/3.
+ */
+public class SparseRandomProjection {
+    /**
+     * Number of projection matrix rows generated at once
+     */
+    public static final int BLOCK_SIZE = 4096;
+    /**
+     * Density used for Achlioptas projection
+     */
+    public static final double ACHLIOPTAS_DENSITY = 1.0 / 3.0;
+
+    // rows of the data projected by each task, and copied from the data at once
+    private static final int MIN_ROWS_PER_TASK = 16;
+    private static final int ROW_CHUNK = 64;
+
+    private final int components;
+    private final double eps;
+    private final boolean autoMode;
+    private final double density;
+    private final long seed;
+
+    /**
+     * @param components target dimension
+     * @param seed seed the projection matrix is generated from
+     */
+    public SparseRandomProjection(int components, long seed) {
+        this(components, -1, seed);
+    }
+
+    /**
+     * @param components target dimension
+     * @param density fraction of non-zero elements of the projection matrix, in (0, 1]. Non-positive value
+     *                means 1 / sqrt(features)
+     * @param seed seed the projection matrix is generated from
+     */
+    public SparseRandomProjection(int components, double density, long seed) {
+        if (components < 1)
+            throw new IllegalArgumentException("Number of components should be positive, got " + components);
+        checkDensity(density);
+        this.components = components;
+        this.eps = -1;
+        this.autoMode = false;
+        this.density = density;
+        this.seed = seed;
+    }
+
+    /**
+     * @param eps maximum distortion, target dimension is estimated from the number of samples by
+     *            {@link RandomProjection#johnsonLindenStraussMinDim(int, double...)}
+     * @param seed seed the projection matrix is generated from
+     */
+    public SparseRandomProjection(double eps, long seed) {
+        this(eps, -1, seed);
+    }
+
+    /**
+     * @param eps maximum distortion, target dimension is estimated from the number of samples by
+     *            {@link RandomProjection#johnsonLindenStraussMinDim(int, double...)}
+     * @param density fraction of non-zero elements of the projection matrix, in (0, 1]. Non-positive value
+     *                means 1 / sqrt(features)
+     * @param seed seed the projection matrix is generated from
+     */
+    public SparseRandomProjection(double eps, double density, long seed) {
+        if (eps <= 0 || eps >= 1)
+            throw new IllegalArgumentException("A relative error should be in ]0, 1[");
+        checkDensity(density);
+        this.components = -1;
+        this.eps = eps;
+        this.autoMode = true;
+        this.density = density;
+        this.seed = seed;
+    }
+
+    private static void checkDensity(double density) {
+        if (density > 1)
+            throw new IllegalArgumentException("Density should be in (0, 1], got " + density);
+    }
+
+    /**
+     * Projects data onto random components
+     *
+     * @param data dense matrix, rows are samples, columns are features. Not changed
+     * @return rows x components matrix
+     */
+    public INDArray project(INDArray data) {
+        checkData(data);
+        return project(data, targetDimension(data.rows(), data.columns()));
+    }
+
+    private static void checkData(INDArray data) {
+        if (data.rank() != 2)
+            throw new IllegalArgumentException("Data should be a matrix, got array of rank " + data.rank());
+        if (data.isSparse())
+            throw new UnsupportedOperationException("Sparse data isn't supported yet");
+    }
+
+    private INDArray project(final INDArray data, final int k) {
+        int rows = data.rows();
+        final INDArray result = Nd4j.create(new int[] {rows, k}, 'c');
+        if (rows == 0)
+            return result;
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        int tasks = Math.max(1, Math.min(threads, rows / MIN_ROWS_PER_TASK));
+        int rowsPerTask = (rows + tasks - 1) / tasks;
+
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int start = 0; start < rows; start += rowsPerTask) {
+            final int from = start;
+            final int to = Math.min(rows, start + rowsPerTask);
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    projectRows(data, from, to, k, result);
+                }
+            };
+
+            if (to == rows)
+                // last task runs in the calling thread
+                task.run();
+            else
+                futures.add(ExecutorServiceProvider.getExecutorService().submit(task));
+        }
+
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ND4JIllegalStateException("Interrupted while projecting data", e);
+        } catch (ExecutionException e) {
+            throw new ND4JIllegalStateException("Projection failed", e.getCause());
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns iterator that projects features of each DataSet returned by given iterator. Labels and masks are
+     * passed as is. For eps-based projection, target dimension is estimated once, from
+     * {@link DataSetIterator#totalExamples()}, so all DataSets are projected by the same matrix.
+     *
+     * @param iterator source iterator, with matrices as features
+     * @return iterator over projected DataSets
+     */
+    public DataSetIterator project(DataSetIterator iterator) {
+        return new ProjectingIterator(iterator);
+    }
+
+    /**
+     * Returns the projection matrix as a sparse CSR array. Matrix is the same as the one used by
+     * {@link #project(INDArray)} for data with given number of features and samples.
+     *
+     * @param features number of features, i.e. rows of the matrix
+     * @param samples number of samples, used only to estimate target dimension for eps-based projection
+     * @return features x components CSR matrix
+     */
+    public INDArray getProjectionMatrix(int features, int samples) {
+        int k = targetDimension(samples, features);
+        int[] pointerB = new int[features];
+        int[] pointerE = new int[features];
+        int[] columns = new int[16];
+        float[] values = new float[16];
+        int nnz = 0;
+
+        for (int blockStart = 0; blockStart < features; blockStart += BLOCK_SIZE) {
+            Block block = generateBlock(blockStart / BLOCK_SIZE, Math.min(BLOCK_SIZE, features - blockStart), features,
+                            k);
+            for (int i = 0; i < block.rows; i++) {
+                pointerB[blockStart + i] = nnz;
+                for (int p = block.rowPointers[i]; p < block.rowPointers[i + 1]; p++) {
+                    if (nnz == columns.length) {
+                        columns = Arrays.copyOf(columns, nnz * 2);
+                        values = Arrays.copyOf(values, nnz * 2);
+                    }
+                    int column = block.columns[p];
+                    columns[nnz] = column >= 0 ? column : ~column;
+                    values[nnz] = column >= 0 ? block.scale : -block.scale;
+                    nnz++;
+                }
+                pointerE[blockStart + i] = nnz;
+            }
+        }
+
+        return Nd4j.createSparseCSR(Arrays.copyOf(values, nnz), Arrays.copyOf(columns, nnz), pointerB, pointerE,
+                        new int[] {features, k});
+    }
+
+    /**
+     * @see #getProjectionMatrix(int, int)
+     */
+    public INDArray getProjectionMatrix(int features) {
+        if (autoMode)
+            throw new ND4JIllegalStateException("Number of samples is required to estimate target dimension");
+        return getProjectionMatrix(features, 0);
+    }
+
+    /**
+     * @return density of the projection matrix used for data with given number of features
+     */
+    public double getDensity(int features) {
+        return density > 0 ? density : 1.0 / Math.sqrt(features);
+    }
+
+    private int targetDimension(int samples, int features) {
+        if (!autoMode)
+            return components;
+
+        int k = RandomProjection.johnsonLindenStraussMinDim(samples, eps).get(0);
+        if (k <= 0 || k > features)
+            throw new ND4JIllegalStateException(
+                            String.format("Estimation led to a target dimension of %d, which is invalid", k));
+        return k;
+    }
+
+    private void projectRows(INDArray data, int from, int to, int k, INDArray result) {
+        int features = data.columns();
+        int rows = to - from;
+        double[] projected = new double[rows * k];
+        double[] chunk = new double[Math.min(ROW_CHUNK, rows) * Math.min(BLOCK_SIZE, features)];
+
+        for (int blockStart = 0; blockStart < features; blockStart += BLOCK_SIZE) {
+            int blockRows = Math.min(BLOCK_SIZE, features - blockStart);
+            Block block = generateBlock(blockStart / BLOCK_SIZE, blockRows, features, k);
+
+            for (int chunkStart = from; chunkStart < to; chunkStart += ROW_CHUNK) {
+                int chunkRows = Math.min(ROW_CHUNK, to - chunkStart);
+                INDArray view = data.get(NDArrayIndex.interval(chunkStart, chunkStart + chunkRows),
+                                NDArrayIndex.interval(blockStart, blockStart + blockRows));
+                view.copyTo(chunk, 0);
+                boolean c = view.ordering() == 'c';
+
+                for (int r = 0; r < chunkRows; r++) {
+                    int out = (chunkStart - from + r) * k;
+                    for (int i = 0; i < blockRows; i++) {
+                        double x = chunk[c ? r * blockRows + i : i * chunkRows + r];
+                        // hashed features are mostly zeros
+                        if (x == 0.0)
+                            continue;
+                        for (int p = block.rowPointers[i]; p < block.rowPointers[i + 1]; p++) {
+                            int column = block.columns[p];
+                            if (column >= 0)
+                                projected[out + column] += x;
+                            else
+                                projected[out + ~column] -= x;
+                        }
+                    }
+                }
+            }
+        }
+
+        // all non-zero elements have the same magnitude
+        double scale = 1.0 / Math.sqrt(getDensity(features) * k);
+        for (int e = 0; e < projected.length; e++)
+            projected[e] *= scale;
+
+        result.get(NDArrayIndex.interval(from, to), NDArrayIndex.all()).copyFrom(projected, 0);
+    }
+
+    /**
+     * Generates rows [block * BLOCK_SIZE, block * BLOCK_SIZE + rows) of the projection matrix. Positions of
+     * non-zero elements in each row are sampled with geometric skips, so generation time is proportional to the
+     * number of non-zero elements. Negative elements are stored as complement of their column.
+     */
+    private Block generateBlock(int block, int rows, int features, int k) {
+        double p = getDensity(features);
+        float scale = (float) (1.0 / Math.sqrt(p * k));
+        double logSkip = p < 1 ? Math.log(1 - p) : 0;
+        SplitMix rng = new SplitMix(seed, block);
+
+        int[] rowPointers = new int[rows + 1];
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, (long) (1.2 * rows * k * p)));
+        int[] columns = new int[capacity];
+        int nnz = 0;
+
+        for (int i = 0; i < rows; i++) {
+            int column = -1;
+            while (true) {
+                if (p < 1) {
+                    double skip = Math.floor(Math.log(rng.nextDouble()) / logSkip);
+                    column = skip >= k ? k : column + 1 + (int) skip;
+                } else {
+                    column++;
+                }
+                if (column >= k)
+                    break;
+
+                if (nnz == columns.length)
+                    columns = Arrays.copyOf(columns, nnz * 2);
+                columns[nnz++] = rng.nextBoolean() ? column : ~column;
+            }
+            rowPointers[i + 1] = nnz;
+        }
+
+        return new Block(rows, rowPointers, columns, scale);
+    }
+
+    private static class Block {
+        private final int rows;
+        private final int[] rowPointers;
+        private final int[] columns;
+        private final float scale;
+
+        private Block(int rows, int[] rowPointers, int[] columns, float scale) {
+            this.rows = rows;
+            this.rowPointers = rowPointers;
+            this.columns = columns;
+            this.scale = scale;
+        }
+    }
+
+    /**
+     * SplitMix64 generator, seeded by projection seed and block number. It's used instead of
+     * {@link java.util.Random} so that blocks are independent, and generated without synchronization.
+     */
+    private static class SplitMix {
+        private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+        private long state;
+
+        private SplitMix(long seed, long block) {
+            this.state = mix(seed ^ mix(block * GOLDEN_GAMMA + GOLDEN_GAMMA));
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        private long nextLong() {
+            state += GOLDEN_GAMMA;
+            return mix(state);
+        }
+
+        /**
+         * @return uniform double in (0, 1]
+         */
+        private double nextDouble() {
+            return ((nextLong() >>> 11) + 1) * 0x1.0p-53;
+        }
+
+        private boolean nextBoolean() {
+            return nextLong() < 0;
+        }
+    }
+
+    private class ProjectingIterator implements DataSetIterator {
+        private final DataSetIterator source;
+        private DataSetPreProcessor preProcessor;
+        private int k = -1;
+
+        private ProjectingIterator(DataSetIterator source) {
+            this.source = source;
+        }
+
+        private DataSet projected(DataSet next) {
+            INDArray features = next.getFeatures();
+            checkData(features);
+            if (k < 0)
+                k = targetDimension(source.totalExamples(), features.columns());
+            next.setFeatures(project(features, k));
+            if (preProcessor != null)
+                preProcessor.preProcess(next);
+            return next;
+        }
+
+        @Override
+        public DataSet next(int num) {
+            return projected(source.next(num));
+        }
+
+        @Override
+        public DataSet next() {
+            return projected(source.next());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+
+        @Override
+        public int totalExamples() {
+            return source.totalExamples();
+        }
+
+        @Override
+        public int inputColumns() {
+            return autoMode ? k : components;
+        }
+
+        @Override
+        public int totalOutcomes() {
+            return source.totalOutcomes();
+        }
+
+        @Override
+        public boolean resetSupported() {
+            return source.resetSupported();
+        }
+
+        @Override
+        public boolean asyncSupported() {
+            return source.asyncSupported();
+        }
+
+        @Override
+        public void reset() {
+            source.reset();
+        }
+
+        @Override
+        public int batch() {
+            return source.batch();
+        }
+
+        @Override
+        public int cursor() {
+            return source.cursor();
+        }
+
+        @Override
+        public int numExamples() {
+            return source.numExamples();
+        }
+
+        @Override
+        public void setPreProcessor(DataSetPreProcessor preProcessor) {
+            this.preProcessor = preProcessor;
+        }
+
+        @Override
+        public DataSetPreProcessor getPreProcessor() {
+            return preProcessor;
+        }
+
+        @Override
+        public List<String> getLabels() {
+            return source.getLabels();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -836,6 +836,44 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
         return pullRows(source, sourceDimension, indexes, Nd4j.order());
     }
 
+    /**
+     * Generic implementation: copies one tensor at a time. Backends override this with a native gather
+     *
+     * @param source source tensor
+     * @param destination destination tensor, with indexes.length tensors along the given dimensions
+     * @param sourceDimensions dimensions defining the tensors to copy
+     * @param indexes indexes of the source tensors to copy
+     * @return the destination array
+     */
+    @Override
+    public INDArray pullRows(INDArray source, INDArray destination, int[] sourceDimensions, int[] indexes) {
+        for (int cnt = 0; cnt < indexes.length; cnt++) {
+            destination.tensorAlongDimension(cnt, sourceDimensions)
+                            .assign(source.tensorAlongDimension(indexes[cnt], sourceDimensions));
+        }
+
+        return destination;
+    }
+
+    /**
+     * Generic implementation: adds one tensor at a time
+     *
+     * @param source source tensor, with indexes.length tensors along the given dimensions
+     * @param destination destination tensor, modified in place
+     * @param dimensions dimensions defining the tensors
+     * @param indexes indexes of the destination tensors to add to
+     * @return the destination array
+     */
+    @Override
+    public INDArray scatterAddRows(INDArray source, INDArray destination, int[] dimensions, int[] indexes) {
+        for (int cnt = 0; cnt < indexes.length; cnt++) {
+            destination.tensorAlongDimension(indexes[cnt], dimensions)
+                            .addi(source.tensorAlongDimension(cnt, dimensions));
+        }
+
+        return destination;
+    }
+
     /**
      * Creates a matrix of zeros
      *
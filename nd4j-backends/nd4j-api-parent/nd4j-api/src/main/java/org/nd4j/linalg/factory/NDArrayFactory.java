@@ -427,6 +427,32 @@ public interface NDArrayFactory {
      */
     INDArray pullRows(INDArray source, int sourceDimension, int[] indexes, char order);
 
+    /**
+     * This method gathers tensors along the given dimensions from the source array into a caller-supplied
+     * destination array: destination tensor i = source tensor indexes[i].
+     * Indexes may repeat. Source and destination tensors must have the same length.
+     *
+     * @param source source tensor
+     * @param destination destination tensor, with indexes.length tensors along the given dimensions
+     * @param sourceDimensions dimensions defining the tensors to copy (e.g. {1} for the rows of a matrix)
+     * @param indexes indexes of the source tensors to copy
+     * @return the destination array
+     */
+    INDArray pullRows(INDArray source, INDArray destination, int[] sourceDimensions, int[] indexes);
+
+    /**
+     * This method is the reverse of {@link #pullRows(INDArray, INDArray, int[], int[])}, accumulating instead of
+     * overwriting: destination tensor indexes[i] += source tensor i.
+     * Indexes may repeat, in which case all contributions are added.
+     *
+     * @param source source tensor, with indexes.length tensors along the given dimensions
+     * @param destination destination tensor, modified in place
+     * @param dimensions dimensions defining the tensors (e.g. {1} for the rows of a matrix)
+     * @param indexes indexes of the destination tensors to add to
+     * @return the destination array
+     */
+    INDArray scatterAddRows(INDArray source, INDArray destination, int[] dimensions, int[] indexes);
+
 
     /**
      * In place shuffle of an ndarray
@@ -2589,7 +2589,7 @@ public class Nd4j {
     public static INDArray read(DataInputStream dis) throws IOException {
         DataBuffer shapeInformation = Nd4j.createBufferDetached(new int[1], DataBuffer.Type.INT);
         shapeInformation.read(dis);
-        int length = Shape.length(shapeInformation);
+        long length = Shape.lengthLong(shapeInformation);
         DataBuffer data = CompressedDataBuffer.readUnknown(dis, length);
         return createArrayFromShapeBuffer(data, shapeInformation);
     }
@@ -5870,6 +5870,120 @@ public class Nd4j {
         return ret;
     }
 
+    /**
+     * This method gathers tensors, fetched from source array against some dimension and specified indexes,
+     * into a caller-supplied destination array: destination tensor i = source tensor indexes[i].
+     * Same as {@link #pullRows(INDArray, int, int[])}, without allocating the result.
+     *
+     * @param source source tensor
+     * @param destination destination tensor, with indexes.length tensors along sourceDimension
+     * @param sourceDimension dimension of source tensor
+     * @param indexes indexes from source array
+     * @return the destination array
+     */
+    public static INDArray pullRows(INDArray source, INDArray destination, int sourceDimension, int... indexes) {
+        if (sourceDimension >= source.rank())
+            throw new IllegalStateException("Source dimension can't be higher the rank of source tensor");
+
+        return pullTensors(source, destination, new int[] {sourceDimension}, indexes);
+    }
+
+    /**
+     * Gather slices along the given dimension: the result has the shape of the source, except that its size along
+     * {@code dimension} is indexes.length, and slice i of the result is slice indexes[i] of the source.
+     * For example, gather(matrix, 0, indexes) selects rows, and gather(timeSeries, 0, indexes) selects examples.
+     * The copy is done by a single (multi-threaded, where supported) native op.
+     *
+     * @param source source array
+     * @param dimension dimension to select slices along
+     * @param indexes indexes of the slices to select. May repeat
+     * @return the gathered slices, in c order
+     */
+    public static INDArray gather(INDArray source, int dimension, int... indexes) {
+        int[] shape = source.shape().clone();
+        shape[dimension] = indexes.length;
+        INDArray ret = Nd4j.createUninitialized(shape, 'c');
+        logCreationIfNecessary(ret);
+        return gather(source, ret, dimension, indexes);
+    }
+
+    /**
+     * Gather slices along the given dimension into a caller-supplied array.
+     * See {@link #gather(INDArray, int, int...)}
+     *
+     * @param source source array
+     * @param destination destination array; same shape as the source except for indexes.length along dimension
+     * @param dimension dimension to select slices along
+     * @param indexes indexes of the slices to select. May repeat
+     * @return the destination array
+     */
+    public static INDArray gather(INDArray source, INDArray destination, int dimension, int... indexes) {
+        validateSlices(source, destination, dimension, indexes, source.size(dimension));
+        return pullTensors(source, destination, sliceTadDimensions(source.rank(), dimension), indexes);
+    }
+
+    /**
+     * Scatter-add slices along the given dimension: slice indexes[i] of the destination is incremented by slice i
+     * of the source. Repeated indexes accumulate. This is the backward pass of {@link #gather(INDArray, int, int...)}.
+     *
+     * @param source source array, with indexes.length slices along dimension
+     * @param destination destination array, modified in place
+     * @param dimension dimension of the slices
+     * @param indexes indexes of the destination slices to add to
+     * @return the destination array
+     */
+    public static INDArray scatterAdd(INDArray source, INDArray destination, int dimension, int... indexes) {
+        validateSlices(destination, source, dimension, indexes, destination.size(dimension));
+        return INSTANCE.scatterAddRows(source, destination, sliceTadDimensions(source.rank(), dimension), indexes);
+    }
+
+    private static INDArray pullTensors(INDArray source, INDArray destination, int[] tadDimensions, int[] indexes) {
+        if (indexes == null || indexes.length == 0)
+            throw new IllegalStateException("Indexes shouldn't be empty");
+
+        int numTads = source.tensorssAlongDimension(tadDimensions);
+        for (int idx : indexes) {
+            if (idx < 0 || idx >= numTads)
+                throw new IllegalStateException("Index can't be < 0 and >= " + numTads);
+        }
+        if (destination.tensorssAlongDimension(tadDimensions) != indexes.length)
+            throw new IllegalStateException("Destination should have " + indexes.length + " tensors, but has "
+                            + destination.tensorssAlongDimension(tadDimensions));
+
+        return INSTANCE.pullRows(source, destination, tadDimensions, indexes);
+    }
+
+    private static void validateSlices(INDArray full, INDArray gathered, int dimension, int[] indexes, int numSlices) {
+        if (indexes == null || indexes.length == 0)
+            throw new IllegalStateException("Indexes shouldn't be empty");
+        if (dimension < 0 || dimension >= full.rank())
+            throw new IllegalStateException("Invalid dimension " + dimension + " for array of rank " + full.rank());
+        if (full.rank() != gathered.rank() || gathered.size(dimension) != indexes.length)
+            throw new IllegalStateException("Expected " + indexes.length + " slices along dimension " + dimension
+                            + ", got shape " + Arrays.toString(gathered.shape()));
+        for (int i = 0; i < full.rank(); i++) {
+            if (i != dimension && full.size(i) != gathered.size(i))
+                throw new IllegalStateException("Shapes " + Arrays.toString(full.shape()) + " and "
+                                + Arrays.toString(gathered.shape()) + " differ outside dimension " + dimension);
+        }
+        for (int idx : indexes) {
+            if (idx < 0 || idx >= numSlices)
+                throw new IllegalStateException("Index can't be < 0 and >= " + numSlices);
+        }
+    }
+
+    /**
+     * The slices along a dimension are the tensors along all the other dimensions
+     */
+    private static int[] sliceTadDimensions(int rank, int dimension) {
+        int[] ret = new int[rank - 1];
+        for (int i = 0, j = 0; i < rank; i++) {
+            if (i != dimension)
+                ret[j++] = i;
+        }
+        return ret;
+    }
+
     /**
      * Concatneate ndarrays along a dimension
      *
@@ -6359,7 +6473,8 @@ public class Nd4j {
             workspaceManager = workspaceManagerClazz.newInstance();
 
             opExecutionerClazz = (Class<? extends OpExecutioner>) Class
-                            .forName(props.getProperty(OP_EXECUTIONER, DefaultOpExecutioner.class.getName()));
+                            .forName(System.getProperty(OP_EXECUTIONER,
+                                            props.getProperty(OP_EXECUTIONER, DefaultOpExecutioner.class.getName())));
 
             instrumentation = instrumentationClazz.newInstance();
             OP_EXECUTIONER_INSTANCE = opExecutionerClazz.newInstance();
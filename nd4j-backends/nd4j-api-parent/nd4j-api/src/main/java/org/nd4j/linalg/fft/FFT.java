@@ -303,4 +303,41 @@ public class FFT {
         return Nd4j.getFFt().rawifft(transform, transform.shape()[dimension], dimension);
     }
 
+
+    /**
+     * Real to complex FFT along the last dimension, on plain arrays.
+     * See {@link RealFFT#rfft(INDArray, int)}
+     *
+     * @param input the real ndarray to op
+     * @return the interleaved complex output
+     */
+    public static INDArray rfft(INDArray input) {
+        return RealFFT.rfft(input);
+    }
+
+    /**
+     * Real to complex FFT along a particular dimension, on plain arrays.
+     * See {@link RealFFT#rfft(INDArray, int)}
+     *
+     * @param input the real ndarray to op
+     * @param dimension the dimension to do fft along
+     * @return the interleaved complex output, with 2 * (n / 2 + 1) elements along the dimension
+     */
+    public static INDArray rfft(INDArray input, int dimension) {
+        return RealFFT.rfft(input, dimension);
+    }
+
+    /**
+     * Complex to real FFT along a particular dimension, inverse of {@link #rfft(INDArray, int)}.
+     * See {@link RealFFT#irfft(INDArray, int, int)}
+     *
+     * @param input the interleaved complex ndarray to op
+     * @param n the number of elements in the real output
+     * @param dimension the dimension to do ifft along
+     * @return the real output
+     */
+    public static INDArray irfft(INDArray input, int n, int dimension) {
+        return RealFFT.irfft(input, n, dimension);
+    }
+
 }
@@ -0,0 +1,348 @@
+package org.nd4j.linalg.fft;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed real-input FFT of a given length: twiddle factors, bit reversal permutation and, for lengths that
+ * aren't powers of two, Bluestein chirp and its transformed convolution kernel. Plans are immutable, so one plan
+ * is shared by all threads, and each thread passes its own scratch array of {@link #scratchLength()} elements.
+ *
+ * Real input of length n is transformed into n / 2 + 1 complex bins, stored as interleaved real and imaginary
+ * parts. Even lengths are transformed as complex sequences of half length. Transforms are done in double
+ * precision.
+ */
+public class FFTPlan {
+    private static final int MAX_CACHED_PLANS = 128;
+    private static final ConcurrentHashMap<Integer, FFTPlan> plans = new ConcurrentHashMap<>();
+
+    private final int n;
+    private final ComplexPlan complex;
+    // exp(-2 pi i k / n), for k = 0 .. n / 2, used to split the half length transform of even lengths
+    private final double[] cos;
+    private final double[] sin;
+
+    /**
+     * Returns cached plan for given length, creating it if needed
+     *
+     * @param n transform length
+     * @return plan
+     */
+    public static FFTPlan forLength(int n) {
+        FFTPlan plan = plans.get(n);
+        if (plan == null) {
+            plan = new FFTPlan(n);
+            if (plans.size() >= MAX_CACHED_PLANS)
+                plans.clear();
+            FFTPlan existing = plans.putIfAbsent(n, plan);
+            if (existing != null)
+                plan = existing;
+        }
+        return plan;
+    }
+
+    public FFTPlan(int n) {
+        if (n < 1)
+            throw new IllegalArgumentException("FFT length should be positive, got " + n);
+
+        this.n = n;
+        if (n % 2 == 0) {
+            int h = n / 2;
+            this.complex = new ComplexPlan(h);
+            this.cos = new double[h + 1];
+            this.sin = new double[h + 1];
+            for (int k = 0; k <= h; k++) {
+                double angle = 2 * Math.PI * k / n;
+                cos[k] = Math.cos(angle);
+                sin[k] = Math.sin(angle);
+            }
+        } else {
+            this.complex = new ComplexPlan(n);
+            this.cos = null;
+            this.sin = null;
+        }
+    }
+
+    /**
+     * @return transform length
+     */
+    public int length() {
+        return n;
+    }
+
+    /**
+     * @return number of complex bins in the transform of real input, n / 2 + 1
+     */
+    public int bins() {
+        return n / 2 + 1;
+    }
+
+    /**
+     * @return length of scratch array required by {@link #forward} and {@link #inverse}
+     */
+    public int scratchLength() {
+        return 2 * complex.n + complex.scratchLength();
+    }
+
+    /**
+     * Real to complex transform
+     *
+     * @param in real input, n elements starting at inOffset
+     * @param inOffset
+     * @param out interleaved complex output, 2 * (n / 2 + 1) elements starting at outOffset
+     * @param outOffset
+     * @param scratch at least {@link #scratchLength()} elements
+     */
+    public void forward(double[] in, int inOffset, double[] out, int outOffset, double[] scratch) {
+        int m = complex.n;
+        int re = 0;
+        int im = m;
+        int work = 2 * m;
+
+        if (cos == null) {
+            for (int k = 0; k < m; k++) {
+                scratch[re + k] = in[inOffset + k];
+                scratch[im + k] = 0.0;
+            }
+            complex.transform(scratch, re, im, false, scratch, work);
+            for (int k = 0; k < bins(); k++) {
+                out[outOffset + 2 * k] = scratch[re + k];
+                out[outOffset + 2 * k + 1] = scratch[im + k];
+            }
+            return;
+        }
+
+        // even and odd samples are transformed together, as real and imaginary parts of a half length sequence
+        for (int k = 0; k < m; k++) {
+            scratch[re + k] = in[inOffset + 2 * k];
+            scratch[im + k] = in[inOffset + 2 * k + 1];
+        }
+        complex.transform(scratch, re, im, false, scratch, work);
+
+        for (int k = 0; k <= m; k++) {
+            int a = k == m ? 0 : k;
+            int b = k == 0 ? 0 : m - k;
+            double zr = scratch[re + a];
+            double zi = scratch[im + a];
+            double cr = scratch[re + b];
+            double ci = -scratch[im + b];
+
+            // E = (Z[k] + conj(Z[m - k])) / 2, O = (Z[k] - conj(Z[m - k])) / 2i
+            double er = (zr + cr) / 2;
+            double ei = (zi + ci) / 2;
+            double or = (zi - ci) / 2;
+            double oi = -(zr - cr) / 2;
+
+            // X = E + exp(-2 pi i k / n) * O
+            out[outOffset + 2 * k] = er + cos[k] * or + sin[k] * oi;
+            out[outOffset + 2 * k + 1] = ei + cos[k] * oi - sin[k] * or;
+        }
+    }
+
+    /**
+     * Complex to real transform, inverse of {@link #forward}, including 1 / n normalization. Imaginary parts of
+     * the first bin, and of the last bin for even lengths, are expected to be zero.
+     *
+     * @param in interleaved complex input, 2 * (n / 2 + 1) elements starting at inOffset
+     * @param inOffset
+     * @param out real output, n elements starting at outOffset
+     * @param outOffset
+     * @param scratch at least {@link #scratchLength()} elements
+     */
+    public void inverse(double[] in, int inOffset, double[] out, int outOffset, double[] scratch) {
+        int m = complex.n;
+        int re = 0;
+        int im = m;
+        int work = 2 * m;
+
+        if (cos == null) {
+            // rebuild the whole hermitian spectrum
+            scratch[re] = in[inOffset];
+            scratch[im] = 0.0;
+            for (int k = 1; k < bins(); k++) {
+                double xr = in[inOffset + 2 * k];
+                double xi = in[inOffset + 2 * k + 1];
+                scratch[re + k] = xr;
+                scratch[im + k] = xi;
+                scratch[re + m - k] = xr;
+                scratch[im + m - k] = -xi;
+            }
+            complex.transform(scratch, re, im, true, scratch, work);
+            for (int k = 0; k < m; k++)
+                out[outOffset + k] = scratch[re + k] / m;
+            return;
+        }
+
+        for (int k = 0; k < m; k++) {
+            double xr = in[inOffset + 2 * k];
+            double xi = in[inOffset + 2 * k + 1];
+            double cr = in[inOffset + 2 * (m - k)];
+            double ci = -in[inOffset + 2 * (m - k) + 1];
+
+            // E = (X[k] + conj(X[m - k])) / 2, O = (X[k] - conj(X[m - k])) / 2 * exp(2 pi i k / n)
+            double er = (xr + cr) / 2;
+            double ei = (xi + ci) / 2;
+            double dr = (xr - cr) / 2;
+            double di = (xi - ci) / 2;
+            double or = dr * cos[k] - di * sin[k];
+            double oi = dr * sin[k] + di * cos[k];
+
+            // Z = E + i * O
+            scratch[re + k] = er - oi;
+            scratch[im + k] = ei + or;
+        }
+        complex.transform(scratch, re, im, true, scratch, work);
+
+        for (int k = 0; k < m; k++) {
+            out[outOffset + 2 * k] = scratch[re + k] / m;
+            out[outOffset + 2 * k + 1] = scratch[im + k] / m;
+        }
+    }
+
+    /**
+     * Unnormalized complex FFT: iterative radix-2 for powers of two, Bluestein for other lengths
+     */
+    private static class ComplexPlan {
+        private final int n;
+        // radix-2: exp(2 pi i k / n) for k < n / 2, and bit reversal permutation
+        private final double[] cos;
+        private final double[] sin;
+        private final int[] reversed;
+        // Bluestein: chirp exp(-pi i k^2 / n), and FFT of its conjugate, zero padded to power of two
+        private final double[] chirpRe;
+        private final double[] chirpIm;
+        private final double[] kernelRe;
+        private final double[] kernelIm;
+        private final ComplexPlan padded;
+
+        private ComplexPlan(int n) {
+            this.n = n;
+            if (Integer.bitCount(n) == 1) {
+                cos = new double[n / 2];
+                sin = new double[n / 2];
+                for (int k = 0; k < n / 2; k++) {
+                    double angle = 2 * Math.PI * k / n;
+                    cos[k] = Math.cos(angle);
+                    sin[k] = Math.sin(angle);
+                }
+                int bits = Integer.numberOfTrailingZeros(n);
+                reversed = new int[n];
+                for (int i = 0; i < n; i++)
+                    reversed[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+
+                chirpRe = chirpIm = kernelRe = kernelIm = null;
+                padded = null;
+            } else {
+                int m = Integer.highestOneBit(2 * n - 1);
+                if (m < 2 * n - 1)
+                    m *= 2;
+                padded = new ComplexPlan(m);
+
+                chirpRe = new double[n];
+                chirpIm = new double[n];
+                kernelRe = new double[m];
+                kernelIm = new double[m];
+                for (int k = 0; k < n; k++) {
+                    // k^2 mod 2n keeps the angle small, so it's exact for large k
+                    double angle = Math.PI * ((long) k * k % (2L * n)) / n;
+                    chirpRe[k] = Math.cos(angle);
+                    chirpIm[k] = -Math.sin(angle);
+                    kernelRe[k] = chirpRe[k];
+                    kernelIm[k] = -chirpIm[k];
+                    if (k > 0) {
+                        kernelRe[m - k] = kernelRe[k];
+                        kernelIm[m - k] = kernelIm[k];
+                    }
+                }
+                padded.transform(kernelRe, 0, kernelIm, 0, false);
+
+                cos = sin = null;
+                reversed = null;
+            }
+        }
+
+        private int scratchLength() {
+            return padded == null ? 0 : 2 * padded.n;
+        }
+
+        private void transform(double[] data, int re, int im, boolean inverse, double[] scratch, int scratchOffset) {
+            if (padded == null)
+                transform(data, re, data, im, inverse);
+            else
+                bluestein(data, re, im, inverse, scratch, scratchOffset);
+        }
+
+        private void transform(double[] re, int reOffset, double[] im, int imOffset, boolean inverse) {
+            for (int i = 0; i < n; i++) {
+                int j = reversed[i];
+                if (i < j) {
+                    double t = re[reOffset + i];
+                    re[reOffset + i] = re[reOffset + j];
+                    re[reOffset + j] = t;
+                    t = im[imOffset + i];
+                    im[imOffset + i] = im[imOffset + j];
+                    im[imOffset + j] = t;
+                }
+            }
+
+            double sign = inverse ? 1 : -1;
+            for (int size = 2; size <= n; size *= 2) {
+                int half = size / 2;
+                int step = n / size;
+                for (int start = 0; start < n; start += size) {
+                    for (int k = 0; k < half; k++) {
+                        double wr = cos[k * step];
+                        double wi = sign * sin[k * step];
+                        int i1 = start + k;
+                        int i2 = i1 + half;
+                        double xr = re[reOffset + i2];
+                        double xi = im[imOffset + i2];
+                        double tr = xr * wr - xi * wi;
+                        double ti = xr * wi + xi * wr;
+                        re[reOffset + i2] = re[reOffset + i1] - tr;
+                        im[imOffset + i2] = im[imOffset + i1] - ti;
+                        re[reOffset + i1] += tr;
+                        im[imOffset + i1] += ti;
+                    }
+                }
+            }
+        }
+
+        /**
+         * X[k] = w[k] * sum(x[j] * w[j] * conj(w[k - j])), with w[k] = exp(-pi i k^2 / n), computed as circular
+         * convolution of power of two length. Inverse is done as conj(FFT(conj(x))).
+         */
+        private void bluestein(double[] data, int re, int im, boolean inverse, double[] scratch, int offset) {
+            int m = padded.n;
+            int ar = offset;
+            int ai = offset + m;
+            double sign = inverse ? -1 : 1;
+
+            for (int k = 0; k < n; k++) {
+                double xr = data[re + k];
+                double xi = sign * data[im + k];
+                scratch[ar + k] = xr * chirpRe[k] - xi * chirpIm[k];
+                scratch[ai + k] = xr * chirpIm[k] + xi * chirpRe[k];
+            }
+            for (int k = n; k < m; k++) {
+                scratch[ar + k] = 0.0;
+                scratch[ai + k] = 0.0;
+            }
+
+            padded.transform(scratch, ar, scratch, ai, false);
+            for (int k = 0; k < m; k++) {
+                double xr = scratch[ar + k];
+                double xi = scratch[ai + k];
+                scratch[ar + k] = xr * kernelRe[k] - xi * kernelIm[k];
+                scratch[ai + k] = xr * kernelIm[k] + xi * kernelRe[k];
+            }
+            padded.transform(scratch, ar, scratch, ai, true);
+
+            for (int k = 0; k < n; k++) {
+                double xr = scratch[ar + k] / m;
+                double xi = scratch[ai + k] / m;
+                data[re + k] = xr * chirpRe[k] - xi * chirpIm[k];
+                data[im + k] = sign * (xr * chirpIm[k] + xi * chirpRe[k]);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.nd4j.linalg.fft;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Real to complex and complex to real FFT on plain {@link INDArray}s, without {@link
+ * org.nd4j.linalg.api.complex.IComplexNDArray}. Complex values are stored as interleaved real and imaginary parts
+ * along the transformed dimension: real input with n elements along it is transformed into 2 * (n / 2 + 1)
+ * elements, i.e. the non-negative frequencies only, as the rest are complex conjugates of those.
+ *
+ * All vectors along the dimension are transformed as a batch, split between threads for larger inputs. Plans
+ * for each length are cached, see {@link FFTPlan}. Transformed dimension is the last dimension of the result
+ * when the input is permuted, so result may be a permuted view of a 'c' ordered array.
+ */
+public class RealFFT {
+    // work below this number of elements is done in the calling thread
+    private static final int MIN_PARALLEL_ELEMENTS = 1 << 15;
+    // elements copied between array and java heap at once, per thread
+    private static final int CHUNK_ELEMENTS = 1 << 16;
+
+    private RealFFT() {}
+
+    /**
+     * Real to complex FFT along the last dimension
+     *
+     * @param input real input
+     * @return interleaved complex output
+     */
+    public static INDArray rfft(INDArray input) {
+        return rfft(input, input.rank() - 1);
+    }
+
+    /**
+     * Real to complex FFT along given dimension
+     *
+     * @param input real input, with n elements along the dimension
+     * @param dimension dimension to transform along
+     * @return interleaved complex output, with 2 * (n / 2 + 1) elements along the dimension
+     */
+    public static INDArray rfft(INDArray input, int dimension) {
+        dimension = checkDimension(input, dimension);
+        final FFTPlan plan = FFTPlan.forLength(input.size(dimension));
+        return transform(input, dimension, plan.length(), 2 * plan.bins(), plan, false);
+    }
+
+    /**
+     * Complex to real FFT along the last dimension, see {@link #irfft(INDArray, int, int)}
+     */
+    public static INDArray irfft(INDArray input, int n) {
+        return irfft(input, n, input.rank() - 1);
+    }
+
+    /**
+     * Complex to real FFT along given dimension, inverse of {@link #rfft(INDArray, int)}, normalized so that
+     * irfft(rfft(x)) == x
+     *
+     * @param input interleaved complex input, with 2 * (n / 2 + 1) elements along the dimension
+     * @param n length of the real output, required as both n = 2m and n = 2m + 1 have m + 1 bins
+     * @param dimension dimension to transform along
+     * @return real output, with n elements along the dimension
+     */
+    public static INDArray irfft(INDArray input, int n, int dimension) {
+        dimension = checkDimension(input, dimension);
+        FFTPlan plan = FFTPlan.forLength(n);
+        if (input.size(dimension) != 2 * plan.bins())
+            throw new IllegalArgumentException("Expected " + 2 * plan.bins() + " elements along dimension "
+                            + dimension + " for output length " + n + ", got " + input.size(dimension));
+        return transform(input, dimension, 2 * plan.bins(), plan.length(), plan, true);
+    }
+
+    private static int checkDimension(INDArray input, int dimension) {
+        if (input.isSparse())
+            throw new UnsupportedOperationException("FFT of sparse arrays isn't supported");
+        if (dimension < 0)
+            dimension += input.rank();
+        if (dimension < 0 || dimension >= input.rank())
+            throw new IllegalArgumentException("Invalid dimension " + dimension + " for array of rank " + input.rank());
+        return dimension;
+    }
+
+    private static INDArray transform(INDArray input, int dimension, final int inLength, final int outLength,
+                    final FFTPlan plan, final boolean inverse) {
+        int rank = input.rank();
+
+        // transformed dimension goes last, so that all vectors are rows of a matrix
+        int[] permutation = new int[rank];
+        int[] inversePermutation = new int[rank];
+        for (int i = 0, j = 0; i < rank; i++)
+            if (i != dimension)
+                permutation[j++] = i;
+        permutation[rank - 1] = dimension;
+        for (int i = 0; i < rank; i++)
+            inversePermutation[permutation[i]] = i;
+        boolean permuted = dimension != rank - 1;
+
+        INDArray source = permuted ? input.permute(permutation) : input;
+        int[] outShape = source.shape().clone();
+        outShape[rank - 1] = outLength;
+
+        int batch = input.length() / inLength;
+        INDArray rows = source.reshape('c', batch, inLength);
+        // chunks are copied to java heap in array ordering, and each row should be contiguous there
+        final INDArray in = rows.ordering() == 'c' ? rows : rows.dup('c');
+        final INDArray out = Nd4j.create(new int[] {batch, outLength}, 'c');
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        int tasks = (long) batch * inLength < MIN_PARALLEL_ELEMENTS ? 1 : Math.min(threads, batch);
+        int rowsPerTask = (batch + tasks - 1) / tasks;
+
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int start = 0; start < batch; start += rowsPerTask) {
+            final int from = start;
+            final int to = Math.min(batch, start + rowsPerTask);
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    transformRows(in, out, from, to, inLength, outLength, plan, inverse);
+                }
+            };
+
+            if (to == batch)
+                // last task runs in the calling thread
+                task.run();
+            else
+                futures.add(ExecutorServiceProvider.getExecutorService().submit(task));
+        }
+
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ND4JIllegalStateException("Interrupted while running FFT", e);
+        } catch (ExecutionException e) {
+            throw new ND4JIllegalStateException("FFT failed", e.getCause());
+        }
+
+        INDArray result = out.reshape('c', outShape);
+        return permuted ? result.permute(inversePermutation) : result;
+    }
+
+    private static void transformRows(INDArray in, INDArray out, int from, int to, int inLength, int outLength,
+                    FFTPlan plan, boolean inverse) {
+        int chunkRows = Math.max(1, Math.min(to - from, CHUNK_ELEMENTS / Math.max(inLength, outLength)));
+        double[] inBuffer = new double[chunkRows * inLength];
+        double[] outBuffer = new double[chunkRows * outLength];
+        double[] scratch = new double[plan.scratchLength()];
+
+        for (int start = from; start < to; start += chunkRows) {
+            int end = Math.min(to, start + chunkRows);
+            rows(in, start, end).copyTo(inBuffer, 0);
+            for (int r = 0; r < end - start; r++) {
+                if (inverse)
+                    plan.inverse(inBuffer, r * inLength, outBuffer, r * outLength, scratch);
+                else
+                    plan.forward(inBuffer, r * inLength, outBuffer, r * outLength, scratch);
+            }
+            rows(out, start, end).copyFrom(outBuffer, 0);
+        }
+    }
+
+    private static INDArray rows(INDArray matrix, int from, int to) {
+        if (from == 0 && to == matrix.rows())
+            return matrix;
+        return matrix.get(NDArrayIndex.interval(from, to), NDArrayIndex.all());
+    }
+}
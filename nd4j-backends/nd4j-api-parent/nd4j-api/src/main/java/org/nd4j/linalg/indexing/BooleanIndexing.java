@@ -27,14 +27,20 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.accum.MatchCondition;
 import org.nd4j.linalg.api.ops.impl.indexaccum.FirstIndex;
 import org.nd4j.linalg.api.ops.impl.indexaccum.LastIndex;
+import org.nd4j.linalg.api.ops.impl.transforms.MatchConditionTransform;
 import org.nd4j.linalg.api.ops.impl.transforms.comparison.CompareAndReplace;
 import org.nd4j.linalg.api.ops.impl.transforms.comparison.CompareAndSet;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.api.shape.loop.coordinatefunction.CoordinateFunction;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.conditions.And;
 import org.nd4j.linalg.indexing.conditions.BaseCondition;
 import org.nd4j.linalg.indexing.conditions.Condition;
+import org.nd4j.linalg.indexing.conditions.Not;
+import org.nd4j.linalg.indexing.conditions.Or;
+import org.nd4j.linalg.indexing.functions.Value;
 
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -119,11 +125,7 @@ public class BooleanIndexing {
      * condition false otherwise
      */
     public static boolean[] and(final INDArray n, final Condition condition, int... dimension) {
-        if (!(condition instanceof BaseCondition))
-            throw new UnsupportedOperationException("Only static Conditions are supported");
-
-        MatchCondition op = new MatchCondition(n, condition);
-        INDArray arr = Nd4j.getExecutioner().exec(op, dimension);
+        INDArray arr = count(n, condition, dimension);
         boolean[] result = new boolean[arr.length()];
 
         long tadLength = Shape.getTADLength(n.shape(), dimension);
@@ -148,11 +150,7 @@ public class BooleanIndexing {
      * condition false otherwise
      */
     public static boolean[] or(final INDArray n, final Condition condition, int... dimension) {
-        if (!(condition instanceof BaseCondition))
-            throw new UnsupportedOperationException("Only static Conditions are supported");
-
-        MatchCondition op = new MatchCondition(n, condition);
-        INDArray arr = Nd4j.getExecutioner().exec(op, dimension);
+        INDArray arr = count(n, condition, dimension);
         boolean[] result = new boolean[arr.length()];
 
         for (int i = 0; i < arr.length(); i++) {
@@ -206,16 +204,13 @@ public class BooleanIndexing {
      */
     public static void applyWhere(final INDArray to, final Condition condition,
                     final Function<Number, Number> function) {
-        // keep original java implementation for dynamic
-
-        Shape.iterate(to, new CoordinateFunction() {
-            @Override
-            public void process(int[]... coord) {
-                if (condition.apply(to.getDouble(coord[0])))
-                    to.putScalar(coord[0], function.apply(to.getDouble(coord[0])).doubleValue());
+        if (function instanceof Value) {
+            // constant functions go native, as any number would
+            applyWhere(to, condition, function.apply(0.0));
+            return;
+        }
 
-            }
-        });
+        applyWhere(to, mask(to, condition), function, null);
     }
 
     /**
@@ -232,23 +227,7 @@ public class BooleanIndexing {
             Nd4j.getExecutioner().exec(new CompareAndSet(to, number.doubleValue(), condition));
 
         } else {
-            final double value = number.doubleValue();
-
-            final Function<Number, Number> dynamic = new Function<Number, Number>() {
-                @Override
-                public Number apply(Number number) {
-                    return value;
-                }
-            };
-
-            Shape.iterate(to, new CoordinateFunction() {
-                @Override
-                public void process(int[]... coord) {
-                    if (condition.apply(to.getDouble(coord[0])))
-                        to.putScalar(coord[0], dynamic.apply(to.getDouble(coord[0])).doubleValue());
-
-                }
-            });
+            putWhere(to, mask(to, condition), number);
         }
     }
 
@@ -260,13 +239,13 @@ public class BooleanIndexing {
      * @param condition
      */
     public static void assignIf(@NonNull INDArray to, @NonNull INDArray from, @NonNull Condition condition) {
-        if (!(condition instanceof BaseCondition))
-            throw new UnsupportedOperationException("Only static Conditions are supported");
-
         if (to.lengthLong() != from.lengthLong())
             throw new IllegalStateException("Mis matched length for to and from");
 
-        Nd4j.getExecutioner().exec(new CompareAndSet(to, from, condition));
+        if (condition instanceof BaseCondition)
+            Nd4j.getExecutioner().exec(new CompareAndSet(to, from, condition));
+        else
+            putWhere(to, mask(from, condition), from);
     }
 
 
@@ -278,13 +257,13 @@ public class BooleanIndexing {
      * @param condition
      */
     public static void replaceWhere(@NonNull INDArray to, @NonNull INDArray from, @NonNull Condition condition) {
-        if (!(condition instanceof BaseCondition))
-            throw new UnsupportedOperationException("Only static Conditions are supported");
-
         if (to.lengthLong() != from.lengthLong())
             throw new IllegalStateException("Mis matched length for to and from");
 
-        Nd4j.getExecutioner().exec(new CompareAndReplace(to, from, condition));
+        if (condition instanceof BaseCondition)
+            Nd4j.getExecutioner().exec(new CompareAndReplace(to, from, condition));
+        else
+            putWhere(to, mask(to, condition), from);
     }
 
 
@@ -296,10 +275,7 @@ public class BooleanIndexing {
      * @param condition
      */
     public static void replaceWhere(@NonNull INDArray to, @NonNull Number set, @NonNull Condition condition) {
-        if (!(condition instanceof BaseCondition))
-            throw new UnsupportedOperationException("Only static Conditions are supported");
-
-        Nd4j.getExecutioner().exec(new CompareAndSet(to, set.doubleValue(), condition));
+        applyWhere(to, condition, set);
     }
 
     /**
@@ -312,17 +288,7 @@ public class BooleanIndexing {
      */
     public static void applyWhere(final INDArray to, final Condition condition, final Function<Number, Number> function,
                     final Function<Number, Number> alternativeFunction) {
-        Shape.iterate(to, new CoordinateFunction() {
-            @Override
-            public void process(int[]... coord) {
-                if (condition.apply(to.getDouble(coord[0]))) {
-                    to.putScalar(coord[0], function.apply(to.getDouble(coord[0])).doubleValue());
-                } else {
-                    to.putScalar(coord[0], alternativeFunction.apply(to.getDouble(coord[0])).doubleValue());
-                }
-            }
-        });
-
+        applyWhere(to, mask(to, condition), function, alternativeFunction);
     }
 
     /**
@@ -413,4 +379,202 @@ public class BooleanIndexing {
 
         return Nd4j.getExecutioner().exec(new LastIndex(array, condition), dimension);
     }
+
+    /**
+     * This method returns mask of the same shape as given array, with 1.0 for elements matching given condition,
+     * and 0.0 for others.
+     *
+     * Static conditions, and their combinations via And, Or and Not, are evaluated natively. Any other condition
+     * is evaluated in java, over a bulk copy of the array.
+     *
+     * @param array
+     * @param condition
+     * @return
+     */
+    public static INDArray mask(@NonNull INDArray array, @NonNull Condition condition) {
+        if (condition instanceof BaseCondition)
+            return Nd4j.getExecutioner().execAndReturn(new MatchConditionTransform(array,
+                            Nd4j.createUninitialized(array.shape(), array.ordering()), condition));
+
+        if (condition instanceof And || condition instanceof Or) {
+            boolean and = condition instanceof And;
+            Condition[] conditions = and ? ((And) condition).getConditions() : ((Or) condition).getConditions();
+            INDArray ret = mask(array, conditions[0]);
+            for (int i = 1; i < conditions.length; i++) {
+                if (and)
+                    ret.muli(mask(array, conditions[i]));
+                else
+                    ret.addi(mask(array, conditions[i]));
+            }
+            return and ? ret : ret.gti(0.0);
+        }
+
+        if (condition instanceof Not)
+            return mask(array, ((Not) condition).getCondition()).rsubi(1.0);
+
+        double[] values = elements(array, array.ordering());
+        for (int i = 0; i < values.length; i++)
+            values[i] = condition.apply(values[i]) ? 1.0 : 0.0;
+        return Nd4j.createUninitialized(array.shape(), array.ordering()).copyFrom(values, 0);
+    }
+
+    /**
+     * This method returns number of elements matching given condition along given dimensions,
+     * or over the whole array if no dimensions are given
+     *
+     * @param array
+     * @param condition
+     * @param dimension
+     * @return
+     */
+    public static INDArray count(@NonNull INDArray array, @NonNull Condition condition, int... dimension) {
+        if (dimension == null || dimension.length == 0)
+            dimension = new int[] {Integer.MAX_VALUE};
+
+        if (condition instanceof BaseCondition)
+            return Nd4j.getExecutioner().exec(new MatchCondition(array, condition), dimension);
+
+        return mask(array, condition).sum(dimension);
+    }
+
+    /**
+     * This method returns row vector with all elements matching given condition, in 'c' order
+     *
+     * PLEASE NOTE: This method will return null if condition wasn't met
+     *
+     * @param array
+     * @param condition
+     * @return
+     */
+    public static INDArray select(@NonNull INDArray array, @NonNull Condition condition) {
+        return select(array, mask(array, condition));
+    }
+
+    /**
+     * This method returns row vector with all elements that have non-zero value in given mask, in 'c' order
+     *
+     * PLEASE NOTE: This method will return null if mask has no non-zero values
+     *
+     * @param array
+     * @param mask array of the same length as source array
+     * @return
+     */
+    public static INDArray select(@NonNull INDArray array, @NonNull INDArray mask) {
+        if (array.lengthLong() != mask.lengthLong())
+            throw new IllegalStateException("Mis matched length for array and mask");
+
+        double[] values = elements(array, 'c');
+        double[] flags = elements(mask, 'c');
+        int count = 0;
+        for (int i = 0; i < values.length; i++)
+            if (flags[i] != 0.0)
+                values[count++] = values[i];
+
+        return count == 0 ? null : Nd4j.create(Arrays.copyOf(values, count));
+    }
+
+    /**
+     * This method returns rows of given matrix that have non-zero value in given mask.
+     * Number of matches per row, as returned by {@link #count(INDArray, Condition, int...)} along dimension 1,
+     * can be used as mask to select rows with any element matching a condition.
+     *
+     * PLEASE NOTE: This method will return null if mask has no non-zero values
+     *
+     * @param matrix
+     * @param rowMask vector with one value per row
+     * @return
+     */
+    public static INDArray selectRows(@NonNull INDArray matrix, @NonNull INDArray rowMask) {
+        if (!matrix.isMatrix())
+            throw new IllegalStateException("Rows can only be selected from matrix");
+
+        if (rowMask.length() != matrix.rows())
+            throw new IllegalStateException("Mask length should be equal to number of rows");
+
+        double[] flags = elements(rowMask, rowMask.ordering());
+        int[] indexes = new int[flags.length];
+        int count = 0;
+        for (int i = 0; i < flags.length; i++)
+            if (flags[i] != 0.0)
+                indexes[count++] = i;
+
+        return count == 0 ? null : Nd4j.pullRows(matrix, 1, Arrays.copyOf(indexes, count));
+    }
+
+    /**
+     * This method sets provided number to all elements which have non-zero value in given mask
+     *
+     * @param to
+     * @param mask array of the same length
+     * @param number
+     */
+    public static void putWhere(@NonNull INDArray to, @NonNull INDArray mask, @NonNull Number number) {
+        if (to.lengthLong() != mask.lengthLong())
+            throw new IllegalStateException("Mis matched length for to and mask");
+
+        double value = number.doubleValue();
+        double[] values = elements(to, to.ordering());
+        double[] flags = elements(mask, to.ordering());
+        for (int i = 0; i < values.length; i++)
+            if (flags[i] != 0.0)
+                values[i] = value;
+
+        to.copyFrom(values, 0);
+    }
+
+    /**
+     * This method does element-wise assign for equal-sized arrays, for each element that has non-zero value in given mask
+     *
+     * @param to
+     * @param mask array of the same length
+     * @param from
+     */
+    public static void putWhere(@NonNull INDArray to, @NonNull INDArray mask, @NonNull INDArray from) {
+        if (to.lengthLong() != mask.lengthLong() || to.lengthLong() != from.lengthLong())
+            throw new IllegalStateException("Mis matched length for to, mask and from");
+
+        double[] values = elements(to, to.ordering());
+        double[] flags = elements(mask, to.ordering());
+        double[] source = elements(from, to.ordering());
+        for (int i = 0; i < values.length; i++)
+            if (flags[i] != 0.0)
+                values[i] = source[i];
+
+        to.copyFrom(values, 0);
+    }
+
+    /**
+     * This method applies function to all elements which have non-zero value in given mask,
+     * and alternative function, if any, to all other elements
+     *
+     * @param to
+     * @param mask array of the same length
+     * @param function
+     * @param alternativeFunction function for non-matching elements, or null to keep them as is
+     */
+    public static void applyWhere(@NonNull INDArray to, @NonNull INDArray mask,
+                    @NonNull Function<Number, Number> function, Function<Number, Number> alternativeFunction) {
+        if (to.lengthLong() != mask.lengthLong())
+            throw new IllegalStateException("Mis matched length for to and mask");
+
+        double[] values = elements(to, to.ordering());
+        double[] flags = elements(mask, to.ordering());
+        for (int i = 0; i < values.length; i++) {
+            if (flags[i] != 0.0)
+                values[i] = function.apply(values[i]).doubleValue();
+            else if (alternativeFunction != null)
+                values[i] = alternativeFunction.apply(values[i]).doubleValue();
+        }
+
+        to.copyFrom(values, 0);
+    }
+
+    /**
+     * Bulk copy of array elements in given order
+     */
+    private static double[] elements(INDArray array, char order) {
+        double[] ret = new double[array.length()];
+        (array.ordering() == order ? array : array.dup(order)).copyTo(ret, 0);
+        return ret;
+    }
 }
@@ -32,6 +32,10 @@ public class And implements Condition {
         this.conditions = conditions;
     }
 
+    public Condition[] getConditions() {
+        return conditions;
+    }
+
     /**
      * Returns condition ID for native side
      *
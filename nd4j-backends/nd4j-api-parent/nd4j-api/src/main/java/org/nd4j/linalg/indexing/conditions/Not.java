@@ -47,6 +47,10 @@ public class Not implements Condition {
         this.opposite = condition;
     }
 
+    public Condition getCondition() {
+        return opposite;
+    }
+
     @Override
     public Boolean apply(Number input) {
         return !opposite.apply(input);
@@ -34,6 +34,10 @@ public class Or implements Condition {
         this.conditions = conditions;
     }
 
+    public Condition[] getConditions() {
+        return conditions;
+    }
+
     /**
      * Returns condition ID for native side
      *
@@ -11,6 +11,7 @@ import org.nd4j.linalg.compression.CompressedDataBuffer;
 import org.nd4j.linalg.compression.CompressionDescriptor;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -19,6 +20,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
 /**
@@ -26,6 +29,8 @@ import java.util.Arrays;
  */
 @Slf4j
 public class BinarySerde {
+    // Largest region of array data transferred to or from a channel in a single call
+    private static final int CHANNEL_BLOCK_BYTES = 1 << 26;
 
 
     /**
@@ -109,6 +114,11 @@ public class BinarySerde {
     /**
      * Convert an ndarray to an unsafe buffer
      * for use by aeron
+     *
+     * A ByteBuffer holds at most Integer.MAX_VALUE bytes, so uncompressed arrays whose serialized form
+     * (header, shape information and data) is larger than that are rejected with IllegalArgumentException.
+     * Use {@link #writeArray(INDArray, WritableByteChannel)} for those: it writes the same format in blocks.
+     *
      * @param arr the array to convert
      * @return the unsafebuffer representation of this array
      */
@@ -117,6 +127,12 @@ public class BinarySerde {
         if (arr.isView())
             arr = arr.dup();
         if (!arr.isCompressed()) {
+            // 2 ints (rank and data type), then shape information and data
+            long bytes = 8L + arr.shapeInfoDataBuffer().length() * arr.shapeInfoDataBuffer().getElementSize()
+                            + arr.data().length() * arr.data().getElementSize();
+            if (bytes > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Serialized array takes " + bytes + " bytes, more than a single"
+                                + " byte buffer can hold; use writeArray(INDArray, WritableByteChannel) instead");
             ByteBuffer b3 = ByteBuffer.allocateDirect(byteBufferSizeFor(arr)).order(ByteOrder.nativeOrder());
             doByteBufferPutUnCompressed(arr, b3, true);
             return b3;
@@ -245,9 +261,119 @@ public class BinarySerde {
      */
     public static void writeArrayToDisk(INDArray arr, File toWrite) throws IOException {
         try (FileOutputStream os = new FileOutputStream(toWrite)) {
-            FileChannel channel = os.getChannel();
-            ByteBuffer buffer = BinarySerde.toByteBuffer(arr);
+            writeArray(arr, os.getChannel());
+        }
+    }
+
+    /**
+     * Write an ndarray to a channel (a file, socket etc), in the same format as {@link #toByteBuffer(INDArray)}.
+     * Unlike {@link #toByteBuffer(INDArray)}, the data is never copied into a single buffer, so arrays of any size
+     * (including arrays of more than 2^31 elements) can be written
+     *
+     * @param arr     the array to write
+     * @param channel the channel to write to
+     * @throws IOException
+     */
+    public static void writeArray(INDArray arr, WritableByteChannel channel) throws IOException {
+        if (arr.isView())
+            arr = arr.dup();
+        if (arr.isCompressed()) {
+            writeFully(channel, toByteBuffer(arr));
+            return;
+        }
+
+        // ensure we send data to host memory
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(arr, AffinityManager.Location.HOST);
+
+        ByteBuffer shapeBuffer = arr.shapeInfoDataBuffer().pointer().asByteBuffer().order(ByteOrder.nativeOrder());
+        ByteBuffer header = ByteBuffer.allocateDirect(8 + shapeBuffer.remaining()).order(ByteOrder.nativeOrder());
+        header.putInt(arr.rank());
+        header.putInt(arr.data().dataType().ordinal());
+        header.put(shapeBuffer);
+        header.flip();
+        writeFully(channel, header);
+
+        long bytes = arr.data().length() * arr.data().getElementSize();
+        long address = arr.data().addressPointer().address();
+        for (long pos = 0; pos < bytes; pos += CHANNEL_BLOCK_BYTES)
+            writeFully(channel, window(address, pos, (int) Math.min(CHANNEL_BLOCK_BYTES, bytes - pos)));
+    }
+
+    /**
+     * Read an ndarray written by {@link #writeArray(INDArray, WritableByteChannel)} (or {@link #toByteBuffer(INDArray)})
+     * from a channel. Arrays of any size can be read; compressed arrays are not supported
+     *
+     * @param channel the channel to read from
+     * @return the array
+     * @throws IOException
+     */
+    public static INDArray readArray(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocateDirect(8).order(ByteOrder.nativeOrder());
+        readFully(channel, header);
+        header.flip();
+        int rank = header.getInt();
+        if (rank < 0)
+            throw new IllegalStateException("Found negative integer. Corrupt serialization?");
+        DataBuffer.Type type = DataBuffer.Type.values()[header.getInt()];
+
+        int shapeBufferLength = Shape.shapeInfoLength(rank);
+        ByteBuffer shapeBytes = ByteBuffer.allocateDirect(shapeBufferLength * 4).order(ByteOrder.nativeOrder());
+        readFully(channel, shapeBytes);
+        shapeBytes.flip();
+        DataBuffer shapeBuff = Nd4j.createBufferDetached(new int[shapeBufferLength]);
+        for (int i = 0; i < shapeBufferLength; i++)
+            shapeBuff.put(i, shapeBytes.getInt());
+
+        long length = Shape.lengthLong(shapeBuff);
+        DataBuffer data;
+        switch (type) {
+            case DOUBLE:
+                data = Nd4j.getDataBufferFactory().createDouble(length, false);
+                break;
+            case FLOAT:
+                data = Nd4j.getDataBufferFactory().createFloat(length, false);
+                break;
+            case HALF:
+                data = Nd4j.getDataBufferFactory().createHalf(length, false);
+                break;
+            case INT:
+                data = Nd4j.getDataBufferFactory().createInt(length, false);
+                break;
+            default:
+                throw new UnsupportedOperationException("Unable to read arrays of type " + type + " from a channel");
+        }
+
+        long bytes = length * data.getElementSize();
+        long address = data.addressPointer().address();
+        for (long pos = 0; pos < bytes; pos += CHANNEL_BLOCK_BYTES)
+            readFully(channel, window(address, pos, (int) Math.min(CHANNEL_BLOCK_BYTES, bytes - pos)));
+        Nd4j.getAffinityManager().tagLocation(data, AffinityManager.Location.HOST);
+
+        return Nd4j.createArrayFromShapeBuffer(data, shapeBuff);
+    }
+
+    /**
+     * A byte buffer over {@code length} bytes of native memory, starting {@code offset} bytes after the address
+     */
+    private static ByteBuffer window(final long address, long offset, int length) {
+        BytePointer pointer = new BytePointer() {
+            {
+                this.address = address;
+            }
+        };
+        return pointer.capacity(offset + length).position(offset).limit(offset + length).asByteBuffer();
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
             channel.write(buffer);
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0)
+                throw new EOFException("Unexpected end of stream reading an array");
         }
     }
 
@@ -261,6 +387,9 @@ public class BinarySerde {
     public static INDArray readFromDisk(File readFrom) throws IOException {
         try (FileInputStream os = new FileInputStream(readFrom)) {
             FileChannel channel = os.getChannel();
+            // too large for a single buffer: stream the data instead
+            if (readFrom.length() > Integer.MAX_VALUE)
+                return readArray(channel);
             ByteBuffer buffer = ByteBuffer.allocateDirect((int) readFrom.length());
             channel.read(buffer);
             INDArray ret = toArray(buffer);
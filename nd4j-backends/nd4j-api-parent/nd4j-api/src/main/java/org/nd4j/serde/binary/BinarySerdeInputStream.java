@@ -0,0 +1,104 @@
+package org.nd4j.serde.binary;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * An input stream over the {@link BinarySerde} representation of an array
+ * (the same bytes as {@link BinarySerde#toByteBuffer(INDArray)}).
+ * For uncompressed arrays, the data is read straight from the array's (off-heap) memory,
+ * so no copy of the full serialized array is ever made.
+ * This is useful for APIs that pull bytes from a stream, such as Jackson's
+ * {@code JsonGenerator.writeBinary(InputStream, int)}.
+ */
+public class BinarySerdeInputStream extends InputStream {
+    // Largest region of array data wrapped as a single byte buffer
+    private static final int BLOCK_BYTES = 1 << 26;
+
+    // Keeps the underlying memory alive while we are reading from it
+    private final INDArray array;
+    private final ByteBuffer header;
+    private final long dataAddress;
+    private final long dataBytes;
+    private long dataPosition = 0;
+    private ByteBuffer current;
+
+    /**
+     * @param array the array to serialize. Views are copied first
+     */
+    public BinarySerdeInputStream(INDArray array) {
+        if (array.isView())
+            array = array.dup();
+
+        if (array.isCompressed()) {
+            this.header = BinarySerde.toByteBuffer(array);
+            this.dataAddress = 0;
+            this.dataBytes = 0;
+        } else {
+            // ensure we read data from host memory
+            Nd4j.getExecutioner().commit();
+            Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+            ByteBuffer shapeBuffer =
+                            array.shapeInfoDataBuffer().pointer().asByteBuffer().order(ByteOrder.nativeOrder());
+            this.header = ByteBuffer.allocate(8 + shapeBuffer.remaining()).order(ByteOrder.nativeOrder());
+            header.putInt(array.rank());
+            header.putInt(array.data().dataType().ordinal());
+            header.put(shapeBuffer);
+            header.flip();
+            this.dataAddress = array.data().addressPointer().address();
+            this.dataBytes = array.data().length() * array.data().getElementSize();
+        }
+        this.array = array;
+        this.current = header;
+    }
+
+    /**
+     * @return the total number of bytes in the stream
+     */
+    public long length() {
+        return header.limit() + dataBytes;
+    }
+
+    @Override
+    public int read() {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0)
+            return 0;
+        if (!current.hasRemaining() && !nextBlock())
+            return -1;
+        int n = Math.min(len, current.remaining());
+        current.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, current.remaining() + (dataBytes - dataPosition));
+    }
+
+    private boolean nextBlock() {
+        if (dataPosition >= dataBytes)
+            return false;
+        int n = (int) Math.min(BLOCK_BYTES, dataBytes - dataPosition);
+        BytePointer pointer = new BytePointer() {
+            {
+                this.address = dataAddress;
+            }
+        };
+        current = pointer.capacity(dataPosition + n).position(dataPosition).limit(dataPosition + n).asByteBuffer();
+        dataPosition += n;
+        return true;
+    }
+}
@@ -0,0 +1,176 @@
+package org.nd4j.serde.binary;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * An output stream that decodes the {@link BinarySerde} representation of an array as it is written.
+ * Once the header has been received, the array data is copied directly into a newly allocated (off-heap)
+ * buffer, without buffering the serialized array on the heap.
+ * Compressed arrays are collected in their serialized form (off-heap as well) and decoded with
+ * {@link BinarySerde#toArray(ByteBuffer)}.
+ * This is useful for APIs that push bytes to a stream, such as Jackson's
+ * {@code JsonParser.readBinaryValue(OutputStream)}.
+ * Call {@link #getArray()} once all bytes have been written.
+ */
+public class BinarySerdeOutputStream extends OutputStream {
+    // Largest region of array data wrapped as a single byte buffer
+    private static final int BLOCK_BYTES = 1 << 26;
+    // Serialized CompressionDescriptor: 2 ints and 4 longs
+    private static final int DESCRIPTOR_BYTES = 2 * 4 + 4 * 8;
+
+    private ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+    private DataBuffer.Type type;
+    private int rank;
+    private int[] shapeInfo;
+    private DataBuffer shapeBuffer;
+    // Whole serialized form of a compressed array
+    private ByteBuffer compressed;
+    private DataBuffer data;
+    private long dataBytes;
+    private long dataPosition;
+    private ByteBuffer current;
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (current == null) {
+                int n = Math.min(len, header.remaining());
+                header.put(b, off, n);
+                off += n;
+                len -= n;
+                if (!header.hasRemaining())
+                    headerComplete();
+                continue;
+            }
+
+            if (!current.hasRemaining()) {
+                if (dataPosition >= dataBytes)
+                    throw new IOException("Received more bytes than the serialized array contains");
+                nextBlock();
+            }
+            int n = Math.min(len, current.remaining());
+            current.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * @return true once all bytes of the array have been received
+     */
+    public boolean isComplete() {
+        return current != null && dataPosition >= dataBytes && !current.hasRemaining();
+    }
+
+    /**
+     * @return the decoded array
+     * @throws IllegalStateException if not all bytes have been written yet
+     */
+    public INDArray getArray() {
+        if (!isComplete())
+            throw new IllegalStateException("Array has not been fully received");
+        if (compressed != null) {
+            compressed.rewind();
+            return BinarySerde.toArray(compressed);
+        }
+        Nd4j.getAffinityManager().tagLocation(data, AffinityManager.Location.HOST);
+        return Nd4j.createArrayFromShapeBuffer(data, shapeBuffer);
+    }
+
+    private void headerComplete() throws IOException {
+        header.flip();
+        if (type == null) {
+            // rank and data type received: wait for the shape information
+            rank = header.getInt();
+            if (rank < 0)
+                throw new IOException("Found negative integer. Corrupt serialization?");
+            type = DataBuffer.Type.values()[header.getInt()];
+            header = ByteBuffer.allocate(Shape.shapeInfoLength(rank) * 4).order(ByteOrder.nativeOrder());
+            return;
+        }
+
+        if (shapeBuffer != null) {
+            compressionDescriptorComplete();
+            return;
+        }
+
+        shapeInfo = new int[header.remaining() / 4];
+        for (int i = 0; i < shapeInfo.length; i++)
+            shapeInfo[i] = header.getInt();
+        shapeBuffer = Nd4j.createBufferDetached(shapeInfo);
+
+        if (type == DataBuffer.Type.COMPRESSED) {
+            // compression descriptor follows the shape, then the compressed data
+            header = ByteBuffer.allocate(DESCRIPTOR_BYTES).order(ByteOrder.nativeOrder());
+            return;
+        }
+
+        long length = Shape.lengthLong(shapeBuffer);
+        switch (type) {
+            case DOUBLE:
+                data = Nd4j.getDataBufferFactory().createDouble(length, false);
+                break;
+            case FLOAT:
+                data = Nd4j.getDataBufferFactory().createFloat(length, false);
+                break;
+            case HALF:
+                data = Nd4j.getDataBufferFactory().createHalf(length, false);
+                break;
+            case INT:
+                data = Nd4j.getDataBufferFactory().createInt(length, false);
+                break;
+            default:
+                throw new UnsupportedOperationException("Unable to stream arrays of type " + type);
+        }
+        dataBytes = length * data.getElementSize();
+        dataPosition = 0;
+        current = ByteBuffer.allocate(0);
+    }
+
+    private void compressionDescriptorComplete() throws IOException {
+        long compressedLength = CompressionDescriptor.fromByteBuffer(header.duplicate().order(ByteOrder.nativeOrder()))
+                        .getCompressedLength();
+        long total = 8 + shapeInfo.length * 4 + DESCRIPTOR_BYTES + compressedLength;
+        if (compressedLength < 0 || total > Integer.MAX_VALUE)
+            throw new IOException("Unable to stream compressed array of " + compressedLength + " bytes");
+
+        compressed = ByteBuffer.allocateDirect((int) total).order(ByteOrder.nativeOrder());
+        compressed.putInt(rank);
+        compressed.putInt(type.ordinal());
+        for (int value : shapeInfo)
+            compressed.putInt(value);
+        compressed.put(header);
+        // the rest of the buffer receives compressed data as it is written
+        current = compressed;
+        dataBytes = 0;
+        dataPosition = 0;
+    }
+
+    private void nextBlock() {
+        final long address = data.addressPointer().address();
+        int n = (int) Math.min(BLOCK_BYTES, dataBytes - dataPosition);
+        BytePointer pointer = new BytePointer() {
+            {
+                this.address = address;
+            }
+        };
+        current = pointer.capacity(dataPosition + n).position(dataPosition).limit(dataPosition + n).asByteBuffer();
+        dataPosition += n;
+    }
+}
@@ -17,6 +17,7 @@ import org.nd4j.autodiff.samediff.SDGraph;
 import org.nd4j.autodiff.samediff.SameDiff;
 import org.nd4j.autodiff.samediff.impl.SDVariable;
 import org.nd4j.graph.*;
+import org.nd4j.imports.TensorFlowImport;
 import org.nd4j.linalg.api.memory.pointers.PagedPointer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.Op;
@@ -221,44 +222,16 @@ public class NativeGraphExecutioner implements GraphExecutioner {
 
         ByteBuffer buffer = convertToFlatBuffers(sd, configuration, intermediate);
 
-        BytePointer bPtr = new BytePointer(buffer);
-
-        log.info("Buffer length: {}", buffer.limit());
-
-        Pointer res  = NativeOpsHolder.getInstance().getDeviceNativeOps().executeFlatGraphFloat(null, bPtr);
-
-        // FIXME: this is BAD
-        PagedPointer pagedPointer = new PagedPointer(res,1024 * 1024L);
-        FlatResult fr = FlatResult.getRootAsFlatResult(pagedPointer.asBytePointer().asByteBuffer());
-
+        FlatResult fr = executeNative(buffer);
+        INDArray[] results = toArrays(fr);
 
         log.info("VarMap: {}", sd.getVariableMap());
 
-        INDArray[] results = new INDArray[fr.variablesLength()];
-
         for (int e = 0; e < fr.variablesLength(); e++) {
             FlatVariable var = fr.variables(e);
             log.info("Var received: id: {}; name: {}", var.id(), var.name());
-            float[] values = new float[var.valuesLength()];
-            int[] shape = new int[var.shapeLength()];
-
-            for (int i = 0; i < var.valuesLength(); i++) {
-                values[i] = var.values(i);
-            }
-
-            for (int i = 0; i < var.shapeLength(); i++) {
-                shape[i] = var.shape(i);
-            }
-
-            int[] _shape = new int[shape[0]];
-            for (int i = 0; i < _shape.length; i++) {
-                _shape[i] = shape[i+1];
-            }
 
-            char _order = shape[shape[0] * 2 + 4 - 1] == 99 ? 'c' : 'f';
-
-            INDArray val = Nd4j.create(values, _shape, _order, 0);
-            results[e] = val;
+            INDArray val = results[e];
 
             if (var.name() != null && sd.getVariableMap().containsKey(var.name())) {
                 //log.info("VarName: {}; Exists: {}; NDArrayInfo: {};", var.name(), sd.getVariableMap().containsKey(var.name()), sd.getVertexToArray().containsKey(var.name()));
@@ -286,6 +259,89 @@ public class NativeGraphExecutioner implements GraphExecutioner {
     }
 
 
+    /**
+     * This method returns FlatBuffers representation of TF graph stored in given file. Conversion result is cached
+     * on disk, so on next calls the graph is just memory-mapped from cache, without import and conversion.
+     *
+     * @param graphFile TF GraphDef file, binary or text
+     * @param configuration executor configuration, part of cache key
+     * @param cache
+     * @return
+     */
+    public ByteBuffer convertToFlatBuffers(File graphFile, final ExecutorConfiguration configuration, FlatGraphCache cache) {
+        return cache.get(graphFile, "samediff:" + configuration, new FlatGraphCache.Converter() {
+            @Override
+            public ByteBuffer convert(File modelFile) {
+                return convertToFlatBuffers(TensorFlowImport.importGraph(modelFile), configuration);
+            }
+        });
+    }
+
+    /**
+     * This method executes FlatBuffers graph, i.e. one returned by {@link #convertToFlatBuffers(File, ExecutorConfiguration, FlatGraphCache)},
+     * and returns its results. Direct buffers, including memory-mapped ones, are passed to native code without copying.
+     *
+     * @param flatGraph
+     * @return
+     */
+    public INDArray[] executeFlatGraph(ByteBuffer flatGraph) {
+        return toArrays(executeNative(flatGraph));
+    }
+
+    /**
+     * This method passes FlatBuffers graph to native executioner, and returns its FlatResult
+     *
+     * @param flatGraph
+     * @return
+     */
+    protected FlatResult executeNative(ByteBuffer flatGraph) {
+        BytePointer bPtr = new BytePointer(flatGraph);
+
+        log.info("Buffer length: {}", flatGraph.limit());
+
+        Pointer res  = NativeOpsHolder.getInstance().getDeviceNativeOps().executeFlatGraphFloat(null, bPtr);
+
+        // FIXME: this is BAD
+        PagedPointer pagedPointer = new PagedPointer(res,1024 * 1024L);
+        return FlatResult.getRootAsFlatResult(pagedPointer.asBytePointer().asByteBuffer());
+    }
+
+    /**
+     * This method converts all variables of FlatResult to arrays, in the same order
+     *
+     * @param fr
+     * @return
+     */
+    protected static INDArray[] toArrays(FlatResult fr) {
+        INDArray[] results = new INDArray[fr.variablesLength()];
+        for (int e = 0; e < fr.variablesLength(); e++)
+            results[e] = toArray(fr.variables(e));
+
+        return results;
+    }
+
+    protected static INDArray toArray(FlatVariable var) {
+        float[] values = new float[var.valuesLength()];
+        int[] shape = new int[var.shapeLength()];
+
+        for (int i = 0; i < var.valuesLength(); i++) {
+            values[i] = var.values(i);
+        }
+
+        for (int i = 0; i < var.shapeLength(); i++) {
+            shape[i] = var.shape(i);
+        }
+
+        int[] _shape = new int[shape[0]];
+        for (int i = 0; i < _shape.length; i++) {
+            _shape[i] = shape[i+1];
+        }
+
+        char _order = shape[shape[0] * 2 + 4 - 1] == 99 ? 'c' : 'f';
+
+        return Nd4j.create(values, _shape, _order, 0);
+    }
+
     /*
     // first version
 
@@ -799,6 +799,30 @@ public class JCublasNDArrayFactory extends BaseNDArrayFactory {
 
         INDArray ret = Nd4j.createUninitialized(shape, order);
 
+        return pullRows(source, ret, new int[] {sourceDimension}, indexes);
+    }
+
+    /**
+     * This method gathers tensors, fetched from source array against some dimensions and specified indexes,
+     * into the destination array, using the native pullRows kernel
+     *
+     * @param source           source tensor
+     * @param ret              destination tensor
+     * @param sourceDimensions dimensions of source tensor
+     * @param indexes          indexes from source array
+     * @return the destination array
+     */
+    @Override
+    public INDArray pullRows(INDArray source, INDArray ret, int[] sourceDimensions, int[] indexes) {
+        if (Nd4j.getExecutioner() instanceof GridExecutioner)
+            ((GridExecutioner) Nd4j.getExecutioner()).flushQueue();
+
+        if (indexes == null || indexes.length < 1)
+            throw new IllegalStateException("Indexes can't be null or zero-length");
+
+        if (source.data().dataType() != ret.data().dataType())
+            throw new ND4JIllegalStateException("Source and destination data types should match");
+
         AtomicAllocator allocator = AtomicAllocator.getInstance();
         CudaContext context = allocator.getFlowController().prepareAction(ret, source);
 
@@ -817,8 +841,8 @@ public class JCublasNDArrayFactory extends BaseNDArrayFactory {
 
         TADManager tadManager = Nd4j.getExecutioner().getTADManager();
 
-        Pair<DataBuffer, DataBuffer> tadBuffers = tadManager.getTADOnlyShapeInfo(source, new int[] {sourceDimension});
-        Pair<DataBuffer, DataBuffer> zTadBuffers = tadManager.getTADOnlyShapeInfo(ret, new int[] {sourceDimension});
+        Pair<DataBuffer, DataBuffer> tadBuffers = tadManager.getTADOnlyShapeInfo(source, sourceDimensions);
+        Pair<DataBuffer, DataBuffer> zTadBuffers = tadManager.getTADOnlyShapeInfo(ret, sourceDimensions);
 
         Pointer tadShapeInfo = AtomicAllocator.getInstance().getPointer(tadBuffers.getFirst(), context);
         Pointer zTadShapeInfo = AtomicAllocator.getInstance().getPointer(zTadBuffers.getFirst(), context);
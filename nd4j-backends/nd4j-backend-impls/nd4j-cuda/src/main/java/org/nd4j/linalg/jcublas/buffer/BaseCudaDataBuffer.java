@@ -838,9 +838,8 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
         try {
             //            log.info("Restoring CUDA databuffer");
             // skip allocationMode
-            s.readUTF();
+            long locLength = readHeader(s);
             allocationMode = AllocationMode.JAVACPP;
-            int locLength = s.readInt();
             boolean reallocate = locLength != length || indexer == null;
             length = locLength;
 
@@ -872,9 +871,7 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
 
                 IntIndexer Iindexer = (IntIndexer) indexer;
 
-                int[] array = new int[(int) length];
-
-                for (int i = 0; i < length(); i++) {
+                for (long i = 0; i < length(); i++) {
                     if (t == Type.INT)
                         //array[i] = s.readInt();
                         Iindexer.put(i, s.readInt());
@@ -910,7 +907,7 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
 
                 DoubleIndexer Dindexer = (DoubleIndexer) indexer;
 
-                for (int i = 0; i < length(); i++) {
+                for (long i = 0; i < length(); i++) {
                     if (t == Type.DOUBLE)
                         Dindexer.put(i, s.readDouble());
                     else if (t == Type.FLOAT)
@@ -934,7 +931,7 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
 
                 FloatIndexer Findexer = (FloatIndexer) indexer;
 
-                for (int i = 0; i < length; i++) {
+                for (long i = 0; i < length; i++) {
 
 
                     if (t == Type.DOUBLE)
@@ -961,7 +958,7 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
 
                 HalfIndexer Hindexer = (HalfIndexer) indexer;
 
-                for (int i = 0; i < length; i++) {
+                for (long i = 0; i < length; i++) {
 
                     if (t == Type.DOUBLE)
                         Hindexer.put(i, (float) s.readDouble());
@@ -45,6 +45,7 @@ import org.nd4j.linalg.api.ops.aggregates.Batch;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
 import org.nd4j.linalg.api.ops.impl.accum.Variance;
 import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.CopyOp;
+import org.nd4j.linalg.api.rng.CounterBasedRandom;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.cache.TADManager;
@@ -1913,6 +1914,10 @@ public class CudaExecutioner extends DefaultOpExecutioner {
 
     @Override
     public INDArray exec(RandomOp op, Random rng) {
+        // pure java counter based rng has its own implementation of common random ops
+        if (rng instanceof CounterBasedRandom)
+            return ((CounterBasedRandom) rng).exec(op);
+
         long st = profilingHookIn(op);
 
         checkForCompression(op);
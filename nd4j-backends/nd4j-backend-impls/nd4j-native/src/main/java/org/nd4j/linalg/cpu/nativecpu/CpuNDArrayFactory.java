@@ -41,6 +41,7 @@ import org.nd4j.linalg.cpu.nativecpu.complex.ComplexDouble;
 import org.nd4j.linalg.cpu.nativecpu.complex.ComplexFloat;
 import org.nd4j.linalg.cpu.nativecpu.complex.ComplexNDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
 import org.nd4j.linalg.factory.BaseNDArrayFactory;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.util.ArrayUtil;
@@ -53,6 +54,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * {@link org.nd4j.linalg.factory.NDArrayFactory}
@@ -756,15 +759,37 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
 
         INDArray ret = Nd4j.createUninitialized(shape, order);
 
+        return pullRows(source, ret, new int[] {sourceDimension}, indexes);
+    }
+
+    /**
+     * This method gathers tensors, fetched from source array against some dimensions and specified indexes,
+     * into the destination array, using the native (OpenMP parallel) pullRows op
+     *
+     * @param source           source tensor
+     * @param destination      destination tensor
+     * @param sourceDimensions dimensions of source tensor
+     * @param indexes          indexes from source array
+     * @return the destination array
+     */
+    @Override
+    public INDArray pullRows(INDArray source, INDArray destination, int[] sourceDimensions, int[] indexes) {
+        if (indexes == null || indexes.length < 1)
+            throw new IllegalStateException("Indexes can't be null or zero-length");
+
+        if (source.data().dataType() != destination.data().dataType())
+            throw new ND4JIllegalStateException("Source and destination data types should match");
+
         Nd4j.getCompressor().autoDecompress(source);
+        Nd4j.getCompressor().autoDecompress(destination);
 
         PointerPointer dummy = new PointerPointer(new Pointer[] {null});
 
         TADManager tadManager = Nd4j.getExecutioner().getTADManager();
 
-        Pair<DataBuffer, DataBuffer> tadBuffers = tadManager.getTADOnlyShapeInfo(source, new int[] {sourceDimension});
+        Pair<DataBuffer, DataBuffer> tadBuffers = tadManager.getTADOnlyShapeInfo(source, sourceDimensions);
 
-        Pair<DataBuffer, DataBuffer> zTadBuffers = tadManager.getTADOnlyShapeInfo(ret, new int[] {sourceDimension});
+        Pair<DataBuffer, DataBuffer> zTadBuffers = tadManager.getTADOnlyShapeInfo(destination, sourceDimensions);
 
         Pointer hostTadShapeInfo = tadBuffers.getFirst().addressPointer();
 
@@ -779,31 +804,146 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
 
         Pointer zTadOffsets = zOffsets == null ? null : zOffsets.addressPointer();
 
-        if (ret.data().dataType() == DataBuffer.Type.DOUBLE) {
+        if (destination.data().dataType() == DataBuffer.Type.DOUBLE) {
             nativeOps.pullRowsDouble(dummy, (DoublePointer) source.data().addressPointer(),
                     (IntPointer) source.shapeInfoDataBuffer().addressPointer(),
-                    (DoublePointer) ret.data().addressPointer(),
-                    (IntPointer) ret.shapeInfoDataBuffer().addressPointer(), indexes.length, pIndex,
+                    (DoublePointer) destination.data().addressPointer(),
+                    (IntPointer) destination.shapeInfoDataBuffer().addressPointer(), indexes.length, pIndex,
                     (IntPointer) hostTadShapeInfo, new LongPointerWrapper(hostTadOffsets), (IntPointer) zTadShapeInfo,
                     new LongPointerWrapper(zTadOffsets));
-        } else if (ret.data().dataType() == DataBuffer.Type.FLOAT) {
+        } else if (destination.data().dataType() == DataBuffer.Type.FLOAT) {
             nativeOps.pullRowsFloat(dummy, (FloatPointer) source.data().addressPointer(),
                     (IntPointer) source.shapeInfoDataBuffer().addressPointer(),
-                    (FloatPointer) ret.data().addressPointer(),
-                    (IntPointer) ret.shapeInfoDataBuffer().addressPointer(), indexes.length, pIndex,
+                    (FloatPointer) destination.data().addressPointer(),
+                    (IntPointer) destination.shapeInfoDataBuffer().addressPointer(), indexes.length, pIndex,
                     (IntPointer) hostTadShapeInfo, new LongPointerWrapper(hostTadOffsets), (IntPointer) zTadShapeInfo,
                     new LongPointerWrapper(zTadOffsets));
 
         } else {
             nativeOps.pullRowsHalf(dummy, (ShortPointer) source.data().addressPointer(),
                     (IntPointer) source.shapeInfoDataBuffer().addressPointer(),
-                    (ShortPointer) ret.data().addressPointer(),
-                    (IntPointer) ret.shapeInfoDataBuffer().addressPointer(), indexes.length, pIndex,
+                    (ShortPointer) destination.data().addressPointer(),
+                    (IntPointer) destination.shapeInfoDataBuffer().addressPointer(), indexes.length, pIndex,
                     (IntPointer) hostTadShapeInfo, new LongPointerWrapper(hostTadOffsets), (IntPointer) zTadShapeInfo,
                     new LongPointerWrapper(zTadOffsets));
         }
 
-        return ret;
+        return destination;
+    }
+
+    /**
+     * Scatter-add over host memory. Contributions are grouped by destination tensor, so groups can be
+     * processed by separate threads without synchronization, and repeated indexes accumulate deterministically.
+     * Falls back to the generic implementation for HALF data and tensors without an element-wise stride.
+     *
+     * @param source      source tensor
+     * @param destination destination tensor, modified in place
+     * @param dimensions  dimensions defining the tensors
+     * @param indexes     indexes of the destination tensors to add to
+     * @return the destination array
+     */
+    @Override
+    public INDArray scatterAddRows(final INDArray source, final INDArray destination, int[] dimensions,
+                    int[] indexes) {
+        if (indexes == null || indexes.length < 1)
+            throw new IllegalStateException("Indexes can't be null or zero-length");
+
+        Nd4j.getCompressor().autoDecompress(source);
+        Nd4j.getCompressor().autoDecompress(destination);
+
+        final DataBuffer.Type type = destination.data().dataType();
+        if (type != source.data().dataType() || (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE))
+            return super.scatterAddRows(source, destination, dimensions, indexes);
+
+        TADManager tadManager = Nd4j.getExecutioner().getTADManager();
+        Pair<DataBuffer, DataBuffer> xTad = tadManager.getTADOnlyShapeInfo(source, dimensions);
+        Pair<DataBuffer, DataBuffer> zTad = tadManager.getTADOnlyShapeInfo(destination, dimensions);
+
+        final int xEws = Shape.elementWiseStride(xTad.getFirst());
+        final int zEws = Shape.elementWiseStride(zTad.getFirst());
+        final int tadLength = Shape.length(xTad.getFirst());
+        if (xEws < 1 || zEws < 1 || tadLength != Shape.length(zTad.getFirst()))
+            return super.scatterAddRows(source, destination, dimensions, indexes);
+
+        final DataBuffer xOffsets = xTad.getSecond();
+        final DataBuffer zOffsets = zTad.getSecond();
+        final long xBase = source.data().offset();
+        final long zBase = destination.data().offset();
+
+        // (destination index, source index) pairs, sorted so that each destination tensor forms one contiguous group
+        final long[] pairs = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++)
+            pairs[i] = ((long) indexes[i] << 32) | i;
+        Arrays.sort(pairs);
+
+        int numThreads = (int) Math.min(Runtime.getRuntime().availableProcessors(),
+                        ((long) indexes.length * tadLength) / 32768 + 1);
+        if (numThreads <= 1) {
+            scatterAdd(source, destination, pairs, 0, pairs.length, xOffsets, zOffsets, xBase, zBase, xEws, zEws,
+                            tadLength);
+            return destination;
+        }
+
+        // split at group boundaries, so no two threads ever write the same destination tensor
+        List<Future<?>> futures = new ArrayList<>();
+        int chunk = pairs.length / numThreads + 1;
+        int start = 0;
+        while (start < pairs.length) {
+            int end = Math.min(start + chunk, pairs.length);
+            while (end < pairs.length && (pairs[end] >>> 32) == (pairs[end - 1] >>> 32))
+                end++;
+
+            final int from = start;
+            final int to = end;
+            futures.add(ExecutorServiceProvider.getExecutorService().submit(new Runnable() {
+                @Override
+                public void run() {
+                    scatterAdd(source, destination, pairs, from, to, xOffsets, zOffsets, xBase, zBase, xEws, zEws,
+                                    tadLength);
+                }
+            }));
+            start = end;
+        }
+
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+        return destination;
+    }
+
+    private static void scatterAdd(INDArray source, INDArray destination, long[] pairs, int from, int to,
+                    DataBuffer xOffsets, DataBuffer zOffsets, long xBase, long zBase, int xEws, int zEws,
+                    int tadLength) {
+        if (destination.data().dataType() == DataBuffer.Type.DOUBLE) {
+            DoubleIndexer x = (DoubleIndexer) source.data().indexer();
+            DoubleIndexer z = (DoubleIndexer) destination.data().indexer();
+            for (int p = from; p < to; p++) {
+                long xStart = xBase + (xOffsets == null ? 0 : xOffsets.getLong((int) pairs[p]));
+                long zStart = zBase + (zOffsets == null ? 0 : zOffsets.getLong((int) (pairs[p] >>> 32)));
+                for (int e = 0; e < tadLength; e++) {
+                    long zIdx = zStart + (long) e * zEws;
+                    z.put(zIdx, z.get(zIdx) + x.get(xStart + (long) e * xEws));
+                }
+            }
+        } else {
+            FloatIndexer x = (FloatIndexer) source.data().indexer();
+            FloatIndexer z = (FloatIndexer) destination.data().indexer();
+            for (int p = from; p < to; p++) {
+                long xStart = xBase + (xOffsets == null ? 0 : xOffsets.getLong((int) pairs[p]));
+                long zStart = zBase + (zOffsets == null ? 0 : zOffsets.getLong((int) (pairs[p] >>> 32)));
+                for (int e = 0; e < tadLength; e++) {
+                    long zIdx = zStart + (long) e * zEws;
+                    z.put(zIdx, z.get(zIdx) + x.get(xStart + (long) e * xEws));
+                }
+            }
+        }
     }
 
     public INDArray accumulate(INDArray target, INDArray... arrays) {
@@ -11,27 +11,23 @@ import org.nd4j.linalg.api.buffer.IntBuffer;
 import org.nd4j.linalg.api.buffer.LongBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.cache.ConstantHandler;
+import org.nd4j.linalg.cache.ShardedShapeCache;
 import org.nd4j.linalg.cache.TADManager;
-import org.nd4j.linalg.cache.TadDescriptor;
 import org.nd4j.nativeblas.LongPointerWrapper;
 import org.nd4j.nativeblas.NativeOps;
 
 import java.util.Arrays;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author raver119@gmail.com
  */
 public class CpuTADManager implements TADManager {
-    private Map<TadDescriptor, Pair<DataBuffer, DataBuffer>> cache = new ConcurrentHashMap<>();
+    private static final int MAX_ENTRIES = 1024;
+    private static final long MAX_BYTES = 128 * 1024 * 1024L;
+
+    private ShardedShapeCache<Pair<DataBuffer, DataBuffer>> cache = new ShardedShapeCache<>(MAX_ENTRIES, MAX_BYTES);
     private NativeOps nativeOps;
     private ConstantHandler constantHandler;
-    private AtomicLong bytes = new AtomicLong(0);
-    private AtomicInteger counter = new AtomicInteger(0);
-    private static final int MAX_ENTRIES = 100;
 
     public CpuTADManager() {
         //
@@ -47,7 +43,7 @@ public class CpuTADManager implements TADManager {
      */
     @Override
     public void purgeBuffers() {
-        cache = new ConcurrentHashMap<>();
+        cache.clear();
     }
 
     @Override
@@ -58,9 +54,9 @@ public class CpuTADManager implements TADManager {
         if (dimension == null || dimension[0] == Integer.MAX_VALUE) {
             return new Pair<>(array.shapeInfoDataBuffer(), null);
         } else {
-            TadDescriptor descriptor = new TadDescriptor(array, dimension);
+            Pair<DataBuffer, DataBuffer> pair = cache.get(array.shapeInfoDataBuffer(), dimension);
 
-            if (!cache.containsKey(descriptor)) {
+            if (pair == null) {
                 int dimensionLength = dimension.length;
 
                 // FIXME: this is fast triage, remove it later
@@ -89,22 +85,31 @@ public class CpuTADManager implements TADManager {
 
                 // If the line below will be uncommented, shapes from JVM will be used on native side
                 //outputBuffer = array.tensorAlongDimension(0, dimension).shapeInfoDataBuffer();
-                Pair<DataBuffer, DataBuffer> pair = new Pair<>(outputBuffer, offsetsBuffer);
-                if (counter.get() < MAX_ENTRIES) {
-                    counter.incrementAndGet();
-                    cache.put(descriptor, pair);
-
-                    bytes.addAndGet((outputBuffer.length() * 4) + (offsetsBuffer.length() * 8));
-                }
-                return pair;
+                pair = new Pair<>(outputBuffer, offsetsBuffer);
+                cache.put(array.shapeInfoDataBuffer(), dimension, pair,
+                                (outputBuffer.length() * 4) + (offsetsBuffer.length() * 8));
             }
 
-            return cache.get(descriptor);
+            return pair;
         }
     }
 
     @Override
     public long getCachedBytes() {
-        return bytes.get();
+        return cache.getCachedBytes();
+    }
+
+    /**
+     * @return number of TADs found in cache
+     */
+    public long getCacheHits() {
+        return cache.getFrontHits() + cache.getHits();
+    }
+
+    /**
+     * @return number of TADs that had to be calculated
+     */
+    public long getCacheMisses() {
+        return cache.getMisses();
     }
 }
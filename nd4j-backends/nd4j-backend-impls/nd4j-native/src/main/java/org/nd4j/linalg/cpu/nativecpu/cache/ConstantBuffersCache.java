@@ -3,39 +3,56 @@ package org.nd4j.linalg.cpu.nativecpu.cache;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.cache.ArrayDescriptor;
 import org.nd4j.linalg.cache.BasicConstantHandler;
+import org.nd4j.linalg.cache.SegmentedLruCache;
+import org.nd4j.linalg.cache.ShardedShapeCache;
 import org.nd4j.linalg.factory.Nd4j;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author raver119@gmail.com
  */
 public class ConstantBuffersCache extends BasicConstantHandler {
-    protected Map<ArrayDescriptor, DataBuffer> buffersCache = new ConcurrentHashMap<>();
-    private AtomicInteger counter = new AtomicInteger(0);
-    private AtomicLong bytes = new AtomicLong(0);
     private static final int MAX_ENTRIES = 1000;
+    private static final long MAX_BYTES = 32 * 1024 * 1024L;
+
+    // int arrays are mostly dimensions, requested on every op invocation
+    protected ShardedShapeCache<DataBuffer> intBuffersCache = new ShardedShapeCache<>(MAX_ENTRIES, MAX_BYTES);
+    protected SegmentedLruCache<ArrayDescriptor, DataBuffer> buffersCache =
+                    new SegmentedLruCache<>(MAX_ENTRIES, MAX_BYTES);
+    // we always keep int arrays with length < 4: 99.9% it's just dimension array, and we don't want to recreate them
+    // over and over once they're evicted from the bounded cache
+    protected ConcurrentHashMap<ArrayDescriptor, DataBuffer> shortBuffersCache = new ConcurrentHashMap<>();
+    private AtomicLong shortBytes = new AtomicLong(0);
 
     @Override
     public DataBuffer getConstantBuffer(int[] array) {
-        ArrayDescriptor descriptor = new ArrayDescriptor(array);
-
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            // we always allow int arrays with length < 3. 99.9% it's just dimension array. we don't want to recreate them over and over
-            if (counter.get() < MAX_ENTRIES || array.length < 4) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
-                bytes.addAndGet(array.length * 4);
+        DataBuffer buffer = intBuffersCache.get(array);
+
+        if (buffer == null) {
+            if (array.length < 4) {
+                ArrayDescriptor descriptor = new ArrayDescriptor(array.clone());
+                buffer = shortBuffersCache.get(descriptor);
+                if (buffer == null) {
+                    buffer = Nd4j.createBufferDetached(array);
+                    DataBuffer previous = shortBuffersCache.putIfAbsent(descriptor, buffer);
+                    if (previous != null)
+                        buffer = previous;
+                    else
+                        shortBytes.addAndGet(array.length * 4);
+                }
+
+                // bytes are already accounted for by the short buffers cache
+                intBuffersCache.put(array, buffer, 0);
+            } else {
+                buffer = Nd4j.createBufferDetached(array);
+
+                intBuffersCache.put(array, buffer, array.length * 4);
             }
-            return buffer;
         }
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     /**
@@ -43,49 +60,54 @@ public class ConstantBuffersCache extends BasicConstantHandler {
      */
     @Override
     public void purgeConstants() {
-        buffersCache = new ConcurrentHashMap<>();
+        intBuffersCache.clear();
+        buffersCache.clear();
+        shortBuffersCache.clear();
+        shortBytes.set(0);
     }
 
     @Override
     public DataBuffer getConstantBuffer(float[] array) {
-        ArrayDescriptor descriptor = new ArrayDescriptor(array);
-
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
+        DataBuffer buffer = buffersCache.get(new ArrayDescriptor(array));
 
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
+        if (buffer == null) {
+            buffer = Nd4j.createBufferDetached(array);
 
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
-            }
-            return buffer;
+            buffersCache.put(new ArrayDescriptor(array.clone()), buffer, array.length * Nd4j.sizeOfDataType());
         }
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public DataBuffer getConstantBuffer(double[] array) {
-        ArrayDescriptor descriptor = new ArrayDescriptor(array);
-
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
+        DataBuffer buffer = buffersCache.get(new ArrayDescriptor(array));
 
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
+        if (buffer == null) {
+            buffer = Nd4j.createBufferDetached(array);
 
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
-            }
-            return buffer;
+            buffersCache.put(new ArrayDescriptor(array.clone()), buffer, array.length * Nd4j.sizeOfDataType());
         }
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public long getCachedBytes() {
-        return bytes.get();
+        return intBuffersCache.getCachedBytes() + buffersCache.getCachedBytes() + shortBytes.get();
+    }
+
+    /**
+     * @return number of constant buffers found in cache
+     */
+    public long getCacheHits() {
+        return intBuffersCache.getFrontHits() + intBuffersCache.getHits() + buffersCache.getHits();
+    }
+
+    /**
+     * @return number of constant buffers that had to be created
+     */
+    public long getCacheMisses() {
+        return intBuffersCache.getMisses() + buffersCache.getMisses();
     }
 }
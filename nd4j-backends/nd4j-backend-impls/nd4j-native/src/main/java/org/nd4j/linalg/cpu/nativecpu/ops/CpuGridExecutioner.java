@@ -0,0 +1,377 @@
+package org.nd4j.linalg.cpu.nativecpu.ops;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.*;
+import org.nd4j.linalg.api.ops.aggregates.Aggregate;
+import org.nd4j.linalg.api.ops.aggregates.Batch;
+import org.nd4j.linalg.api.ops.executioner.GridExecutioner;
+import org.nd4j.linalg.api.rng.Random;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GridExecutioner implementation for CPU.
+ *
+ * Aggregates passed to {@link #aggregate(Aggregate, long)} are queued on thread basis, and executed as a single
+ * native batch call per key (up to {@link Batch#getBatchLimit()} aggregates per call), instead of one JNI call each.
+ *
+ * Queued aggregates are executed when:
+ * - the queue for a key is full
+ * - any other op uses the same memory as one of the queued aggregates
+ * - {@link #flushQueue()}, {@link #flushQueueBlocking()}, {@link #commit()} or {@link #push()} is called
+ *
+ * PLEASE NOTE: only ops executed through this executioner are checked for dependencies. Unlike on CUDA, host
+ * reads aren't hooked: getDouble(), dup(), toString(), DataBuffer access or BLAS calls on an array used by a
+ * queued aggregate return STALE values, until one of the calls above. Call
+ * {@code Nd4j.getExecutioner().commit()} before reading results of queued aggregates on the host.
+ *
+ * Only aggregates are batched. All other ops are executed immediately, one JNI call each, same as
+ * {@link NativeOpExecutioner}: there's no native CPU call that could execute a batch of transform/scalar ops.
+ * Many tiny ops (e.g. per-parameter updates) only benefit from this executioner when expressed as aggregates,
+ * e.g. {@link org.nd4j.linalg.api.ops.aggregates.impl.AggregateAxpy} instead of scalar + add ops.
+ * {@link #getDirectOpsCounter()} reports how many ops were executed without batching.
+ *
+ * To use it, set system property "opexec" to this class name.
+ */
+@Slf4j
+public class CpuGridExecutioner extends NativeOpExecutioner implements GridExecutioner {
+
+    private ThreadLocal<AggregateQueue> queues = new ThreadLocal<>();
+
+    private AtomicLong aggregatesCounter = new AtomicLong(0);
+    private AtomicLong executedCounter = new AtomicLong(0);
+    private AtomicLong batchCounter = new AtomicLong(0);
+    private AtomicLong flushCounter = new AtomicLong(0);
+    private AtomicLong directCounter = new AtomicLong(0);
+
+    @Override
+    public Op exec(Op op) {
+        beforeDirect(op.x(), op.y(), op.z());
+        try {
+            return super.exec(op);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public INDArray exec(IndexAccumulation op, int... dimension) {
+        beforeDirect(op.x(), op.y(), op.z());
+        try {
+            return super.exec(op, dimension);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public INDArray exec(Accumulation op, int... dimension) {
+        beforeDirect(op.x(), op.y(), op.z());
+        try {
+            return super.exec(op, dimension);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public INDArray exec(BroadcastOp op, int... dimension) {
+        beforeDirect(op.x(), op.y(), op.z());
+        try {
+            return super.exec(op, dimension);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public INDArray exec(RandomOp op, Random rng) {
+        beforeDirect(op.x(), op.y(), op.z());
+        try {
+            return super.exec(op, rng);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public void exec(@NonNull CustomOp op) {
+        List<INDArray> arrays = new ArrayList<>(op.getInputArguments());
+        arrays.addAll(op.getOutputArguments());
+        beforeDirect(arrays.toArray(new INDArray[arrays.size()]));
+        try {
+            super.exec(op);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public void exec(Aggregate op) {
+        beforeDirect(op);
+        try {
+            super.exec(op);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public <T extends Aggregate> void exec(Batch<T> batch) {
+        for (T op : batch.getAggregates())
+            flushIfDependent(op);
+        beforeDirect();
+        try {
+            super.exec(batch);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public INDArray thresholdEncode(INDArray input, double threshold, Integer boundary) {
+        beforeDirect(input);
+        try {
+            return super.thresholdEncode(input, threshold, boundary);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public INDArray thresholdDecode(INDArray encoded, INDArray target) {
+        beforeDirect(encoded, target);
+        try {
+            return super.thresholdDecode(encoded, target);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public long bitmapEncode(INDArray indArray, INDArray target, double threshold) {
+        beforeDirect(indArray, target);
+        try {
+            return super.bitmapEncode(indArray, target, threshold);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    @Override
+    public INDArray bitmapDecode(INDArray encoded, INDArray target) {
+        beforeDirect(encoded, target);
+        try {
+            return super.bitmapDecode(encoded, target);
+        } finally {
+            afterDirect();
+        }
+    }
+
+    /**
+     * This method enqueues aggregate op for future invocation, batched with other aggregates of the same opNum
+     *
+     * @param op
+     */
+    @Override
+    public void aggregate(Aggregate op) {
+        aggregate(op, op.opNum());
+    }
+
+    /**
+     * This method enqueues aggregate op for future invocation.
+     * Aggregates with the same key (and opNum) are executed together, as a single native batch call
+     *
+     * @param op
+     * @param key
+     */
+    @Override
+    public void aggregate(@NonNull Aggregate op, long key) {
+        AggregateQueue queue = getQueue();
+
+        List<Aggregate> list = queue.batches.get(key);
+        if (list != null && !list.isEmpty() && list.get(0).opNum() != op.opNum()) {
+            // different op under the same key: it can't be part of the same batch
+            execQueued(list);
+            list = null;
+        }
+
+        if (list == null) {
+            list = new ArrayList<>();
+            queue.batches.put(key, list);
+        }
+
+        list.add(op);
+        queue.length++;
+        aggregatesCounter.incrementAndGet();
+        for (INDArray arg : op.getArguments())
+            if (arg != null)
+                queue.addresses.add(rootAddress(arg));
+
+        if (list.size() >= Batch.getBatchLimit())
+            execQueued(list);
+    }
+
+    @Override
+    public void flushQueue() {
+        AggregateQueue queue = queues.get();
+        if (queue == null || queue.length == 0)
+            return;
+
+        flushCounter.incrementAndGet();
+        for (List<Aggregate> list : queue.batches.values())
+            execQueued(list);
+
+        queue.batches.clear();
+        queue.addresses.clear();
+        queue.length = 0;
+    }
+
+    /**
+     * On CPU all execution is synchronous, so this is the same as {@link #flushQueue()}
+     */
+    @Override
+    public void flushQueueBlocking() {
+        flushQueue();
+    }
+
+    @Override
+    public int getQueueLength() {
+        AggregateQueue queue = queues.get();
+        return queue == null ? 0 : queue.length;
+    }
+
+    @Override
+    public void push() {
+        flushQueue();
+    }
+
+    @Override
+    public void commit() {
+        flushQueue();
+    }
+
+    /**
+     * @return number of aggregates passed to {@link #aggregate(Aggregate, long)} so far
+     */
+    public long getAggregatesCounter() {
+        return aggregatesCounter.get();
+    }
+
+    /**
+     * @return number of native batch calls used to execute queued aggregates
+     */
+    public long getBatchCounter() {
+        return batchCounter.get();
+    }
+
+    /**
+     * @return number of native calls saved by batching: queued aggregates minus batch calls used to execute them
+     */
+    public long getCallsSaved() {
+        return executedCounter.get() - batchCounter.get();
+    }
+
+    /**
+     * @return number of times the queue was flushed, because of a data dependency or an explicit flush/commit
+     */
+    public long getFlushCounter() {
+        return flushCounter.get();
+    }
+
+    /**
+     * @return number of ops executed immediately, one native call each: everything except aggregates
+     * passed to {@link #aggregate(Aggregate, long)}. These calls aren't batched, so they count towards
+     * JNI overhead as if {@link NativeOpExecutioner} was used.
+     */
+    public long getDirectOpsCounter() {
+        return directCounter.get();
+    }
+
+    private void execQueued(List<Aggregate> list) {
+        if (list.isEmpty())
+            return;
+
+        AggregateQueue queue = getQueue();
+        queue.length -= list.size();
+
+        executedCounter.addAndGet(list.size());
+        for (Batch<Aggregate> batch : Batch.getBatches(new ArrayList<>(list))) {
+            batchCounter.incrementAndGet();
+            super.exec(batch);
+        }
+
+        list.clear();
+    }
+
+    /**
+     * Called before an op is executed immediately: flushes queued aggregates it depends on, and counts it.
+     * Nested calls (e.g. exec(Op) dispatching to exec(BroadcastOp, int...)) are counted once.
+     */
+    private void beforeDirect(INDArray... arrays) {
+        flushIfDependent(arrays);
+        if (getQueue().depth++ == 0)
+            directCounter.incrementAndGet();
+    }
+
+    private void beforeDirect(Aggregate op) {
+        flushIfDependent(op);
+        if (getQueue().depth++ == 0)
+            directCounter.incrementAndGet();
+    }
+
+    private void afterDirect() {
+        getQueue().depth--;
+    }
+
+    protected void flushIfDependent(Aggregate op) {
+        flushIfDependent(op.getArguments().toArray(new INDArray[op.getArguments().size()]));
+    }
+
+    /**
+     * This method flushes queued aggregates, if any of the given arrays shares memory with them
+     */
+    protected void flushIfDependent(INDArray... arrays) {
+        AggregateQueue queue = queues.get();
+        if (queue == null || queue.length == 0)
+            return;
+
+        for (INDArray array : arrays) {
+            if (array != null && queue.addresses.contains(rootAddress(array))) {
+                flushQueue();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Address of the allocation backing this array: views share it with the array they were created from
+     */
+    private static long rootAddress(INDArray array) {
+        DataBuffer buffer = array.data();
+        if (buffer.originalDataBuffer() != null)
+            buffer = buffer.originalDataBuffer();
+        return buffer.pointer().address();
+    }
+
+    private AggregateQueue getQueue() {
+        if (queues.get() == null)
+            queues.set(new AggregateQueue());
+
+        return queues.get();
+    }
+
+    /**
+     * Aggregates queued on a single thread
+     */
+    private static class AggregateQueue {
+        private Map<Long, List<Aggregate>> batches = new LinkedHashMap<>();
+        private Set<Long> addresses = new HashSet<>();
+        private int length = 0;
+        private int depth = 0;
+    }
+}
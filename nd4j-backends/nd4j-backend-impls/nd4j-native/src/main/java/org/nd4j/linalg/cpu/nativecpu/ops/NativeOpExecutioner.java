@@ -23,9 +23,11 @@ import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
 import org.nd4j.linalg.api.ops.impl.accum.MatchCondition;
 import org.nd4j.linalg.api.ops.impl.accum.Variance;
 import org.nd4j.linalg.api.ops.impl.layers.convolution.Pooling2D;
+import org.nd4j.linalg.api.rng.CounterBasedRandom;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.cache.ConstantHandler;
+import org.nd4j.linalg.cache.SegmentedLruCache;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.compression.CompressionDescriptor;
 import org.nd4j.linalg.compression.CompressionType;
@@ -71,6 +73,20 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
     private ThreadLocal<Map<Integer, Pointer>> batchPointers = new ThreadLocal<>();
     private ThreadLocal<Map<Integer, AggregateMemoryBlock>> memoryBlocks = new ThreadLocal<>();
 
+    /**
+     * Same idea for CustomOps: argument pointers are reused on thread basis, and only grow when needed
+     */
+    private ThreadLocal<CustomOpArguments> customOpArguments = new ThreadLocal<>();
+
+    /**
+     * Output shapes only depend on op, input shapes and arguments, so we cache them.
+     * Least recently used shapes are evicted first, so ops with constantly changing shapes don't evict hot ones
+     */
+    private static final int MAX_CACHED_OUTPUT_SHAPES = 10000;
+    private static final long MAX_CACHED_OUTPUT_SHAPE_BYTES = 16L * 1024 * 1024;
+    private SegmentedLruCache<OutputShapeKey, List<int[]>> outputShapes =
+                    new SegmentedLruCache<>(MAX_CACHED_OUTPUT_SHAPES, MAX_CACHED_OUTPUT_SHAPE_BYTES);
+
     public NativeOpExecutioner() {
         tadManager.init(loop, constantHandler);
 
@@ -169,11 +185,14 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             retShape = new int[] {1, 1};
         }
 
-        INDArray ret;
-        if (op.x().data().dataType() == DataBuffer.Type.DOUBLE)
-            ret = Nd4j.valueArrayOf(retShape, op.zeroDouble());
-        else
-            ret = Nd4j.valueArrayOf(retShape, op.zeroFloat());
+        // cached result is overwritten by the op as a whole, so it doesn't have to be filled first
+        INDArray ret = steadyStateMode ? resultCache.getResult(op, dimension, retShape) : null;
+        if (ret == null) {
+            if (op.x().data().dataType() == DataBuffer.Type.DOUBLE)
+                ret = Nd4j.valueArrayOf(retShape, op.zeroDouble());
+            else
+                ret = Nd4j.valueArrayOf(retShape, op.zeroFloat());
+        }
 
         op.setZ(ret);
         //do op along all dimensions
@@ -295,10 +314,14 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
                 ret = Nd4j.create(xT, yT);
             } else {
-                if (op.x().data().dataType() == DataBuffer.Type.DOUBLE)
-                    ret = Nd4j.valueArrayOf(retShape, op.zeroDouble());
-                else
-                    ret = Nd4j.valueArrayOf(retShape, op.zeroFloat());
+                // cached result is overwritten by the op as a whole, so it doesn't have to be filled first
+                ret = steadyStateMode ? resultCache.getResult(op, dimension, retShape) : null;
+                if (ret == null) {
+                    if (op.x().data().dataType() == DataBuffer.Type.DOUBLE)
+                        ret = Nd4j.valueArrayOf(retShape, op.zeroDouble());
+                    else
+                        ret = Nd4j.valueArrayOf(retShape, op.zeroFloat());
+                }
 
             }
             op.setZ(ret);
@@ -979,6 +1002,12 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         int argsPos = (realPos + ((batch.getSample().maxRealArguments() * Batch.getBatchLimit())))
                 / (Nd4j.dataType() == DataBuffer.Type.DOUBLE ? 1 : 2);
         int shapesPos = argsPos + (batch.getSample().maxArguments() * Batch.getBatchLimit());
+
+        // typed views over the same memory chunk, created once per batch instead of once per aggregate
+        FloatPointer fPtr = new FloatPointer(pointer);
+        DoublePointer dPtr = new DoublePointer(pointer);
+        PointerPointer ptrPtr = new PointerPointer(pointer);
+
         for (int i = 0; i < batch.getNumAggregates(); i++) {
             T op = batch.getAggregates().get(i);
 
@@ -1012,26 +1041,19 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             // putting real arguments
 
             if (Nd4j.dataType() == DataBuffer.Type.FLOAT) {
-                FloatPointer fPtr = new FloatPointer(pointer);
                 for (int e = 0; e < op.getRealArguments().size(); e++) {
                     idx = realPos + i * op.maxRealArguments();
                     fPtr.put(idx + e, op.getRealArguments().get(e).floatValue());
                 }
             } else if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
-                DoublePointer dPtr = new DoublePointer(pointer);
                 for (int e = 0; e < op.getRealArguments().size(); e++) {
                     idx = realPos + (i * op.maxRealArguments());
                     dPtr.put(idx + e, op.getRealArguments().get(e).doubleValue());
                 }
             }
 
-            if (extraz.get() == null)
-                extraz.set(new PointerPointer(32));
-
             // putting arguments pointers
 
-            PointerPointer ptrPtr = new PointerPointer(pointer);//extraz.get().put(pointer);
-
             for (int e = 0; e < op.getArguments().size(); e++) {
                 idx = argsPos + i * batch.getSample().maxArguments();
 
@@ -1208,6 +1230,10 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
      */
     @Override
     public INDArray exec(RandomOp op, Random rng) {
+        // pure java counter based rng has its own implementation of common random ops
+        if (rng instanceof CounterBasedRandom)
+            return ((CounterBasedRandom) rng).exec(op);
+
         if (rng.getStateBuffer() == null)
             throw new IllegalStateException(
                     "You should use one of NativeRandom classes for NativeOperations execution");
@@ -1504,10 +1530,10 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             throw new ND4JIllegalStateException("You can't execute non-inplace CustomOp without outputs being specified");
 
         val hash = op.opHash();
+        val args = getCustomOpArguments();
 
-
-        val inputShapes = new PointerPointer<>(op.getInputArguments().size());
-        val inputBuffers = new PointerPointer<>(op.getInputArguments().size());
+        val inputShapes = args.inputShapes(op.getInputArguments().size());
+        val inputBuffers = args.inputBuffers(op.getInputArguments().size());
 
         int cnt= 0;
         for (val in: op.getInputArguments()) {
@@ -1515,8 +1541,8 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             inputShapes.put(cnt++, in.shapeInfoDataBuffer().addressPointer());
         }
 
-        val outputShapes = new PointerPointer<>(op.getOutputArguments().size());
-        val outputBuffers = new PointerPointer<>(op.getOutputArguments().size());
+        val outputShapes = args.outputShapes(op.getOutputArguments().size());
+        val outputBuffers = args.outputBuffers(op.getOutputArguments().size());
 
         cnt= 0;
         for (val out: op.getOutputArguments()) {
@@ -1524,45 +1550,22 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             outputShapes.put(cnt++, out.shapeInfoDataBuffer().addressPointer());
         }
 
+        val iArgs = args.iArgs(op.getIArguments());
+        val tArgs = args.tArgs(op.getTArguments());
 
-
-        val iArgs = op.getIArguments().size() > 0 ? new IntPointer(op.getIArguments().size()) : null;
-        cnt = 0;
-        for (val i: op.getIArguments())
-            iArgs.put(cnt++, i.intValue());
-
+        int status;
         if (Nd4j.dataType() == DataBuffer.Type.FLOAT) {
-            val tArgs = op.getTArguments().size() > 0 ? new FloatPointer(op.getTArguments().size()) : null;
-
-
-            cnt = 0;
-            for (val t: op.getTArguments())
-                tArgs.put(cnt++, t.floatValue());
-
-            val status = OpStatus.byNumber(loop.execCustomOpFloat(null, hash, inputBuffers, inputShapes, op.getInputArguments().size(), outputBuffers, outputShapes, op.getOutputArguments().size(), tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size(), op.isInplaceCall()));
-            if (status != OpStatus.ND4J_STATUS_OK)
-                throw new ND4JIllegalStateException("Op execution failed: " + status);
+            status = loop.execCustomOpFloat(null, hash, inputBuffers, inputShapes, op.getInputArguments().size(), outputBuffers, outputShapes, op.getOutputArguments().size(), (FloatPointer) tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size(), op.isInplaceCall());
         }  else if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
-            val tArgs = op.getTArguments().size() > 0 ? new DoublePointer(op.getTArguments().size()) : null;
-
-            cnt = 0;
-            for (val t: op.getTArguments())
-                tArgs.put(cnt++, t.doubleValue());
-
-            val status = OpStatus.byNumber(loop.execCustomOpDouble(null, hash, inputBuffers, inputShapes, op.getInputArguments().size(), outputBuffers, outputShapes, op.getOutputArguments().size(), tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size(), op.isInplaceCall()));
-            if (status != OpStatus.ND4J_STATUS_OK)
-                throw new ND4JIllegalStateException("Op execution failed: " + status);
+            status = loop.execCustomOpDouble(null, hash, inputBuffers, inputShapes, op.getInputArguments().size(), outputBuffers, outputShapes, op.getOutputArguments().size(), (DoublePointer) tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size(), op.isInplaceCall());
         } else if (Nd4j.dataType() == DataBuffer.Type.HALF) {
-            val tArgs = op.getTArguments().size() > 0 ? new ShortPointer(op.getTArguments().size()) : null;
-
-            cnt = 0;
-            for (val t: op.getTArguments())
-                tArgs.put(cnt++, ArrayUtil.toHalf(t.floatValue()));
-
-            val status = OpStatus.byNumber(loop.execCustomOpHalf(null, hash, inputBuffers, inputShapes, op.getInputArguments().size(), outputBuffers, outputShapes, op.getOutputArguments().size(), tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size(), op.isInplaceCall()));
-            if (status != OpStatus.ND4J_STATUS_OK)
-                throw new ND4JIllegalStateException("Op execution failed: " + status);
+            status = loop.execCustomOpHalf(null, hash, inputBuffers, inputShapes, op.getInputArguments().size(), outputBuffers, outputShapes, op.getOutputArguments().size(), (ShortPointer) tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size(), op.isInplaceCall());
+        } else {
+            return;
         }
+
+        if (OpStatus.byNumber(status) != OpStatus.ND4J_STATUS_OK)
+            throw new ND4JIllegalStateException("Op execution failed: " + OpStatus.byNumber(status));
     }
 
     protected int[] getShapeFromPointer(IntPointer ptr) {
@@ -1579,80 +1582,314 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         val lc = op.opName().toLowerCase();
         val hash = op.opHash();
 
+        // lookup goes through per-thread probe key that reads op inputs and arguments in place
+        OutputShapeKey probe = getCustomOpArguments().probe;
+        probe.set(hash, Nd4j.dataType(), op.getInputArguments(), op.getIArguments(), op.getTArguments());
+
+        List<int[]> cached = outputShapes.get(probe);
+        if (cached == null) {
+            cached = calculateOutputShapeNative(op, hash, lc);
+            OutputShapeKey key = probe.copy();
+
+            long bytes = key.bytes();
+            for (int[] shape : cached)
+                bytes += 4L * shape.length;
+            outputShapes.put(key, cached, bytes);
+        }
+        probe.release();
+
+        // returned shapes may be modified by the caller
+        val result = new ArrayList<int[]>(cached.size());
+        for (int[] shape : cached)
+            result.add(shape.clone());
+
+        return result;
+    }
+
+    private List<int[]> calculateOutputShapeNative(CustomOp op, long hash, String lc) {
         val result = new ArrayList<int[]>();
+        val args = getCustomOpArguments();
 
-        val inputShapes = new PointerPointer<>(op.getInputArguments().size());
+        val inputShapes = args.inputShapes(op.getInputArguments().size());
 
         int cnt= 0;
         for (val in: op.getInputArguments())
             inputShapes.put(cnt++, in.shapeInfoDataBuffer().addressPointer());
 
+        val iArgs = args.iArgs(op.getIArguments());
+        val tArgs = args.tArgs(op.getTArguments());
 
-        val iArgs = op.getIArguments().size() > 0 ? new IntPointer(op.getIArguments().size()) : null;
-        cnt = 0;
-        for (val i: op.getIArguments())
-            iArgs.put(cnt++, i.intValue());
-
+        PointerPointer ptrptr;
         if (Nd4j.dataType() == DataBuffer.Type.FLOAT) {
-            val tArgs = op.getTArguments().size() > 0 ? new FloatPointer(op.getTArguments().size()) : null;
+            ptrptr = loop.calculateOutputShapesFloat(null, hash, inputShapes, op.getInputArguments().size(), (FloatPointer) tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size());
+        } else if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
+            ptrptr = loop.calculateOutputShapesDouble(null, hash, inputShapes, op.getInputArguments().size(), (DoublePointer) tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size());
+        } else if (Nd4j.dataType() == DataBuffer.Type.HALF) {
+            ptrptr = loop.calculateOutputShapesHalf(null, hash, inputShapes, op.getInputArguments().size(), (ShortPointer) tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size());
+        } else {
+            return result;
+        }
 
-            cnt = 0;
-            for (val t: op.getTArguments())
-                tArgs.put(cnt++, t.floatValue());
+        if (ptrptr == null)
+            throw new RuntimeException();
 
-            val ptrptr= loop.calculateOutputShapesFloat(null, hash, inputShapes, op.getInputArguments().size(), tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size());
+        val numOutputs = getCustomOperations().get(lc).getNumOutputs();
+        for (int e = 0; e < numOutputs; e++ ) {
+            result.add(getShapeFromPointer(new PagedPointer(ptrptr.get(e)).asIntPointer()));
+            Pointer.free(ptrptr.get(e));
+        }
 
-            if (ptrptr == null)
-                throw new RuntimeException();
+        Pointer.free(ptrptr);
 
-            val numOutputs = getCustomOperations().get(lc).getNumOutputs();
-            for (int e = 0; e < numOutputs; e++ ) {
-                result.add(getShapeFromPointer(new PagedPointer(ptrptr.get(e)).asIntPointer()));
-                Pointer.free(ptrptr.get(e));
-            }
+        return result;
+    }
 
-            Pointer.free(ptrptr);
-        } else if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
-            val tArgs = op.getTArguments().size() > 0 ? new DoublePointer(op.getTArguments().size()) : null;
+    private CustomOpArguments getCustomOpArguments() {
+        if (customOpArguments.get() == null)
+            customOpArguments.set(new CustomOpArguments());
 
-            cnt = 0;
-            for (val t: op.getTArguments())
-                tArgs.put(cnt++, t.doubleValue());
+        return customOpArguments.get();
+    }
 
-            val ptrptr= loop.calculateOutputShapesDouble(null, hash, inputShapes, op.getInputArguments().size(), tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size());
+    /**
+     * This class holds argument pointers for CustomOp calls on a single thread.
+     * Pointers are reallocated only when a call needs more room than we have, so for the typical case
+     * no native memory is allocated per op call.
+     */
+    private static class CustomOpArguments {
+        private PointerPointer inputBuffers = new PointerPointer(8);
+        private PointerPointer inputShapes = new PointerPointer(8);
+        private PointerPointer outputBuffers = new PointerPointer(8);
+        private PointerPointer outputShapes = new PointerPointer(8);
+        private IntPointer iArgs = new IntPointer(16);
+        private FloatPointer floatArgs = new FloatPointer(16);
+        private DoublePointer doubleArgs = new DoublePointer(16);
+        private ShortPointer halfArgs = new ShortPointer(16);
+        private OutputShapeKey probe = new OutputShapeKey();
+
+        private PointerPointer inputBuffers(int length) {
+            if (inputBuffers.capacity() < length)
+                inputBuffers = new PointerPointer(grow(length));
+            return inputBuffers;
+        }
 
-            if (ptrptr == null)
-                throw new RuntimeException();
+        private PointerPointer inputShapes(int length) {
+            if (inputShapes.capacity() < length)
+                inputShapes = new PointerPointer(grow(length));
+            return inputShapes;
+        }
 
-            val numOutputs = getCustomOperations().get(lc).getNumOutputs();
-            for (int e = 0; e < numOutputs; e++ ) {
-                result.add(getShapeFromPointer(new PagedPointer(ptrptr.get(e)).asIntPointer()));
-                Pointer.free(ptrptr.get(e));
-            }
+        private PointerPointer outputBuffers(int length) {
+            if (outputBuffers.capacity() < length)
+                outputBuffers = new PointerPointer(grow(length));
+            return outputBuffers;
+        }
 
-            Pointer.free(ptrptr);
-        } else if (Nd4j.dataType() == DataBuffer.Type.HALF) {
-            val tArgs = op.getTArguments().size() > 0 ? new ShortPointer(op.getTArguments().size()) : null;
+        private PointerPointer outputShapes(int length) {
+            if (outputShapes.capacity() < length)
+                outputShapes = new PointerPointer(grow(length));
+            return outputShapes;
+        }
+
+        /**
+         * Integer arguments, or null if there are none
+         */
+        private IntPointer iArgs(List<Integer> arguments) {
+            if (arguments.isEmpty())
+                return null;
+
+            if (iArgs.capacity() < arguments.size())
+                iArgs = new IntPointer(grow(arguments.size()));
 
-            cnt = 0;
-            for (val t: op.getTArguments())
-                tArgs.put(cnt++, ArrayUtil.toHalf(t.floatValue()));
+            int cnt = 0;
+            for (Integer i : arguments)
+                iArgs.put(cnt++, i.intValue());
 
-            val ptrptr= loop.calculateOutputShapesHalf(null, hash, inputShapes, op.getInputArguments().size(), tArgs, op.getTArguments().size(), iArgs, op.getIArguments().size());
+            return iArgs;
+        }
+
+        /**
+         * Floating point arguments in the current data type, or null if there are none
+         */
+        private Pointer tArgs(List<Double> arguments) {
+            if (arguments.isEmpty())
+                return null;
+
+            int cnt = 0;
+            if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
+                if (doubleArgs.capacity() < arguments.size())
+                    doubleArgs = new DoublePointer(grow(arguments.size()));
+                for (Double t : arguments)
+                    doubleArgs.put(cnt++, t.doubleValue());
+                return doubleArgs;
+            } else if (Nd4j.dataType() == DataBuffer.Type.HALF) {
+                if (halfArgs.capacity() < arguments.size())
+                    halfArgs = new ShortPointer(grow(arguments.size()));
+                for (Double t : arguments)
+                    halfArgs.put(cnt++, ArrayUtil.toHalf(t.floatValue()));
+                return halfArgs;
+            } else {
+                if (floatArgs.capacity() < arguments.size())
+                    floatArgs = new FloatPointer(grow(arguments.size()));
+                for (Double t : arguments)
+                    floatArgs.put(cnt++, t.floatValue());
+                return floatArgs;
+            }
+        }
 
-            if (ptrptr == null)
-                throw new RuntimeException();
+        // leave some room, so slowly growing argument lists don't reallocate on every call
+        private static long grow(int length) {
+            return 2L * length;
+        }
+    }
 
-            val numOutputs = getCustomOperations().get(lc).getNumOutputs();
-            for (int e = 0; e < numOutputs; e++ ) {
-                result.add(getShapeFromPointer(new PagedPointer(ptrptr.get(e)).asIntPointer()));
-                Pointer.free(ptrptr.get(e));
+    /**
+     * Key for cached output shapes: op hash, data type, input shape information and arguments.
+     * Stored keys hold copies of all of them, while the probe key used for lookups reads them from the op,
+     * so cache hits don't copy anything. Both compare equal when contents match.
+     */
+    private static class OutputShapeKey {
+        private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        private long opHash;
+        private DataBuffer.Type dataType;
+        private int numInputs;
+        private int numIArgs;
+        private int numTArgs;
+        private long hash;
+
+        // stored key
+        private int[][] inputShapeInfo;
+        private int[] iArgs;
+        private double[] tArgs;
+
+        // probe key
+        private List<INDArray> inputs;
+        private List<Integer> iArgsList;
+        private List<Double> tArgsList;
+
+        private void set(long opHash, DataBuffer.Type dataType, List<INDArray> inputs, List<Integer> iArgs,
+                        List<Double> tArgs) {
+            this.opHash = opHash;
+            this.dataType = dataType;
+            this.inputs = inputs;
+            this.iArgsList = iArgs;
+            this.tArgsList = tArgs;
+            this.numInputs = inputs.size();
+            this.numIArgs = iArgs.size();
+            this.numTArgs = tArgs.size();
+
+            long h = (FNV_OFFSET ^ opHash) * FNV_PRIME;
+            h = (h ^ dataType.ordinal()) * FNV_PRIME;
+            for (int i = 0; i < numInputs; i++) {
+                int length = shapeInfoLength(i);
+                for (int e = 0; e < length; e++)
+                    h = (h ^ shapeInfoAt(i, e)) * FNV_PRIME;
             }
+            for (int i = 0; i < numIArgs; i++)
+                h = (h ^ iArgAt(i)) * FNV_PRIME;
+            for (int i = 0; i < numTArgs; i++)
+                h = (h ^ Double.doubleToLongBits(tArgAt(i))) * FNV_PRIME;
+            this.hash = h;
+        }
 
-            Pointer.free(ptrptr);
+        /**
+         * Drops references to the op, so the probe doesn't keep its arrays alive between calls
+         */
+        private void release() {
+            inputs = null;
+            iArgsList = null;
+            tArgsList = null;
         }
 
+        /**
+         * @return stored key with the same contents as this probe
+         */
+        private OutputShapeKey copy() {
+            OutputShapeKey key = new OutputShapeKey();
+            key.opHash = opHash;
+            key.dataType = dataType;
+            key.numInputs = numInputs;
+            key.numIArgs = numIArgs;
+            key.numTArgs = numTArgs;
+            key.hash = hash;
+
+            key.inputShapeInfo = new int[numInputs][];
+            for (int i = 0; i < numInputs; i++) {
+                key.inputShapeInfo[i] = new int[shapeInfoLength(i)];
+                for (int e = 0; e < key.inputShapeInfo[i].length; e++)
+                    key.inputShapeInfo[i][e] = shapeInfoAt(i, e);
+            }
+            key.iArgs = new int[numIArgs];
+            for (int i = 0; i < numIArgs; i++)
+                key.iArgs[i] = iArgAt(i);
+            key.tArgs = new double[numTArgs];
+            for (int i = 0; i < numTArgs; i++)
+                key.tArgs[i] = tArgAt(i);
+            return key;
+        }
 
-        return result;
+        /**
+         * Approximate size of a stored key, for cache byte accounting
+         */
+        private long bytes() {
+            long bytes = 8L * numTArgs + 4L * numIArgs;
+            for (int[] shapeInfo : inputShapeInfo)
+                bytes += 4L * shapeInfo.length;
+            return bytes;
+        }
+
+        private int shapeInfoLength(int input) {
+            return inputShapeInfo != null ? inputShapeInfo[input].length
+                            : Shape.shapeInfoLength(inputs.get(input).shapeInfoDataBuffer().getInt(0));
+        }
+
+        private int shapeInfoAt(int input, int e) {
+            return inputShapeInfo != null ? inputShapeInfo[input][e] : inputs.get(input).shapeInfoDataBuffer().getInt(e);
+        }
+
+        private int iArgAt(int i) {
+            return iArgs != null ? iArgs[i] : iArgsList.get(i);
+        }
+
+        private double tArgAt(int i) {
+            return tArgs != null ? tArgs[i] : tArgsList.get(i);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof OutputShapeKey))
+                return false;
+
+            OutputShapeKey other = (OutputShapeKey) o;
+            if (hash != other.hash || opHash != other.opHash || dataType != other.dataType
+                            || numInputs != other.numInputs || numIArgs != other.numIArgs || numTArgs != other.numTArgs)
+                return false;
+
+            for (int i = 0; i < numInputs; i++) {
+                int length = shapeInfoLength(i);
+                if (length != other.shapeInfoLength(i))
+                    return false;
+                for (int e = 0; e < length; e++)
+                    if (shapeInfoAt(i, e) != other.shapeInfoAt(i, e))
+                        return false;
+            }
+            for (int i = 0; i < numIArgs; i++)
+                if (iArgAt(i) != other.iArgAt(i))
+                    return false;
+            for (int i = 0; i < numTArgs; i++)
+                if (Double.doubleToLongBits(tArgAt(i)) != Double.doubleToLongBits(other.tArgAt(i)))
+                    return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32));
+        }
     }
 }
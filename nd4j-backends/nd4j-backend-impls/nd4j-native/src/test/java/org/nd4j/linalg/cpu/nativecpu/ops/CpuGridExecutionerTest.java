@@ -0,0 +1,97 @@
+package org.nd4j.linalg.cpu.nativecpu.ops;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.aggregates.impl.AggregateAxpy;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.AddOp;
+import org.nd4j.linalg.factory.Nd4j;
+
+import static org.junit.Assert.assertEquals;
+
+public class CpuGridExecutionerTest {
+
+    @Test
+    public void testAggregatesBatched() {
+        CpuGridExecutioner executioner = new CpuGridExecutioner();
+
+        INDArray[] xs = new INDArray[20];
+        INDArray[] ys = new INDArray[20];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = Nd4j.ones(10).muli(i);
+            ys[i] = Nd4j.zeros(10);
+            executioner.aggregate(new AggregateAxpy(xs[i], ys[i], 2.0f));
+        }
+
+        assertEquals(20, executioner.getQueueLength());
+        assertEquals(0, executioner.getBatchCounter());
+
+        executioner.commit();
+
+        assertEquals(0, executioner.getQueueLength());
+        assertEquals(1, executioner.getBatchCounter());
+        assertEquals(19, executioner.getCallsSaved());
+        assertEquals(0, executioner.getDirectOpsCounter());
+        for (int i = 0; i < xs.length; i++)
+            assertEquals(Nd4j.ones(10).muli(2 * i), ys[i]);
+    }
+
+    @Test
+    public void testFlushOnDependency() {
+        CpuGridExecutioner executioner = new CpuGridExecutioner();
+
+        INDArray x = Nd4j.ones(2, 10);
+        INDArray y = Nd4j.zeros(2, 10);
+        INDArray other = Nd4j.ones(10);
+
+        executioner.aggregate(new AggregateAxpy(x.getRow(0), y.getRow(0), 1.0f));
+        executioner.aggregate(new AggregateAxpy(x.getRow(1), y.getRow(1), 1.0f));
+
+        // unrelated arrays don't trigger a flush
+        executioner.exec(new AddOp(other, other, other));
+        assertEquals(2, executioner.getQueueLength());
+        assertEquals(1, executioner.getDirectOpsCounter());
+
+        // a view of the same array does
+        INDArray row = y.getRow(1);
+        executioner.exec(new AddOp(row, other, row));
+        assertEquals(0, executioner.getQueueLength());
+        assertEquals(1, executioner.getFlushCounter());
+        assertEquals(2, executioner.getDirectOpsCounter());
+
+        assertEquals(Nd4j.ones(10), y.getRow(0));
+        assertEquals(Nd4j.ones(10).muli(3), y.getRow(1));
+    }
+
+    @Test
+    public void testReadsStaleUntilCommit() {
+        CpuGridExecutioner executioner = new CpuGridExecutioner();
+
+        INDArray x = Nd4j.ones(10);
+        INDArray y = Nd4j.zeros(10);
+        executioner.aggregate(new AggregateAxpy(x, y, 2.0f));
+
+        // host reads aren't hooked: queued aggregate isn't executed yet
+        assertEquals(0.0, y.getDouble(0), 0.0);
+        assertEquals(Nd4j.zeros(10), y.dup());
+        assertEquals(1, executioner.getQueueLength());
+
+        executioner.commit();
+
+        assertEquals(2.0, y.getDouble(0), 0.0);
+        assertEquals(Nd4j.ones(10).muli(2), y);
+    }
+
+    @Test
+    public void testNestedDispatchCountedOnce() {
+        CpuGridExecutioner executioner = new CpuGridExecutioner();
+
+        INDArray matrix = Nd4j.ones(3, 4);
+        INDArray row = Nd4j.ones(4);
+        // exec(Op) dispatches to exec(BroadcastOp, int...)
+        executioner.exec(new BroadcastAddOp(matrix, row, matrix, 1));
+
+        assertEquals(1, executioner.getDirectOpsCounter());
+        assertEquals(Nd4j.ones(3, 4).muli(2), matrix);
+    }
+}
@@ -0,0 +1,139 @@
+package org.nd4j.linalg.cpu.nativecpu.ops;
+
+import org.bytedeco.javacpp.Pointer;
+import org.junit.After;
+import org.junit.Test;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
+import org.nd4j.linalg.api.ops.impl.accum.Sum;
+import org.nd4j.linalg.api.ops.impl.indexaccum.IMax;
+import org.nd4j.linalg.cache.OpResultCache;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class SteadyStateModeTest {
+
+    @After
+    public void tearDown() {
+        Nd4j.getExecutioner().enableSteadyStateMode(false);
+    }
+
+    @Test
+    public void testResultsReused() {
+        OpExecutioner executioner = Nd4j.getExecutioner();
+        OpResultCache cache = executioner.getResultCache();
+
+        // expected values are computed before enabling the mode, so they aren't cached arrays themselves
+        INDArray input = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        INDArray expSum = input.sum(1);
+        INDArray expMax = Nd4j.argMax(input, 0);
+
+        executioner.enableSteadyStateMode(true);
+        cache.clear();
+        long misses = cache.getMisses();
+        long hits = cache.getHits();
+
+        INDArray first = null;
+        long bytes = 0;
+        for (int i = 0; i < 100; i++) {
+            INDArray sum = executioner.exec(new Sum(input), 1);
+            INDArray max = executioner.exec(new IMax(input), 0);
+
+            assertEquals(expSum, sum);
+            assertEquals(expMax, max);
+
+            if (first == null) {
+                first = sum;
+                bytes = Pointer.totalBytes();
+            } else
+                assertSame(first, sum);
+        }
+
+        // one allocation per op, everything after warmup comes from the cache
+        assertEquals(misses + 2, cache.getMisses());
+        assertEquals(hits + 198, cache.getHits());
+
+        // and no off-heap memory is allocated after warmup: 99 uncached iterations would take at least 99 * 56 bytes
+        assertTrue(Pointer.totalBytes() - bytes < 1024);
+    }
+
+    @Test
+    public void testNoHeapAllocationsOnHit() {
+        OpExecutioner executioner = Nd4j.getExecutioner();
+        executioner.enableSteadyStateMode(true);
+        OpResultCache cache = executioner.getResultCache();
+
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        Sum op = new Sum(Nd4j.linspace(1, 12, 12).reshape(3, 4));
+        int[] dimension = {1};
+        int[] shape = {3, 1};
+        INDArray first = cache.getResult(op, dimension, shape);
+
+        // warm up, so that measurement itself and JIT don't count
+        for (int i = 0; i < 10000; i++)
+            cache.getResult(op, dimension, shape);
+
+        long before = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10000; i++)
+            assertSame(first, cache.getResult(op, dimension, shape));
+        long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+
+        // a single 16 byte object per lookup would take 160000 bytes
+        assertTrue("Allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    @Test
+    public void testResultsAliased() {
+        OpExecutioner executioner = Nd4j.getExecutioner();
+        executioner.enableSteadyStateMode(true);
+
+        INDArray a = Nd4j.ones(3, 4);
+        INDArray b = Nd4j.valueArrayOf(new int[] {3, 4}, 2.0);
+
+        // same op, shape and dimensions: the second call overwrites the first result
+        INDArray sumA = a.sum(1);
+        INDArray sumB = b.sum(1);
+        assertSame(sumA, sumB);
+        assertEquals(Nd4j.valueArrayOf(new int[] {3, 1}, 8.0), sumA);
+
+        // results that have to outlive the next call are dup()'ed
+        INDArray total = a.sum(1).dup().addi(b.sum(1));
+        assertEquals(Nd4j.valueArrayOf(new int[] {3, 1}, 12.0), total);
+    }
+
+    @Test
+    public void testWorkspaceBypassesCache() {
+        OpExecutioner executioner = Nd4j.getExecutioner();
+        executioner.enableSteadyStateMode(true);
+        OpResultCache cache = executioner.getResultCache();
+
+        long misses = cache.getMisses();
+        long hits = cache.getHits();
+
+        for (int i = 0; i < 3; i++) {
+            try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().getAndActivateWorkspace("STEADY_STATE_WS")) {
+                INDArray sum = executioner.exec(new Sum(Nd4j.ones(3, 4)), 1);
+                assertTrue(sum.isAttached());
+                assertEquals(Nd4j.valueArrayOf(new int[] {3, 1}, 4.0), sum);
+            }
+        }
+
+        assertEquals(misses, cache.getMisses());
+        assertEquals(hits, cache.getHits());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        OpExecutioner executioner = Nd4j.getExecutioner();
+        assertFalse(executioner.isSteadyStateMode());
+
+        INDArray x = Nd4j.ones(3, 4);
+        assertNotSame(executioner.exec(new Sum(x), 1), executioner.exec(new Sum(x), 1));
+    }
+}
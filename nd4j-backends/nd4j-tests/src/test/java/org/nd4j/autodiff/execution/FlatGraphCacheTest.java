@@ -0,0 +1,85 @@
+package org.nd4j.autodiff.execution;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FlatGraphCacheTest {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    @Test
+    public void testPutGet() throws Exception {
+        File model = testDir.newFile("model.pb");
+        FileUtils.writeByteArrayToFile(model, new byte[] {1, 2, 3});
+        FlatGraphCache cache = new FlatGraphCache(testDir.newFolder("cache"), "1.0");
+
+        assertNull(cache.get(model, "a"));
+
+        ByteBuffer graph = ByteBuffer.wrap(new byte[] {0, 10, 20, 30, 40});
+        graph.position(1);
+        ByteBuffer stored = cache.put(model, "a", graph);
+        assertEquals(1, graph.position());
+        assertTrue(stored.isDirect());
+        assertTrue(stored.isReadOnly());
+
+        ByteBuffer cached = cache.get(model, "a");
+        assertEquals(graph.slice(), cached);
+        assertNull(cache.get(model, "b"));
+
+        // entries are keyed by contents, not by path
+        File copy = testDir.newFile("copy.pb");
+        FileUtils.copyFile(model, copy);
+        assertEquals(graph.slice(), cache.get(copy, "a"));
+
+        FileUtils.writeByteArrayToFile(model, new byte[] {1, 2, 3, 4});
+        assertNull(cache.get(model, "a"));
+    }
+
+    @Test
+    public void testVersionInvalidation() throws Exception {
+        File model = testDir.newFile("model.pb");
+        FileUtils.writeByteArrayToFile(model, new byte[] {1, 2, 3});
+        File dir = testDir.newFolder("cache");
+
+        new FlatGraphCache(dir, "1.0").put(model, "a", ByteBuffer.wrap(new byte[] {5, 6}));
+        assertNotNull(new FlatGraphCache(dir, "1.0").get(model, "a"));
+        assertNull(new FlatGraphCache(dir, "1.1").get(model, "a"));
+    }
+
+    @Test
+    public void testConverter() throws Exception {
+        File model = testDir.newFile("model.pb");
+        FileUtils.writeByteArrayToFile(model, new byte[] {1, 2, 3});
+        File dir = testDir.newFolder("cache");
+
+        final AtomicInteger calls = new AtomicInteger(0);
+        FlatGraphCache.Converter converter = new FlatGraphCache.Converter() {
+            @Override
+            public ByteBuffer convert(File modelFile) {
+                calls.incrementAndGet();
+                return ByteBuffer.wrap(new byte[] {7, 8, 9});
+            }
+        };
+
+        ByteBuffer exp = ByteBuffer.wrap(new byte[] {7, 8, 9});
+        assertEquals(exp, new FlatGraphCache(dir, "1.0").get(model, "a", converter));
+        assertEquals(exp, new FlatGraphCache(dir, "1.0").get(model, "a", converter));
+        assertEquals(1, calls.get());
+
+        assertEquals(exp, new FlatGraphCache(dir, "1.1").get(model, "a", converter));
+        assertEquals(2, calls.get());
+
+        FlatGraphCache cache = new FlatGraphCache(dir, "1.1");
+        cache.clear();
+        assertNull(cache.get(model, "a"));
+    }
+}
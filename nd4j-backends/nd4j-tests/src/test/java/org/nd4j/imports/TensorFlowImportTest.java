@@ -1,5 +1,6 @@
 package org.nd4j.imports;
 
+import com.google.protobuf.ByteString;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Before;
@@ -14,11 +15,15 @@ import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.io.ClassPathResource;
 import org.nd4j.linalg.util.HashUtil;
+import org.tensorflow.framework.*;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.List;
 
@@ -153,6 +158,70 @@ public class TensorFlowImportTest {
         */
     }
 
+    @Test
+    public void testStreamingImport() throws Exception {
+        GraphDef.Builder builder = GraphDef.newBuilder();
+        builder.addNode(NodeDef.newBuilder().setName("input").setOp("Placeholder"));
+        for (int n = 0; n < 3; n++) {
+            val bb = ByteBuffer.allocate(4 * 100).order(ByteOrder.nativeOrder());
+            for (int e = 0; e < 100; e++)
+                bb.putFloat(n + e);
+            bb.flip();
+
+            TensorProto tensor = TensorProto.newBuilder()
+                    .setDtype(DataType.DT_FLOAT)
+                    .setTensorShape(TensorShapeProto.newBuilder()
+                            .addDim(TensorShapeProto.Dim.newBuilder().setSize(10))
+                            .addDim(TensorShapeProto.Dim.newBuilder().setSize(10)))
+                    .setTensorContent(ByteString.copyFrom(bb))
+                    .build();
+
+            builder.addNode(NodeDef.newBuilder().setName("const_" + n).setOp("Const")
+                    .putAttr("value", AttrValue.newBuilder().setTensor(tensor).build()));
+        }
+
+        File graphFile = File.createTempFile("graph", ".pb");
+        graphFile.deleteOnExit();
+        try (FileOutputStream fos = new FileOutputStream(graphFile)) {
+            builder.build().writeTo(fos);
+        }
+
+        val stats = new GraphImportStats();
+        val tg = TensorFlowImport.importIntermediate(graphFile, stats);
+
+        assertTrue(tg.getVariableSpace().getVariable("input").isPlaceholder());
+        for (int n = 0; n < 3; n++) {
+            INDArray exp = Nd4j.linspace(n, n + 99, 100).reshape('c', 10, 10);
+            assertEquals(exp, tg.getVariableSpace().getVariable("const_" + n).getArray());
+        }
+
+        assertEquals(4, stats.getNodes());
+        assertEquals(3, stats.getConstants());
+        assertEquals(300 * Nd4j.sizeOfDataType(), stats.getConstantBytes());
+        assertTrue(stats.getParseNanos() > 0);
+    }
+
+    @Test
+    public void testTensorContent() {
+        val bb = ByteBuffer.allocate(6 * 8).order(ByteOrder.nativeOrder());
+        for (int e = 1; e <= 6; e++)
+            bb.putDouble(e);
+        bb.flip();
+
+        TensorProto tensor = TensorProto.newBuilder()
+                .setDtype(DataType.DT_DOUBLE)
+                .setTensorShape(TensorShapeProto.newBuilder()
+                        .addDim(TensorShapeProto.Dim.newBuilder().setSize(2))
+                        .addDim(TensorShapeProto.Dim.newBuilder().setSize(3)))
+                .setTensorContent(ByteString.copyFrom(bb))
+                .build();
+
+        // values are converted if array data type differs from tensor data type
+        INDArray array = TensorFlowImport.getNDArrayFromTensor(tensor);
+        assertArrayEquals(new int[] {2, 3}, array.shape());
+        assertEquals(Nd4j.create(new double[] {1, 2, 3, 4, 5, 6}, new int[] {2, 3}, 'c'), array);
+    }
+
     @Test
     public void testDefaultArgs() {
         val op = Nd4j.getOpFactory().getOpByName("relu");
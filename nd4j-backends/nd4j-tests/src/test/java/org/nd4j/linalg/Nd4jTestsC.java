@@ -3478,6 +3478,60 @@ public class Nd4jTestsC extends BaseNd4jTest {
 
 
 
+    @Test
+    public void testGatherScatterAdd() {
+        int indexes[] = new int[] {3, 0, 3, 1};
+        INDArray array = Nd4j.linspace(1, 20, 20).reshape(4, 5);
+
+        INDArray rows = Nd4j.gather(array, 0, indexes);
+        INDArray cols = Nd4j.gather(array, 1, indexes);
+        for (int i = 0; i < indexes.length; i++) {
+            assertEquals(array.getRow(indexes[i]), rows.getRow(i));
+            assertEquals(array.getColumn(indexes[i]), cols.getColumn(i));
+        }
+
+        INDArray acc = Nd4j.zeros(4, 5);
+        Nd4j.scatterAdd(rows, acc, 0, indexes);
+        INDArray assertion = Nd4j.zeros(4, 5);
+        for (int i = 0; i < indexes.length; i++)
+            assertion.getRow(indexes[i]).addi(array.getRow(indexes[i]));
+        assertEquals(assertion, acc);
+    }
+
+    @Test
+    public void testScatterAddParallel() {
+        // large enough to be split between threads, with every destination row hit 20 times
+        int[] indexes = new int[2000];
+        for (int i = 0; i < indexes.length; i++)
+            indexes[i] = (i * 7) % 100;
+        INDArray source = Nd4j.rand(2000, 64);
+
+        INDArray acc = Nd4j.scatterAdd(source, Nd4j.zeros(100, 64), 0, indexes);
+        INDArray assertion = Nd4j.zeros(100, 64);
+        for (int i = 0; i < indexes.length; i++)
+            assertion.getRow(indexes[i]).addi(source.getRow(i));
+        assertEquals(assertion, acc);
+    }
+
+    @Test
+    public void testGetRowsColumnsOrdering() {
+        INDArray array = Nd4j.linspace(1, 20, 20).reshape(4, 5);
+        for (char order : new char[] {'c', 'f'}) {
+            INDArray source = array.dup(order);
+
+            INDArray rows = source.getRows(new int[] {3, 1});
+            assertEquals(Nd4j.order().charValue(), rows.ordering());
+            assertEquals(array.getRow(3), rows.getRow(0));
+            assertEquals(array.getRow(1), rows.getRow(1));
+
+            INDArray cols = source.getColumns(4, 0, 4);
+            assertEquals(Nd4j.order().charValue(), cols.ordering());
+            assertEquals(array.getColumn(4), cols.getColumn(0));
+            assertEquals(array.getColumn(0), cols.getColumn(1));
+            assertEquals(array.getColumn(4), cols.getColumn(2));
+        }
+    }
+
     @Test
     public void testVPull2() {
         int indexes[] = new int[] {0, 2, 4};
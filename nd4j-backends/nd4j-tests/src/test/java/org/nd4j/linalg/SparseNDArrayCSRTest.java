@@ -233,4 +233,20 @@ public class SparseNDArrayCSRTest {
         assertArrayEquals(new int[] {0}, subview.getPointerBArray());
         assertArrayEquals(new int[] {0}, subview.getPointerEArray());
     }
+
+    @Test
+    public void testCopyToDense() {
+        INDArray sparse = Nd4j.createSparseCSR(values, columns, pointerB, pointerE, shape);
+        double[] dst = new double[27];
+        sparse.copyTo(dst, 2);
+
+        assertArrayEquals(sparse.toDense().data().asDouble(), java.util.Arrays.copyOfRange(dst, 2, 27), 0.0);
+
+        try {
+            sparse.copyFrom(dst, 0);
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(e.getMessage().contains("sparse"));
+        }
+    }
 }
@@ -33,6 +33,7 @@ import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
 import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
 import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
@@ -122,6 +123,31 @@ public class DoubleDataBufferTest extends BaseNd4jTest {
     }
 
 
+    @Test
+    public void testLongLengthSerialization() throws Exception {
+        // 2^31 elements are too many for a test, so a small buffer is written with the long length header instead
+        INDArray arr = Nd4j.linspace(1, 10, 10).reshape(2, 5);
+        Nd4j.getAffinityManager().ensureLocation(arr, AffinityManager.Location.HOST);
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(data)) {
+            ((BaseDataBuffer) arr.data()).write(dos, 5);
+        }
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data.toByteArray()))) {
+            assertEquals(BaseDataBuffer.LONG_LENGTH_HEADER, dis.readUTF());
+        }
+
+        // same layout as Nd4j.write(): shape info, then data
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(baos)) {
+            arr.shapeInfoDataBuffer().write(dos);
+            dos.write(data.toByteArray());
+        }
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            assertEquals(arr, Nd4j.read(dis));
+        }
+    }
+
     @Test
     public void testSerialization() {
         DataBuffer buf = Nd4j.createBuffer(5);
@@ -5,11 +5,16 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.iter.NdIndexIterator;
+import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 /**
  * @author Adam Gibson
@@ -33,6 +38,50 @@ public class NDIndexIteratorTest extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testIterateOrders() {
+        int[] shape = {3, 1, 4, 2};
+        for (boolean cache : new boolean[] {false, true}) {
+            NdIndexIterator c = new NdIndexIterator('c', cache, shape);
+            NdIndexIterator f = new NdIndexIterator('f', cache, shape);
+            for (int i = 0; i < 24; i++) {
+                assertArrayEquals(Shape.ind2subC(shape, i), c.next());
+                assertArrayEquals(Shape.ind2sub(shape, i), f.next());
+            }
+            assertFalse(c.hasNext());
+            assertFalse(f.hasNext());
+        }
+    }
+
+    @Test
+    public void testCachedConcurrent() throws Exception {
+        final AtomicInteger failures = new AtomicInteger(0);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int r = 0; r < 100; r++) {
+                        // same shape contents in new arrays should share lookup tables
+                        int[] shape = {2 + r % 5, 3, 4};
+                        char order = r % 2 == 0 ? 'c' : 'f';
+                        NdIndexIterator iter = new NdIndexIterator(order, true, shape);
+                        for (int i = 0; iter.hasNext(); i++) {
+                            int[] exp = order == 'c' ? Shape.ind2subC(shape, i) : Shape.ind2sub(shape, i);
+                            if (!Arrays.equals(exp, iter.next()))
+                                failures.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, failures.get());
+    }
+
     @Override
     public char ordering() {
         return 'f';
@@ -0,0 +1,229 @@
+package org.nd4j.linalg.api.ndarray;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
+import org.nd4j.linalg.api.ndarray.accessor.DoubleAccessor;
+import org.nd4j.linalg.api.ndarray.accessor.FloatAccessor;
+import org.nd4j.linalg.api.ndarray.accessor.NDArrayAccessor;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class TestNDArrayAccessor extends BaseNd4jTest {
+
+    private DataBuffer.Type initialType;
+
+    public TestNDArrayAccessor(Nd4jBackend backend) {
+        super(backend);
+        this.initialType = Nd4j.dataType();
+    }
+
+    @After
+    public void tearDown() {
+        DataTypeUtil.setDTypeForContext(initialType);
+    }
+
+    @Test
+    public void testLinearAccess() {
+        for (DataBuffer.Type type : new DataBuffer.Type[] {DataBuffer.Type.FLOAT, DataBuffer.Type.DOUBLE}) {
+            DataTypeUtil.setDTypeForContext(type);
+            for (INDArray arr : testArrays()) {
+                NDArrayAccessor accessor = arr.accessor();
+                assertEquals(type == DataBuffer.Type.DOUBLE, accessor instanceof DoubleAccessor);
+                assertEquals(arr.lengthLong(), accessor.length());
+
+                for (int i = 0; i < arr.length(); i++)
+                    assertEquals(arr.getDouble(i), accessor.getDouble(i), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testIndexedAccess() {
+        DataTypeUtil.setDTypeForContext(DataBuffer.Type.DOUBLE);
+        INDArray arr = Nd4j.linspace(1, 60, 60).reshape('c', 3, 4, 5);
+        INDArray view = arr.get(NDArrayIndex.interval(1, 3), NDArrayIndex.all(), NDArrayIndex.interval(1, 4));
+        DoubleAccessor accessor = new DoubleAccessor(arr);
+
+        long[] idx = new long[3];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++) {
+                for (int k = 0; k < 5; k++) {
+                    idx[0] = i;
+                    idx[1] = j;
+                    idx[2] = k;
+                    assertEquals(arr.getDouble(i, j, k), accessor.get(i, j, k), 0.0);
+                    assertEquals(arr.getDouble(i, j, k), accessor.get(idx), 0.0);
+                }
+            }
+        }
+
+        NDArrayAccessor viewAccessor = view.accessor();
+        for (int i = 0; i < view.length(); i++)
+            assertEquals(view.getDouble(i), viewAccessor.getDouble(i), 1e-6);
+
+        double[] target = new double[3];
+        accessor.get(new long[] {59, 0, 7}, target);
+        assertArrayEquals(new double[] {60, 1, 8}, target, 0.0);
+    }
+
+    @Test
+    public void testPut() {
+        INDArray arr = Nd4j.zeros(4, 6).getColumns(1, 3, 5);
+        INDArray exp = arr.dup();
+        exp.putScalar(2, 1, 5.0);
+        exp.putScalar(7, 3.0);
+
+        NDArrayAccessor accessor = arr.accessor();
+        if (accessor instanceof FloatAccessor)
+            ((FloatAccessor) accessor).put(2, 1, 5.0f);
+        else
+            ((DoubleAccessor) accessor).put(2, 1, 5.0);
+        accessor.putDouble(7, 3.0);
+
+        assertEquals(exp, arr);
+        // array is still usable by ops
+        assertEquals(8.0, arr.sumNumber().doubleValue(), 1e-6);
+    }
+
+    @Test
+    public void testForEachIndexed() {
+        DataTypeUtil.setDTypeForContext(DataBuffer.Type.DOUBLE);
+        for (char order : new char[] {'c', 'f'}) {
+            INDArray arr = Nd4j.linspace(1, 24, 24).reshape(order, 2, 3, 4);
+            final List<String> visited = new ArrayList<>();
+            final INDArray check = arr;
+
+            DoubleAccessor accessor = (DoubleAccessor) arr.accessor();
+            accessor.forEachIndexed(new DoubleAccessor.IndexedConsumer() {
+                @Override
+                public void accept(long[] indices, double value) {
+                    assertEquals(check.getDouble((int) indices[0], (int) indices[1], (int) indices[2]), value, 0.0);
+                    visited.add(indices[0] + "," + indices[1] + "," + indices[2]);
+                }
+            });
+            assertEquals(24, visited.size());
+            assertEquals(order == 'c' ? "0,0,1" : "1,0,0", visited.get(1));
+
+            accessor.transformIndexed(new DoubleAccessor.IndexedFunction() {
+                @Override
+                public double apply(long[] indices, double value) {
+                    return value * 2;
+                }
+            });
+            assertEquals(Nd4j.linspace(2, 48, 24).reshape(order, 2, 3, 4), arr);
+        }
+    }
+
+    @Test
+    public void testCopyTo() {
+        for (DataBuffer.Type type : new DataBuffer.Type[] {DataBuffer.Type.FLOAT, DataBuffer.Type.DOUBLE}) {
+            DataTypeUtil.setDTypeForContext(type);
+            for (INDArray arr : testArrays()) {
+                int length = arr.length();
+                float[] floats = new float[length + 2];
+                double[] doubles = new double[length + 2];
+                arr.copyTo(floats, 2);
+                arr.copyTo(doubles, 2);
+
+                FloatBuffer heap = FloatBuffer.allocate(length + 1);
+                heap.position(1);
+                arr.copyTo(heap);
+                assertEquals(length + 1, heap.position());
+
+                DoubleBuffer direct = ByteBuffer.allocateDirect(8 * length).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+                arr.copyTo(direct);
+                assertEquals(length, direct.position());
+
+                for (int i = 0; i < length; i++) {
+                    assertEquals(arr.getDouble(i), floats[i + 2], 1e-6);
+                    assertEquals(arr.getDouble(i), doubles[i + 2], 1e-6);
+                    assertEquals(arr.getDouble(i), heap.get(i + 1), 1e-6);
+                    assertEquals(arr.getDouble(i), direct.get(i), 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCopyFrom() {
+        for (DataBuffer.Type type : new DataBuffer.Type[] {DataBuffer.Type.FLOAT, DataBuffer.Type.DOUBLE}) {
+            DataTypeUtil.setDTypeForContext(type);
+            for (INDArray arr : testArrays()) {
+                int length = arr.length();
+                INDArray exp = arr.dup(arr.ordering());
+                for (int i = 0; i < length; i++)
+                    exp.putScalar(i, -i);
+
+                float[] floats = new float[length + 1];
+                double[] doubles = new double[length];
+                FloatBuffer direct = ByteBuffer.allocateDirect(4 * length).order(ByteOrder.nativeOrder()).asFloatBuffer();
+                for (int i = 0; i < length; i++) {
+                    floats[i + 1] = -i;
+                    doubles[i] = -i;
+                    direct.put(i, -i);
+                }
+
+                assertEquals(exp, arr.dup(arr.ordering()).copyFrom(floats, 1));
+                assertEquals(exp, arr.dup(arr.ordering()).copyFrom(doubles, 0));
+                assertEquals(exp, arr.dup(arr.ordering()).copyFrom(DoubleBuffer.wrap(doubles)));
+                assertEquals(exp, arr.dup(arr.ordering()).copyFrom(direct));
+                assertEquals(length, direct.position());
+            }
+        }
+    }
+
+    @Test
+    public void testCopyFromView() {
+        INDArray arr = Nd4j.zeros(4, 6);
+        INDArray view = arr.get(NDArrayIndex.all(), NDArrayIndex.interval(1, 3));
+        view.copyFrom(new double[] {1, 2, 3, 4, 5, 6, 7, 8}, 0);
+
+        INDArray exp = Nd4j.zeros(4, 6);
+        exp.putColumn(1, Nd4j.create(new double[] {1, 3, 5, 7}));
+        exp.putColumn(2, Nd4j.create(new double[] {2, 4, 6, 8}));
+        assertEquals(exp, arr);
+        assertEquals(36.0, arr.sumNumber().doubleValue(), 1e-6);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCopyToShortArray() {
+        Nd4j.create(3, 4).copyTo(new float[12], 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        Nd4j.create(3, 4).accessor().getDouble(12);
+    }
+
+    private static List<INDArray> testArrays() {
+        List<INDArray> arrays = new ArrayList<>();
+        arrays.add(Nd4j.linspace(1, 12, 12).reshape('c', 3, 4));
+        arrays.add(Nd4j.linspace(1, 12, 12).reshape('f', 3, 4));
+        arrays.add(Nd4j.linspace(1, 24, 24).reshape('c', 2, 3, 4).tensorAlongDimension(1, 0, 2));
+        arrays.add(Nd4j.linspace(1, 24, 24).reshape('c', 4, 6).getColumns(1, 4));
+        arrays.add(Nd4j.linspace(1, 24, 24).reshape('c', 4, 6).transpose());
+        arrays.add(Nd4j.linspace(1, 10, 10));
+        return arrays;
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
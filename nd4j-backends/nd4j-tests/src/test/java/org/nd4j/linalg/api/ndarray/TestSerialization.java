@@ -4,12 +4,14 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 
 import java.io.*;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -53,6 +55,43 @@ public class TestSerialization extends BaseNd4jTest {
         assertEquals(arrF, arr2F);
     }
 
+    @Test
+    public void testBufferStreamFormat() throws Exception {
+        // Larger than a single I/O block, and a view with an offset into its buffer
+        INDArray arr = Nd4j.rand(1000, 600).get(NDArrayIndex.interval(100, 900), NDArrayIndex.all()).dup();
+        INDArray view = Nd4j.linspace(1, 100, 100).get(NDArrayIndex.interval(10, 30));
+
+        for (INDArray a : new INDArray[] {arr, view}) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (DataOutputStream dos = new DataOutputStream(baos)) {
+                a.data().write(dos);
+            }
+
+            // Same bytes as writing element by element
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            try (DataOutputStream dos = new DataOutputStream(expected)) {
+                dos.writeUTF(a.data().allocationMode().name());
+                dos.writeInt((int) a.data().length());
+                dos.writeUTF(a.data().dataType().name());
+                for (int i = 0; i < a.data().length(); i++) {
+                    if (a.data().dataType() == DataBuffer.Type.DOUBLE)
+                        dos.writeDouble(a.data().getDouble(i));
+                    else
+                        dos.writeFloat(a.data().getFloat(i));
+                }
+            }
+            assertArrayEquals(expected.toByteArray(), baos.toByteArray());
+
+            DataBuffer read = Nd4j.createBuffer(1);
+            try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+                read.read(dis);
+            }
+            assertEquals(a.data().length(), read.length());
+            for (int i = 0; i < read.length(); i++)
+                assertEquals(a.data().getDouble(i), read.getDouble(i), 0.0);
+        }
+    }
+
     @Test
     public void testSerializationFullArrayJava() throws Exception {
         int length = 100;
@@ -0,0 +1,200 @@
+package org.nd4j.linalg.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SegmentedLruCacheTest {
+
+    @Test
+    public void testBoundedByEntries() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(10, Long.MAX_VALUE);
+        for (int i = 0; i < 100; i++)
+            cache.put(i, String.valueOf(i), 8);
+
+        assertEquals(10, cache.size());
+        assertEquals(80, cache.getCachedBytes());
+        assertEquals(90, cache.getEvictions());
+
+        // most recent entries are kept
+        assertNull(cache.get(0));
+        assertEquals("99", cache.get(99));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testBoundedByBytes() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(100, 1000);
+        for (int i = 0; i < 20; i++)
+            cache.put(i, String.valueOf(i), 100);
+
+        assertEquals(10, cache.size());
+        assertEquals(1000, cache.getCachedBytes());
+
+        // too large to be cached at all
+        cache.put(-1, "-1", 1001);
+        assertNull(cache.get(-1));
+        assertEquals(1000, cache.getCachedBytes());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testHotEntriesSurviveScan() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(10, Long.MAX_VALUE);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, String.valueOf(i), 1);
+            assertNotNull(cache.get(i));
+        }
+        assertEquals(5, cache.protectedSize());
+
+        // long run of keys seen only once
+        for (int i = 100; i < 1000; i++)
+            cache.put(i, String.valueOf(i), 1);
+
+        for (int i = 0; i < 5; i++)
+            assertEquals(String.valueOf(i), cache.get(i));
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void testPinnedEntriesSurvive() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(10, 1000);
+        cache.put(0, "0", 100);
+        cache.put(1, "1", 100);
+        assertTrue(cache.pin(0));
+        assertTrue(cache.pin(0));
+        assertFalse(cache.pin(-1));
+        assertEquals(1, cache.pinnedSize());
+        assertEquals(100, cache.getPinnedBytes());
+
+        // pinned entry takes no space from the limits, and outlives any access pattern
+        for (int i = 100; i < 200; i++) {
+            cache.put(i, String.valueOf(i), 100);
+            assertNotNull(cache.get(i));
+        }
+        assertEquals("0", cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals(11, cache.size());
+        assertEquals(1100, cache.getCachedBytes());
+
+        // replaced value stays pinned
+        cache.put(0, "zero", 50);
+        assertEquals("zero", cache.get(0));
+        assertEquals(1, cache.pinnedSize());
+        assertEquals(50, cache.getPinnedBytes());
+        assertEquals(1050, cache.getCachedBytes());
+
+        // unpinned entry goes back to probation as a new one, and can be evicted again
+        assertTrue(cache.unpin(0));
+        assertFalse(cache.unpin(0));
+        assertEquals(0, cache.pinnedSize());
+        assertEquals(0, cache.getPinnedBytes());
+        assertEquals(10, cache.size());
+        assertEquals(950, cache.getCachedBytes());
+        for (int i = 200; i < 220; i++)
+            cache.put(i, String.valueOf(i), 100);
+        assertNull(cache.get(0));
+
+        cache.put(2, "2", 1);
+        cache.pin(2);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.pinnedSize());
+        assertEquals(0, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testProtectedSegmentBounded() {
+        SegmentedLruCache<Integer, String> cache = new SegmentedLruCache<>(10, Long.MAX_VALUE, 0.5);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, String.valueOf(i), 1);
+            cache.get(i);
+        }
+
+        assertEquals(5, cache.protectedSize());
+        assertEquals(10, cache.size());
+
+        // demoted entries are evicted before protected ones
+        for (int i = 10; i < 15; i++)
+            cache.put(i, String.valueOf(i), 1);
+        for (int i = 5; i < 10; i++)
+            assertNotNull(cache.get(i));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final SegmentedLruCache<Integer, Integer> cache = new SegmentedLruCache<>(50, Long.MAX_VALUE);
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 20000; i++) {
+                        int key = i % 100;
+                        Integer value = cache.get(key);
+                        if (value == null)
+                            cache.put(key, key, 4);
+                        else if (value != key)
+                            failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, failures.get());
+        assertEquals(50, cache.size());
+        assertEquals(200, cache.getCachedBytes());
+        assertEquals(80000, cache.getHits() + cache.getMisses());
+    }
+
+    // a mutated key inside the cache can make eviction spin forever
+    @Test(timeout = 30000)
+    public void testReusedLookupKey() {
+        SegmentedLruCache<MutableKey, String> cache = new SegmentedLruCache<>(10, Long.MAX_VALUE);
+        for (int i = 0; i < 10; i++)
+            cache.put(new MutableKey(i), String.valueOf(i), 1);
+
+        // lookups promote entries (and demote some of them again), and the lookup key is changed after each one
+        MutableKey probe = new MutableKey(0);
+        for (int i = 0; i < 10; i++) {
+            probe.value = i;
+            assertEquals(String.valueOf(i), cache.get(probe));
+        }
+        probe.value = -1;
+
+        // segments hold stored keys only, so evictions still find them
+        for (int i = 100; i < 200; i++)
+            cache.put(new MutableKey(i), String.valueOf(i), 1);
+        assertEquals(10, cache.size());
+        assertEquals(10, cache.getCachedBytes());
+    }
+
+    private static class MutableKey {
+        private int value;
+
+        private MutableKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MutableKey && ((MutableKey) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+    }
+}
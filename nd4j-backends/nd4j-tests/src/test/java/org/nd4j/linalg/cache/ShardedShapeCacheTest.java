@@ -0,0 +1,113 @@
+package org.nd4j.linalg.cache;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class ShardedShapeCacheTest extends BaseNd4jTest {
+
+    public ShardedShapeCacheTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testShapeKeys() {
+        ShardedShapeCache<String> cache = new ShardedShapeCache<>(100, Long.MAX_VALUE);
+        INDArray c = Nd4j.create(new int[] {3, 4}, 'c');
+        INDArray f = Nd4j.create(new int[] {3, 4}, 'f');
+
+        assertNull(cache.get(c.shapeInfoDataBuffer(), new int[] {1}));
+        cache.put(c.shapeInfoDataBuffer(), new int[] {1}, "c1", 10);
+        cache.put(c.shapeInfoDataBuffer(), new int[] {0}, "c0", 10);
+        cache.put(f.shapeInfoDataBuffer(), new int[] {1}, "f1", 10);
+
+        // first lookup goes to shared cache, next ones are served by front cache
+        for (int i = 0; i < 3; i++) {
+            assertEquals("c1", cache.get(c.shapeInfoDataBuffer(), new int[] {1}));
+            assertEquals("c0", cache.get(c.shapeInfoDataBuffer(), new int[] {0}));
+            assertEquals("f1", cache.get(f.shapeInfoDataBuffer(), new int[] {1}));
+        }
+        // different array, same shape
+        assertEquals("c1", cache.get(Nd4j.create(new int[] {3, 4}, 'c').shapeInfoDataBuffer(), new int[] {1}));
+
+        assertEquals(3, cache.getHits());
+        assertEquals(7, cache.getFrontHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(3, cache.size());
+        assertEquals(30, cache.getCachedBytes());
+
+        cache.clear();
+        assertNull(cache.get(c.shapeInfoDataBuffer(), new int[] {1}));
+        assertEquals(0, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testArrayKeys() {
+        ShardedShapeCache<String> cache = new ShardedShapeCache<>(100, Long.MAX_VALUE);
+        int[] key = {1, 2};
+        cache.put(key, "12", 8);
+
+        // key is copied
+        key[0] = 5;
+        assertNull(cache.get(key));
+        assertEquals("12", cache.get(new int[] {1, 2}));
+        assertEquals("12", cache.get(new int[] {1, 2}));
+        assertNull(cache.get(new int[] {1}));
+        assertNull(cache.get(new int[] {2, 1}));
+    }
+
+    @Test
+    public void testBounded() {
+        ShardedShapeCache<Integer> cache = new ShardedShapeCache<>(64, Long.MAX_VALUE, 4);
+        for (int i = 0; i < 1000; i++)
+            cache.put(new int[] {i}, i, 4);
+
+        assertTrue(cache.size() <= 64);
+        assertEquals(cache.size() * 4, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final ShardedShapeCache<Integer> cache = new ShardedShapeCache<>(1000, Long.MAX_VALUE);
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        int[] key = {i % 100, 7};
+                        Integer value = cache.get(key);
+                        if (value == null)
+                            cache.put(key, i % 100, 8);
+                        else if (value != i % 100)
+                            failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, failures.get());
+        assertEquals(100, cache.size());
+        // every lookup is counted exactly once, whichever thread made it
+        assertEquals(40000, cache.getFrontHits() + cache.getHits() + cache.getMisses());
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -3,6 +3,7 @@ package org.nd4j.linalg.custom;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.CustomOp;
 import org.nd4j.linalg.api.ops.DynamicCustomOp;
 import org.nd4j.linalg.api.ops.custom.ScatterUpdate;
@@ -253,6 +254,46 @@ public class CustomOpsTests {
         assertArrayEquals(new int[]{5, 2}, shapes.get(0));
     }
 
+    @Test
+    public void testOutputShapes2() {
+        val array0 = Nd4j.create(5, 2);
+        val array1 = Nd4j.create(5, 2);
+
+        CustomOp op = DynamicCustomOp.builder("mergemax")
+                .addInputs(array0, array1)
+                .build();
+
+        // modifying returned shapes must not affect later calls
+        val shapes = op.calculateOutputShape();
+        shapes.get(0)[0] = 7;
+        assertArrayEquals(new int[]{5, 2}, op.calculateOutputShape().get(0));
+
+        // different input shapes, different output shape
+        CustomOp op2 = DynamicCustomOp.builder("mergemax")
+                .addInputs(Nd4j.create(3, 4), Nd4j.create(3, 4))
+                .build();
+        assertArrayEquals(new int[]{3, 4}, op2.calculateOutputShape().get(0));
+    }
+
+    @Test
+    public void testRepeatedExecution() {
+        // argument pointers are reused between calls: number of inputs changes from call to call here
+        for (int i = 2; i < 10; i++) {
+            val inputs = new INDArray[i];
+            for (int e = 0; e < i; e++)
+                inputs[e] = Nd4j.create(3, 3).assign(e);
+
+            val output = Nd4j.create(3, 3);
+            CustomOp op = DynamicCustomOp.builder("mergemax")
+                    .addInputs(inputs)
+                    .addOutputs(output)
+                    .build();
+            Nd4j.getExecutioner().exec(op);
+
+            assertEquals(Nd4j.create(3, 3).assign(i - 1), output);
+        }
+    }
+
 
     @Test
     public void testScatterUpdate1() throws Exception {
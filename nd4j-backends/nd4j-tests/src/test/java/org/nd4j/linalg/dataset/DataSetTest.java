@@ -813,6 +813,26 @@ public class DataSetTest extends BaseNd4jTest {
             assertTrue(ds2.getFeatureMatrix() == ds2.getLabels()); //Expect same object
     }
 
+    @Test
+    public void testSampleWithoutReplacement() {
+        // feature value identifies the example
+        INDArray features = Nd4j.linspace(0, 9, 10).transpose();
+        DataSet ds = new DataSet(features, features.dup());
+
+        DataSet sample = ds.sample(10, Nd4j.getRandom(), false);
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 10; i++)
+            assertTrue(seen.add(sample.getFeatures().getInt(i, 0)));
+        assertEquals(sample.getFeatures(), sample.getLabels());
+
+        try {
+            ds.sample(11, Nd4j.getRandom(), false);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            //OK
+        }
+    }
+
 
     @Override
     public char ordering() {
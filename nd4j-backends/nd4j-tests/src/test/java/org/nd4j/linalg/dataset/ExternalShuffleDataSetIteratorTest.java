@@ -0,0 +1,134 @@
+package org.nd4j.linalg.dataset;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(Parameterized.class)
+public class ExternalShuffleDataSetIteratorTest extends BaseNd4jTest {
+
+    public ExternalShuffleDataSetIteratorTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testGlobalShuffle() throws Exception {
+        File rootDir = Files.createTempDirectory("nd4j-external-shuffle-test").toFile();
+        try {
+            // 10 files of 10 examples each; feature value == global example index
+            for (int i = 0; i < 10; i++) {
+                INDArray features = Nd4j.linspace(i * 10, i * 10 + 9, 10).reshape(10, 1);
+                new DataSet(features, features.dup()).save(new File(rootDir, String.format("dataset-%d.bin", i)));
+            }
+
+            List<Double> first = collect(new ExternalShuffleDataSetIterator(rootDir, 8, 25, 1, 12345));
+            List<Double> second = collect(new ExternalShuffleDataSetIterator(rootDir, 8, 25, 4, 12345));
+
+            // Same seed, different number of readers: identical order
+            assertEquals(first, second);
+
+            // Every example exactly once
+            List<Double> sorted = new ArrayList<>(first);
+            Collections.sort(sorted);
+            assertEquals(100, sorted.size());
+            for (int i = 0; i < 100; i++)
+                assertEquals(i, sorted.get(i), 0.0);
+
+            // Examples are mixed across files
+            assertNotEquals(sorted, first);
+
+            // The next epoch uses a different order
+            ExternalShuffleDataSetIterator iter = new ExternalShuffleDataSetIterator(rootDir, 8, 25, 2, 12345);
+            List<Double> epoch0 = collect(iter);
+            iter.reset();
+            List<Double> epoch1 = collect(iter);
+            assertEquals(first, epoch0);
+            assertEquals(100, epoch1.size());
+            assertNotEquals(epoch0, epoch1);
+
+            // Metadata comes from the file headers
+            assertEquals(100, iter.totalExamples());
+            assertEquals(100, iter.numExamples());
+            assertEquals(1, iter.inputColumns());
+            assertEquals(1, iter.totalOutcomes());
+
+            // Shuffle buffer smaller than a file: examples of several files are still interleaved
+            ExternalShuffleDataSetIterator small = new ExternalShuffleDataSetIterator(rootDir, 8, 5, 2, 12345);
+            DataSet firstBatch = small.next();
+            Set<Integer> sourceFiles = new HashSet<>();
+            for (int i = 0; i < firstBatch.numExamples(); i++)
+                sourceFiles.add((int) firstBatch.getFeatures().getDouble(i) / 10);
+            assertTrue(sourceFiles.size() > 1);
+            List<Double> rest = collect(small);
+            assertEquals(100 - 8, rest.size());
+        } finally {
+            FileUtils.deleteDirectory(rootDir);
+        }
+    }
+
+    @Test
+    public void testEmptyFiles() throws Exception {
+        File rootDir = Files.createTempDirectory("nd4j-external-shuffle-test").toFile();
+        try {
+            new DataSet().save(new File(rootDir, "dataset-0.bin"));
+            new DataSet().save(new File(rootDir, "dataset-1.bin"));
+
+            // only empty files: nothing to iterate over
+            ExternalShuffleDataSetIterator empty = new ExternalShuffleDataSetIterator(rootDir, 8, 25, 2, 12345);
+            assertFalse(empty.hasNext());
+            assertEquals(0, empty.totalExamples());
+            try {
+                empty.next();
+                fail("Expected NoSuchElementException");
+            } catch (NoSuchElementException e) {
+                // expected
+            }
+
+            // empty files between non-empty ones are skipped
+            INDArray features = Nd4j.linspace(0, 9, 10).reshape(10, 1);
+            new DataSet(features, features.dup()).save(new File(rootDir, "dataset-2.bin"));
+            ExternalShuffleDataSetIterator iter = new ExternalShuffleDataSetIterator(rootDir, 4, 25, 2, 12345);
+            assertEquals(10, collect(iter).size());
+            assertFalse(iter.hasNext());
+            assertEquals(10, iter.totalExamples());
+        } finally {
+            FileUtils.deleteDirectory(rootDir);
+        }
+    }
+
+    private static List<Double> collect(ExternalShuffleDataSetIterator iter) {
+        List<Double> values = new ArrayList<>();
+        while (iter.hasNext()) {
+            DataSet ds = iter.next();
+            assertEquals(ds.getFeatures(), ds.getLabels());
+            for (int i = 0; i < ds.numExamples(); i++)
+                values.add(ds.getFeatures().getDouble(i));
+        }
+        return values;
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -5,11 +5,16 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.KFoldIterator;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by susaneraly on 11/4/16.
@@ -87,6 +92,46 @@ public class KFoldIteratorTest extends BaseNd4jTest {
         assertEquals(i, 2);
     }
 
+    @Test
+    public void checkSeededShuffle() {
+        DataSet allData = new randomDataSet(new int[] {2, 3}, new int[] {3, 3, 3, 2}).getAllFolds();
+        KFoldIterator a = new KFoldIterator(4, allData, 123);
+        KFoldIterator b = new KFoldIterator(4, allData, 123);
+        for (int epoch = 0; epoch < 3; epoch++) {
+            a.reset();
+            b.reset();
+            while (a.hasNext()) {
+                assertEquals(a.next(), b.next());
+                assertEquals(a.testFold(), b.testFold());
+            }
+        }
+    }
+
+    @Test
+    public void checkTrainFoldIterator() {
+        randomDataSet randomDS = new randomDataSet(new int[] {2, 3}, new int[] {3, 3, 3, 2});
+        DataSet allData = randomDS.getAllFolds();
+        INDArray originalFeatures = allData.getFeatures().dup();
+        KFoldIterator kiter = new KFoldIterator(4, allData);
+        kiter.reset();
+        while (kiter.hasNext()) {
+            DataSet now = kiter.next();
+
+            List<DataSet> batches = new ArrayList<>();
+            DataSetIterator foldIter = kiter.trainFoldIterator(4);
+            while (foldIter.hasNext()) {
+                DataSet batch = foldIter.next();
+                assertTrue(batch.numExamples() <= 4);
+                batches.add(batch);
+            }
+            DataSet merged = DataSet.merge(batches);
+            assertEquals(now.getFeatures(), merged.getFeatures());
+            assertEquals(now.getLabels(), merged.getLabels());
+        }
+        //Shuffling only permutes indices: the backing data is untouched
+        assertEquals(originalFeatures, allData.getFeatures());
+    }
+
     public class randomDataSet {
         //only one label
         private int[] dataShape;
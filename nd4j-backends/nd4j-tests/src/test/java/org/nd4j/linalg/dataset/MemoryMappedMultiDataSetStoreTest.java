@@ -0,0 +1,115 @@
+package org.nd4j.linalg.dataset;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.TestMultiDataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(Parameterized.class)
+public class MemoryMappedMultiDataSetStoreTest extends BaseNd4jTest {
+
+    public MemoryMappedMultiDataSetStoreTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        Nd4j.getRandom().setSeed(12345);
+        MultiDataSet[] batches = new MultiDataSet[3];
+        for (int i = 0; i < batches.length; i++) {
+            INDArray f0 = Nd4j.rand(4, 3);
+            INDArray f1 = Nd4j.rand(new int[] {4, 2, 5});
+            INDArray l0 = Nd4j.rand(4, 2);
+            INDArray lMask = Nd4j.rand(4, 2);
+            batches[i] = new MultiDataSet(new INDArray[] {f0, f1}, new INDArray[] {l0}, null,
+                            new INDArray[] {lMask});
+        }
+        INDArray expF0 = Nd4j.concat(0, batches[0].getFeatures(0), batches[1].getFeatures(0), batches[2].getFeatures(0));
+        INDArray expF1 = Nd4j.concat(0, batches[0].getFeatures(1), batches[1].getFeatures(1), batches[2].getFeatures(1));
+        INDArray expL0 = Nd4j.concat(0, batches[0].getLabels(0), batches[1].getLabels(0), batches[2].getLabels(0));
+        INDArray expLMask = Nd4j.concat(0, batches[0].getLabelsMaskArray(0), batches[1].getLabelsMaskArray(0),
+                        batches[2].getLabelsMaskArray(0));
+
+        File dir = Files.createTempDirectory("nd4j-mmap-store-test").toFile();
+        try {
+            MemoryMappedMultiDataSetStore.save(new TestMultiDataSetIterator(1, batches), dir);
+
+            // Whole store in one mapping, and split into chunks of 5 examples
+            MemoryMappedMultiDataSetStore[] stores = {new MemoryMappedMultiDataSetStore(dir),
+                            new MemoryMappedMultiDataSetStore(dir, 5 * 10 * Nd4j.sizeOfDataType())};
+            for (MemoryMappedMultiDataSetStore store : stores) {
+                assertEquals(12, store.numExamples());
+
+                MultiDataSet range = store.get(3, 9);
+                assertEquals(rows(expF0, 3, 9), range.getFeatures(0));
+                assertEquals(rows(expF1, 3, 9), range.getFeatures(1));
+                assertEquals(rows(expL0, 3, 9), range.getLabels(0));
+                assertEquals(rows(expLMask, 3, 9), range.getLabelsMaskArray(0));
+                assertNull(range.getFeaturesMaskArrays());
+
+                int[] idx = {11, 0, 5, 5, 7};
+                MultiDataSet gathered = store.get(idx);
+                assertEquals(Nd4j.gather(expF0, 0, idx), gathered.getFeatures(0));
+                assertEquals(Nd4j.gather(expF1, 0, idx), gathered.getFeatures(1));
+                assertEquals(Nd4j.gather(expLMask, 0, idx), gathered.getLabelsMaskArray(0));
+
+                // In-place changes never reach the store
+                range.getFeatures(0).addi(1.0);
+                assertEquals(rows(expF0, 3, 9), store.get(3, 9).getFeatures(0));
+
+                MemoryMappedMultiDataSetIterator iter = new MemoryMappedMultiDataSetIterator(store, 5);
+                int count = 0;
+                while (iter.hasNext()) {
+                    MultiDataSet mds = iter.next();
+                    assertEquals(rows(expL0, count, count + mds.getLabels(0).size(0)), mds.getLabels(0));
+                    count += mds.getLabels(0).size(0);
+                }
+                assertEquals(12, count);
+            }
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testHalfRejected() throws Exception {
+        DataBuffer.Type initialType = Nd4j.dataType();
+        File dir = Files.createTempDirectory("nd4j-mmap-store-test").toFile();
+        try {
+            DataTypeUtil.setDTypeForContext(DataBuffer.Type.HALF);
+            MultiDataSet mds = new MultiDataSet(Nd4j.rand(4, 3), Nd4j.rand(4, 2));
+            MemoryMappedMultiDataSetStore.save(new TestMultiDataSetIterator(1, mds), dir);
+        } finally {
+            DataTypeUtil.setDTypeForContext(initialType);
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    private static INDArray rows(INDArray array, int from, int to) {
+        INDArrayIndex[] indexes = new INDArrayIndex[array.rank()];
+        indexes[0] = NDArrayIndex.interval(from, to);
+        for (int i = 1; i < indexes.length; i++)
+            indexes[i] = NDArrayIndex.all();
+        return array.get(indexes);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -6,10 +6,15 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.ViewIterator;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.ops.transforms.Transforms;
 import org.nd4j.linalg.string.NDArrayStrings;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -140,6 +145,75 @@ public class TestPCA extends BaseNd4jTest {
     }
 
 
+    @Test
+    public void testRandomizedFactor() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray A = correlatedData(2000, 30);
+
+        INDArray exact = PCA.pca_factor(A.dup('f'), 4, true);
+        INDArray randomized = PCA.pca_factor_randomized(A.dup('f'), 4, true);
+        assertArrayEquals(new int[] {30, 4}, randomized.shape());
+        assertSameComponents(exact, randomized, 1e-3);
+
+        // without power iterations the subspace is still found, just less accurately
+        INDArray rough = PCA.pca_factor_randomized(A.dup('f'), 4, true, 10, 0);
+        assertSameComponents(exact, rough, 0.05);
+
+        INDArray reduced = PCA.pca_randomized(A.dup('f'), 4, true);
+        assertArrayEquals(new int[] {2000, 4}, reduced.shape());
+    }
+
+    @Test
+    public void testIncrementalPCA() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray A = correlatedData(2000, 30);
+
+        INDArray centered = A.subRowVector(A.mean(0));
+        INDArray exact = PCA.pca_factor(centered.dup('f'), 4, false);
+        INDArray s = Nd4j.create(30);
+        Nd4j.getBlasWrapper().lapack().gesvd(centered.dup('f'), s, null, Nd4j.create(30, 30, 'f'));
+
+        IncrementalPCA pca = new IncrementalPCA(4)
+                        .fit(new ViewIterator(new DataSet(A, Nd4j.zeros(2000, 1)), 150));
+        assertEquals(2000, pca.getNumSamplesSeen());
+        assertTrue(A.mean(0).equalsWithEps(pca.getMean(), 1e-3));
+        assertSameComponents(exact, pca.getComponents(), 1e-2);
+
+        INDArray expVariance = Transforms.pow(s.get(NDArrayIndex.point(0), NDArrayIndex.interval(0, 4)), 2)
+                        .divi(1999);
+        INDArray variance = pca.getExplainedVariance();
+        for (int i = 0; i < 4; i++)
+            assertEquals(expVariance.getDouble(i), variance.getDouble(i), 0.01 * expVariance.getDouble(i));
+
+        // reconstruction error is close to that of exact PCA
+        INDArray exactReconstructed = centered.mmul(exact).mmul(exact.transpose());
+        INDArray reconstructed = pca.inverseTransform(pca.transform(A));
+        double exactError = exactReconstructed.distance2(centered);
+        double error = reconstructed.distance2(A);
+        assertEquals(exactError, error, 0.01 * exactError);
+    }
+
+    /**
+     * Gaussian data with a few dominant, well separated directions
+     */
+    private static INDArray correlatedData(int rows, int columns) {
+        INDArray A = Nd4j.randn(rows, columns).mmul(Nd4j.randn(columns, columns).muli(0.05));
+        double[] scales = {20, 12, 8, 5};
+        for (int i = 0; i < scales.length; i++)
+            A.addi(Nd4j.randn(rows, 1).mmul(Nd4j.randn(1, columns)).muli(scales[i]));
+        return A.addiRowVector(Nd4j.linspace(1, columns, columns));
+    }
+
+    /**
+     * Checks that columns of both factors span the same directions, up to sign
+     */
+    private static void assertSameComponents(INDArray expected, INDArray actual, double eps) {
+        INDArray overlap = Transforms.abs(expected.transpose().mmul(actual));
+        for (int i = 0; i < expected.columns(); i++)
+            assertEquals(1.0, overlap.getDouble(i, i), eps);
+    }
+
+
     @Override
     public char ordering() {
         return 'f';
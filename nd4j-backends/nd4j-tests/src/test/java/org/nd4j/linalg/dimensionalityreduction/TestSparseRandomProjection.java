@@ -0,0 +1,118 @@
+package org.nd4j.linalg.dimensionalityreduction;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.BaseSparseNDArrayCSR;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.ViewIterator;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.ops.transforms.Transforms;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class TestSparseRandomProjection extends BaseNd4jTest {
+
+    public TestSparseRandomProjection(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testDeterministic() {
+        INDArray data = Nd4j.randn(100, 5000);
+        INDArray res1 = new SparseRandomProjection(50, 42).project(data);
+        INDArray res2 = new SparseRandomProjection(50, 42).project(data.dup('f'));
+        INDArray res3 = new SparseRandomProjection(50, 43).project(data);
+
+        assertArrayEquals(new int[] {100, 50}, res1.shape());
+        assertTrue(res1.equalsWithEps(res2, 1e-4));
+        assertNotEquals(res1, res3);
+    }
+
+    @Test
+    public void testProjectionMatrix() {
+        int features = 5000;
+        int k = 20;
+        double density = 0.1;
+        SparseRandomProjection rp = new SparseRandomProjection(k, density, 12345);
+
+        BaseSparseNDArrayCSR csr = (BaseSparseNDArrayCSR) rp.getProjectionMatrix(features);
+        assertArrayEquals(new int[] {features, k}, csr.shape());
+
+        double[] values = csr.getDoubleValues();
+        double[] columns = csr.getColumns();
+        int[] pointerB = csr.getPointerBArray();
+        int[] pointerE = csr.getPointerEArray();
+        INDArray dense = Nd4j.zeros(features, k);
+        for (int i = 0; i < features; i++)
+            for (int p = pointerB[i]; p < pointerE[i]; p++)
+                dense.putScalar(i, (int) columns[p], values[p]);
+
+        // non-zero elements are +-1/sqrt(density * k), with the requested density
+        double scale = 1.0 / Math.sqrt(density * k);
+        for (double value : values)
+            assertEquals(scale, Math.abs(value), 1e-5);
+        assertEquals(density, values.length / (double) (features * k), 0.01);
+
+        // projection uses the same matrix, including the second block of rows
+        INDArray data = Nd4j.randn(40, features);
+        assertTrue(data.mmul(dense).equalsWithEps(rp.project(data), 1e-3));
+
+        INDArray view = data.get(NDArrayIndex.interval(0, 40, 2), NDArrayIndex.all());
+        assertTrue(view.mmul(dense).equalsWithEps(rp.project(view), 1e-3));
+    }
+
+    @Test
+    public void testEmbedding() {
+        INDArray z1 = Nd4j.randn(500, 10000);
+        INDArray distances = Transforms.allEuclideanDistances(z1, z1.dup(), 1);
+
+        // default density is 1/sqrt(features), i.e. 1%
+        SparseRandomProjection rp = new SparseRandomProjection(0.5, 12345);
+        INDArray zp = rp.project(z1);
+        INDArray projected = Transforms.allEuclideanDistances(zp, zp.dup(), 1);
+
+        INDArray ratios = projected.div(distances);
+        for (int i = 0; i < ratios.length(); i++) {
+            double val = ratios.getDouble(i);
+            // this avoids the NaNs we get along the diagonal
+            if (val == val) {
+                assertTrue(val < 1.5);
+                assertTrue(val > 0.5);
+            }
+        }
+    }
+
+    @Test
+    public void testIterator() {
+        INDArray features = Nd4j.randn(100, 300);
+        INDArray labels = Nd4j.rand(100, 2);
+        SparseRandomProjection rp = new SparseRandomProjection(30, SparseRandomProjection.ACHLIOPTAS_DENSITY, 7);
+        INDArray exp = rp.project(features);
+
+        DataSetIterator iter = rp.project(new ViewIterator(new DataSet(features, labels), 32));
+        assertEquals(30, iter.inputColumns());
+
+        int row = 0;
+        while (iter.hasNext()) {
+            DataSet next = iter.next();
+            int rows = next.numExamples();
+            assertEquals(labels.get(NDArrayIndex.interval(row, row + rows), NDArrayIndex.all()), next.getLabels());
+            assertTrue(exp.get(NDArrayIndex.interval(row, row + rows), NDArrayIndex.all())
+                            .equalsWithEps(next.getFeatures(), 1e-4));
+            row += rows;
+        }
+        assertEquals(100, row);
+    }
+
+    @Override
+    public char ordering() {
+        return 'f';
+    }
+}
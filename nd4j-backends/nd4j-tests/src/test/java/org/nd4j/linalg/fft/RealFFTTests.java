@@ -0,0 +1,106 @@
+package org.nd4j.linalg.fft;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class RealFFTTests extends BaseNd4jTest {
+
+    public RealFFTTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testRfftVector() {
+        INDArray arr = Nd4j.linspace(1, 8, 8);
+        INDArray result = FFT.rfft(arr);
+        INDArray assertion = Nd4j.create(new double[] {36., 0., -4., 9.65685425, -4., 4, -4., 1.65685425, -4., 0.});
+        assertTrue(assertion.equalsWithEps(result, 1e-4));
+
+        assertTrue(arr.equalsWithEps(FFT.irfft(result, 8, 1), 1e-4));
+    }
+
+    @Test
+    public void testAgainstDFT() {
+        for (int n : new int[] {1, 2, 3, 7, 12, 16, 100}) {
+            INDArray arr = Nd4j.randn(3, n);
+            INDArray result = FFT.rfft(arr, 1);
+            assertArrayEquals(new int[] {3, 2 * (n / 2 + 1)}, result.shape());
+
+            for (int r = 0; r < 3; r++) {
+                for (int k = 0; k <= n / 2; k++) {
+                    double re = 0;
+                    double im = 0;
+                    for (int j = 0; j < n; j++) {
+                        double angle = -2 * Math.PI * j * k / n;
+                        re += arr.getDouble(r, j) * Math.cos(angle);
+                        im += arr.getDouble(r, j) * Math.sin(angle);
+                    }
+                    assertEquals(re, result.getDouble(r, 2 * k), 1e-3 * Math.sqrt(n));
+                    assertEquals(im, result.getDouble(r, 2 * k + 1), 1e-3 * Math.sqrt(n));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAlongDimension() {
+        for (char order : new char[] {'c', 'f'}) {
+            INDArray arr = Nd4j.randn(new int[] {5, 6, 7}).dup(order);
+            for (int dimension = 0; dimension < 3; dimension++) {
+                int n = arr.size(dimension);
+                INDArray result = RealFFT.rfft(arr, dimension);
+                assertEquals(2 * (n / 2 + 1), result.size(dimension));
+
+                // each vector along the dimension is transformed separately
+                int[] other = dimension == 0 ? new int[] {1, 2} : dimension == 1 ? new int[] {0, 2} : new int[] {0, 1};
+                for (int i = 0; i < arr.size(other[0]); i++) {
+                    for (int j = 0; j < arr.size(other[1]); j++) {
+                        INDArrayIndex[] indexes = new INDArrayIndex[3];
+                        indexes[dimension] = NDArrayIndex.all();
+                        indexes[other[0]] = NDArrayIndex.point(i);
+                        indexes[other[1]] = NDArrayIndex.point(j);
+
+                        INDArray exp = RealFFT.rfft(arr.get(indexes).dup().reshape(1, n));
+                        INDArray actual = result.get(indexes).dup().reshape(1, exp.length());
+                        assertTrue(exp.equalsWithEps(actual, 1e-4));
+                    }
+                }
+
+                assertTrue(arr.equalsWithEps(RealFFT.irfft(result, n, dimension), 1e-4));
+            }
+        }
+    }
+
+    @Test
+    public void testLargeBatch() {
+        // large enough to be split between threads
+        INDArray arr = Nd4j.randn(200, 1000);
+        INDArray result = RealFFT.rfft(arr);
+        for (int r = 0; r < 200; r += 37)
+            assertTrue(RealFFT.rfft(arr.getRow(r)).equalsWithEps(result.getRow(r), 1e-3));
+
+        assertTrue(arr.equalsWithEps(RealFFT.irfft(result, 1000), 1e-4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIrfftWrongLength() {
+        RealFFT.irfft(Nd4j.create(2, 10), 12, 1);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
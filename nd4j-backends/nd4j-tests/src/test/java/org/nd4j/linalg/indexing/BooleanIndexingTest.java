@@ -12,8 +12,11 @@ import org.nd4j.linalg.api.ops.impl.transforms.comparison.CompareAndSet;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.indexing.conditions.AbsValueGreaterThan;
+import org.nd4j.linalg.indexing.conditions.And;
 import org.nd4j.linalg.indexing.conditions.Condition;
 import org.nd4j.linalg.indexing.conditions.Conditions;
+import org.nd4j.linalg.indexing.conditions.Not;
+import org.nd4j.linalg.indexing.conditions.Or;
 import org.nd4j.linalg.indexing.functions.Value;
 
 import java.util.Arrays;
@@ -497,6 +500,76 @@ public class BooleanIndexingTest extends BaseNd4jTest {
         assertEquals(exp, result);
     }
 
+    @Test
+    public void testMask() {
+        INDArray array = Nd4j.create(new double[] {1, 2, 3, 4, 5, 6}, new int[] {2, 3});
+
+        assertEquals(Nd4j.create(new double[] {0, 0, 1, 1, 1, 1}, new int[] {2, 3}),
+                        BooleanIndexing.mask(array, Conditions.greaterThan(2.5)));
+        assertEquals(Nd4j.create(new double[] {0, 0, 1, 1, 0, 0}, new int[] {2, 3}), BooleanIndexing
+                        .mask(array, new And(Conditions.greaterThan(2.5), Conditions.lessThan(4.5))));
+        assertEquals(Nd4j.create(new double[] {1, 0, 0, 0, 0, 1}, new int[] {2, 3}), BooleanIndexing
+                        .mask(array, new Or(Conditions.lessThan(1.5), Conditions.greaterThan(5.5))));
+        assertEquals(Nd4j.create(new double[] {1, 1, 0, 0, 0, 0}, new int[] {2, 3}),
+                        BooleanIndexing.mask(array, new Not(Conditions.greaterThan(2.5))));
+
+        // views and 'f' ordering keep element positions
+        INDArray f = array.dup('f');
+        assertEquals(BooleanIndexing.mask(array, Conditions.greaterThan(2.5)),
+                        BooleanIndexing.mask(f, Conditions.greaterThan(2.5)));
+        assertEquals(Nd4j.create(new double[] {0, 1, 1}),
+                        BooleanIndexing.mask(array.getRow(0), new Not(Conditions.lessThan(1.5))));
+    }
+
+    @Test
+    public void testCount() {
+        INDArray array = Nd4j.create(new double[] {1, 2, 3, 4, 5, 6}, new int[] {2, 3});
+        Condition between = new And(Conditions.greaterThan(1.5), Conditions.lessThan(5.5));
+
+        assertEquals(4, BooleanIndexing.count(array, between).getInt(0));
+        assertEquals(Nd4j.create(new double[] {2, 2}), BooleanIndexing.count(array, between, 1));
+        assertEquals(Nd4j.create(new double[] {1, 2, 1}), BooleanIndexing.count(array, between, 0));
+
+        assertArrayEquals(new boolean[] {false, false}, BooleanIndexing.and(array, between, 1));
+        assertArrayEquals(new boolean[] {true, true}, BooleanIndexing.or(array, between, 1));
+    }
+
+    @Test
+    public void testSelect() {
+        INDArray array = Nd4j.create(new double[] {1, -2, 3, -4, 5, -6}, new int[] {2, 3});
+
+        assertEquals(Nd4j.create(new double[] {-2, -4, -6}), BooleanIndexing.select(array, Conditions.lessThan(0)));
+        assertEquals(Nd4j.create(new double[] {-2, -4, -6}),
+                        BooleanIndexing.select(array.dup('f'), Conditions.lessThan(0)));
+        assertNull(BooleanIndexing.select(array, Conditions.greaterThan(10)));
+
+        INDArray matrix = Nd4j.create(new double[][] {{1, 2}, {3, Double.NaN}, {5, 6}, {Double.NaN, 8}});
+        INDArray clean = BooleanIndexing.selectRows(matrix,
+                        BooleanIndexing.mask(BooleanIndexing.count(matrix, Conditions.isNan(), 1), Conditions.equals(0)));
+        assertEquals(Nd4j.create(new double[][] {{1, 2}, {5, 6}}), clean);
+    }
+
+    @Test
+    public void testCompoundConditionalAssign() {
+        INDArray array = Nd4j.create(new double[] {1, Double.NaN, 3, Double.POSITIVE_INFINITY, 5});
+        BooleanIndexing.applyWhere(array, new Or(Conditions.isNan(), Conditions.isInfinite()), 0.0);
+        assertEquals(Nd4j.create(new double[] {1, 0, 3, 0, 5}), array);
+
+        INDArray to = Nd4j.create(new double[] {1, 2, 3, 4, 5});
+        INDArray from = Nd4j.create(new double[] {10, 20, 30, 40, 50});
+        BooleanIndexing.replaceWhere(to, from, new Not(Conditions.lessThan(3)));
+        assertEquals(Nd4j.create(new double[] {1, 2, 30, 40, 50}), to);
+
+        INDArray values = Nd4j.create(new double[] {1, 2, 3, 4, 5});
+        BooleanIndexing.applyWhere(values, Conditions.greaterThan(2), new Function<Number, Number>() {
+            @Override
+            public Number apply(Number number) {
+                return number.doubleValue() * 10;
+            }
+        });
+        assertEquals(Nd4j.create(new double[] {1, 2, 30, 40, 50}), values);
+    }
+
     @Test
     public void testEpsEquals1() throws Exception {
         INDArray array = Nd4j.create(new double[] {-1, -1, -1e-8, 1e-8, 1, 1});
@@ -0,0 +1,172 @@
+package org.nd4j.linalg.rng;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.random.impl.BernoulliDistribution;
+import org.nd4j.linalg.api.ops.random.impl.DropOutInverted;
+import org.nd4j.linalg.api.ops.random.impl.GaussianDistribution;
+import org.nd4j.linalg.api.rng.CounterBasedRandom;
+import org.nd4j.linalg.api.rng.distribution.impl.UniformDistribution;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class CounterBasedRandomTests extends BaseNd4jTest {
+
+    public CounterBasedRandomTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testPhiloxKnownAnswers() {
+        // Philox4x32-10 known answer vectors from Random123
+        long[] out = new long[2];
+        CounterBasedRandom.philox(0L, 0L, 0L, out);
+        assertEquals(0x6627e8d5e169c58dL, out[0]);
+        assertEquals(0xbc57ac4c9b00dbd8L, out[1]);
+
+        CounterBasedRandom.philox(-1L, -1L, -1L, out);
+        assertEquals(0x408f276d41c83b0eL, out[0]);
+        assertEquals(0xa20bc7c66d5451fdL, out[1]);
+
+        // counter (243f6a88, 85a308d3, 13198a2e, 03707344), key (a4093822, 299f31d0)
+        CounterBasedRandom.philox(0x299f31d0a4093822L, 0x0370734413198a2eL, 0x85a308d3243f6a88L, out);
+        assertEquals(0xd16cfe0994fdccebL, out[0]);
+        assertEquals(0x5001e42024126ea1L, out[1]);
+
+        // scalar draws use the first half of the block at their position
+        assertEquals(0x6627e8d5e169c58dL, new CounterBasedRandom(0L).nextLong());
+    }
+
+    @Test
+    public void testArrayMatchesSequence() {
+        // large enough to be filled by several threads
+        INDArray arr = new CounterBasedRandom(119).nextGaussian('c', new int[] {300, 400});
+
+        CounterBasedRandom sequential = new CounterBasedRandom(119);
+        for (int i = 0; i < arr.length(); i += 997)
+            assertEquals(arr.getDouble(i), nextGaussianAt(sequential, i), 1e-5);
+    }
+
+    @Test
+    public void testOrderingIndependent() {
+        INDArray c = new CounterBasedRandom(7).nextDouble('c', new int[] {50, 70});
+        INDArray f = new CounterBasedRandom(7).nextDouble('f', new int[] {50, 70});
+        assertEquals('f', f.ordering());
+        assertEquals(c, f);
+
+        // views are filled in 'c' order as well
+        INDArray target = Nd4j.zeros(50, 140).get(NDArrayIndex.all(), NDArrayIndex.interval(0, 140, 2));
+        assertEquals(c, new CounterBasedRandom(7).fillUniform(target, 0.0, 1.0));
+    }
+
+    @Test
+    public void testSkipAndPosition() {
+        CounterBasedRandom rng = new CounterBasedRandom(42);
+        INDArray whole = rng.nextDouble(new int[] {1, 1000});
+        assertEquals(1000, rng.getPosition());
+
+        CounterBasedRandom other = new CounterBasedRandom(42);
+        other.skip(600);
+        INDArray tail = other.nextDouble(new int[] {1, 400});
+        assertEquals(whole.get(NDArrayIndex.all(), NDArrayIndex.interval(600, 1000)), tail);
+
+        other.setPosition(10);
+        assertEquals(whole.getDouble(10), other.nextDouble(), 1e-5);
+    }
+
+    @Test
+    public void testStreams() throws Exception {
+        final CounterBasedRandom rng = new CounterBasedRandom(12345);
+        CounterBasedRandom s1 = rng.stream(1);
+        CounterBasedRandom s2 = rng.stream(2);
+        assertNotEquals(s1.nextLong(), s2.nextLong());
+        assertNotEquals(rng.split().getStream(), rng.split().getStream());
+
+        // concurrent fills from per-thread streams give the same arrays as sequential ones
+        ExecutorService service = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                final long stream = i;
+                futures[i] = service.submit(new Callable<INDArray>() {
+                    @Override
+                    public INDArray call() {
+                        return rng.stream(stream).nextGaussian(new int[] {100, 100});
+                    }
+                });
+            }
+            for (int i = 0; i < futures.length; i++)
+                assertEquals(rng.stream(i).nextGaussian(new int[] {100, 100}), futures[i].get());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void testMoments() {
+        INDArray gaussian = new CounterBasedRandom(1).nextGaussian(new int[] {1000, 1000});
+        assertEquals(0.0, gaussian.meanNumber().doubleValue(), 0.01);
+        assertEquals(1.0, gaussian.stdNumber().doubleValue(), 0.01);
+
+        INDArray uniform = new UniformDistribution(new CounterBasedRandom(1), -2, 4).sample(new int[] {1000, 1000});
+        assertEquals(1.0, uniform.meanNumber().doubleValue(), 0.01);
+        assertTrue(uniform.minNumber().doubleValue() >= -2.0);
+        assertTrue(uniform.maxNumber().doubleValue() < 4.0);
+
+        INDArray ints = new CounterBasedRandom(1).nextInt(10, new int[] {100, 100});
+        assertEquals(0.0, ints.minNumber().doubleValue(), 0.0);
+        assertEquals(9.0, ints.maxNumber().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testRandomOps() {
+        CounterBasedRandom rng = new CounterBasedRandom(3);
+        INDArray gaussian = Nd4j.getExecutioner().exec(new GaussianDistribution(Nd4j.create(500, 500), 5.0, 2.0), rng);
+        assertEquals(5.0, gaussian.meanNumber().doubleValue(), 0.02);
+        assertEquals(2.0, gaussian.stdNumber().doubleValue(), 0.02);
+
+        INDArray ones = Nd4j.ones(500, 500);
+        INDArray dropped = Nd4j.getExecutioner().exec(new DropOutInverted(ones, ones.dup(), 0.8), rng);
+        assertEquals(0.8, dropped.neq(0.0).meanNumber().doubleValue(), 0.01);
+        assertEquals(1.0, dropped.meanNumber().doubleValue(), 0.01);
+        assertEquals(1.25, dropped.maxNumber().doubleValue(), 1e-5);
+    }
+
+    @Test
+    public void testBernoulliProbabilities() {
+        CounterBasedRandom rng = new CounterBasedRandom(5);
+        INDArray scalar = Nd4j.getExecutioner().exec(new BernoulliDistribution(Nd4j.create(500, 500), 0.3), rng);
+        assertEquals(0.3, scalar.meanNumber().doubleValue(), 0.01);
+
+        // first half of rows always succeeds, second half never does
+        INDArray probs = Nd4j.vstack(Nd4j.ones(250, 500), Nd4j.zeros(250, 500));
+        INDArray z = Nd4j.getExecutioner().exec(new BernoulliDistribution(Nd4j.create(500, 500), probs), rng);
+        assertEquals(probs, z);
+
+        INDArray half = Nd4j.valueArrayOf(new int[] {500, 500}, 0.5);
+        INDArray z2 = Nd4j.getExecutioner().exec(new BernoulliDistribution(Nd4j.create(500, 500), half), rng);
+        assertEquals(0.5, z2.meanNumber().doubleValue(), 0.01);
+    }
+
+    private static double nextGaussianAt(CounterBasedRandom rng, long position) {
+        rng.setPosition(position);
+        return rng.nextGaussian();
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
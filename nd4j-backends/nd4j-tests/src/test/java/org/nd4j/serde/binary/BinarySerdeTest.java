@@ -7,10 +7,12 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.UUID;
 
 import static org.junit.Assert.assertArrayEquals;
@@ -67,6 +69,46 @@ public class BinarySerdeTest {
         assertEquals(rand, fromDisk);
     }
 
+    @Test
+    public void testReadWriteChannel() throws Exception {
+        INDArray rand = Nd4j.randn(100, 20);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BinarySerde.writeArray(rand, Channels.newChannel(baos));
+
+        // Same format as toByteBuffer
+        ByteBuffer expected = BinarySerde.toByteBuffer(rand);
+        byte[] expectedBytes = new byte[expected.remaining()];
+        expected.get(expectedBytes);
+        assertArrayEquals(expectedBytes, baos.toByteArray());
+
+        INDArray back = BinarySerde.readArray(Channels.newChannel(new ByteArrayInputStream(baos.toByteArray())));
+        assertEquals(rand, back);
+    }
+
+    @Test
+    public void testStreams() throws Exception {
+        INDArray rand = Nd4j.randn(100, 20);
+        BinarySerdeInputStream in = new BinarySerdeInputStream(rand);
+        ByteBuffer expected = BinarySerde.toByteBuffer(rand);
+        assertEquals(expected.remaining(), in.length());
+
+        // Odd sized chunks, so the header and data are split across writes
+        BinarySerdeOutputStream out = new BinarySerdeOutputStream();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] chunk = new byte[7];
+        int n;
+        while ((n = in.read(chunk, 0, chunk.length)) > 0) {
+            out.write(chunk, 0, n);
+            baos.write(chunk, 0, n);
+        }
+
+        byte[] expectedBytes = new byte[expected.remaining()];
+        expected.get(expectedBytes);
+        assertArrayEquals(expectedBytes, baos.toByteArray());
+        assertTrue(out.isComplete());
+        assertEquals(rand, out.getArray());
+    }
+
     @Test
     public void testReadShapeFile() throws Exception {
         File tmpFile = new File(System.getProperty("java.io.tmpdir"),
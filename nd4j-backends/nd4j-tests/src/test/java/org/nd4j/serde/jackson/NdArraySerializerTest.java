@@ -10,6 +10,7 @@ import org.nd4j.shade.serde.jackson.shaded.NDArrayDeSerializer;
 import org.nd4j.shade.serde.jackson.shaded.NDArraySerializer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by agibsonccc on 6/23/16.
@@ -32,11 +33,36 @@ public class NdArraySerializerTest {
         assertEquals(assertion, test);
     }
 
+    @Test
+    public void testSerdeBinary() throws Exception {
+        ObjectMapper binaryMapper = objectMapper(true);
+        INDArray[] arrays = {Nd4j.create(2, 2), Nd4j.linspace(1, 12, 12).reshape('f', 3, 4),
+                        Nd4j.linspace(1, 12, 12).reshape(3, 4).getColumn(1)};
+        for (INDArray arr : arrays) {
+            String json = binaryMapper.writeValueAsString(arr);
+            assertEquals(arr, binaryMapper.readValue(json, INDArray.class));
+            //Either format can be read by either mapper
+            assertEquals(arr, objectMapper.readValue(json, INDArray.class));
+            assertEquals(arr, binaryMapper.readValue(objectMapper.writeValueAsString(arr), INDArray.class));
+        }
+
+        INDArray arr = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+        INDArray compressed = Nd4j.getCompressor().compress(arr, "GZIP");
+        assertTrue(compressed.isCompressed());
+        INDArray read = binaryMapper.readValue(binaryMapper.writeValueAsString(compressed), INDArray.class);
+        assertTrue(read.isCompressed());
+        assertEquals(arr, Nd4j.getCompressor().decompress(read));
+    }
+
     private static ObjectMapper objectMapper() {
+        return objectMapper(false);
+    }
+
+    private static ObjectMapper objectMapper(boolean binary) {
         ObjectMapper mapper = new ObjectMapper();
         SimpleModule nd4j = new SimpleModule("nd4j");
         nd4j.addDeserializer(INDArray.class, new NDArrayDeSerializer());
-        nd4j.addSerializer(INDArray.class, new NDArraySerializer());
+        nd4j.addSerializer(INDArray.class, new NDArraySerializer(binary));
         mapper.registerModule(nd4j);
         return mapper;
 
@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -80,6 +81,13 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     private static Logger log = LoggerFactory.getLogger(BaseDataBuffer.class);
 
+    // Size of the blocks serialized buffer contents are transferred in
+    private static final int IO_BLOCK_BYTES = 1 << 20;
+    // Written before the allocation mode of serialized buffers with 2^31 - 1 or more elements: their length is a long
+    protected static final String LONG_LENGTH_HEADER = "LONG_LENGTH";
+    // Smallest length written with the long header
+    private static final long LONG_LENGTH_THRESHOLD = Integer.MAX_VALUE;
+
     public BaseDataBuffer() {}
 
     /**
@@ -1272,8 +1280,7 @@ public abstract class BaseDataBuffer implements DataBuffer {
     public void read(DataInputStream s) {
         try {
             //referencing = Collections.synchronizedSet(new HashSet<String>());
-            allocationMode = AllocationMode.valueOf(s.readUTF());
-            length = s.readInt();
+            length = readHeader(s);
             Type currentType = Type.valueOf(s.readUTF());
             if (currentType != Type.COMPRESSED)
                 type = DataTypeUtil.getDtypeFromContext();
@@ -1307,12 +1314,15 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     protected void readContent(DataInputStream s, Type currentType, Type globalType) {
         try {
-            if (currentType == Type.DOUBLE) {
-                for (int i = 0; i < length(); i++) {
+            if (currentType == dataType() && (currentType == Type.DOUBLE || currentType == Type.FLOAT
+                            || currentType == Type.INT)) {
+                readBlocks(s, currentType == Type.DOUBLE ? 8 : 4);
+            } else if (currentType == Type.DOUBLE) {
+                for (long i = 0; i < length(); i++) {
                     putByGlobalType(i, s.readDouble(), globalType);
                 }
             } else if (currentType == Type.FLOAT) {
-                for (int i = 0; i < length(); i++) {
+                for (long i = 0; i < length(); i++) {
                     putByGlobalType(i, s.readFloat(), globalType);
                 }
             } else if (currentType == Type.COMPRESSED) {
@@ -1322,19 +1332,16 @@ public abstract class BaseDataBuffer implements DataBuffer {
                 long numberOfElements = s.readLong();
 
                 // special case here. We should collect bytes, wrap them into pointer, and then decompress
-                byte[] temp = new byte[(int) compressedLength];
-                for (int i = 0; i < compressedLength; i++) {
-                    temp[i] = s.readByte();
-                }
-                pointer = new BytePointer(temp);
+                pointer = new BytePointer(compressedLength);
+                readBlocks(s, pointer, compressedLength, 1);
                 type = Type.COMPRESSED;
 
             } else if (currentType == Type.HALF) {
-                for (int i = 0; i < length(); i++) {
+                for (long i = 0; i < length(); i++) {
                     putByGlobalType(i, toFloat(s.readShort()), globalType);
                 }
             } else {
-                for (int i = 0; i < length(); i++) {
+                for (long i = 0; i < length(); i++) {
                     putByGlobalType(i, s.readInt(), globalType);
                 }
             }
@@ -1345,29 +1352,147 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     @Override
     public void write(DataOutputStream out) throws IOException {
-        if (length() >= Integer.MAX_VALUE)
-            throw new IllegalArgumentException("Length of data buffer can not be >= Integer.MAX_VALUE on output");
+        write(out, LONG_LENGTH_THRESHOLD);
+    }
+
+    /**
+     * Write this buffer, using the long length header for lengths of at least {@code longLengthThreshold}.
+     * Tests use a small threshold, so that the long format can be checked without 2^31 elements
+     */
+    void write(DataOutputStream out, long longLengthThreshold) throws IOException {
         //        log.info("Saving dType: {}", dataType().name());
-        out.writeUTF(allocationMode.name());
-        out.writeInt((int) length());
+        writeHeader(out, allocationMode, length(), longLengthThreshold);
         out.writeUTF(dataType().name());
-        if (dataType() == Type.DOUBLE) {
-            for (int i = 0; i < length(); i++)
-                out.writeDouble(getDouble(i));
-        } else if (dataType() == Type.INT) {
-            for (int i = 0; i < length(); i++)
-                out.writeInt(getInt(i));
+        if (dataType() == Type.DOUBLE || dataType() == Type.FLOAT || dataType() == Type.INT) {
+            writeBlocks(out, dataType() == Type.DOUBLE ? 8 : 4);
         } else if (dataType() == Type.HALF) {
-            for (int i = 0; i < length(); i++) {
+            for (long i = 0; i < length(); i++) {
                 out.writeShort(getShort(i));
             }
         } else {
-            for (int i = 0; i < length(); i++) {
+            for (long i = 0; i < length(); i++) {
                 out.writeFloat(getFloat(i));
             }
         }
     }
 
+    /**
+     * Write the contents of this buffer a block at a time, in the same big endian format as
+     * {@link DataOutputStream#writeInt(int)}/{@link DataOutputStream#writeDouble(double)} etc.
+     * Elements are copied as raw bits, so values (including NaN payloads) are written exactly.
+     */
+    protected void writeBlocks(DataOutputStream out, int elementSize) throws IOException {
+        writeBlocks(out, addressPointer(), length() * elementSize, elementSize);
+    }
+
+    /**
+     * Write {@code bytes} bytes of native memory starting at the address of the pointer, a block at a time.
+     * Elements of the given size are converted to big endian order; for an element size of 1 the bytes are
+     * written as they are
+     */
+    protected static void writeBlocks(DataOutputStream out, Pointer pointer, long bytes, int elementSize)
+                    throws IOException {
+        byte[] block = new byte[(int) Math.min(IO_BLOCK_BYTES, bytes)];
+        ByteBuffer target = ByteBuffer.wrap(block).order(ByteOrder.BIG_ENDIAN);
+        BytePointer source = bytePointer(pointer, bytes);
+        for (long pos = 0; pos < bytes; pos += block.length) {
+            int n = (int) Math.min(block.length, bytes - pos);
+            target.clear();
+            copyElements(source.position(pos).limit(pos + n).asByteBuffer().order(ByteOrder.nativeOrder()), target,
+                            elementSize);
+            out.write(block, 0, n);
+        }
+    }
+
+    /**
+     * Read the contents of this buffer a block at a time, from the format written by {@link #writeBlocks}.
+     * The stream data type must be the same as the data type of this buffer
+     */
+    protected void readBlocks(DataInputStream s, int elementSize) throws IOException {
+        readBlocks(s, addressPointer(), length() * elementSize, elementSize);
+    }
+
+    /**
+     * Read {@code bytes} bytes into native memory starting at the address of the pointer, a block at a time.
+     * See {@link #writeBlocks(DataOutputStream, Pointer, long, int)}
+     */
+    protected static void readBlocks(DataInputStream s, Pointer pointer, long bytes, int elementSize)
+                    throws IOException {
+        byte[] block = new byte[(int) Math.min(IO_BLOCK_BYTES, bytes)];
+        ByteBuffer source = ByteBuffer.wrap(block).order(ByteOrder.BIG_ENDIAN);
+        BytePointer target = bytePointer(pointer, bytes);
+        for (long pos = 0; pos < bytes; pos += block.length) {
+            int n = (int) Math.min(block.length, bytes - pos);
+            s.readFully(block, 0, n);
+            source.clear();
+            source.limit(n);
+            copyElements(source, target.position(pos).limit(pos + n).asByteBuffer().order(ByteOrder.nativeOrder()),
+                            elementSize);
+        }
+    }
+
+    /**
+     * A byte pointer with the same address as the given pointer
+     */
+    private static BytePointer bytePointer(Pointer pointer, long bytes) {
+        final long address = pointer.address();
+        BytePointer ret = new BytePointer() {
+            {
+                this.address = address;
+            }
+        };
+        return ret.capacity(bytes);
+    }
+
+    /**
+     * Copy all remaining elements from source to target, converting between the byte orders of the two buffers
+     */
+    private static void copyElements(ByteBuffer source, ByteBuffer target, int elementSize) {
+        if (elementSize == 8)
+            target.asLongBuffer().put(source.asLongBuffer());
+        else if (elementSize == 4)
+            target.asIntBuffer().put(source.asIntBuffer());
+        else
+            target.put(source);
+    }
+
+    /**
+     * Write the allocation mode and length of a buffer. Lengths that don't fit in an int are written as
+     * {@link #LONG_LENGTH_HEADER}, the allocation mode and a long; other buffers keep the original format
+     * (allocation mode and an int length), so they can still be read by older versions
+     */
+    protected static void writeHeader(DataOutputStream out, AllocationMode allocationMode, long length)
+                    throws IOException {
+        writeHeader(out, allocationMode, length, LONG_LENGTH_THRESHOLD);
+    }
+
+    private static void writeHeader(DataOutputStream out, AllocationMode allocationMode, long length,
+                    long longLengthThreshold) throws IOException {
+        if (length >= longLengthThreshold) {
+            out.writeUTF(LONG_LENGTH_HEADER);
+            out.writeUTF(allocationMode.name());
+            out.writeLong(length);
+        } else {
+            out.writeUTF(allocationMode.name());
+            out.writeInt((int) length);
+        }
+    }
+
+    /**
+     * Read a header written by {@link #writeHeader(DataOutputStream, AllocationMode, long)}, restoring the
+     * allocation mode of this buffer
+     *
+     * @return the length of the serialized buffer
+     */
+    protected long readHeader(DataInputStream s) throws IOException {
+        String mode = s.readUTF();
+        boolean longLength = LONG_LENGTH_HEADER.equals(mode);
+        if (longLength)
+            mode = s.readUTF();
+        allocationMode = AllocationMode.valueOf(mode);
+        return longLength ? s.readLong() : s.readInt();
+    }
+
     public float toFloat(int hbits) {
         int mant = hbits & 0x03ff; // 10 bits mantissa
         int exp = hbits & 0x7c00; // 5 bits exponent
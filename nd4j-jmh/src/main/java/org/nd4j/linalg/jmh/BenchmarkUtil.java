@@ -0,0 +1,45 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Helpers shared by the benchmark states
+ */
+class BenchmarkUtil {
+
+    private BenchmarkUtil() {}
+
+    /**
+     * Set the global data type for this (forked) benchmark JVM
+     */
+    static void setDataType(String dataType) {
+        Nd4j.setDataType(DataBuffer.Type.valueOf(dataType));
+    }
+
+    /**
+     * Parse a shape parameter such as "128x256"
+     */
+    static int[] shape(String shape) {
+        String[] split = shape.split("x");
+        int[] ret = new int[split.length];
+        for (int i = 0; i < split.length; i++)
+            ret[i] = Integer.parseInt(split[i].trim());
+        return ret;
+    }
+
+    /**
+     * A random array of the given shape ("128x256") and order ("c" or "f"), in the current data type
+     */
+    static INDArray rand(String shape, String order) {
+        return Nd4j.rand(order.charAt(0), shape(shape));
+    }
+
+    /**
+     * Wait for any queued or asynchronous operations, so they are included in the measured time
+     */
+    static void sync() {
+        Nd4j.getExecutioner().commit();
+    }
+}
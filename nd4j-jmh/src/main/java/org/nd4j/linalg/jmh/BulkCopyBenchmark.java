@@ -0,0 +1,74 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copying a strided view (half of the columns of a matrix) to and from Java arrays and direct buffers:
+ * bulk copyTo/copyFrom vs element by element loop
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BulkCopyBenchmark {
+    @Param({"256x256", "1024x1024"})
+    public String shape;
+    @Param({"c", "f"})
+    public String order;
+    @Param({"FLOAT"})
+    public String dataType;
+
+    private INDArray view;
+    private float[] array;
+    private FloatBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        INDArray arr = BenchmarkUtil.rand(shape, order);
+        view = arr.get(NDArrayIndex.all(), NDArrayIndex.interval(0, arr.columns() / 2));
+        array = new float[view.length()];
+        buffer = ByteBuffer.allocateDirect(4 * view.length()).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    @Benchmark
+    public float[] copyToLoop() {
+        for (int i = 0; i < array.length; i++)
+            array[i] = view.getFloat(i);
+        return array;
+    }
+
+    @Benchmark
+    public float[] copyTo() {
+        view.copyTo(array, 0);
+        return array;
+    }
+
+    @Benchmark
+    public FloatBuffer copyToDirectBuffer() {
+        buffer.clear();
+        view.copyTo(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public INDArray copyFromLoop() {
+        for (int i = 0; i < array.length; i++)
+            view.putScalar(i, array[i]);
+        return view;
+    }
+
+    @Benchmark
+    public INDArray copyFrom() {
+        return view.copyFrom(array, 0);
+    }
+}
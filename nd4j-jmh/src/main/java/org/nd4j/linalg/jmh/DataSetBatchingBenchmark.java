@@ -0,0 +1,61 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.dataset.DataSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minibatch creation from a {@link DataSet}: splitting into batches, sampling, shuffling and merging
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataSetBatchingBenchmark {
+    @Param({"1000"})
+    public int numExamples;
+    @Param({"100", "784"})
+    public int numFeatures;
+    @Param({"32"})
+    public int batchSize;
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private DataSet dataSet;
+    private List<DataSet> batches;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        dataSet = new DataSet(BenchmarkUtil.rand(numExamples + "x" + numFeatures, "c"),
+                        BenchmarkUtil.rand(numExamples + "x10", "c"));
+        batches = new ArrayList<>(dataSet.batchBy(batchSize));
+    }
+
+    @Benchmark
+    public List<DataSet> batchBy() {
+        return dataSet.batchBy(batchSize);
+    }
+
+    @Benchmark
+    public DataSet sample() {
+        return dataSet.sample(batchSize);
+    }
+
+    @Benchmark
+    public DataSet shuffle() {
+        dataSet.shuffle();
+        BenchmarkUtil.sync();
+        return dataSet;
+    }
+
+    @Benchmark
+    public DataSet merge() {
+        return DataSet.merge(batches);
+    }
+}
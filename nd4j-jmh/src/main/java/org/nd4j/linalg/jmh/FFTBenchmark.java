@@ -0,0 +1,72 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.fft.FFT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fast fourier transform of a real vector, and of a batch of 64 real vectors along the last dimension:
+ * complex array FFT vs real input FFT. Length 1000 isn't a power of two, so real input FFT runs through Bluestein
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FFTBenchmark {
+    @Param({"1000", "1024", "65536"})
+    public int length;
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray arr;
+    private INDArray batch;
+    private INDArray spectrum;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand("1x" + length, "c");
+        batch = BenchmarkUtil.rand("64x" + length, "c");
+        spectrum = FFT.rfft(arr);
+    }
+
+    @Benchmark
+    public IComplexNDArray fft() {
+        IComplexNDArray ret = FFT.fft(arr);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+
+    @Benchmark
+    public INDArray rfft() {
+        INDArray ret = FFT.rfft(arr);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+
+    @Benchmark
+    public INDArray irfft() {
+        INDArray ret = FFT.irfft(spectrum, length, 1);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+
+    @Benchmark
+    public IComplexNDArray fftBatch() {
+        IComplexNDArray ret = FFT.fft(batch, length, 1);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+
+    @Benchmark
+    public INDArray rfftBatch() {
+        INDArray ret = FFT.rfft(batch, 1);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+}
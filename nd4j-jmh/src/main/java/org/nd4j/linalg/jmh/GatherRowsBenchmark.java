@@ -0,0 +1,57 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gathering a shuffled minibatch of rows: single {@link Nd4j#gather(INDArray, int, int...)} op vs one
+ * getRow/putRow pair per row
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GatherRowsBenchmark {
+    @Param({"10000x784"})
+    public String shape;
+    @Param({"256"})
+    public int batchSize;
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray arr;
+    private int[] indexes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand(shape, "c");
+
+        Random r = new Random(12345);
+        indexes = new int[batchSize];
+        for (int i = 0; i < batchSize; i++)
+            indexes[i] = r.nextInt(arr.rows());
+    }
+
+    @Benchmark
+    public INDArray gather() {
+        INDArray ret = Nd4j.gather(arr, 0, indexes);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+
+    @Benchmark
+    public INDArray putRow() {
+        INDArray ret = Nd4j.create(indexes.length, arr.columns());
+        for (int i = 0; i < indexes.length; i++)
+            ret.putRow(i, arr.getRow(indexes[i]));
+        BenchmarkUtil.sync();
+        return ret;
+    }
+}
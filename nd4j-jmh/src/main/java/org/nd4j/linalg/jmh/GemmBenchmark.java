@@ -0,0 +1,50 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matrix multiplication of two square matrices, allocating the result or writing into an existing array
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GemmBenchmark {
+    @Param({"64", "256", "1024"})
+    public int size;
+    @Param({"c", "f"})
+    public String order;
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray a;
+    private INDArray b;
+    private INDArray result;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        a = BenchmarkUtil.rand(size + "x" + size, order);
+        b = BenchmarkUtil.rand(size + "x" + size, order);
+        result = BenchmarkUtil.rand(size + "x" + size, "f");
+    }
+
+    @Benchmark
+    public INDArray mmul() {
+        INDArray ret = a.mmul(b);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+
+    @Benchmark
+    public INDArray mmulInto() {
+        a.mmul(b, result);
+        BenchmarkUtil.sync();
+        return result;
+    }
+}
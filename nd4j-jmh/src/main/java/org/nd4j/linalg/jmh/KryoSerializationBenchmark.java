@@ -0,0 +1,63 @@
+package org.nd4j.linalg.jmh;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.nd4j.Nd4jBinarySerializer;
+import org.nd4j.Nd4jSerializer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kryo round trips of an array: the DataOutputStream based {@link Nd4jSerializer} ("old") and the bulk copying
+ * {@link Nd4jBinarySerializer} ("new")
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class KryoSerializationBenchmark {
+    @Param({"1x10", "1x1000000"})
+    public String shape;
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+    @Param({"old", "new"})
+    public String serializer;
+
+    private INDArray arr;
+    private Kryo kryo;
+    private Output output;
+    private Class<? extends INDArray> arrayClass;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand(shape, "c");
+        arrayClass = Nd4j.getBackend().getNDArrayClass();
+
+        Serializer s = "old".equals(serializer) ? new Nd4jSerializer() : new Nd4jBinarySerializer();
+        kryo = new Kryo();
+        kryo.register(arrayClass, s);
+        output = new Output(4096, -1);
+    }
+
+    @Benchmark
+    public int write() {
+        output.clear();
+        kryo.writeObject(output, arr);
+        return output.position();
+    }
+
+    @Benchmark
+    public INDArray roundTrip() {
+        output.clear();
+        kryo.writeObject(output, arr);
+        return kryo.readObject(new Input(output.getBuffer(), 0, output.position()), arrayClass);
+    }
+}
@@ -0,0 +1,49 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single element get/put by linear index, directly and through a linear view
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LinearViewBenchmark {
+    @Param({"100x100", "10x10x10"})
+    public String shape;
+    @Param({"c", "f"})
+    public String order;
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray arr;
+    private INDArray linearView;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand(shape, order);
+        linearView = arr.linearView();
+    }
+
+    @Benchmark
+    public double getPutScalar() {
+        index = (index + 1) % arr.length();
+        arr.putScalar(index, arr.getDouble(index) + 1.0);
+        return arr.getDouble(index);
+    }
+
+    @Benchmark
+    public double getPutScalarLinearView() {
+        index = (index + 1) % linearView.length();
+        linearView.putScalar(index, linearView.getDouble(index) + 1.0);
+        return linearView.getDouble(index);
+    }
+}
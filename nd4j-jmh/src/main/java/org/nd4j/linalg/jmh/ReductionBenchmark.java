@@ -0,0 +1,51 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full and dimension-wise reductions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReductionBenchmark {
+    @Param({"100x100", "1000x1000", "100000x10"})
+    public String shape;
+    @Param({"c", "f"})
+    public String order;
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray arr;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand(shape, order);
+    }
+
+    @Benchmark
+    public double sumAll() {
+        return arr.sumNumber().doubleValue();
+    }
+
+    @Benchmark
+    public INDArray meanAlongRows() {
+        INDArray ret = arr.mean(0);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+
+    @Benchmark
+    public INDArray meanAlongColumns() {
+        INDArray ret = arr.mean(1);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+}
@@ -0,0 +1,46 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar ops, in place and with a new result array
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScalarBenchmark {
+    @Param({"1000", "1000x1000", "100x100x100"})
+    public String shape;
+    @Param({"c", "f"})
+    public String order;
+    @Param({"FLOAT", "DOUBLE", "HALF"})
+    public String dataType;
+
+    private INDArray arr;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand(shape, order);
+    }
+
+    @Benchmark
+    public INDArray addi() {
+        arr.addi(1.0);
+        BenchmarkUtil.sync();
+        return arr;
+    }
+
+    @Benchmark
+    public INDArray mul() {
+        INDArray ret = arr.mul(2.0);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+}
@@ -0,0 +1,65 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.BinarySerde;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Array serialization: the DataOutputStream based {@link Nd4j#write(INDArray, DataOutputStream)} format and
+ * {@link BinarySerde}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "1000x1000"})
+    public String shape;
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray arr;
+    private byte[] serialized;
+    private ByteBuffer binary;
+    private ByteArrayOutputStream bytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand(shape, "c");
+        bytes = new ByteArrayOutputStream();
+        Nd4j.write(arr, new DataOutputStream(bytes));
+        serialized = bytes.toByteArray();
+        binary = BinarySerde.toByteBuffer(arr);
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        bytes.reset();
+        Nd4j.write(arr, new DataOutputStream(bytes));
+        return bytes.size();
+    }
+
+    @Benchmark
+    public INDArray read() throws IOException {
+        return Nd4j.read(new DataInputStream(new ByteArrayInputStream(serialized)));
+    }
+
+    @Benchmark
+    public ByteBuffer binaryWrite() {
+        return BinarySerde.toByteBuffer(arr);
+    }
+
+    @Benchmark
+    public INDArray binaryRead() {
+        binary.rewind();
+        return BinarySerde.toArray(binary);
+    }
+}
@@ -0,0 +1,49 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.primitives.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tensor along dimension (TAD) creation: shape information lookups through the TAD manager, and TAD views
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TadBenchmark {
+    @Param({"100x100", "32x64x64"})
+    public String shape;
+    @Param({"c", "f"})
+    public String order;
+    @Param({"FLOAT"})
+    public String dataType;
+
+    private INDArray arr;
+    private int lastDimension;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand(shape, order);
+        lastDimension = arr.rank() - 1;
+    }
+
+    @Benchmark
+    public Pair<DataBuffer, DataBuffer> tadShapeInfo() {
+        return Nd4j.getExecutioner().getTADManager().getTADOnlyShapeInfo(arr, lastDimension);
+    }
+
+    @Benchmark
+    public INDArray tensorAlongDimension() {
+        index = (index + 1) % arr.tensorssAlongDimension(lastDimension);
+        return arr.tensorAlongDimension(index, lastDimension);
+    }
+}
@@ -0,0 +1,63 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.primitives.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TAD and constant buffer cache lookups from several threads at once, directly and on the reduce/broadcast path.
+ * Arrays are small, so lookup cost is a significant part of each op. Run with different thread counts (-t)
+ * to see contention on shared caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(4)
+@Fork(1)
+public class TadCacheBenchmark {
+    @Param({"16x32", "8x16x32"})
+    public String shape;
+    @Param({"FLOAT"})
+    public String dataType;
+
+    private INDArray arr;
+    private INDArray row;
+    private INDArray out;
+    private int[] dimension;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand(shape, "c");
+        dimension = new int[] {arr.rank() - 1};
+        row = Nd4j.rand(1, arr.size(arr.rank() - 1));
+        out = arr.dup();
+    }
+
+    @Benchmark
+    public Pair<DataBuffer, DataBuffer> tadShapeInfo() {
+        return Nd4j.getExecutioner().getTADManager().getTADOnlyShapeInfo(arr, dimension);
+    }
+
+    @Benchmark
+    public DataBuffer constantDimensions() {
+        return Nd4j.getConstantHandler().getConstantBuffer(dimension);
+    }
+
+    @Benchmark
+    public INDArray sumAlongDimension() {
+        return arr.sum(dimension);
+    }
+
+    @Benchmark
+    public INDArray broadcastAdd() {
+        return Nd4j.getExecutioner().exec(new BroadcastAddOp(arr, row, out, dimension), dimension);
+    }
+}
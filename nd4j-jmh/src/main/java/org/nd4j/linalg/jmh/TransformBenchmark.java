@@ -0,0 +1,54 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Element-wise transforms, with and without copying the input
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TransformBenchmark {
+    @Param({"1000", "1000x1000"})
+    public String shape;
+    @Param({"c", "f"})
+    public String order;
+    @Param({"FLOAT", "DOUBLE", "HALF"})
+    public String dataType;
+
+    private INDArray arr;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arr = BenchmarkUtil.rand(shape, order);
+    }
+
+    @Benchmark
+    public INDArray sigmoid() {
+        INDArray ret = Transforms.sigmoid(arr, true);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+
+    @Benchmark
+    public INDArray sigmoidInPlace() {
+        INDArray ret = Transforms.sigmoid(arr, false);
+        BenchmarkUtil.sync();
+        return ret;
+    }
+
+    @Benchmark
+    public INDArray addRowVector() {
+        INDArray ret = arr.addiRowVector(arr.getRow(0));
+        BenchmarkUtil.sync();
+        return ret;
+    }
+}
@@ -0,0 +1,67 @@
+package org.nd4j.linalg.jmh;
+
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocating a batch of temporary arrays, with and without a workspace
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WorkspaceBenchmark {
+    private static final String WORKSPACE_ID = "JMH_WORKSPACE";
+
+    @Param({"10x10", "1000x100"})
+    public String shape;
+    @Param({"10"})
+    public int numArrays;
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private int[] arrayShape;
+    private WorkspaceConfiguration configuration;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkUtil.setDataType(dataType);
+        arrayShape = BenchmarkUtil.shape(shape);
+        configuration = WorkspaceConfiguration.builder().initialSize(0).overallocationLimit(0.1)
+                        .policyAllocation(AllocationPolicy.OVERALLOCATE).policyLearning(LearningPolicy.FIRST_LOOP)
+                        .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Nd4j.getWorkspaceManager().destroyAllWorkspacesForCurrentThread();
+    }
+
+    @Benchmark
+    public INDArray allocate() {
+        INDArray last = null;
+        for (int i = 0; i < numArrays; i++)
+            last = Nd4j.create(arrayShape);
+        BenchmarkUtil.sync();
+        return last;
+    }
+
+    @Benchmark
+    public double allocateInWorkspace() {
+        double ret = 0;
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration, WORKSPACE_ID)) {
+            for (int i = 0; i < numArrays; i++)
+                ret += Nd4j.create(arrayShape).getDouble(0);
+        }
+        return ret;
+    }
+}
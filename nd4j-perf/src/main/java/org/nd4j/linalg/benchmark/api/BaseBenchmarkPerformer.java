@@ -9,7 +9,10 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * @author Adam Gibson
+ * @deprecated Use the JMH benchmarks in nd4j-jmh: these include warmup, fork isolation and dead code elimination
+ * protection, and write JSON results that can be compared between releases
  */
+@Deprecated
 public abstract class BaseBenchmarkPerformer implements BenchMarkPerformer {
     protected int nTimes;
     protected long averageTime;
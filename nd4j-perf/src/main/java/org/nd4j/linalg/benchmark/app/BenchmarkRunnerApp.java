@@ -20,7 +20,9 @@ import java.util.concurrent.TimeUnit;
  * You can specify the number of trials to run for each benchmark.
  *
  * @author Adam Gibson
+ * @deprecated Use the JMH benchmarks in nd4j-jmh (org.nd4j.linalg.jmh.BenchmarkRunner)
  */
+@Deprecated
 public class BenchmarkRunnerApp {
     @Option(name = "--nTrials", usage = "Number of trials to run", aliases = "-n")
     private int nTrials = 1000;
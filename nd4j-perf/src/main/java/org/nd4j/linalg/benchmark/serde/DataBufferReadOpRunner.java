@@ -0,0 +1,38 @@
+package org.nd4j.linalg.benchmark.serde;
+
+import org.nd4j.linalg.benchmark.api.OpRunner;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Deserializes a 64M element array with {@link Nd4j#read(DataInputStream)}
+ */
+public class DataBufferReadOpRunner implements OpRunner {
+    byte[] bytes = serialize();
+
+
+    @Override
+    public void runOp() {
+        try {
+            Nd4j.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static byte[] serialize() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(baos)) {
+            Nd4j.write(Nd4j.rand(1, DataBufferWriteOpRunner.LENGTH), dos);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return baos.toByteArray();
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.nd4j.linalg.benchmark.serde;
+
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkPerformer;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+public class DataBufferWriteBenchmarkPerformer extends BaseBenchmarkPerformer {
+
+    public DataBufferWriteBenchmarkPerformer(int nTimes) {
+        super(new DataBufferWriteOpRunner(), nTimes);
+    }
+
+    @Override
+    public long run(Nd4jBackend backend) {
+        long time = super.run(backend);
+        double bytes = (double) Nd4j.sizeOfDataType() * DataBufferWriteOpRunner.LENGTH;
+        System.out.println(String.format("Write: %.2f GB/s", bytes / time));
+        return time;
+    }
+
+}
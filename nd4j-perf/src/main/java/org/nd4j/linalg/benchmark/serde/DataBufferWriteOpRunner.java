@@ -0,0 +1,28 @@
+package org.nd4j.linalg.benchmark.serde;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.OpRunner;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Serializes a 64M element array with {@link Nd4j#write(INDArray, DataOutputStream)}
+ */
+public class DataBufferWriteOpRunner implements OpRunner {
+    static final int LENGTH = 64 * 1024 * 1024;
+    INDArray arr = Nd4j.rand(1, LENGTH);
+
+
+    @Override
+    public void runOp() {
+        try {
+            Nd4j.write(arr, new DataOutputStream(new NullOutputStream()));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -1,25 +1,50 @@
 package org.nd4j.shade.serde.jackson.shaded;
 
-import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.serde.base64.Nd4jBase64;
 import org.nd4j.shade.jackson.core.JsonParser;
+import org.nd4j.shade.jackson.core.JsonToken;
 import org.nd4j.shade.jackson.databind.DeserializationContext;
 import org.nd4j.shade.jackson.databind.JsonDeserializer;
-import org.nd4j.shade.jackson.databind.JsonNode;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.serde.base64.Nd4jBase64;
+import org.nd4j.serde.binary.BinarySerdeOutputStream;
 
 import java.io.IOException;
 
 /**
+ * Deserializes arrays written by {@link NDArraySerializer}, in either mode.
+ * The parser is read as a stream: binary values are decoded directly into the array's (off-heap) buffer.
+ *
  * @author Adam Gibson
  */
 
 public class NDArrayDeSerializer extends JsonDeserializer<INDArray> {
+    static final String BASE64_FIELD = "array";
+    static final String BINARY_FIELD = "binary";
+
     @Override
     public INDArray deserialize(JsonParser jp, DeserializationContext deserializationContext) throws IOException {
-        JsonNode node = jp.getCodec().readTree(jp);
-        String field = node.get("array").asText();
-        INDArray ret = Nd4jBase64.fromBase64(field.toString());
-        return ret;
+        JsonToken token = jp.getCurrentToken();
+        if (token == JsonToken.START_OBJECT)
+            token = jp.nextToken();
 
+        INDArray ret = null;
+        for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            jp.nextToken();
+            if (BASE64_FIELD.equals(field)) {
+                ret = Nd4jBase64.fromBase64(jp.getText());
+            } else if (BINARY_FIELD.equals(field)) {
+                BinarySerdeOutputStream stream = new BinarySerdeOutputStream();
+                jp.readBinaryValue(stream);
+                ret = stream.getArray();
+            } else {
+                jp.skipChildren();
+            }
+        }
+
+        if (ret == null)
+            throw deserializationContext.mappingException("No \"" + BASE64_FIELD + "\" or \"" + BINARY_FIELD
+                            + "\" field found for INDArray");
+        return ret;
     }
 }
@@ -1,26 +1,54 @@
 package org.nd4j.shade.serde.jackson.shaded;
 
 
-import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.serde.base64.Nd4jBase64;
 import org.nd4j.shade.jackson.core.JsonGenerator;
 import org.nd4j.shade.jackson.databind.JsonSerializer;
 import org.nd4j.shade.jackson.databind.SerializerProvider;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.serde.base64.Nd4jBase64;
+import org.nd4j.serde.binary.BinarySerdeInputStream;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 /**
+ * Serializes an INDArray as an object with a single field.
+ * By default, this is the base64 encoded {@link org.nd4j.linalg.factory.Nd4j#write} representation of the array
+ * in field "array".<br>
+ * In binary mode, the {@link org.nd4j.serde.binary.BinarySerde} representation is streamed via
+ * {@link JsonGenerator#writeBinary(java.io.InputStream, int)} in field "binary": binary formats such as Smile or
+ * CBOR store the raw bytes, and text JSON gets base64 without building an intermediate String.
+ * {@link NDArrayDeSerializer} reads both.
+ *
  * @author Adam Gibson
  */
 public class NDArraySerializer extends JsonSerializer<INDArray> {
+    private final boolean binary;
+
+    public NDArraySerializer() {
+        this(false);
+    }
+
+    /**
+     * @param binary if true, stream the array via {@link JsonGenerator#writeBinary(java.io.InputStream, int)}
+     */
+    public NDArraySerializer(boolean binary) {
+        this.binary = binary;
+    }
+
     @Override
     public void serialize(INDArray indArray, JsonGenerator jsonGenerator, SerializerProvider serializerProvider)
                     throws IOException {
-        String toBase64 = Nd4jBase64.base64String(indArray);
         jsonGenerator.writeStartObject();
-        jsonGenerator.writeStringField("array", toBase64);
+        if (binary) {
+            BinarySerdeInputStream stream = new BinarySerdeInputStream(indArray);
+            if (stream.length() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Array is too large to serialize as a single binary value");
+            jsonGenerator.writeFieldName(NDArrayDeSerializer.BINARY_FIELD);
+            jsonGenerator.writeBinary(stream, (int) stream.length());
+        } else {
+            String toBase64 = Nd4jBase64.base64String(indArray);
+            jsonGenerator.writeStringField(NDArrayDeSerializer.BASE64_FIELD, toBase64);
+        }
         jsonGenerator.writeEndObject();
     }
 }
@@ -0,0 +1,224 @@
+package org.nd4j;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
+import com.esotericsoftware.kryo.io.ByteBufferOutput;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.compression.CompressionType;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A Kryo serializer for INDArrays that copies the raw (off-heap) array data directly into Kryo's buffer, instead of
+ * going through {@link Nd4j#write(INDArray, java.io.DataOutputStream)} one element at a time like
+ * {@link Nd4jSerializer}.<br>
+ * The layout follows {@link org.nd4j.serde.binary.BinarySerde}: rank, data type and shape information, followed by
+ * the data in native byte order. On read, the data is copied straight into a newly allocated off-heap buffer.
+ * <p>
+ * Optionally, arrays of at least {@code minCompressionLength} elements are compressed with the given
+ * {@link org.nd4j.linalg.compression.BasicNDArrayCompressor} algorithm (for example "GZIP"). The compressed form is
+ * only used if it is smaller.
+ * <p>
+ * The serialized form is not compatible with {@link Nd4jSerializer}. See {@link Nd4jBinaryRegistrator}.
+ */
+public class Nd4jBinarySerializer extends Serializer<INDArray> {
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    // Largest region of native memory wrapped as a single ByteBuffer
+    private static final int BLOCK_BYTES = 1 << 26;
+
+    private final String compressionAlgorithm;
+    private final long minCompressionLength;
+
+    /**
+     * Serializer without compression
+     */
+    public Nd4jBinarySerializer() {
+        this(null, 0);
+    }
+
+    /**
+     * @param compressionAlgorithm name of the compression algorithm to use; null for no compression
+     * @param minCompressionLength arrays with fewer elements than this are never compressed
+     */
+    public Nd4jBinarySerializer(String compressionAlgorithm, long minCompressionLength) {
+        this.compressionAlgorithm = compressionAlgorithm;
+        this.minCompressionLength = minCompressionLength;
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, INDArray object) {
+        INDArray arr = object;
+        if (arr.isCompressed())
+            arr = Nd4j.getCompressor().decompress(arr);
+        else if (arr.isView())
+            arr = arr.dup();
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(arr, AffinityManager.Location.HOST);
+
+        output.writeBoolean(LITTLE_ENDIAN);
+        DataBuffer shapeInfo = arr.shapeInfoDataBuffer();
+        output.writeInt(arr.rank());
+
+        INDArray compressed = null;
+        if (compressionAlgorithm != null && arr.lengthLong() >= minCompressionLength) {
+            compressed = Nd4j.getCompressor().compress(arr, compressionAlgorithm);
+            if (!compressed.isCompressed() || ((CompressedDataBuffer) compressed.data()).getCompressionDescriptor()
+                            .getCompressedLength() >= arr.data().length() * arr.data().getElementSize())
+                compressed = null;
+        }
+
+        output.writeInt(compressed != null ? DataBuffer.Type.COMPRESSED.ordinal() : arr.data().dataType().ordinal());
+        for (int i = 0; i < Shape.shapeInfoLength(arr.rank()); i++)
+            output.writeInt(shapeInfo.getInt(i));
+
+        if (compressed != null) {
+            CompressedDataBuffer data = (CompressedDataBuffer) compressed.data();
+            CompressionDescriptor descriptor = data.getCompressionDescriptor();
+            output.writeInt(descriptor.getCompressionType().ordinal());
+            output.writeString(descriptor.getCompressionAlgorithm());
+            output.writeLong(descriptor.getOriginalLength());
+            output.writeLong(descriptor.getCompressedLength());
+            output.writeLong(descriptor.getNumberOfElements());
+            output.writeLong(descriptor.getOriginalElementSize());
+            writeNative(output, data.pointer().address(), descriptor.getCompressedLength());
+        } else {
+            writeNative(output, arr.data().addressPointer().address(),
+                            arr.data().length() * arr.data().getElementSize());
+        }
+        //Note: output should NOT be closed manually here - may be needed elsewhere
+    }
+
+    @Override
+    public INDArray read(Kryo kryo, Input input, Class<INDArray> type) {
+        if (input.readBoolean() != LITTLE_ENDIAN)
+            throw new KryoException("INDArray was serialized with a different byte order");
+
+        int rank = input.readInt();
+        DataBuffer.Type dataType = DataBuffer.Type.values()[input.readInt()];
+        int shapeInfoLength = Shape.shapeInfoLength(rank);
+        int[] shapeInfo = new int[shapeInfoLength];
+        for (int i = 0; i < shapeInfoLength; i++)
+            shapeInfo[i] = input.readInt();
+        DataBuffer shapeBuffer = Nd4j.createBufferDetached(shapeInfo);
+        long length = Shape.lengthLong(shapeBuffer);
+
+        DataBuffer data;
+        if (dataType == DataBuffer.Type.COMPRESSED) {
+            CompressionDescriptor descriptor = new CompressionDescriptor();
+            descriptor.setCompressionType(CompressionType.values()[input.readInt()]);
+            descriptor.setCompressionAlgorithm(input.readString());
+            descriptor.setOriginalLength(input.readLong());
+            descriptor.setCompressedLength(input.readLong());
+            descriptor.setNumberOfElements(input.readLong());
+            descriptor.setOriginalElementSize(input.readLong());
+
+            BytePointer pointer = new BytePointer(descriptor.getCompressedLength());
+            readNative(input, pointer.address(), descriptor.getCompressedLength());
+            data = Nd4j.getCompressor().decompress(new CompressedDataBuffer(pointer, descriptor));
+        } else {
+            switch (dataType) {
+                case DOUBLE:
+                    data = Nd4j.getDataBufferFactory().createDouble(length, false);
+                    break;
+                case FLOAT:
+                    data = Nd4j.getDataBufferFactory().createFloat(length, false);
+                    break;
+                case HALF:
+                    data = Nd4j.getDataBufferFactory().createHalf(length, false);
+                    break;
+                case INT:
+                    data = Nd4j.getDataBufferFactory().createInt(length, false);
+                    break;
+                default:
+                    throw new KryoException("Unsupported data type: " + dataType);
+            }
+            readNative(input, data.addressPointer().address(), length * data.getElementSize());
+            Nd4j.getAffinityManager().tagLocation(data, AffinityManager.Location.HOST);
+        }
+
+        return Nd4j.createArrayFromShapeBuffer(data, shapeBuffer);
+    }
+
+    /**
+     * Copy native memory into Kryo's buffer, a buffer-full at a time
+     */
+    private static void writeNative(Output output, long address, long bytes) {
+        byte[] chunk = null;
+        for (long pos = 0; pos < bytes; pos += BLOCK_BYTES) {
+            ByteBuffer source = window(address, pos, (int) Math.min(BLOCK_BYTES, bytes - pos));
+            while (source.hasRemaining()) {
+                if (output instanceof ByteBufferOutput) {
+                    // No access to the underlying array: go through a temporary one
+                    if (chunk == null)
+                        chunk = new byte[(int) Math.min(bytes, 1 << 16)];
+                    int n = Math.min(chunk.length, source.remaining());
+                    source.get(chunk, 0, n);
+                    output.writeBytes(chunk, 0, n);
+                    continue;
+                }
+
+                int room = output.getBuffer().length - output.position();
+                if (room == 0) {
+                    // Let Kryo flush or grow its buffer
+                    output.writeByte(source.get());
+                    continue;
+                }
+                int n = Math.min(room, source.remaining());
+                source.get(output.getBuffer(), output.position(), n);
+                output.setPosition(output.position() + n);
+            }
+        }
+    }
+
+    /**
+     * Copy bytes from Kryo's buffer into native memory, a buffer-full at a time
+     */
+    private static void readNative(Input input, long address, long bytes) {
+        byte[] chunk = null;
+        for (long pos = 0; pos < bytes; pos += BLOCK_BYTES) {
+            ByteBuffer target = window(address, pos, (int) Math.min(BLOCK_BYTES, bytes - pos));
+            while (target.hasRemaining()) {
+                if (input instanceof ByteBufferInput) {
+                    if (chunk == null)
+                        chunk = new byte[(int) Math.min(bytes, 1 << 16)];
+                    int n = Math.min(chunk.length, target.remaining());
+                    input.readBytes(chunk, 0, n);
+                    target.put(chunk, 0, n);
+                    continue;
+                }
+
+                int available = input.limit() - input.position();
+                if (available == 0) {
+                    // Let Kryo refill its buffer
+                    target.put(input.readByte());
+                    continue;
+                }
+                int n = Math.min(available, target.remaining());
+                target.put(input.getBuffer(), input.position(), n);
+                input.setPosition(input.position() + n);
+            }
+        }
+    }
+
+    private static ByteBuffer window(final long address, long offset, int length) {
+        BytePointer pointer = new BytePointer() {
+            {
+                this.address = address;
+            }
+        };
+        return pointer.capacity(offset + length).position(offset).limit(offset + length).asByteBuffer();
+    }
+}
@@ -0,0 +1,66 @@
+package org.nd4j;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestNd4jBinarySerializer {
+
+    @Test
+    public void testRoundTrip() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray large = Nd4j.rand(300, 1000);
+        INDArray[] arrays = {Nd4j.scalar(3.0), Nd4j.linspace(1, 10, 10), Nd4j.rand('f', new int[] {3, 4, 5}),
+                        large.get(NDArrayIndex.interval(10, 20), NDArrayIndex.all()), large};
+
+        Serializer[] serializers = {new Nd4jBinarySerializer(), new Nd4jBinarySerializer("GZIP", 1000)};
+        for (Serializer serializer : serializers) {
+            Kryo kryo = new Kryo();
+            kryo.register(Nd4j.getBackend().getNDArrayClass(), serializer);
+            for (INDArray arr : arrays) {
+                // Small buffer: data has to be split across several flushes and refills
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                Output output = new Output(baos, 1024);
+                kryo.writeObject(output, arr);
+                output.close();
+
+                Input input = new Input(new ByteArrayInputStream(baos.toByteArray()), 1000);
+                INDArray restored = kryo.readObject(input, Nd4j.getBackend().getNDArrayClass());
+                assertEquals(arr, restored);
+                assertEquals(arr.ordering(), restored.ordering());
+            }
+        }
+    }
+
+    @Test
+    public void testDataTypes() {
+        DataBuffer.Type initialType = Nd4j.dataType();
+        try {
+            for (DataBuffer.Type type : new DataBuffer.Type[] {DataBuffer.Type.HALF, DataBuffer.Type.DOUBLE}) {
+                Nd4j.setDataType(type);
+                INDArray arr = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+
+                Kryo kryo = new Kryo();
+                kryo.register(Nd4j.getBackend().getNDArrayClass(), new Nd4jBinarySerializer());
+                Output output = new Output(64, -1);
+                kryo.writeObject(output, arr);
+                INDArray restored = kryo.readObject(new Input(output.toBytes()), Nd4j.getBackend().getNDArrayClass());
+                assertEquals(type, restored.data().dataType());
+                assertEquals(arr, restored);
+            }
+        } finally {
+            Nd4j.setDataType(initialType);
+        }
+    }
+}